@@ -18,6 +18,12 @@ public class Main {
     private static final double DISKON = 0.10; // 10%
     private static final double BATAS_BOGOF = 50000.0;
 
+    // Promo disusun sekali; ambang "lebih dari" berarti minimal satu sen di atas batas
+    private static final MesinPromo PROMO = new MesinPromo.Penyusun()
+        .persenAmbang("Diskon 10%", Math.round(DISKON * MesinPromo.BASIS_POIN_PENUH), keSen(BATAS_DISKON) + 1)
+        .bonusTermurah("Beli 1 Gratis 1", "minuman", 1, keSen(BATAS_BOGOF) + 1)
+        .susun();
+
     /**
      * Inner class untuk menyimpan data pesanan
      */
@@ -225,10 +231,13 @@ public class Main {
         System.out.println("\n=== DETAIL PEMBAYARAN ===");
         System.out.println("Pesanan Anda:");
 
-        // Tampilkan detail pesanan
+        // Tampilkan detail pesanan sekaligus kumpulkan baris untuk evaluasi promo
+        MesinPromo.Evaluasi evaluasiPromo = PROMO.mulai();
         for (Pesanan pesanan : daftarPesanan) {
             System.out.println("- " + pesanan);
             subtotal += pesanan.getTotal();
+            evaluasiPromo.tambah(pesanan.menu.getNama(), pesanan.menu.getKategori(),
+                keSen(pesanan.hargaSatuan), pesanan.jumlah);
         }
 
         // Hitung pajak
@@ -237,32 +246,9 @@ public class Main {
         // Hitung total sebelum diskon
         double totalSebelumDiskon = subtotal + pajak + BIAYA_PELAYANAN;
 
-        // Cek diskon
-        double diskonHarga = 0;
-        String infoDiskon = "";
-
-        if (totalSebelumDiskon > BATAS_DISKON) {
-            diskonHarga = totalSebelumDiskon * DISKON;
-            infoDiskon = String.format("Diskon 10%%: -Rp%.2f", diskonHarga);
-        }
-
-        // Cek penawaran BOGO untuk minuman
-        String infoBogo = "";
-        if (totalSebelumDiskon > BATAS_BOGOF) {
-            // Cari minuman termurah untuk BOGO
-            Menu minumanTermurah = null;
-            for (Pesanan pesanan : daftarPesanan) {
-                if (pesanan.menu.getKategori().equals("minuman")) {
-                    if (minumanTermurah == null || pesanan.menu.getHarga() < minumanTermurah.getHarga()) {
-                        minumanTermurah = pesanan.menu;
-                    }
-                }
-            }
-
-            if (minumanTermurah != null) {
-                infoBogo = String.format("Bonus: %s (Beli 1 Gratis 1)", minumanTermurah.getNama());
-            }
-        }
+        // Cek diskon dan penawaran BOGO minuman termurah
+        MesinPromo.HasilPromo promo = evaluasiPromo.selesai(keSen(totalSebelumDiskon));
+        double diskonHarga = promo.getTotalPotonganSen() / 100.0;
 
         // Hitung total akhir
         double totalAkhir = totalSebelumDiskon - diskonHarga;
@@ -282,16 +268,18 @@ public class Main {
         System.out.printf("%-35s %8.2f%n", "Pajak (10%):", pajak);
         System.out.printf("%-35s %8.2f%n", "Biaya Pelayanan:", BIAYA_PELAYANAN);
 
-        if (!infoDiskon.isEmpty()) {
-            System.out.printf("%-35s %8.2f%n", "Diskon 10%:", -diskonHarga);
+        for (int i = 0; i < promo.getJumlahPotongan(); i++) {
+            System.out.printf("%-35s %8.2f%n", promo.getNamaPotongan(i) + ":", -promo.getPotonganSen(i) / 100.0);
         }
 
         System.out.println("=".repeat(50));
         System.out.printf("%-35s %8.2f%n", "TOTAL PEMBAYARAN:", totalAkhir);
 
-        if (!infoBogo.isEmpty()) {
+        if (!promo.getBonus().isEmpty()) {
             System.out.println("\nPenawaran Spesial:");
-            System.out.println("  " + infoBogo);
+            for (MesinPromo.Bonus bonus : promo.getBonus()) {
+                System.out.printf("  Bonus: %s (%s)%n", bonus.getNamaItem(), bonus.getNamaPromo());
+            }
         }
         System.out.println("=".repeat(50));
 
@@ -427,6 +415,13 @@ public class Main {
         }
     }
 
+    /**
+     * Mengonversi Rupiah ke sen untuk perhitungan promo
+     */
+    private static long keSen(double rupiah) {
+        return Math.round(rupiah * 100);
+    }
+
     /**
      * Mencari menu berdasarkan ID
      */
@@ -0,0 +1,78 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Kelas BerkasAtomik untuk mengganti isi file secara atomik dan tahan crash.
+ * Isi baru ditulis ke file sementara di direktori yang sama, di-fsync, lalu
+ * di-rename menimpa file lama. Pembaca (atau proses yang mulai ulang setelah
+ * mati listrik) selalu melihat file lama utuh atau file baru utuh, tidak pernah
+ * file yang terpotong.
+ */
+public final class BerkasAtomik {
+    private static final String AKHIRAN_SEMENTARA = ".tmp";
+
+    /**
+     * Interface Isi untuk menulis isi file ke stream
+     */
+    public interface Isi {
+        void tulisKe(OutputStream out) throws IOException;
+    }
+
+    private BerkasAtomik() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    /**
+     * Metode untuk mengganti isi file secara atomik
+     * @param namaFile Nama file tujuan
+     * @param isi Penulis isi file
+     * @throws IOException jika penulisan gagal; file lama tetap utuh
+     */
+    public static void tulis(String namaFile, Isi isi) throws IOException {
+        Path tujuan = Paths.get(namaFile).toAbsolutePath();
+        Path sementara = tujuan.resolveSibling(tujuan.getFileName() + AKHIRAN_SEMENTARA);
+        boolean berhasil = false;
+        try {
+            try (FileOutputStream fos = new FileOutputStream(sementara.toFile())) {
+                isi.tulisKe(fos);
+                fos.flush();
+                fos.getChannel().force(true); // Isi harus sampai ke disk sebelum rename
+            }
+            try {
+                Files.move(sementara, tujuan, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(sementara, tujuan, StandardCopyOption.REPLACE_EXISTING);
+            }
+            berhasil = true;
+        } finally {
+            if (!berhasil) {
+                Files.deleteIfExists(sementara);
+            }
+        }
+        sinkronkanDirektori(tujuan.getParent());
+    }
+
+    /**
+     * Metode untuk memastikan entri direktori (hasil rename/buat file) tersimpan ke disk.
+     * Tidak semua sistem operasi mengizinkan direktori dibuka; jika gagal, diabaikan.
+     * @param direktori Direktori yang disinkronkan
+     */
+    static void sinkronkanDirektori(Path direktori) {
+        if (direktori == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(direktori, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Misalnya di Windows; rename tetap atomik, hanya durabilitas entri direktori yang tidak dijamin
+        }
+    }
+}
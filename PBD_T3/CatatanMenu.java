@@ -0,0 +1,120 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Kelas CatatanMenu berisi menu item pada MenuRestoran beserta nilai yang dipakai
+ * untuk mengindeksnya. Indeks menyimpan catatan, bukan item langsung, agar kunci setiap
+ * entri tidak ikut berubah ketika setter item dipanggil: catatan lama (misalnya dengan
+ * kategori lama) tetap dapat ditemukan dan dihapus, dan snapshot lama tetap konsisten.
+ */
+final class CatatanMenu {
+    // Urutan tampil pada daftar menu
+    static final Comparator<CatatanMenu> URUTAN = (a, b) -> Long.compare(a.urutan, b.urutan);
+    // Kategori (huruf kecil), lalu urutan tampil di dalam kategori yang sama
+    static final Comparator<CatatanMenu> KATEGORI = (a, b) -> {
+        int c = a.kunciKategori.compareTo(b.kunciKategori);
+        return c != 0 ? c : Long.compare(a.urutan, b.urutan);
+    };
+    // Harga, lalu urutan tampil untuk harga yang sama
+    static final Comparator<CatatanMenu> HARGA = (a, b) -> {
+        int c = Long.compare(a.hargaSen, b.hargaSen);
+        return c != 0 ? c : Long.compare(a.urutan, b.urutan);
+    };
+    // Nama tanpa membedakan huruf besar/kecil, lalu urutan tampil
+    static final Comparator<CatatanMenu> NAMA = (a, b) -> {
+        int c = String.CASE_INSENSITIVE_ORDER.compare(a.nama, b.nama);
+        return c != 0 ? c : Long.compare(a.urutan, b.urutan);
+    };
+
+    final MenuItem item;
+    // Naik untuk setiap item yang ditambahkan, diberi ulang saat daftar menu diurutkan
+    final long urutan;
+    // Nomor slot item pada IndeksAtributMenu, tetap selama item ada di menu
+    final int slot;
+    final String nama;
+    final String kunciNama;
+    final long hargaSen;
+    final String kunciKategori;
+    final String[] kunciAtribut;
+
+    /**
+     * Constructor untuk kelas CatatanMenu dari nilai item saat ini
+     * @param item MenuItem yang dicatat
+     * @param urutan Urutan tampil item pada daftar menu
+     * @param slot Nomor slot item pada indeks atribut
+     */
+    CatatanMenu(MenuItem item, long urutan, int slot) {
+        this.item = item;
+        this.urutan = urutan;
+        this.slot = slot;
+        this.nama = item.getNama();
+        this.kunciNama = MenuRestoran.kunciNama(nama);
+        this.hargaSen = item.getHargaSen();
+        this.kunciKategori = MenuRestoran.kunciNama(item.getKategori());
+        ArrayList<String> atribut = new ArrayList<>(6);
+        item.isiAtribut(atribut);
+        this.kunciAtribut = atribut.toArray(new String[0]);
+    }
+
+    /**
+     * Metode untuk mendapatkan tampilan item dari list catatan tanpa menyalin
+     * @param daftar List catatan yang tidak berubah
+     * @return List read-only berisi item setiap catatan
+     */
+    static <E extends MenuItem> List<E> daftarItem(List<CatatanMenu> daftar) {
+        return new DaftarItem<>(daftar);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CatatanMenu[urutan=%d, item=%s]", urutan, item.getNama());
+    }
+
+    /**
+     * Inner class DaftarItem untuk List read-only item di atas list catatan
+     */
+    private static final class DaftarItem<E extends MenuItem> extends AbstractList<E> {
+        private final List<CatatanMenu> daftar;
+
+        DaftarItem(List<CatatanMenu> daftar) {
+            this.daftar = daftar;
+        }
+
+        // Pohon tipe hanya berisi catatan item dengan tipe E
+        @SuppressWarnings("unchecked")
+        @Override
+        public E get(int posisi) {
+            return (E) daftar.get(posisi).item;
+        }
+
+        @Override
+        public int size() {
+            return daftar.size();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            Iterator<CatatanMenu> asal = daftar.iterator();
+            return new Iterator<E>() {
+                @Override
+                public boolean hasNext() {
+                    return asal.hasNext();
+                }
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public E next() {
+                    return (E) asal.next().item;
+                }
+            };
+        }
+
+        @Override
+        public List<E> subList(int dari, int sampai) {
+            return new DaftarItem<>(daftar.subList(dari, sampai));
+        }
+    }
+}
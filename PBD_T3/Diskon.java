@@ -1,3 +1,6 @@
+import java.math.RoundingMode;
+import java.util.List;
+
 /**
  * Kelas Diskon yang merupakan turunan dari MenuItem.
  * Digunakan untuk menerapkan diskon khusus pada menu.
@@ -5,10 +8,10 @@
  */
 public class Diskon extends MenuItem {
     // Atribut khusus untuk kelas Diskon
-    private double persentaseDiskon;
-    private double minimalPembelian;
-    private String syaratDiskon;
-    private boolean aktif;
+    private volatile long persentaseBasisPoin; // 1000 = 10%, lihat kelas Uang
+    private volatile long minimalPembelianSen;
+    private volatile String syaratDiskon;
+    private volatile boolean aktif;
 
     /**
      * Constructor untuk kelas Diskon
@@ -19,32 +22,42 @@ public class Diskon extends MenuItem {
      */
     public Diskon(String nama, double persentaseDiskon, double minimalPembelian, String syaratDiskon) {
         super(nama, 0.0, "diskon");
-        this.persentaseDiskon = persentaseDiskon;
-        this.minimalPembelian = minimalPembelian;
+        this.persentaseBasisPoin = Uang.rasioKeBasisPoin(persentaseDiskon);
+        this.minimalPembelianSen = Uang.dariRupiah(minimalPembelian);
         this.syaratDiskon = syaratDiskon;
         this.aktif = true;
     }
 
     // Getter dan Setter untuk atribut khusus Diskon
     public double getPersentaseDiskon() {
-        return persentaseDiskon;
+        return Uang.basisPoinKeRasio(persentaseBasisPoin);
+    }
+
+    public long getPersentaseBasisPoin() {
+        return persentaseBasisPoin;
     }
 
     public void setPersentaseDiskon(double persentaseDiskon) {
         if (persentaseDiskon >= 0 && persentaseDiskon <= 1) {
-            this.persentaseDiskon = persentaseDiskon;
+            long basisPoin = Uang.rasioKeBasisPoin(persentaseDiskon);
+            ubahIsi(() -> this.persentaseBasisPoin = basisPoin);
         } else {
             throw new IllegalArgumentException("Persentase diskon harus antara 0 dan 1");
         }
     }
 
     public double getMinimalPembelian() {
-        return minimalPembelian;
+        return Uang.keRupiah(minimalPembelianSen);
+    }
+
+    public long getMinimalPembelianSen() {
+        return minimalPembelianSen;
     }
 
     public void setMinimalPembelian(double minimalPembelian) {
         if (minimalPembelian >= 0) {
-            this.minimalPembelian = minimalPembelian;
+            long sen = Uang.dariRupiah(minimalPembelian);
+            ubahIsi(() -> this.minimalPembelianSen = sen);
         } else {
             throw new IllegalArgumentException("Minimal pembelian tidak boleh negatif");
         }
@@ -55,7 +68,7 @@ public class Diskon extends MenuItem {
     }
 
     public void setSyaratDiskon(String syaratDiskon) {
-        this.syaratDiskon = syaratDiskon;
+        ubahIsi(() -> this.syaratDiskon = syaratDiskon);
     }
 
     public boolean isAktif() {
@@ -63,7 +76,7 @@ public class Diskon extends MenuItem {
     }
 
     public void setAktif(boolean aktif) {
-        this.aktif = aktif;
+        ubahIsi(() -> this.aktif = aktif);
     }
 
     /**
@@ -74,8 +87,8 @@ public class Diskon extends MenuItem {
     public void tampilMenu() {
         System.out.println("=== INFO DISKON ===");
         System.out.println("Nama Diskon: " + getNama());
-        System.out.println("Persentase: " + (persentaseDiskon * 100) + "%");
-        System.out.println("Minimal Pembelian: Rp" + String.format("%.2f", minimalPembelian));
+        System.out.println("Persentase: " + (getPersentaseDiskon() * 100) + "%");
+        System.out.println("Minimal Pembelian: Rp" + String.format("%.2f", getMinimalPembelian()));
         System.out.println("Syarat: " + syaratDiskon);
         System.out.println("Status: " + (aktif ? "Aktif" : "Tidak Aktif"));
         System.out.println("-------------------");
@@ -87,10 +100,29 @@ public class Diskon extends MenuItem {
      * @return Jumlah diskon yang diberikan
      */
     public double hitungDiskon(double totalBelanja) {
-        if (!aktif || totalBelanja < minimalPembelian) {
+        return Uang.keRupiah(hitungDiskonSen(Uang.dariRupiah(totalBelanja)));
+    }
+
+    /**
+     * Metode untuk menghitung jumlah diskon dalam sen
+     * @param totalBelanjaSen Total belanja sebelum diskon dalam sen
+     * @param mode Mode pembulatan hasil diskon ke sen
+     * @return Jumlah diskon dalam sen
+     */
+    public long hitungDiskonSen(long totalBelanjaSen, RoundingMode mode) {
+        if (!diskonBerlakuSen(totalBelanjaSen)) {
             return 0;
         }
-        return totalBelanja * persentaseDiskon;
+        return Uang.kaliBasisPoin(totalBelanjaSen, persentaseBasisPoin, mode);
+    }
+
+    /**
+     * Metode untuk menghitung jumlah diskon dalam sen dengan pembulatan default
+     * @param totalBelanjaSen Total belanja sebelum diskon dalam sen
+     * @return Jumlah diskon dalam sen
+     */
+    public long hitungDiskonSen(long totalBelanjaSen) {
+        return hitungDiskonSen(totalBelanjaSen, Uang.PEMBULATAN_DEFAULT);
     }
 
     /**
@@ -99,7 +131,16 @@ public class Diskon extends MenuItem {
      * @return true jika diskon berlaku
      */
     public boolean diskonBerlaku(double totalBelanja) {
-        return aktif && totalBelanja >= minimalPembelian;
+        return diskonBerlakuSen(Uang.dariRupiah(totalBelanja));
+    }
+
+    /**
+     * Metode untuk memeriksa apakah diskon berlaku untuk total dalam sen
+     * @param totalBelanjaSen Total belanja dalam sen
+     * @return true jika diskon berlaku
+     */
+    public boolean diskonBerlakuSen(long totalBelanjaSen) {
+        return aktif && totalBelanjaSen >= minimalPembelianSen;
     }
 
     /**
@@ -111,7 +152,16 @@ public class Diskon extends MenuItem {
             return getNama() + " - Tidak Aktif";
         }
         return String.format("%s - %.0f%% OFF (Minimal: Rp%.2f)",
-            getNama(), persentaseDiskon * 100, minimalPembelian);
+            getNama(), getPersentaseDiskon() * 100, getMinimalPembelian());
+    }
+
+    /**
+     * Override isiAtribut untuk mengindeks status aktif diskon
+     */
+    @Override
+    protected void isiAtribut(List<String> atribut) {
+        super.isiAtribut(atribut);
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.AKTIF, aktif));
     }
 
     /**
@@ -120,7 +170,7 @@ public class Diskon extends MenuItem {
     @Override
     public String toString() {
         return String.format("ID:%d [DISKON] %s - %.0f%% (Min: Rp%.2f) - %s",
-            getId(), getNama(), persentaseDiskon * 100, minimalPembelian,
+            getId(), getNama(), getPersentaseDiskon() * 100, getMinimalPembelian(),
             aktif ? "Aktif" : "Tidak Aktif");
     }
 
@@ -130,7 +180,7 @@ public class Diskon extends MenuItem {
     @Override
     public String toFileString() {
         return String.format("Diskon|%s|0.0|%s|%.2f|%.2f|%s|%s",
-            getNama(), getKategori(), persentaseDiskon, minimalPembelian,
+            getNama(), getKategori(), getPersentaseDiskon(), getMinimalPembelian(),
             syaratDiskon, aktif);
     }
 
@@ -138,14 +188,14 @@ public class Diskon extends MenuItem {
      * Metode untuk mengaktifkan diskon
      */
     public void aktivasiDiskon() {
-        this.aktif = true;
+        setAktif(true);
     }
 
     /**
      * Metode untuk menonaktifkan diskon
      */
     public void nonAktifkanDiskon() {
-        this.aktif = false;
+        setAktif(false);
     }
 
     /**
@@ -154,7 +204,8 @@ public class Diskon extends MenuItem {
      */
     public void ubahPersentaseDiskon(double persentaseBaru) {
         if (persentaseBaru >= 0 && persentaseBaru <= 100) {
-            this.persentaseDiskon = persentaseBaru / 100;
+            long basisPoin = Uang.rasioKeBasisPoin(persentaseBaru / 100);
+            ubahIsi(() -> this.persentaseBasisPoin = basisPoin);
         } else {
             throw new IllegalArgumentException("Persentase diskon harus antara 0 dan 100");
         }
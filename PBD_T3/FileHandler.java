@@ -1,5 +1,6 @@
 import java.io.*;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Kelas FileHandler untuk menangani operasi I/O dan operasi file.
@@ -8,34 +9,97 @@ import java.util.ArrayList;
 public class FileHandler {
     // Nama file default
     private static final String MENU_FILE = "menu_data.txt";
+    private static final String MENU_BIN_FILE = "menu_data.bin"; // Katalog biner untuk startup cepat
     private static final String PESANAN_FILE = "pesanan_data.txt";
+    private static final long BATAS_MUAT_PARALEL = 8L * 1024 * 1024; // File menu sebesar ini dimuat paralel
+    private static final String MENU_JURNAL_FILE = "menu_jurnal.txt"; // Perubahan sejak penyimpanan penuh terakhir
+    private static final int BATAS_KOMPAKSI_JURNAL = 500;
+    private static final String HEADER_GENERASI = "Generasi: ";
+    private static final String PESANAN_LOG = "pesanan_log"; // Nama dasar segmen log pesanan dan manifest-nya
+    private static final String PESANAN_JURNAL_FILE = "pesanan_terbuka.jurnal"; // Perubahan pesanan yang belum selesai
+    private static final String PESANAN_CHECKPOINT_FILE = "pesanan_terbuka.checkpoint";
+    private static final int BATAS_CHECKPOINT_PESANAN = 256;
+    private static final String PROPERTI_DURABILITAS = "restoran.durabilitasPesanan";
+    private static final String PROPERTI_UKURAN_SEGMEN = "restoran.pesanan.ukuranSegmenMB";
+    private static final String PROPERTI_ROTASI = "restoran.pesanan.rotasiJam";
+    private static final String PROPERTI_ARSIP = "restoran.pesanan.arsipHari";
+    private static final String PROPERTI_RETENSI = "restoran.pesanan.retensiHari";
+
+    private static HistoriPesanan historiPesanan; // Dibuka saat pesanan pertama disimpan
 
     /**
-     * Metode untuk menyimpan data menu ke file teks
+     * Metode untuk menyimpan data menu ke file teks.
+     * File diganti secara atomik (file sementara, fsync, rename) sehingga crash
+     * di tengah penyimpanan tidak merusak menu yang sudah ada. Setiap penyimpanan
+     * menaikkan generasi file dan mengosongkan jurnal perubahan.
      * @param menuRestoran MenuRestoran yang akan disimpan
      * @throws IOException jika terjadi error saat menulis file
      */
     public static void simpanMenuKeFile(MenuRestoran menuRestoran) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(MENU_FILE))) {
-            // Tulis header
-            writer.write("=== MENU RESTORAN " + menuRestoran.getNamaRestoran().toUpperCase() + " ===");
-            writer.newLine();
-            writer.write("Total Menu: " + menuRestoran.getJumlahMenu());
-            writer.newLine();
-            writer.write("=" .repeat(50));
-            writer.newLine();
-            writer.newLine();
+        synchronized (menuRestoran) {
+            SnapshotMenu snapshot = menuRestoran.getSnapshot();
+            long generasi = menuRestoran.getGenerasiFile() + 1;
+            try {
+                BerkasAtomik.tulis(MENU_FILE, out -> {
+                    BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out), 64 * 1024);
+                    // Tulis header
+                    writer.write("=== MENU RESTORAN " + menuRestoran.getNamaRestoran().toUpperCase() + " ===");
+                    writer.newLine();
+                    writer.write("Total Menu: " + snapshot.getJumlahMenu());
+                    writer.newLine();
+                    writer.write("=" .repeat(50));
+                    writer.newLine();
+                    writer.write(HEADER_GENERASI + generasi); // Baris sesudah garis '=' dilewati pengurai
+                    writer.newLine();
+
+                    // Tulis data menu
+                    for (MenuItem item : snapshot) {
+                        writer.write(item.toFileString());
+                        writer.newLine();
+                    }
+                    writer.flush(); // Stream ditutup oleh BerkasAtomik setelah fsync
+                });
 
-            // Tulis data menu
-            for (MenuItem item : menuRestoran.getDaftarMenu()) {
-                writer.write(item.toFileString());
-                writer.newLine();
+                System.out.println("Data menu berhasil disimpan ke file: " + MENU_FILE);
+            } catch (IOException e) {
+                throw new IOException("Gagal menyimpan data menu: " + e.getMessage());
             }
+            // File teks sudah memuat semua perubahan, jurnal untuk generasi lama tidak diperlukan lagi
+            menuRestoran.setGenerasiFile(generasi, true);
 
-            System.out.println("Data menu berhasil disimpan ke file: " + MENU_FILE);
-        } catch (IOException e) {
-            throw new IOException("Gagal menyimpan data menu: " + e.getMessage());
+            try {
+                KatalogBiner.simpan(menuRestoran, MENU_BIN_FILE, generasi);
+            } catch (IOException e) {
+                throw new IOException("Gagal menyimpan katalog biner: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Metode untuk menutup menu saat aplikasi selesai. Jika jurnal perubahan aktif,
+     * semua perubahan sudah tersimpan sehingga file menu tidak perlu ditulis ulang.
+     * @param menuRestoran MenuRestoran yang ditutup
+     * @throws IOException jika terjadi error saat menyimpan
+     */
+    public static void tutupMenu(MenuRestoran menuRestoran) throws IOException {
+        if (!tutupJurnal(menuRestoran)) {
+            simpanMenuKeFile(menuRestoran);
+        }
+    }
+
+    /**
+     * Metode untuk menutup jurnal perubahan menu (jika ada)
+     * @param menuRestoran MenuRestoran pemilik jurnal
+     * @return true jika ada jurnal yang ditutup
+     * @throws IOException jika terjadi error saat menutup jurnal
+     */
+    public static boolean tutupJurnal(MenuRestoran menuRestoran) throws IOException {
+        PendengarPerubahanMenu pendengar = menuRestoran.getPendengar();
+        if (pendengar instanceof JurnalMenu) {
+            ((JurnalMenu) pendengar).close();
+            return true;
         }
+        return false;
     }
 
     /**
@@ -44,90 +108,216 @@ public class FileHandler {
      * @throws IOException jika terjadi error saat membaca file
      */
     public static MenuRestoran muatMenuDariFile() throws IOException {
-        MenuRestoran menuRestoran = new MenuRestoran("Restoran Saya");
-
+        // Katalog biner dipakai jika tidak lebih lama dari file teks (teks mungkin diedit manual)
+        // dan berasal dari penyimpanan yang sama (generasi sama)
+        File fileBiner = new File(MENU_BIN_FILE);
         File file = new File(MENU_FILE);
+        if (fileBiner.exists() && (!file.exists() || fileBiner.lastModified() >= file.lastModified())) {
+            try {
+                MenuRestoran menuRestoran = KatalogBiner.muat(MENU_BIN_FILE);
+                if (!file.exists() || menuRestoran.getGenerasiFile() == bacaGenerasi(file)) {
+                    System.out.println("Data menu berhasil dimuat dari file: " + MENU_BIN_FILE);
+                    bukaJurnal(menuRestoran);
+                    return menuRestoran;
+                }
+                System.err.println("Katalog biner tidak sesuai dengan file teks, memuat file teks");
+            } catch (IOException e) {
+                System.err.println("Katalog biner tidak dapat dipakai, memuat file teks: " + e.getMessage());
+            }
+        }
+
+        MenuRestoran menuRestoran = new MenuRestoran("Restoran Saya");
         if (!file.exists()) {
             System.out.println("File menu tidak ditemukan. Membuat menu default...");
             buatMenuDefault(menuRestoran);
             return menuRestoran;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean dataSection = false;
-
-            while ((line = reader.readLine()) != null) {
-                // Lewati header
-                if (line.startsWith("=")) {
-                    dataSection = true;
-                    reader.readLine(); // Lewati baris kosong
-                    continue;
+        try {
+            List<String> kesalahan = new ArrayList<>();
+            int jumlahItem;
+            if (file.length() >= BATAS_MUAT_PARALEL) {
+                jumlahItem = new PemuatMenuParalel().muatKe(MENU_FILE, menuRestoran, kesalahan);
+            } else {
+                List<MenuItem> daftarItem = new ArrayList<>();
+                try (Reader reader = new FileReader(file)) {
+                    new PenguraiMenu().urai(reader, daftarItem, kesalahan);
                 }
+                jumlahItem = menuRestoran.tambahSemuaMenuItem(daftarItem);
+            }
 
-                if (dataSection && !line.trim().isEmpty()) {
-                    MenuItem item = parseMenuItemFromFile(line);
-                    if (item != null) {
-                        menuRestoran.tambahMenuItem(item);
-                    }
-                }
+            // Baris rusak dilaporkan dengan nomor barisnya, baris lain tetap dimuat
+            for (String pesan : kesalahan) {
+                System.err.println("Error parsing " + MENU_FILE + ": " + pesan);
             }
 
-            System.out.println("Data menu berhasil dimuat dari file: " + MENU_FILE);
+            System.out.println("Data menu berhasil dimuat dari file: " + MENU_FILE
+                + " (" + jumlahItem + " item, " + kesalahan.size() + " baris rusak)");
+            menuRestoran.setGenerasiFile(bacaGenerasi(file), false);
         } catch (IOException e) {
             throw new IOException("Gagal memuat data menu: " + e.getMessage());
         }
 
+        bukaJurnal(menuRestoran);
         return menuRestoran;
     }
 
+    // Perubahan sejak penyimpanan penuh terakhir diputar ulang, lalu jurnal mencatat perubahan berikutnya
+    private static void bukaJurnal(MenuRestoran menuRestoran) {
+        try {
+            JurnalMenu jurnal = JurnalMenu.buka(MENU_JURNAL_FILE, menuRestoran, BATAS_KOMPAKSI_JURNAL);
+            if (jurnal.getJumlahRecord() > 0) {
+                System.out.println(jurnal.getJumlahRecord() + " perubahan dipulihkan dari jurnal: " + MENU_JURNAL_FILE);
+            }
+        } catch (IOException e) {
+            System.err.println("Jurnal menu tidak dapat dibuka, menu akan disimpan penuh saat keluar: " + e.getMessage());
+        }
+    }
+
+    // Generasi dicatat di header file menu teks; file lama tanpa baris generasi dianggap generasi 0
+    private static long bacaGenerasi(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            for (int i = 0; i < 4 && (line = reader.readLine()) != null; i++) {
+                if (line.startsWith(HEADER_GENERASI)) {
+                    try {
+                        return Long.parseLong(line.substring(HEADER_GENERASI.length()).trim());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
     /**
-     * Metode untuk menyimpan data pesanan ke file teks
+     * Metode untuk menyimpan data pesanan ke histori pesanan.
+     * Pesanan dicatat sebagai record biner ber-checksum di segmen log aktif; checkout yang
+     * bersamaan digabung menjadi satu penulisan dan satu fsync oleh thread penulis log.
+     * Mode durabilitas diatur lewat properti sistem restoran.durabilitasPesanan
+     * (FSYNC, TULIS atau ASINKRON; default FSYNC). Rotasi, pengarsipan dan retensi segmen
+     * diatur lewat restoran.pesanan.ukuranSegmenMB (default 64), restoran.pesanan.rotasiJam
+     * (default 24), restoran.pesanan.arsipHari (default 7) dan restoran.pesanan.retensiHari
+     * (default 0 = disimpan selamanya).
      * @param pesanan Pesanan yang akan disimpan
      * @throws IOException jika terjadi error saat menulis file
      */
     public static void simpanPesananKeFile(Pesanan pesanan) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(PESANAN_FILE, true))) { // Append mode
-            writer.write("=".repeat(70));
-            writer.newLine();
-            writer.write("PESANAN #" + pesanan.getIdPesanan());
-            writer.newLine();
-            writer.write("Pelanggan: " + pesanan.getNamaPelanggan());
-            writer.newLine();
-            writer.write("Meja: " + pesanan.getNoMeja());
-            writer.newLine();
-            writer.write("Tanggal: " + new java.text.SimpleDateFormat("dd-MM-yyyy HH:mm:ss").format(pesanan.getTanggalPesanan()));
-            writer.newLine();
-            writer.write("-".repeat(70));
-            writer.newLine();
+        try {
+            getHistoriPesanan().catat(pesanan);
+            System.out.println("Data pesanan berhasil disimpan ke histori: " + PESANAN_LOG + HistoriPesanan.AKHIRAN_MANIFEST);
+        } catch (IOException e) {
+            throw new IOException("Gagal menyimpan data pesanan: " + e.getMessage());
+        }
+    }
 
-            // Tulis item pesanan
-            for (Pesanan.ItemPesanan item : pesanan.getItemPesanan()) {
-                writer.write(String.format("%s|%d|%.2f|%s",
-                    item.getMenuItem().getNama(),
-                    item.getJumlah(),
-                    item.getTotalHarga(),
-                    item.getCatatan()));
-                writer.newLine();
+    /**
+     * Metode untuk mendapatkan histori pesanan, membukanya jika belum terbuka
+     * @return HistoriPesanan yang aktif
+     * @throws IOException jika histori tidak dapat dibuka
+     */
+    private static synchronized HistoriPesanan getHistoriPesanan() throws IOException {
+        if (historiPesanan == null) {
+            String nilai = System.getProperty(PROPERTI_DURABILITAS, LogPesanan.ModeDurabilitas.FSYNC.name());
+            LogPesanan.ModeDurabilitas mode;
+            try {
+                mode = LogPesanan.ModeDurabilitas.valueOf(nilai.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Mode durabilitas pesanan tidak dikenal: " + nilai + ", memakai FSYNC");
+                mode = LogPesanan.ModeDurabilitas.FSYNC;
             }
+            long jam = 60L * 60 * 1000;
+            HistoriPesanan.Kebijakan kebijakan = new HistoriPesanan.Kebijakan(
+                bacaPropertiAngka(PROPERTI_UKURAN_SEGMEN, 64, 1) * 1024 * 1024,
+                bacaPropertiAngka(PROPERTI_ROTASI, 24, 1) * jam,
+                bacaPropertiAngka(PROPERTI_ARSIP, 7, 0) * 24 * jam,
+                bacaPropertiAngka(PROPERTI_RETENSI, 0, 0) * 24 * jam);
+            historiPesanan = HistoriPesanan.buka(PESANAN_LOG, mode, kebijakan);
+        }
+        return historiPesanan;
+    }
 
-            writer.write(String.format("TOTAL|%.2f", pesanan.hitungTotalAkhir()));
-            writer.newLine();
-            writer.newLine();
+    private static long bacaPropertiAngka(String nama, long bawaan, long minimal) {
+        String nilai = System.getProperty(nama);
+        if (nilai == null) {
+            return bawaan;
+        }
+        try {
+            long angka = Long.parseLong(nilai.trim());
+            if (angka >= minimal) {
+                return angka;
+            }
+        } catch (NumberFormatException e) {
+            // Jatuh ke pesan di bawah
+        }
+        System.err.println("Nilai properti " + nama + " tidak valid: " + nilai + ", memakai " + bawaan);
+        return bawaan;
+    }
 
-            System.out.println("Data pesanan berhasil disimpan ke file: " + PESANAN_FILE);
+    /**
+     * Metode untuk membuka jurnal pesanan terbuka. Pesanan yang belum selesai saat
+     * aplikasi terakhir berhenti dipulihkan dari checkpoint dan ekor jurnal.
+     * @param menuRestoran Menu untuk mencari kembali item yang dipesan
+     * @return JurnalPesanan, atau null jika jurnal tidak dapat dibuka
+     */
+    public static JurnalPesanan bukaJurnalPesanan(MenuRestoran menuRestoran) {
+        try {
+            JurnalPesanan jurnal = JurnalPesanan.buka(PESANAN_JURNAL_FILE, PESANAN_CHECKPOINT_FILE,
+                menuRestoran, BATAS_CHECKPOINT_PESANAN);
+            int jumlahTerbuka = jurnal.getPesananTerbuka().size();
+            if (jumlahTerbuka > 0) {
+                System.out.println(jumlahTerbuka + " pesanan belum selesai dipulihkan ("
+                    + jurnal.getJumlahDiputarUlang() + " perubahan diputar ulang dari jurnal: " + PESANAN_JURNAL_FILE + ")");
+            }
+            return jurnal;
         } catch (IOException e) {
-            throw new IOException("Gagal menyimpan data pesanan: " + e.getMessage());
+            System.err.println("Jurnal pesanan tidak dapat dibuka, pesanan yang berjalan tidak dapat dipulihkan: "
+                + e.getMessage());
+            return null;
         }
     }
 
     /**
-     * Metode untuk menampilkan histori pesanan dari file
+     * Metode untuk memeriksa apakah pesanan sudah tercatat di histori, misalnya pesanan
+     * yang dipulihkan dari jurnal karena aplikasi berhenti tepat setelah menyimpannya
+     * @param pesanan Pesanan yang diperiksa
+     * @return true jika histori memuat pesanan dengan ID dan waktu yang sama
+     * @throws IOException jika histori tidak dapat dibaca
+     */
+    public static boolean isPesananTercatat(Pesanan pesanan) throws IOException {
+        long waktu = pesanan.getTanggalPesanan().getTime();
+        for (LogPesanan.CatatanPesanan catatan : getHistoriPesanan().cariId(pesanan.getIdPesanan())) {
+            if (catatan.getWaktu() == waktu) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Metode untuk menutup histori pesanan saat aplikasi selesai.
+     * Pesanan yang masih antre (mode ASINKRON) ditulis dan di-fsync dulu.
+     * @throws IOException jika penulisan terakhir gagal
+     */
+    public static synchronized void tutupLogPesanan() throws IOException {
+        if (historiPesanan != null) {
+            try {
+                historiPesanan.close();
+            } finally {
+                historiPesanan = null;
+            }
+        }
+    }
+
+    /**
+     * Metode untuk menampilkan histori pesanan dari file.
+     * Histori dibuat dari log pesanan; file teks format lama (jika masih ada) ditampilkan lebih dulu.
      * @throws IOException jika terjadi error saat membaca file
      */
     public static void tampilkanHistoriPesanan() throws IOException {
-        File file = new File(PESANAN_FILE);
-        if (!file.exists()) {
+        File fileLama = new File(PESANAN_FILE);
+        if (!fileLama.exists() && !HistoriPesanan.ada(PESANAN_LOG)) {
             System.out.println("Belum ada histori pesanan.");
             return;
         }
@@ -136,13 +326,123 @@ public class FileHandler {
         System.out.println("                    HISTORI PESANAN");
         System.out.println("=".repeat(70));
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                System.out.println(line);
+        if (fileLama.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(fileLama))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    System.out.println(line);
+                }
+            } catch (IOException e) {
+                throw new IOException("Gagal membaca histori pesanan: " + e.getMessage());
+            }
+        }
+
+        if (HistoriPesanan.ada(PESANAN_LOG)) {
+            try {
+                // Tidak ditutup agar System.out tetap terbuka
+                BufferedWriter keluar = new BufferedWriter(new OutputStreamWriter(System.out));
+                getHistoriPesanan().tulisHistori(keluar);
+                keluar.flush();
+            } catch (IOException e) {
+                throw new IOException("Gagal membaca histori pesanan: " + e.getMessage());
             }
+        }
+    }
+
+    /**
+     * Metode untuk menampilkan ringkasan penjualan dari seluruh histori pesanan.
+     * Statistik segmen lama diambil dari manifest; hanya segmen aktif yang dipindai,
+     * dan itu pun hanya field angka (tanpa mendekode teks).
+     * @throws IOException jika terjadi error saat membaca log
+     */
+    public static void tampilkanRingkasanHistoriPesanan() throws IOException {
+        if (!HistoriPesanan.ada(PESANAN_LOG)) {
+            System.out.println("Belum ada histori pesanan.");
+            return;
+        }
+        HistoriPesanan.Ringkasan ringkasan = getHistoriPesanan().hitungRingkasan();
+        int jumlah = ringkasan.getJumlah();
+
+        System.out.println("Total Pesanan Tercatat: " + jumlah);
+        if (jumlah > 0) {
+            java.text.SimpleDateFormat format = new java.text.SimpleDateFormat("dd-MM-yyyy HH:mm");
+            System.out.println("Periode: " + format.format(new java.util.Date(ringkasan.getWaktuMin()))
+                + " s/d " + format.format(new java.util.Date(ringkasan.getWaktuMaks())));
+            System.out.println("Total Pendapatan: Rp" + Uang.format(ringkasan.getTotalSen()));
+            System.out.println("Total Pajak: Rp" + Uang.format(ringkasan.getPajakSen()));
+            System.out.println("Rata-rata per Pesanan: Rp"
+                + Uang.format(Uang.bagi(ringkasan.getTotalSen(), jumlah, Uang.PEMBULATAN_DEFAULT)));
+        }
+    }
+
+    /**
+     * Metode untuk menampilkan pesanan dengan ID tertentu dari log pesanan
+     * @param idPesanan ID pesanan yang dicari
+     * @throws IOException jika terjadi error saat membaca log
+     */
+    public static void cariPesananById(int idPesanan) throws IOException {
+        if (!HistoriPesanan.ada(PESANAN_LOG)) {
+            System.out.println("Belum ada histori pesanan.");
+            return;
+        }
+        tampilkanHasilPencarian(getHistoriPesanan().cariId(idPesanan), "PESANAN #" + idPesanan);
+    }
+
+    /**
+     * Metode untuk menampilkan pesanan di meja tertentu dari log pesanan
+     * @param noMeja Nomor meja yang dicari
+     * @throws IOException jika terjadi error saat membaca log
+     */
+    public static void cariPesananDiMeja(String noMeja) throws IOException {
+        if (!HistoriPesanan.ada(PESANAN_LOG)) {
+            System.out.println("Belum ada histori pesanan.");
+            return;
+        }
+        tampilkanHasilPencarian(getHistoriPesanan().cariMeja(noMeja), "PESANAN MEJA " + noMeja);
+    }
+
+    /**
+     * Metode untuk menampilkan pesanan dalam rentang waktu tertentu dari log pesanan
+     * @param dari Awal rentang (termasuk)
+     * @param sampai Akhir rentang (tidak termasuk)
+     * @throws IOException jika terjadi error saat membaca log
+     */
+    public static void cariPesananAntara(java.util.Date dari, java.util.Date sampai) throws IOException {
+        if (!HistoriPesanan.ada(PESANAN_LOG)) {
+            System.out.println("Belum ada histori pesanan.");
+            return;
+        }
+        java.text.SimpleDateFormat format = new java.text.SimpleDateFormat("dd-MM-yyyy HH:mm");
+        tampilkanHasilPencarian(getHistoriPesanan().cariRentangWaktu(dari, sampai),
+            "PESANAN " + format.format(dari) + " s/d " + format.format(sampai));
+    }
+
+    private static void tampilkanHasilPencarian(List<LogPesanan.CatatanPesanan> hasil, String judul) throws IOException {
+        if (hasil.isEmpty()) {
+            System.out.println("Tidak ada pesanan yang cocok.");
+            return;
+        }
+        System.out.println("=".repeat(70));
+        System.out.println("  " + judul + " (" + hasil.size() + " pesanan)");
+        StringBuilder teks = new StringBuilder();
+        LogPesanan.tulisHistori(hasil, teks);
+        System.out.print(teks);
+    }
+
+    /**
+     * Metode untuk membangun ulang indeks histori pesanan dari log pesanan
+     * @throws IOException jika terjadi error saat membaca log atau menulis indeks
+     */
+    public static void bangunUlangIndeksPesanan() throws IOException {
+        if (!HistoriPesanan.ada(PESANAN_LOG)) {
+            System.out.println("Belum ada histori pesanan.");
+            return;
+        }
+        try {
+            int jumlah = getHistoriPesanan().bangunUlangIndeks();
+            System.out.println("Indeks pesanan berhasil dibangun ulang: " + jumlah + " pesanan");
         } catch (IOException e) {
-            throw new IOException("Gagal membaca histori pesanan: " + e.getMessage());
+            throw new IOException("Gagal membangun ulang indeks pesanan: " + e.getMessage());
         }
     }
 
@@ -153,16 +453,17 @@ public class FileHandler {
      * @throws IOException jika terjadi error saat membuat backup
      */
     public static void backupDataMenu(MenuRestoran menuRestoran, String backupFileName) throws IOException {
+        SnapshotMenu snapshot = menuRestoran.getSnapshot();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(backupFileName))) {
             writer.write("# BACKUP MENU RESTORAN " + menuRestoran.getNamaRestoran().toUpperCase());
             writer.newLine();
             writer.write("# Tanggal: " + new java.text.SimpleDateFormat("dd-MM-yyyy HH:mm:ss").format(new java.util.Date()));
             writer.newLine();
-            writer.write("# Total Menu: " + menuRestoran.getJumlahMenu());
+            writer.write("# Total Menu: " + snapshot.getJumlahMenu());
             writer.newLine();
             writer.newLine();
 
-            for (MenuItem item : menuRestoran.getDaftarMenu()) {
+            for (MenuItem item : snapshot) {
                 writer.write(item.toFileString());
                 writer.newLine();
             }
@@ -174,12 +475,39 @@ public class FileHandler {
     }
 
     /**
-     * Metode untuk menghapus file histori pesanan
+     * Metode untuk menghapus histori pesanan yang lebih tua dari sejumlah hari.
+     * Penghapusan per segmen: segmen yang masih berisi pesanan lebih baru tetap disimpan.
+     * @param hari Umur minimal pesanan yang dihapus (hari)
+     * @throws IOException jika manifest tidak dapat ditulis
+     */
+    public static void hapusHistoriPesananSebelum(int hari) throws IOException {
+        if (!HistoriPesanan.ada(PESANAN_LOG)) {
+            System.out.println("Belum ada histori pesanan.");
+            return;
+        }
+        long batas = System.currentTimeMillis() - hari * 24L * 60 * 60 * 1000;
+        int jumlah = getHistoriPesanan().hapusSebelum(batas);
+        System.out.println(jumlah + " pesanan lama berhasil dihapus dari histori.");
+    }
+
+    /**
+     * Metode untuk menghapus seluruh file histori pesanan
      * @return true jika berhasil dihapus
      */
-    public static boolean hapusHistoriPesanan() {
+    public static synchronized boolean hapusHistoriPesanan() {
         File file = new File(PESANAN_FILE);
-        if (file.exists() && file.delete()) {
+        try {
+            tutupLogPesanan();
+        } catch (IOException e) {
+            System.err.println("Peringatan: log pesanan tidak ditutup dengan bersih: " + e.getMessage());
+        }
+        boolean terhapus = file.exists() && file.delete();
+        try {
+            terhapus |= HistoriPesanan.hapusSemua(PESANAN_LOG);
+        } catch (IOException e) {
+            System.err.println("Peringatan: sebagian file histori pesanan tidak terhapus: " + e.getMessage());
+        }
+        if (terhapus) {
             System.out.println("Histori pesanan berhasil dihapus.");
             return true;
         }
@@ -206,62 +534,6 @@ public class FileHandler {
         return file.exists() ? file.length() : 0;
     }
 
-    /**
-     * Metode untuk parse MenuItem dari string file
-     * @param line String yang akan diparse
-     * @return MenuItem jika berhasil diparse, null jika gagal
-     */
-    private static MenuItem parseMenuItemFromFile(String line) {
-        try {
-            String[] parts = line.split("\\|");
-            if (parts.length < 4) return null;
-
-            String tipe = parts[0];
-            String nama = parts[1];
-            double harga = Double.parseDouble(parts[2]);
-            String kategori = parts[3];
-
-            switch (tipe) {
-                case "Makanan":
-                    if (parts.length >= 6) {
-                        String jenisMakanan = parts[4];
-                        String tingkatKepedasan = parts[5];
-                        return new Makanan(nama, harga, jenisMakanan, tingkatKepedasan);
-                    }
-                    return new Makanan(nama, harga, "umum");
-
-                case "Minuman":
-                    if (parts.length >= 7) {
-                        String jenisMinuman = parts[4];
-                        String ukuran = parts[5];
-                        boolean adaGula = Boolean.parseBoolean(parts[6]);
-                        return new Minuman(nama, harga, jenisMinuman, ukuran, adaGula);
-                    }
-                    return new Minuman(nama, harga, "biasa");
-
-                case "Diskon":
-                    if (parts.length >= 7) {
-                        double persentaseDiskon = Double.parseDouble(parts[4]);
-                        double minimalPembelian = Double.parseDouble(parts[5]);
-                        String syaratDiskon = parts[6];
-                        Diskon diskon = new Diskon(nama, persentaseDiskon, minimalPembelian, syaratDiskon);
-                        if (parts.length >= 8) {
-                            diskon.setAktif(Boolean.parseBoolean(parts[7]));
-                        }
-                        return diskon;
-                    }
-                    break;
-
-                default:
-                    // Default ke MenuItem abstrak (tidak seharusnya terjadi)
-                    break;
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing line: " + line + " - " + e.getMessage());
-        }
-        return null;
-    }
-
     /**
      * Metode untuk membuat menu default jika file tidak ada
      * @param menuRestoran MenuRestoran yang akan diisi
@@ -311,7 +583,7 @@ public class FileHandler {
             writer.newLine();
 
             // Tulis data
-            for (MenuItem item : menuRestoran.getDaftarMenu()) {
+            for (MenuItem item : menuRestoran.getSnapshot()) {
                 StringBuilder line = new StringBuilder();
                 line.append(item.getId()).append(",");
                 line.append("\"").append(item.getNama()).append("\",");
@@ -362,7 +634,46 @@ public class FileHandler {
             System.out.println("  Status: Tidak Ada");
         }
 
-        System.out.println("\nFile Pesanan: " + PESANAN_FILE);
+        System.out.println("\nFile Katalog Biner: " + MENU_BIN_FILE);
+        if (fileAda(MENU_BIN_FILE)) {
+            System.out.println("  Status: Ada");
+            System.out.println("  Ukuran: " + getUkuranFile(MENU_BIN_FILE) + " bytes");
+        } else {
+            System.out.println("  Status: Tidak Ada");
+        }
+
+        System.out.println("\nFile Jurnal Menu: " + MENU_JURNAL_FILE);
+        if (fileAda(MENU_JURNAL_FILE)) {
+            System.out.println("  Status: Ada");
+            System.out.println("  Ukuran: " + getUkuranFile(MENU_JURNAL_FILE) + " bytes");
+        } else {
+            System.out.println("  Status: Tidak Ada");
+        }
+
+        System.out.println("\nJurnal Pesanan Terbuka: " + PESANAN_JURNAL_FILE);
+        if (fileAda(PESANAN_JURNAL_FILE)) {
+            System.out.println("  Status: Ada");
+            System.out.println("  Ukuran: " + getUkuranFile(PESANAN_JURNAL_FILE) + " bytes");
+            System.out.println("  Checkpoint: " + (fileAda(PESANAN_CHECKPOINT_FILE)
+                ? getUkuranFile(PESANAN_CHECKPOINT_FILE) + " bytes" : "Tidak Ada"));
+        } else {
+            System.out.println("  Status: Tidak Ada");
+        }
+
+        System.out.println("\nHistori Pesanan: " + PESANAN_LOG + HistoriPesanan.AKHIRAN_MANIFEST);
+        if (HistoriPesanan.ada(PESANAN_LOG)) {
+            try {
+                for (String segmen : getHistoriPesanan().getKeteranganSegmen()) {
+                    System.out.println("  " + segmen);
+                }
+            } catch (IOException e) {
+                System.out.println("  Status: Tidak dapat dibuka (" + e.getMessage() + ")");
+            }
+        } else {
+            System.out.println("  Status: Tidak Ada");
+        }
+
+        System.out.println("\nFile Pesanan (format lama): " + PESANAN_FILE);
         if (fileAda(PESANAN_FILE)) {
             System.out.println("  Status: Ada");
             System.out.println("  Ukuran: " + getUkuranFile(PESANAN_FILE) + " bytes");
@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kelas FilterMenu untuk menyusun kueri atribut pada MenuRestoran.filterMenu().
+ * Nilai dalam satu syarat digabung dengan OR, antar syarat digabung dengan AND.
+ *
+ * Contoh minuman dingin, tanpa gula, ukuran large:
+ * new FilterMenu().dengan("jenisMinuman", "dingin").dengan("gula", false).dengan("ukuran", "large")
+ */
+public class FilterMenu {
+    private final ArrayList<List<String>> syaratWajib;
+    private final ArrayList<String> syaratLarangan;
+
+    /**
+     * Constructor untuk kelas FilterMenu (tanpa syarat = semua menu)
+     */
+    public FilterMenu() {
+        this.syaratWajib = new ArrayList<>();
+        this.syaratLarangan = new ArrayList<>();
+    }
+
+    /**
+     * Metode untuk menambah syarat: atribut harus bernilai salah satu dari nilai
+     * @param atribut Nama atribut (lihat konstanta IndeksAtributMenu)
+     * @param nilai Satu atau lebih nilai yang diterima
+     * @return FilterMenu ini untuk chaining
+     */
+    public FilterMenu dengan(String atribut, Object... nilai) {
+        if (nilai.length == 0) {
+            throw new IllegalArgumentException("Minimal satu nilai untuk atribut " + atribut);
+        }
+        ArrayList<String> pilihan = new ArrayList<>(nilai.length);
+        for (Object n : nilai) {
+            pilihan.add(IndeksAtributMenu.kunci(atribut, n));
+        }
+        syaratWajib.add(pilihan);
+        return this;
+    }
+
+    /**
+     * Metode untuk menambah syarat: atribut tidak boleh bernilai nilai
+     * @param atribut Nama atribut
+     * @param nilai Nilai yang dikecualikan
+     * @return FilterMenu ini untuk chaining
+     */
+    public FilterMenu tanpa(String atribut, Object nilai) {
+        syaratLarangan.add(IndeksAtributMenu.kunci(atribut, nilai));
+        return this;
+    }
+
+    // Dibaca oleh IndeksAtributMenu saat filter dijalankan
+    List<List<String>> getSyaratWajib() {
+        return syaratWajib;
+    }
+
+    List<String> getSyaratLarangan() {
+        return syaratLarangan;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FilterMenu[wajib=%s, tanpa=%s]", syaratWajib, syaratLarangan);
+    }
+}
@@ -0,0 +1,982 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Kelas HistoriPesanan untuk histori pesanan yang dibagi menjadi beberapa segmen LogPesanan.
+ *
+ * Pesanan baru selalu ditulis ke segmen aktif. Segmen aktif dirotasi (ditutup dan
+ * diganti segmen baru) jika ukurannya atau umurnya melewati batas kebijakan. Segmen
+ * tertutup yang sudah cukup lama dikompres menjadi arsip GZIP, dan segmen yang melewati
+ * masa retensi dihapus. Kompresi dan retensi berjalan di thread pemeliharaan latar belakang.
+ *
+ * Daftar segmen disimpan di file manifest (ditulis ulang secara atomik) beserta statistik
+ * setiap segmen tertutup: jumlah pesanan, rentang waktu, rentang ID dan total penjualan.
+ * Pencarian melewati segmen yang rentang waktu atau ID-nya tidak cocok, dan ringkasan
+ * penjualan untuk segmen tertutup diambil langsung dari manifest.
+ *
+ * Format manifest (teks UTF-8, dipisah '|'):
+ * <pre>
+ * MANIFEST HISTORI PESANAN|versi
+ * berikutnya|nomor segmen berikutnya
+ * segmen|nomor|status|nama file|ukuran|dibuat|jumlah|waktu min|waktu maks|id min|id maks|total sen|pajak sen
+ * </pre>
+ */
+public class HistoriPesanan implements AutoCloseable {
+    static final String HEADER_MANIFEST = "MANIFEST HISTORI PESANAN";
+    static final int VERSI_MANIFEST = 1;
+    static final String AKHIRAN_MANIFEST = ".manifest";
+    static final String AKHIRAN_SEGMEN = ".bin";
+    static final String AKHIRAN_ARSIP = ".arsip.gz";
+
+    /**
+     * Enum StatusSegmen untuk keadaan satu segmen histori
+     */
+    enum StatusSegmen {
+        /** Segmen yang sedang ditulisi */
+        AKTIF,
+        /** Segmen yang sudah ditutup, masih berupa log biasa dengan indeks */
+        TERTUTUP,
+        /** Segmen yang sudah dikompres menjadi arsip GZIP */
+        ARSIP
+    }
+
+    /**
+     * Inner class Kebijakan untuk mengatur rotasi, pengarsipan dan retensi segmen
+     */
+    public static class Kebijakan {
+        private final long batasUkuranSegmen;
+        private final long batasUmurSegmen;
+        private final long arsipkanSetelah;
+        private final long retensi;
+
+        /**
+         * Constructor untuk kelas Kebijakan
+         * @param batasUkuranSegmen Segmen aktif dirotasi setelah sebesar ini (byte)
+         * @param batasUmurSegmen Segmen aktif dirotasi setelah berumur ini (ms)
+         * @param arsipkanSetelah Segmen tertutup diarsipkan jika pesanan terbarunya lebih tua dari ini (ms)
+         * @param retensi Segmen dihapus jika pesanan terbarunya lebih tua dari ini (ms); 0 = disimpan selamanya
+         */
+        public Kebijakan(long batasUkuranSegmen, long batasUmurSegmen, long arsipkanSetelah, long retensi) {
+            if (batasUkuranSegmen <= LogPesanan.UKURAN_HEADER || batasUmurSegmen <= 0
+                    || arsipkanSetelah < 0 || retensi < 0) {
+                throw new IllegalArgumentException("Kebijakan histori pesanan tidak valid");
+            }
+            this.batasUkuranSegmen = batasUkuranSegmen;
+            this.batasUmurSegmen = batasUmurSegmen;
+            this.arsipkanSetelah = arsipkanSetelah;
+            this.retensi = retensi;
+        }
+
+        public long getBatasUkuranSegmen() {
+            return batasUkuranSegmen;
+        }
+
+        public long getBatasUmurSegmen() {
+            return batasUmurSegmen;
+        }
+
+        public long getArsipkanSetelah() {
+            return arsipkanSetelah;
+        }
+
+        public long getRetensi() {
+            return retensi;
+        }
+    }
+
+    /**
+     * Inner class Ringkasan untuk statistik penjualan sekumpulan pesanan
+     */
+    public static class Ringkasan {
+        private int jumlah;
+        private long waktuMin = Long.MAX_VALUE;
+        private long waktuMaks = Long.MIN_VALUE;
+        private int idMin = Integer.MAX_VALUE;
+        private int idMaks = Integer.MIN_VALUE;
+        private long totalSen;
+        private long pajakSen;
+
+        void tambah(int idPesanan, long waktu, long totalAkhirSen, long pajak) {
+            jumlah++;
+            waktuMin = Math.min(waktuMin, waktu);
+            waktuMaks = Math.max(waktuMaks, waktu);
+            idMin = Math.min(idMin, idPesanan);
+            idMaks = Math.max(idMaks, idPesanan);
+            totalSen += totalAkhirSen;
+            pajakSen += pajak;
+        }
+
+        void gabung(Ringkasan lain) {
+            if (lain.jumlah == 0) {
+                return;
+            }
+            jumlah += lain.jumlah;
+            waktuMin = Math.min(waktuMin, lain.waktuMin);
+            waktuMaks = Math.max(waktuMaks, lain.waktuMaks);
+            idMin = Math.min(idMin, lain.idMin);
+            idMaks = Math.max(idMaks, lain.idMaks);
+            totalSen += lain.totalSen;
+            pajakSen += lain.pajakSen;
+        }
+
+        public int getJumlah() {
+            return jumlah;
+        }
+
+        public long getWaktuMin() {
+            return waktuMin;
+        }
+
+        public long getWaktuMaks() {
+            return waktuMaks;
+        }
+
+        public long getTotalSen() {
+            return totalSen;
+        }
+
+        public long getPajakSen() {
+            return pajakSen;
+        }
+    }
+
+    /**
+     * Inner class Segmen untuk satu entri manifest
+     */
+    private static class Segmen {
+        final int nomor;
+        StatusSegmen status;
+        String namaFile;
+        long ukuran;
+        final long dibuat;
+        final Ringkasan ringkasan;
+
+        Segmen(int nomor, StatusSegmen status, String namaFile, long ukuran, long dibuat, Ringkasan ringkasan) {
+            this.nomor = nomor;
+            this.status = status;
+            this.namaFile = namaFile;
+            this.ukuran = ukuran;
+            this.dibuat = dibuat;
+            this.ringkasan = ringkasan;
+        }
+
+        // Segmen tertutup yang tidak mungkin berisi pesanan dalam rentang [dari, sampai)
+        boolean diLuarWaktu(long dari, long sampai) {
+            return status != StatusSegmen.AKTIF
+                && (ringkasan.jumlah == 0 || ringkasan.waktuMaks < dari || ringkasan.waktuMin >= sampai);
+        }
+
+        boolean diLuarId(int idPesanan) {
+            return status != StatusSegmen.AKTIF
+                && (ringkasan.jumlah == 0 || idPesanan < ringkasan.idMin || idPesanan > ringkasan.idMaks);
+        }
+
+        String keBaris() {
+            return String.join("|", "segmen", String.valueOf(nomor), status.name(), namaFile,
+                String.valueOf(ukuran), String.valueOf(dibuat), String.valueOf(ringkasan.jumlah),
+                String.valueOf(ringkasan.waktuMin), String.valueOf(ringkasan.waktuMaks),
+                String.valueOf(ringkasan.idMin), String.valueOf(ringkasan.idMaks),
+                String.valueOf(ringkasan.totalSen), String.valueOf(ringkasan.pajakSen));
+        }
+
+        static Segmen dariBaris(String[] f) {
+            Ringkasan r = new Ringkasan();
+            r.jumlah = Integer.parseInt(f[6]);
+            r.waktuMin = Long.parseLong(f[7]);
+            r.waktuMaks = Long.parseLong(f[8]);
+            r.idMin = Integer.parseInt(f[9]);
+            r.idMaks = Integer.parseInt(f[10]);
+            r.totalSen = Long.parseLong(f[11]);
+            r.pajakSen = Long.parseLong(f[12]);
+            return new Segmen(Integer.parseInt(f[1]), StatusSegmen.valueOf(f[2]), f[3],
+                Long.parseLong(f[4]), Long.parseLong(f[5]), r);
+        }
+    }
+
+    /**
+     * Interface PengunjungCatatan untuk menerima catatan pesanan satu per satu
+     */
+    private interface PengunjungCatatan {
+        void terima(LogPesanan.CatatanPesanan catatan) throws IOException;
+    }
+
+    private final String namaDasar;
+    private final Path direktori;
+    private final LogPesanan.ModeDurabilitas mode;
+    private final Kebijakan kebijakan;
+    // Baca: catat dan pencarian; tulis: rotasi dan perubahan manifest
+    private final ReentrantReadWriteLock kunci = new ReentrantReadWriteLock();
+    private final ExecutorService pemeliharaan;
+    private final Object kunciPemeliharaan = new Object(); // Satu pemeliharaan pada satu waktu
+
+    private final List<Segmen> daftarSegmen;
+    private int nomorBerikutnya;
+    private LogPesanan aktif;
+    // Log segmen tertutup yang sudah dibuka untuk dibaca, per nomor segmen. Segmen tertutup
+    // tidak berubah, jadi indeksnya cukup dimuat sekali; dilepas saat segmen diarsipkan atau dihapus
+    private final Map<Integer, LogPesanan> logTertutup = new HashMap<>();
+    private boolean ditutup;
+
+    private HistoriPesanan(String namaDasar, LogPesanan.ModeDurabilitas mode, Kebijakan kebijakan,
+                           List<Segmen> daftarSegmen, int nomorBerikutnya) {
+        this.namaDasar = namaDasar;
+        Path induk = Paths.get(namaDasar).toAbsolutePath().getParent();
+        this.direktori = induk;
+        this.mode = mode;
+        this.kebijakan = kebijakan;
+        this.daftarSegmen = daftarSegmen;
+        this.nomorBerikutnya = nomorBerikutnya;
+        this.pemeliharaan = Executors.newSingleThreadExecutor(tugas -> {
+            Thread t = new Thread(tugas, "pemeliharaan-histori-pesanan");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Metode untuk membuka histori pesanan. Jika manifest belum ada, log pesanan lama
+     * satu file (namaDasar + ".bin") dijadikan segmen pertama.
+     * @param namaDasar Nama dasar file (tanpa akhiran), misalnya "pesanan_log"
+     * @param mode Mode durabilitas checkout
+     * @param kebijakan Kebijakan rotasi, pengarsipan dan retensi
+     * @return HistoriPesanan yang siap dipakai
+     * @throws IOException jika manifest atau segmen aktif tidak dapat dibuka
+     */
+    public static HistoriPesanan buka(String namaDasar, LogPesanan.ModeDurabilitas mode, Kebijakan kebijakan)
+            throws IOException {
+        Path manifest = Paths.get(namaDasar + AKHIRAN_MANIFEST);
+        List<Segmen> daftarSegmen = new ArrayList<>();
+        int nomorBerikutnya = 1;
+        boolean manifestBaru = !Files.exists(manifest);
+
+        if (!manifestBaru) {
+            nomorBerikutnya = bacaManifest(manifest, daftarSegmen);
+        } else {
+            Segmen pertama = new Segmen(nomorBerikutnya++, StatusSegmen.AKTIF,
+                namaFileSegmen(namaDasar, 1), 0, System.currentTimeMillis(), new Ringkasan());
+            Path lama = Paths.get(namaDasar + AKHIRAN_SEGMEN);
+            if (Files.exists(lama)) {
+                // Log satu file dari versi sebelumnya menjadi segmen aktif pertama
+                Files.move(lama, Paths.get(pertama.namaFile));
+                Path indeksLama = Paths.get(namaDasar + AKHIRAN_SEGMEN + LogPesanan.AKHIRAN_INDEKS);
+                if (Files.exists(indeksLama)) {
+                    Files.move(indeksLama, Paths.get(pertama.namaFile + LogPesanan.AKHIRAN_INDEKS));
+                }
+            }
+            daftarSegmen.add(pertama);
+        }
+
+        HistoriPesanan histori = new HistoriPesanan(namaDasar, mode, kebijakan, daftarSegmen, nomorBerikutnya);
+        Segmen segmenAktif = histori.segmenAktif();
+        if (segmenAktif == null) {
+            throw new IOException("Manifest histori pesanan tidak memiliki segmen aktif");
+        }
+        histori.aktif = LogPesanan.buka(segmenAktif.namaFile, mode);
+        if (manifestBaru) {
+            histori.tulisManifest();
+        }
+        histori.bersihkanSisa();
+
+        histori.kunci.writeLock().lock();
+        try {
+            histori.rotasiJikaPerlu(System.currentTimeMillis());
+        } finally {
+            histori.kunci.writeLock().unlock();
+        }
+        histori.jadwalkanPemeliharaan();
+        return histori;
+    }
+
+    /**
+     * Metode untuk mencatat pesanan yang sudah selesai ke segmen aktif.
+     * Segmen dirotasi setelahnya jika melewati batas ukuran atau umur.
+     * @param pesanan Pesanan yang dicatat
+     * @throws IOException jika histori sudah ditutup atau penulisan gagal
+     */
+    public void catat(Pesanan pesanan) throws IOException {
+        kunci.readLock().lock();
+        try {
+            if (ditutup) {
+                throw new IOException("Histori pesanan sudah ditutup");
+            }
+            aktif.catat(pesanan);
+        } finally {
+            kunci.readLock().unlock();
+        }
+        long sekarang = System.currentTimeMillis();
+        if (perluRotasi(sekarang)) {
+            kunci.writeLock().lock();
+            try {
+                if (!ditutup && rotasiJikaPerlu(sekarang)) {
+                    jadwalkanPemeliharaan();
+                }
+            } catch (IOException e) {
+                // Pesanan sudah tercatat; segmen lama tetap aktif dan rotasi dicoba lagi pada catat berikutnya
+                System.err.println("Peringatan: rotasi segmen histori pesanan gagal: " + e.getMessage());
+            } finally {
+                kunci.writeLock().unlock();
+            }
+        }
+    }
+
+    // Dibaca tanpa lock tulis: cukup sebagai petunjuk, diperiksa ulang di rotasiJikaPerlu
+    private boolean perluRotasi(long sekarang) {
+        kunci.readLock().lock();
+        try {
+            Segmen segmen = segmenAktif();
+            return !ditutup && aktif.getUkuran() > LogPesanan.UKURAN_HEADER
+                && (aktif.getUkuran() >= kebijakan.batasUkuranSegmen
+                    || sekarang - segmen.dibuat >= kebijakan.batasUmurSegmen);
+        } finally {
+            kunci.readLock().unlock();
+        }
+    }
+
+    /**
+     * Merotasi segmen aktif jika perlu. Dipanggil dengan memegang lock tulis.
+     * @return true jika segmen dirotasi
+     */
+    private boolean rotasiJikaPerlu(long sekarang) throws IOException {
+        Segmen lama = segmenAktif();
+        long ukuran = aktif.getUkuran();
+        if (ukuran <= LogPesanan.UKURAN_HEADER
+                || (ukuran < kebijakan.batasUkuranSegmen && sekarang - lama.dibuat < kebijakan.batasUmurSegmen)) {
+            return false;
+        }
+        // Tutup dulu agar pesanan yang masih antre (mode ASINKRON) ikut tercatat di segmen lama
+        aktif.close();
+
+        // Keadaan baru disiapkan sebagai salinan dan baru dipasang setelah manifest tersimpan;
+        // jika ada yang gagal, segmen lama dibuka lagi dan tetap menjadi segmen aktif
+        Segmen baru = new Segmen(nomorBerikutnya, StatusSegmen.AKTIF,
+            namaFileSegmen(namaDasar, nomorBerikutnya), 0, sekarang, new Ringkasan());
+        LogPesanan logBaru = null;
+        try {
+            long ukuranLama = Files.size(Paths.get(lama.namaFile));
+            Ringkasan ringkasanLama = new Ringkasan();
+            ringkasanLama.gabung(lama.ringkasan);
+            ringkasanLama.gabung(hitungRingkasanSegmen(lama.namaFile, ukuranLama));
+            Segmen tertutup = new Segmen(lama.nomor, StatusSegmen.TERTUTUP, lama.namaFile,
+                ukuranLama, lama.dibuat, ringkasanLama);
+            List<Segmen> daftarBaru = new ArrayList<>(daftarSegmen);
+            int posisi = daftarBaru.indexOf(lama);
+            daftarBaru.set(posisi, tertutup);
+            daftarBaru.add(baru);
+
+            // Segmen baru dibuat sebelum manifest; jika crash di antaranya, file yang belum
+            // tercatat dipakai lagi oleh rotasi berikutnya
+            logBaru = LogPesanan.buka(baru.namaFile, mode);
+            tulisManifest(daftarBaru, nomorBerikutnya + 1);
+
+            daftarSegmen.set(posisi, tertutup);
+            daftarSegmen.add(baru);
+            nomorBerikutnya++;
+            aktif = logBaru;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            if (logBaru != null) {
+                try {
+                    logBaru.close();
+                    hapusFileLog(baru.namaFile);
+                } catch (IOException e2) {
+                    e.addSuppressed(e2);
+                }
+            }
+            try {
+                aktif = LogPesanan.buka(lama.namaFile, mode);
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+    }
+
+    private static Ringkasan hitungRingkasanSegmen(String namaFile, long ukuran) throws IOException {
+        Ringkasan ringkasan = new Ringkasan();
+        try (FileChannel channel = FileChannel.open(Paths.get(namaFile), StandardOpenOption.READ)) {
+            PembacaLogPesanan pembaca = new PembacaLogPesanan(channel, LogPesanan.UKURAN_HEADER, ukuran,
+                PembacaLogPesanan.UKURAN_SEGMEN);
+            while (pembaca.berikutnya()) {
+                ringkasan.tambah(pembaca.getIdPesanan(), pembaca.getWaktu(),
+                    pembaca.getTotalAkhirSen(), pembaca.getPajakSen());
+            }
+        }
+        return ringkasan;
+    }
+
+    private void jadwalkanPemeliharaan() {
+        pemeliharaan.execute(() -> {
+            try {
+                jalankanPemeliharaan(System.currentTimeMillis());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Peringatan: pemeliharaan histori pesanan gagal: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Menerapkan retensi lalu mengarsipkan segmen tertutup yang sudah cukup lama.
+     * Kompresi berjalan tanpa lock (segmen tertutup tidak berubah); manifest diubah di bawah lock tulis.
+     */
+    void jalankanPemeliharaan(long sekarang) throws IOException {
+        synchronized (kunciPemeliharaan) {
+            terapkanRetensiDanArsip(sekarang);
+        }
+    }
+
+    private void terapkanRetensiDanArsip(long sekarang) throws IOException {
+        if (kebijakan.retensi > 0) {
+            hapusSebelum(sekarang - kebijakan.retensi);
+        }
+
+        List<Segmen> calon = new ArrayList<>();
+        kunci.readLock().lock();
+        try {
+            for (Segmen segmen : daftarSegmen) {
+                if (segmen.status == StatusSegmen.TERTUTUP
+                        && segmen.ringkasan.waktuMaks <= sekarang - kebijakan.arsipkanSetelah) {
+                    calon.add(segmen);
+                }
+            }
+        } finally {
+            kunci.readLock().unlock();
+        }
+
+        for (Segmen segmen : calon) {
+            String namaArsip = namaDasar + "." + String.format("%06d", segmen.nomor) + AKHIRAN_ARSIP;
+            String namaLog = segmen.namaFile;
+            long ukuran = segmen.ukuran;
+            BerkasAtomik.tulis(namaArsip, out -> {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+                try (FileChannel channel = FileChannel.open(Paths.get(namaLog), StandardOpenOption.READ)) {
+                    ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+                    long posisi = 0;
+                    while (posisi < ukuran) {
+                        buf.clear().limit((int) Math.min(buf.capacity(), ukuran - posisi));
+                        int dibaca = channel.read(buf, posisi);
+                        if (dibaca < 0) {
+                            throw new EOFException("Segmen " + namaLog + " lebih pendek dari yang tercatat");
+                        }
+                        gzip.write(buf.array(), 0, dibaca);
+                        posisi += dibaca;
+                    }
+                }
+                gzip.finish(); // Stream tidak ditutup; BerkasAtomik yang menutup file
+                gzip.flush();
+            });
+
+            kunci.writeLock().lock();
+            try {
+                if (ditutup || segmen.status != StatusSegmen.TERTUTUP || !daftarSegmen.contains(segmen)) {
+                    Files.deleteIfExists(Paths.get(namaArsip)); // Segmen sudah dihapus selama kompresi
+                    continue;
+                }
+                segmen.status = StatusSegmen.ARSIP;
+                segmen.namaFile = namaArsip;
+                segmen.ukuran = Files.size(Paths.get(namaArsip));
+                tulisManifest();
+                lepasLogBaca(segmen);
+                hapusFileLog(namaLog);
+            } finally {
+                kunci.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Metode untuk menghapus segmen (selain segmen aktif) yang semua pesanannya lebih
+     * tua dari batas waktu. Penghapusan per segmen, tidak per pesanan.
+     * @param batas Pesanan sebelum waktu ini (epoch ms) boleh dihapus
+     * @return Jumlah pesanan yang dihapus
+     * @throws IOException jika manifest tidak dapat ditulis
+     */
+    public int hapusSebelum(long batas) throws IOException {
+        kunci.writeLock().lock();
+        try {
+            List<Segmen> dihapus = new ArrayList<>();
+            for (Segmen segmen : daftarSegmen) {
+                if (segmen.status != StatusSegmen.AKTIF && segmen.ringkasan.waktuMaks < batas) {
+                    dihapus.add(segmen);
+                }
+            }
+            if (dihapus.isEmpty()) {
+                return 0;
+            }
+            daftarSegmen.removeAll(dihapus);
+            tulisManifest(); // Manifest dulu; file yang tertinggal dibersihkan saat dibuka lagi
+            int jumlah = 0;
+            for (Segmen segmen : dihapus) {
+                jumlah += segmen.ringkasan.jumlah;
+                lepasLogBaca(segmen);
+                hapusFileSegmen(segmen);
+            }
+            return jumlah;
+        } finally {
+            kunci.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metode untuk mencari pesanan berdasarkan ID di semua segmen yang rentang ID-nya cocok
+     * @param idPesanan ID pesanan
+     * @return Catatan pesanan sesuai urutan penulisan
+     * @throws IOException jika segmen tidak dapat dibaca
+     */
+    public List<LogPesanan.CatatanPesanan> cariId(int idPesanan) throws IOException {
+        List<LogPesanan.CatatanPesanan> hasil = new ArrayList<>();
+        kunci.readLock().lock();
+        try {
+            for (Segmen segmen : daftarSegmen) {
+                if (segmen.diLuarId(idPesanan)) {
+                    continue;
+                }
+                if (segmen.status == StatusSegmen.ARSIP) {
+                    pindaiArsip(segmen, catatan -> {
+                        if (catatan.getIdPesanan() == idPesanan) {
+                            hasil.add(catatan);
+                        }
+                    });
+                } else {
+                    hasil.addAll(bukaUntukBaca(segmen).cariId(idPesanan));
+                }
+            }
+        } finally {
+            kunci.readLock().unlock();
+        }
+        return hasil;
+    }
+
+    /**
+     * Metode untuk mencari pesanan berdasarkan nomor meja di semua segmen
+     * @param noMeja Nomor meja
+     * @return Catatan pesanan sesuai urutan penulisan
+     * @throws IOException jika segmen tidak dapat dibaca
+     */
+    public List<LogPesanan.CatatanPesanan> cariMeja(String noMeja) throws IOException {
+        List<LogPesanan.CatatanPesanan> hasil = new ArrayList<>();
+        kunci.readLock().lock();
+        try {
+            for (Segmen segmen : daftarSegmen) {
+                if (segmen.status != StatusSegmen.AKTIF && segmen.ringkasan.jumlah == 0) {
+                    continue;
+                }
+                if (segmen.status == StatusSegmen.ARSIP) {
+                    pindaiArsip(segmen, catatan -> {
+                        if (IndeksPesanan.mejaSama(catatan.getNoMeja(), noMeja)) {
+                            hasil.add(catatan);
+                        }
+                    });
+                } else {
+                    hasil.addAll(bukaUntukBaca(segmen).cariMeja(noMeja));
+                }
+            }
+        } finally {
+            kunci.readLock().unlock();
+        }
+        return hasil;
+    }
+
+    /**
+     * Metode untuk mencari pesanan dalam rentang waktu [dari, sampai).
+     * Hanya segmen yang rentang waktunya beririsan yang dibaca.
+     * @param dari Awal rentang (termasuk)
+     * @param sampai Akhir rentang (tidak termasuk)
+     * @return Catatan pesanan sesuai urutan penulisan
+     * @throws IOException jika segmen tidak dapat dibaca
+     */
+    public List<LogPesanan.CatatanPesanan> cariRentangWaktu(Date dari, Date sampai) throws IOException {
+        long awal = dari.getTime();
+        long akhir = sampai.getTime();
+        List<LogPesanan.CatatanPesanan> hasil = new ArrayList<>();
+        kunci.readLock().lock();
+        try {
+            for (Segmen segmen : daftarSegmen) {
+                if (segmen.diLuarWaktu(awal, akhir)) {
+                    continue;
+                }
+                if (segmen.status == StatusSegmen.ARSIP) {
+                    pindaiArsip(segmen, catatan -> {
+                        if (catatan.getWaktu() >= awal && catatan.getWaktu() < akhir) {
+                            hasil.add(catatan);
+                        }
+                    });
+                } else {
+                    hasil.addAll(bukaUntukBaca(segmen).cariRentangWaktu(dari, sampai));
+                }
+            }
+        } finally {
+            kunci.readLock().unlock();
+        }
+        return hasil;
+    }
+
+    /**
+     * Metode untuk menulis seluruh histori yang dapat dibaca manusia, segmen demi segmen
+     * @param tujuan Tujuan penulisan
+     * @return Jumlah pesanan yang ditulis
+     * @throws IOException jika segmen tidak dapat dibaca atau tujuan gagal ditulis
+     */
+    public int tulisHistori(Appendable tujuan) throws IOException {
+        SimpleDateFormat formatTanggal = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss");
+        int[] jumlah = {0};
+        kunci.readLock().lock();
+        try {
+            for (Segmen segmen : daftarSegmen) {
+                if (segmen.status == StatusSegmen.ARSIP) {
+                    pindaiArsip(segmen, catatan -> {
+                        catatan.tulisKe(tujuan, formatTanggal);
+                        jumlah[0]++;
+                    });
+                } else {
+                    jumlah[0] += bukaUntukBaca(segmen).tulisHistori(tujuan);
+                }
+            }
+        } finally {
+            kunci.readLock().unlock();
+        }
+        return jumlah[0];
+    }
+
+    /**
+     * Metode untuk menghitung ringkasan penjualan seluruh histori. Segmen tertutup dan
+     * arsip diambil dari manifest; hanya segmen aktif yang dipindai.
+     * @return Ringkasan penjualan
+     * @throws IOException jika segmen aktif tidak dapat dibaca
+     */
+    public Ringkasan hitungRingkasan() throws IOException {
+        Ringkasan hasil = new Ringkasan();
+        kunci.readLock().lock();
+        try {
+            for (Segmen segmen : daftarSegmen) {
+                if (segmen.status != StatusSegmen.AKTIF) {
+                    hasil.gabung(segmen.ringkasan);
+                }
+            }
+            PembacaLogPesanan pembaca = aktif.bukaPembaca();
+            while (pembaca.berikutnya()) {
+                hasil.tambah(pembaca.getIdPesanan(), pembaca.getWaktu(),
+                    pembaca.getTotalAkhirSen(), pembaca.getPajakSen());
+            }
+        } finally {
+            kunci.readLock().unlock();
+        }
+        return hasil;
+    }
+
+    /**
+     * Metode untuk membangun ulang indeks semua segmen yang belum diarsipkan
+     * @return Jumlah pesanan yang terindeks
+     * @throws IOException jika segmen tidak dapat dibaca atau indeks tidak dapat ditulis
+     */
+    public int bangunUlangIndeks() throws IOException {
+        int jumlah = 0;
+        kunci.readLock().lock();
+        try {
+            for (Segmen segmen : daftarSegmen) {
+                if (segmen.status == StatusSegmen.ARSIP) {
+                    continue;
+                }
+                jumlah += bukaUntukBaca(segmen).bangunUlangIndeks();
+            }
+        } finally {
+            kunci.readLock().unlock();
+        }
+        return jumlah;
+    }
+
+    /**
+     * Metode untuk mendapatkan keterangan segmen (untuk statistik file)
+     * @return Satu baris per segmen
+     */
+    public List<String> getKeteranganSegmen() {
+        List<String> hasil = new ArrayList<>();
+        kunci.readLock().lock();
+        try {
+            for (Segmen segmen : daftarSegmen) {
+                long ukuran = segmen.status == StatusSegmen.AKTIF ? aktif.getUkuran() : segmen.ukuran;
+                String jumlah = segmen.status == StatusSegmen.AKTIF ? "-" : String.valueOf(segmen.ringkasan.jumlah);
+                hasil.add(String.format("%s [%s] %d bytes, %s pesanan", segmen.namaFile, segmen.status, ukuran, jumlah));
+            }
+        } finally {
+            kunci.readLock().unlock();
+        }
+        return hasil;
+    }
+
+    /**
+     * Metode untuk menutup histori. Pesanan yang masih antre ditulis dulu, dan
+     * pemeliharaan yang sedang berjalan ditunggu sampai selesai.
+     * @throws IOException jika penulisan terakhir gagal
+     */
+    @Override
+    public void close() throws IOException {
+        kunci.writeLock().lock();
+        try {
+            if (ditutup) {
+                return;
+            }
+            ditutup = true;
+            pemeliharaan.shutdown();
+        } finally {
+            kunci.writeLock().unlock();
+        }
+        try {
+            pemeliharaan.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Penutupan histori pesanan dihentikan");
+        } finally {
+            kunci.writeLock().lock();
+            try {
+                for (Segmen segmen : daftarSegmen) {
+                    lepasLogBaca(segmen);
+                }
+                aktif.close();
+            } finally {
+                kunci.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Metode untuk menghapus seluruh file histori (manifest, segmen, indeks, arsip, dan
+     * log satu file versi lama). Histori harus sudah ditutup.
+     * @param namaDasar Nama dasar file histori
+     * @return true jika ada file yang dihapus
+     * @throws IOException jika manifest tidak dapat dibaca
+     */
+    public static boolean hapusSemua(String namaDasar) throws IOException {
+        boolean terhapus = false;
+        Path manifest = Paths.get(namaDasar + AKHIRAN_MANIFEST);
+        if (Files.exists(manifest)) {
+            List<Segmen> daftarSegmen = new ArrayList<>();
+            bacaManifest(manifest, daftarSegmen);
+            for (Segmen segmen : daftarSegmen) {
+                terhapus |= hapusFileSegmen(segmen);
+            }
+            terhapus |= Files.deleteIfExists(manifest);
+        }
+        terhapus |= hapusFileLog(namaDasar + AKHIRAN_SEGMEN);
+        return terhapus;
+    }
+
+    /**
+     * Metode untuk mengecek apakah ada histori tersimpan dengan nama dasar tertentu
+     */
+    public static boolean ada(String namaDasar) {
+        return Files.exists(Paths.get(namaDasar + AKHIRAN_MANIFEST))
+            || Files.exists(Paths.get(namaDasar + AKHIRAN_SEGMEN));
+    }
+
+    private Segmen segmenAktif() {
+        for (int i = daftarSegmen.size() - 1; i >= 0; i--) {
+            if (daftarSegmen.get(i).status == StatusSegmen.AKTIF) {
+                return daftarSegmen.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Mendapatkan log segmen untuk dibaca. Dipanggil dengan memegang lock baca atau tulis;
+     * pembaca yang bersamaan membuka (dan melengkapi indeks) segmen yang sama hanya sekali.
+     */
+    private LogPesanan bukaUntukBaca(Segmen segmen) throws IOException {
+        if (segmen.status == StatusSegmen.AKTIF) {
+            return aktif;
+        }
+        synchronized (logTertutup) {
+            LogPesanan log = logTertutup.get(segmen.nomor);
+            if (log == null) {
+                log = LogPesanan.bukaBaca(segmen.namaFile, segmen.ukuran);
+                logTertutup.put(segmen.nomor, log);
+            }
+            return log;
+        }
+    }
+
+    // Dipanggil dengan memegang lock tulis, sebelum file segmen diganti atau dihapus
+    private void lepasLogBaca(Segmen segmen) throws IOException {
+        LogPesanan log;
+        synchronized (logTertutup) {
+            log = logTertutup.remove(segmen.nomor);
+        }
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    // Membaca arsip GZIP record demi record; CRC setiap record diperiksa
+    private static void pindaiArsip(Segmen segmen, PengunjungCatatan pengunjung) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new BufferedInputStream(new FileInputStream(segmen.namaFile), 64 * 1024), 64 * 1024))) {
+            byte[] prefiks = new byte[LogPesanan.UKURAN_HEADER];
+            in.readFully(prefiks, 0, LogPesanan.UKURAN_HEADER);
+            ByteBuffer header = ByteBuffer.wrap(prefiks).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != LogPesanan.MAGIC) {
+                throw new IOException("Bukan arsip log pesanan: " + segmen.namaFile);
+            }
+            byte[] isi = new byte[4096];
+            CRC32C crc = new CRC32C();
+            long posisi = LogPesanan.UKURAN_HEADER;
+            while (true) {
+                try {
+                    in.readFully(prefiks, 0, LogPesanan.UKURAN_PREFIKS_RECORD);
+                } catch (EOFException e) {
+                    return;
+                }
+                int panjang = header.getInt(0);
+                int crcTersimpan = header.getInt(4);
+                if (panjang <= 0 || panjang > LogPesanan.BATAS_UKURAN_RECORD) {
+                    throw new IOException("Arsip " + segmen.namaFile + " rusak pada offset " + posisi);
+                }
+                if (isi.length < panjang) {
+                    isi = new byte[Math.max(panjang, isi.length * 2)];
+                }
+                in.readFully(isi, 0, panjang);
+                crc.reset();
+                crc.update(isi, 0, panjang);
+                if ((int) crc.getValue() != crcTersimpan) {
+                    throw new IOException("Arsip " + segmen.namaFile + " rusak pada offset " + posisi);
+                }
+                pengunjung.terima(LogPesanan.CatatanPesanan.dekode(
+                    ByteBuffer.wrap(isi, 0, panjang).slice().order(ByteOrder.LITTLE_ENDIAN)));
+                posisi += LogPesanan.UKURAN_PREFIKS_RECORD + panjang;
+            }
+        }
+    }
+
+    private static int bacaManifest(Path manifest, List<Segmen> daftarSegmen) throws IOException {
+        int nomorBerikutnya = 1;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(manifest.toFile()), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER_MANIFEST + "|")) {
+                throw new IOException("Bukan manifest histori pesanan: " + manifest);
+            }
+            String line;
+            int nomorBaris = 1;
+            while ((line = reader.readLine()) != null) {
+                nomorBaris++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] f = line.split("\\|", -1);
+                try {
+                    if (f[0].equals("berikutnya")) {
+                        nomorBerikutnya = Integer.parseInt(f[1]);
+                    } else if (f[0].equals("segmen") && f.length == 13) {
+                        daftarSegmen.add(Segmen.dariBaris(f));
+                    } else {
+                        throw new IllegalArgumentException("jenis baris tidak dikenal");
+                    }
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    throw new IOException("Manifest histori pesanan baris " + nomorBaris + ": " + e.getMessage());
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new IOException("Manifest histori pesanan tidak dapat dibuka: " + manifest);
+        }
+        return nomorBerikutnya;
+    }
+
+    private void tulisManifest() throws IOException {
+        tulisManifest(daftarSegmen, nomorBerikutnya);
+    }
+
+    private void tulisManifest(List<Segmen> daftar, int berikutnya) throws IOException {
+        BerkasAtomik.tulis(namaDasar + AKHIRAN_MANIFEST, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(HEADER_MANIFEST + "|" + VERSI_MANIFEST + "\n");
+            writer.write("berikutnya|" + berikutnya + "\n");
+            for (Segmen segmen : daftar) {
+                writer.write(segmen.keBaris());
+                writer.write('\n');
+            }
+            writer.flush(); // Stream tidak ditutup; BerkasAtomik yang menutup file
+        });
+    }
+
+    /**
+     * Menghapus file yang tertinggal karena crash di tengah pengarsipan atau penghapusan:
+     * log segmen yang sudah diarsipkan dan file segmen yang tidak lagi tercatat di manifest.
+     */
+    private void bersihkanSisa() throws IOException {
+        List<String> tercatat = new ArrayList<>();
+        for (Segmen segmen : daftarSegmen) {
+            tercatat.add(Paths.get(segmen.namaFile).getFileName().toString());
+            if (segmen.status == StatusSegmen.ARSIP) {
+                hapusFileLog(namaFileSegmen(namaDasar, segmen.nomor));
+            }
+        }
+        String awalan = Paths.get(namaDasar).getFileName().toString() + ".";
+        try (java.util.stream.Stream<Path> isi = Files.list(direktori)) {
+            for (Path file : (Iterable<Path>) isi::iterator) {
+                String nama = file.getFileName().toString();
+                if (!nama.startsWith(awalan) || nama.length() < awalan.length() + 6) {
+                    continue;
+                }
+                String nomor = nama.substring(awalan.length(), awalan.length() + 6);
+                String akhiran = nama.substring(awalan.length() + 6);
+                if (!nomor.chars().allMatch(Character::isDigit) || Integer.parseInt(nomor) >= nomorBerikutnya) {
+                    continue;
+                }
+                boolean fileSegmen = akhiran.equals(AKHIRAN_SEGMEN)
+                    || akhiran.equals(AKHIRAN_SEGMEN + LogPesanan.AKHIRAN_INDEKS)
+                    || akhiran.equals(AKHIRAN_ARSIP) || akhiran.endsWith(".tmp");
+                String namaUtama = akhiran.endsWith(LogPesanan.AKHIRAN_INDEKS)
+                    ? nama.substring(0, nama.length() - LogPesanan.AKHIRAN_INDEKS.length()) : nama;
+                if (fileSegmen && !tercatat.contains(namaUtama)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static String namaFileSegmen(String namaDasar, int nomor) {
+        return namaDasar + "." + String.format("%06d", nomor) + AKHIRAN_SEGMEN;
+    }
+
+    private static boolean hapusFileSegmen(Segmen segmen) throws IOException {
+        if (segmen.status == StatusSegmen.ARSIP) {
+            return Files.deleteIfExists(Paths.get(segmen.namaFile));
+        }
+        return hapusFileLog(segmen.namaFile);
+    }
+
+    private static boolean hapusFileLog(String namaLog) throws IOException {
+        boolean terhapus = Files.deleteIfExists(Paths.get(namaLog));
+        Files.deleteIfExists(Paths.get(namaLog + LogPesanan.AKHIRAN_INDEKS));
+        return terhapus;
+    }
+}
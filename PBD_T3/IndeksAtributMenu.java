@@ -0,0 +1,382 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kelas IndeksAtributMenu untuk filter menu berdasarkan atribut.
+ * Setiap menu mendapat nomor slot, dan setiap pasangan atribut=nilai memetakan
+ * ke bitset berisi slot yang memilikinya. Filter multi-atribut menjadi operasi
+ * AND/OR/ANDNOT pada bitset tanpa membandingkan string per item.
+ *
+ * Indeks tidak dapat diubah: tambah, hapus dan ganti mengembalikan indeks baru.
+ * Bitset disimpan per blok di IndeksIdMenu, sehingga perubahan satu slot hanya
+ * menyalin satu blok dan jalurnya, dan versi lama tetap utuh bagi pembaca.
+ */
+public final class IndeksAtributMenu {
+    // Nama atribut yang diisi oleh MenuItem.isiAtribut()
+    public static final String TIPE = "tipe";
+    public static final String KATEGORI = "kategori";
+    public static final String JENIS_MAKANAN = "jenisMakanan";
+    public static final String KEPEDASAN = "kepedasan";
+    public static final String PEDAS = "pedas";
+    public static final String JENIS_MINUMAN = "jenisMinuman";
+    public static final String UKURAN = "ukuran";
+    public static final String PANAS = "panas";
+    public static final String GULA = "gula";
+    public static final String AKTIF = "aktif";
+
+    // Kunci atribut=nilai per atribut untuk nilai ter-intern dan boolean (lihat kunci)
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<Object, String>> KUNCI_TERSIMPAN =
+            new ConcurrentHashMap<>();
+    private static final Comparator<Entri> URUT_KUNCI = Comparator.comparing((Entri e) -> e.kunci);
+
+    /** Indeks tanpa menu */
+    public static final IndeksAtributMenu KOSONG = new IndeksAtributMenu(IndeksIdMenu.kosong(),
+            PohonUrut.kosong(URUT_KUNCI), Bitset.KOSONG, null, 0);
+
+    private final IndeksIdMenu<CatatanMenu> slot;
+    private final PohonUrut<Entri> indeks;
+    private final Bitset slotTerpakai;
+    // Tumpukan slot bekas item yang dihapus, dipakai ulang sebelum slot baru
+    private final SlotKosong slotKosong;
+    // Slot berikutnya yang belum pernah dipakai
+    private final int slotBaru;
+
+    private IndeksAtributMenu(IndeksIdMenu<CatatanMenu> slot, PohonUrut<Entri> indeks, Bitset slotTerpakai,
+                              SlotKosong slotKosong, int slotBaru) {
+        this.slot = slot;
+        this.indeks = indeks;
+        this.slotTerpakai = slotTerpakai;
+        this.slotKosong = slotKosong;
+        this.slotBaru = slotBaru;
+    }
+
+    /**
+     * Metode untuk mendapatkan nomor slot yang akan dipakai item berikutnya
+     * @return Nomor slot untuk CatatanMenu yang akan ditambahkan
+     */
+    int slotBerikutnya() {
+        return slotKosong != null ? slotKosong.nomor : slotBaru;
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru yang juga memuat menu item
+     * @param catatan Catatan item dengan slot dari slotBerikutnya()
+     * @return Indeks baru, indeks ini tidak berubah
+     */
+    IndeksAtributMenu tambah(CatatanMenu catatan) {
+        int nomor = catatan.slot;
+        if (nomor != slotBerikutnya()) {
+            throw new IllegalArgumentException("Slot " + nomor + " bukan slot berikutnya " + slotBerikutnya());
+        }
+        return new IndeksAtributMenu(slot.tambah(nomor, catatan), pasangBit(indeks, nomor, catatan.kunciAtribut),
+                slotTerpakai.dengan(nomor),
+                slotKosong != null ? slotKosong.berikut : null,
+                slotKosong != null ? slotBaru : slotBaru + 1);
+    }
+
+    /**
+     * Metode untuk mendapatkan nomor slot yang akan dipakai sejumlah item berikutnya
+     * @param jumlah Jumlah item yang akan ditambahkan sekaligus
+     * @return Nomor slot sesuai urutan item untuk tambahSemua
+     */
+    int[] slotBerikutnya(int jumlah) {
+        int[] nomor = new int[jumlah];
+        SlotKosong bekas = slotKosong;
+        int baru = slotBaru;
+        for (int i = 0; i < jumlah; i++) {
+            if (bekas != null) {
+                nomor[i] = bekas.nomor;
+                bekas = bekas.berikut;
+            } else {
+                nomor[i] = baru++;
+            }
+        }
+        return nomor;
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru yang juga memuat banyak menu item sekaligus.
+     * Slot setiap pasangan atribut=nilai dikumpulkan dulu, lalu setiap bitset dan
+     * pohon kunci diperbarui sekali, bukan sekali per item.
+     * @param catatan Catatan item dengan slot dari slotBerikutnya(jumlah), sesuai urutan
+     * @param jumlah Jumlah catatan yang dipakai
+     * @return Indeks baru, indeks ini tidak berubah
+     */
+    IndeksAtributMenu tambahSemua(CatatanMenu[] catatan, int jumlah) {
+        if (jumlah == 0) {
+            return this;
+        }
+        int[] nomor = slotBerikutnya(jumlah);
+        HashMap<String, DaftarSlot> perKunci = new HashMap<>();
+        for (int i = 0; i < jumlah; i++) {
+            if (catatan[i].slot != nomor[i]) {
+                throw new IllegalArgumentException("Slot " + catatan[i].slot + " bukan slot berikutnya " + nomor[i]);
+            }
+            for (String k : catatan[i].kunciAtribut) {
+                perKunci.computeIfAbsent(k, x -> new DaftarSlot()).tambah(nomor[i]);
+            }
+        }
+
+        Entri[] entriBaru = new Entri[perKunci.size()];
+        int n = 0;
+        for (Map.Entry<String, DaftarSlot> e : perKunci.entrySet()) {
+            Entri lama = indeks.cari(new Entri(e.getKey(), null));
+            DaftarSlot daftar = e.getValue();
+            entriBaru[n++] = new Entri(e.getKey(),
+                    (lama == null ? Bitset.KOSONG : lama.bit).denganSemua(daftar.isi, daftar.jumlah));
+        }
+        Arrays.sort(entriBaru, URUT_KUNCI);
+
+        SlotKosong sisaKosong = slotKosong;
+        int slotBaruBerikut = slotBaru;
+        for (int i = 0; i < jumlah; i++) {
+            if (sisaKosong != null) {
+                sisaKosong = sisaKosong.berikut;
+            } else {
+                slotBaruBerikut++;
+            }
+        }
+        return new IndeksAtributMenu(slot.tambahSemua(nomor, catatan, jumlah),
+                indeks.gabung(PohonUrut.dariTerurut(URUT_KUNCI, entriBaru, n)),
+                slotTerpakai.denganSemua(nomor.clone(), jumlah), sisaKosong, slotBaruBerikut);
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru tanpa menu item
+     * @param catatan Catatan item yang sedang diindeks
+     * @return Indeks baru, indeks ini tidak berubah
+     */
+    IndeksAtributMenu hapus(CatatanMenu catatan) {
+        int nomor = catatan.slot;
+        if (slot.get(nomor) == null) {
+            return this;
+        }
+        return new IndeksAtributMenu(slot.hapus(nomor), lepasBit(indeks, nomor, catatan.kunciAtribut),
+                slotTerpakai.tanpa(nomor), new SlotKosong(nomor, slotKosong), slotBaru);
+    }
+
+    /**
+     * Metode untuk mengindeks ulang atribut satu item setelah setter dipanggil
+     * @param lama Catatan item yang sedang diindeks
+     * @param baru Catatan item dengan nilai saat ini dan slot yang sama
+     * @return Indeks baru, indeks ini tidak berubah
+     */
+    IndeksAtributMenu ganti(CatatanMenu lama, CatatanMenu baru) {
+        int nomor = lama.slot;
+        PohonUrut<Entri> indeksBaru = indeks;
+        if (!Arrays.equals(lama.kunciAtribut, baru.kunciAtribut)) {
+            indeksBaru = pasangBit(lepasBit(indeks, nomor, lama.kunciAtribut), nomor, baru.kunciAtribut);
+        }
+        return new IndeksAtributMenu(slot.tambah(nomor, baru), indeksBaru, slotTerpakai, slotKosong, slotBaru);
+    }
+
+    /**
+     * Metode untuk menjalankan filter terhadap indeks
+     * @param filter FilterMenu yang berisi syarat atribut
+     * @return List menu yang memenuhi semua syarat, urut berdasarkan slot
+     */
+    public ArrayList<MenuItem> filter(FilterMenu filter) {
+        int jumlahKata = (slotBaru + 63) >>> 6;
+        long[] hasil = new long[jumlahKata];
+        slotTerpakai.atauKe(hasil);
+        for (List<String> pilihan : filter.getSyaratWajib()) {
+            long[] gabungan = new long[jumlahKata];
+            for (String kunci : pilihan) {
+                Entri entri = indeks.cari(new Entri(kunci, null));
+                if (entri != null) {
+                    entri.bit.atauKe(gabungan);
+                }
+            }
+            boolean kosong = true;
+            for (int i = 0; i < jumlahKata; i++) {
+                hasil[i] &= gabungan[i];
+                kosong &= hasil[i] == 0;
+            }
+            if (kosong) {
+                return new ArrayList<>();
+            }
+        }
+        for (String kunci : filter.getSyaratLarangan()) {
+            Entri entri = indeks.cari(new Entri(kunci, null));
+            if (entri != null) {
+                entri.bit.hapusDari(hasil);
+            }
+        }
+
+        ArrayList<MenuItem> daftar = new ArrayList<>();
+        for (int i = 0; i < jumlahKata; i++) {
+            for (long kata = hasil[i]; kata != 0; kata &= kata - 1) {
+                daftar.add(slot.get((i << 6) + Long.numberOfTrailingZeros(kata)).item);
+            }
+        }
+        return daftar;
+    }
+
+    /**
+     * Metode untuk membentuk kunci indeks dari atribut dan nilainya. Kunci untuk nilai
+     * yang sudah di-intern (NilaiAtribut) dan boolean disimpan, sehingga semua item dengan
+     * nilai yang sama memakai satu objek String dan pemuatan katalog tidak membentuknya ulang.
+     * @param atribut Nama atribut
+     * @param nilai Nilai atribut
+     * @return Kunci dalam format atribut=nilai (nilai huruf kecil)
+     */
+    public static String kunci(String atribut, Object nilai) {
+        if (nilai instanceof NilaiAtribut || nilai instanceof Boolean) {
+            return KUNCI_TERSIMPAN.computeIfAbsent(atribut, a -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(nilai, n -> bentukKunci(atribut, n));
+        }
+        return bentukKunci(atribut, nilai);
+    }
+
+    private static String bentukKunci(String atribut, Object nilai) {
+        return atribut + "=" + String.valueOf(nilai).toLowerCase(Locale.ROOT);
+    }
+
+    private static PohonUrut<Entri> pasangBit(PohonUrut<Entri> indeks, int nomor, String[] kunciItem) {
+        for (String k : kunciItem) {
+            Entri lama = indeks.cari(new Entri(k, null));
+            indeks = indeks.tambah(new Entri(k, (lama == null ? Bitset.KOSONG : lama.bit).dengan(nomor)));
+        }
+        return indeks;
+    }
+
+    private static PohonUrut<Entri> lepasBit(PohonUrut<Entri> indeks, int nomor, String[] kunciItem) {
+        for (String k : kunciItem) {
+            Entri lama = indeks.cari(new Entri(k, null));
+            if (lama != null) {
+                Bitset bit = lama.bit.tanpa(nomor);
+                indeks = bit.isKosong() ? indeks.hapus(lama) : indeks.tambah(new Entri(k, bit));
+            }
+        }
+        return indeks;
+    }
+
+    /**
+     * Inner class Entri untuk pasangan kunci atribut=nilai dan bitset slotnya
+     */
+    private static final class Entri {
+        final String kunci;
+        final Bitset bit;
+
+        Entri(String kunci, Bitset bit) {
+            this.kunci = kunci;
+            this.bit = bit;
+        }
+    }
+
+    /**
+     * Inner class DaftarSlot untuk mengumpulkan slot per kunci saat tambahSemua
+     */
+    private static final class DaftarSlot {
+        int[] isi = new int[4];
+        int jumlah;
+
+        void tambah(int nomor) {
+            if (jumlah == isi.length) {
+                isi = Arrays.copyOf(isi, jumlah * 2);
+            }
+            isi[jumlah++] = nomor;
+        }
+    }
+
+    /**
+     * Inner class SlotKosong untuk tumpukan slot bekas yang tidak dapat diubah
+     */
+    private static final class SlotKosong {
+        final int nomor;
+        final SlotKosong berikut;
+
+        SlotKosong(int nomor, SlotKosong berikut) {
+            this.nomor = nomor;
+            this.berikut = berikut;
+        }
+    }
+
+    /**
+     * Inner class Bitset untuk himpunan slot yang tidak dapat diubah, disimpan
+     * per blok 1024 bit; blok yang seluruhnya nol tidak disimpan
+     */
+    private static final class Bitset {
+        static final Bitset KOSONG = new Bitset(IndeksIdMenu.kosong());
+        // Blok 16 long = 1024 slot
+        static final int GESER_BLOK = 10;
+        static final int KATA_PER_BLOK = 1 << (GESER_BLOK - 6);
+
+        final IndeksIdMenu<long[]> blok;
+
+        Bitset(IndeksIdMenu<long[]> blok) {
+            this.blok = blok;
+        }
+
+        boolean isKosong() {
+            return blok.size() == 0;
+        }
+
+        Bitset dengan(int nomor) {
+            long[] lama = blok.get(nomor >>> GESER_BLOK);
+            long[] baru = lama == null ? new long[KATA_PER_BLOK] : lama.clone();
+            baru[(nomor >>> 6) & (KATA_PER_BLOK - 1)] |= 1L << nomor;
+            return new Bitset(blok.tambah(nomor >>> GESER_BLOK, baru));
+        }
+
+        // Urutan nomor diubah (diurutkan); setiap blok yang tersentuh disalin sekali
+        Bitset denganSemua(int[] nomor, int jumlah) {
+            Arrays.sort(nomor, 0, jumlah);
+            int[] nomorBlok = new int[jumlah];
+            long[][] isiBlok = new long[jumlah][];
+            int n = 0;
+            for (int i = 0; i < jumlah; ) {
+                int b = nomor[i] >>> GESER_BLOK;
+                long[] lama = blok.get(b);
+                long[] baru = lama == null ? new long[KATA_PER_BLOK] : lama.clone();
+                for (; i < jumlah && nomor[i] >>> GESER_BLOK == b; i++) {
+                    baru[(nomor[i] >>> 6) & (KATA_PER_BLOK - 1)] |= 1L << nomor[i];
+                }
+                nomorBlok[n] = b;
+                isiBlok[n++] = baru;
+            }
+            return new Bitset(blok.tambahSemua(nomorBlok, isiBlok, n));
+        }
+
+        Bitset tanpa(int nomor) {
+            long[] lama = blok.get(nomor >>> GESER_BLOK);
+            if (lama == null) {
+                return this;
+            }
+            long[] baru = lama.clone();
+            baru[(nomor >>> 6) & (KATA_PER_BLOK - 1)] &= ~(1L << nomor);
+            for (long kata : baru) {
+                if (kata != 0) {
+                    return new Bitset(blok.tambah(nomor >>> GESER_BLOK, baru));
+                }
+            }
+            return new Bitset(blok.hapus(nomor >>> GESER_BLOK));
+        }
+
+        // tujuan |= bitset ini
+        void atauKe(long[] tujuan) {
+            blok.untukSetiap((isi, nomorBlok) -> {
+                int awal = nomorBlok * KATA_PER_BLOK;
+                for (int i = 0; i < KATA_PER_BLOK && awal + i < tujuan.length; i++) {
+                    tujuan[awal + i] |= isi[i];
+                }
+            });
+        }
+
+        // tujuan &= ~bitset ini
+        void hapusDari(long[] tujuan) {
+            blok.untukSetiap((isi, nomorBlok) -> {
+                int awal = nomorBlok * KATA_PER_BLOK;
+                for (int i = 0; i < KATA_PER_BLOK && awal + i < tujuan.length; i++) {
+                    tujuan[awal + i] &= ~isi[i];
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,425 @@
+import java.util.Arrays;
+import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Kelas IndeksIdMenu untuk memetakan kunci int (ID menu, nomor slot, hash nama) ke nilai.
+ * Berupa hash trie (CHAMP) dengan kunci primitif: setiap tingkat memakai 5 bit hash,
+ * sehingga pencarian paling banyak 7 langkah tanpa boxing Integer seperti pada HashMap.
+ *
+ * Indeks tidak dapat diubah: tambah dan hapus mengembalikan indeks baru yang memakai
+ * bersama semua simpul di luar jalur yang berubah, sehingga versi lama tetap utuh dan
+ * dapat dibaca banyak thread tanpa lock.
+ *
+ * @param <V> Tipe nilai yang disimpan per kunci
+ */
+public final class IndeksIdMenu<V> {
+    private static final int BIT_PER_TINGKAT = 5;
+    private static final int MASK = (1 << BIT_PER_TINGKAT) - 1;
+    private static final IndeksIdMenu<Object> KOSONG = new IndeksIdMenu<>(null, 0);
+
+    private final Simpul akar;
+    private final int ukuran;
+
+    private IndeksIdMenu(Simpul akar, int ukuran) {
+        this.akar = akar;
+        this.ukuran = ukuran;
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks kosong
+     * @return Indeks tanpa isi
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> IndeksIdMenu<V> kosong() {
+        return (IndeksIdMenu<V>) KOSONG;
+    }
+
+    /**
+     * Metode untuk mendapatkan nilai berdasarkan kunci
+     * @param id Kunci, misalnya ID menu item
+     * @return Nilai jika ada, null jika tidak
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        int h = hash(id);
+        Simpul s = akar;
+        while (s != null) {
+            int bit = 1 << (h & MASK);
+            if ((s.petaData & bit) != 0) {
+                int i = Integer.bitCount(s.petaData & (bit - 1));
+                return s.kunci[i] == id ? (V) s.nilai[i] : null;
+            }
+            if ((s.petaAnak & bit) == 0) {
+                return null;
+            }
+            s = s.anak[Integer.bitCount(s.petaAnak & (bit - 1))];
+            h >>>= BIT_PER_TINGKAT;
+        }
+        return null;
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru yang juga memuat pasangan kunci dan nilai
+     * (nilai lama untuk kunci yang sama diganti)
+     * @param id Kunci, misalnya ID menu item
+     * @param nilai Nilai yang disimpan, tidak boleh null
+     * @return Indeks baru, indeks ini tidak berubah
+     */
+    public IndeksIdMenu<V> tambah(int id, V nilai) {
+        if (nilai == null) {
+            throw new IllegalArgumentException("Nilai indeks tidak boleh null");
+        }
+        int ukuranBaru = get(id) == null ? ukuran + 1 : ukuran;
+        Simpul baru = akar == null
+                ? Simpul.satu(hash(id) & MASK, id, nilai)
+                : tambah(akar, id, nilai, hash(id), 0);
+        return new IndeksIdMenu<>(baru, ukuranBaru);
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru yang juga memuat banyak pasangan sekaligus.
+     * Pasangan baru disusun menjadi trie dalam satu lintasan lalu digabung dengan indeks
+     * ini per simpul, sehingga jalur yang sama tidak disalin berulang kali seperti pada
+     * tambah per kunci (misalnya saat memuat katalog).
+     * @param kunci Kunci pasangan baru, tidak boleh kembar
+     * @param nilai Nilai pasangan baru pada posisi yang sama dengan kuncinya, tidak boleh null
+     * @param jumlah Jumlah pasangan yang dipakai dari kedua array
+     * @return Indeks baru (nilai lama untuk kunci yang sama diganti), indeks ini tidak berubah
+     */
+    public IndeksIdMenu<V> tambahSemua(int[] kunci, V[] nilai, int jumlah) {
+        if (jumlah == 0) {
+            return this;
+        }
+        int[] hash = new int[jumlah];
+        int[] urut = new int[jumlah];
+        for (int i = 0; i < jumlah; i++) {
+            if (nilai[i] == null) {
+                throw new IllegalArgumentException("Nilai indeks tidak boleh null");
+            }
+            hash[i] = hash(kunci[i]);
+            urut[i] = i;
+        }
+        Simpul baru = bangun(hash, kunci, nilai, urut, new int[jumlah], 0, jumlah, 0);
+        if (akar == null) {
+            return new IndeksIdMenu<>(baru, jumlah);
+        }
+        int[] kembar = new int[1];
+        Simpul gabungan = gabung(akar, baru, 0, null, kembar);
+        return new IndeksIdMenu<>(gabungan, ukuran + jumlah - kembar[0]);
+    }
+
+    /**
+     * Metode untuk menggabungkan dua indeks per simpul, misalnya indeks potongan menu
+     * yang dibangun terpisah di beberapa thread. Simpul yang hanya ada di salah satu
+     * indeks dipakai bersama tanpa disalin.
+     * @param lain Indeks yang digabungkan
+     * @param gabungNilai Penggabung nilai (nilai indeks ini, nilai indeks lain) untuk kunci
+     *                    yang ada di keduanya, atau null agar nilai indeks lain yang dipakai
+     * @return Indeks baru berisi kunci kedua indeks, kedua indeks tidak berubah
+     */
+    public IndeksIdMenu<V> gabung(IndeksIdMenu<V> lain, BinaryOperator<V> gabungNilai) {
+        if (lain.akar == null) {
+            return this;
+        }
+        if (akar == null) {
+            return lain;
+        }
+        int[] kembar = new int[1];
+        @SuppressWarnings("unchecked")
+        Simpul gabungan = gabung(akar, lain.akar, 0, (BinaryOperator<Object>) gabungNilai, kembar);
+        return new IndeksIdMenu<>(gabungan, ukuran + lain.ukuran - kembar[0]);
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru tanpa kunci tertentu
+     * @param id Kunci yang dihapus
+     * @return Indeks baru, atau indeks ini jika kunci tidak ada
+     */
+    public IndeksIdMenu<V> hapus(int id) {
+        if (get(id) == null) {
+            return this;
+        }
+        Simpul baru = hapus(akar, id, hash(id));
+        return ukuran == 1 ? kosong() : new IndeksIdMenu<>(baru, ukuran - 1);
+    }
+
+    public int size() {
+        return ukuran;
+    }
+
+    /**
+     * Metode untuk menjalankan aksi pada setiap pasangan nilai dan kunci (urutan tidak tentu)
+     * @param aksi Aksi yang dijalankan
+     */
+    @SuppressWarnings("unchecked")
+    public void untukSetiap(ObjIntConsumer<? super V> aksi) {
+        if (akar != null) {
+            akar.untukSetiap((ObjIntConsumer<Object>) aksi);
+        }
+    }
+
+    private static Simpul tambah(Simpul s, int id, Object nilai, int h, int geser) {
+        int bit = 1 << ((h >>> geser) & MASK);
+        if ((s.petaData & bit) != 0) {
+            int i = Integer.bitCount(s.petaData & (bit - 1));
+            if (s.kunci[i] == id) {
+                Object[] nilaiBaru = s.nilai.clone();
+                nilaiBaru[i] = nilai;
+                return new Simpul(s.petaData, s.petaAnak, s.kunci, nilaiBaru, s.anak);
+            }
+            // Dua kunci pada posisi yang sama turun ke simpul anak
+            Simpul anak = gabungkan(s.kunci[i], s.nilai[i], hash(s.kunci[i]), id, nilai, h, geser + BIT_PER_TINGKAT);
+            int j = Integer.bitCount(s.petaAnak & (bit - 1));
+            return new Simpul(s.petaData ^ bit, s.petaAnak | bit,
+                    hapusDari(s.kunci, i), hapusDari(s.nilai, i), sisipkan(s.anak, j, anak));
+        }
+        if ((s.petaAnak & bit) != 0) {
+            int j = Integer.bitCount(s.petaAnak & (bit - 1));
+            Simpul[] anakBaru = s.anak.clone();
+            anakBaru[j] = tambah(s.anak[j], id, nilai, h, geser + BIT_PER_TINGKAT);
+            return new Simpul(s.petaData, s.petaAnak, s.kunci, s.nilai, anakBaru);
+        }
+        int i = Integer.bitCount(s.petaData & (bit - 1));
+        return new Simpul(s.petaData | bit, s.petaAnak,
+                sisipkan(s.kunci, i, id), sisipkan(s.nilai, i, nilai), s.anak);
+    }
+
+    // Pasangan urut[dari..sampai) dibagi per 5 bit hash pada tingkat ini (counting sort);
+    // posisi berisi satu pasangan menjadi entri langsung, sisanya simpul anak
+    private static Simpul bangun(int[] hash, int[] kunci, Object[] nilai, int[] urut, int[] sementara,
+                                 int dari, int sampai, int geser) {
+        int[] awal = new int[MASK + 2];
+        for (int i = dari; i < sampai; i++) {
+            awal[((hash[urut[i]] >>> geser) & MASK) + 1]++;
+        }
+        int petaData = 0;
+        int petaAnak = 0;
+        for (int b = 0; b <= MASK; b++) {
+            if (awal[b + 1] == 1) {
+                petaData |= 1 << b;
+            } else if (awal[b + 1] > 1) {
+                petaAnak |= 1 << b;
+            }
+            awal[b + 1] += awal[b];
+        }
+        int[] isi = awal.clone();
+        for (int i = dari; i < sampai; i++) {
+            int j = urut[i];
+            sementara[dari + isi[(hash[j] >>> geser) & MASK]++] = j;
+        }
+        System.arraycopy(sementara, dari, urut, dari, sampai - dari);
+
+        int[] kunciData = new int[Integer.bitCount(petaData)];
+        Object[] nilaiData = new Object[kunciData.length];
+        Simpul[] anak = new Simpul[Integer.bitCount(petaAnak)];
+        int d = 0;
+        int a = 0;
+        for (int b = 0; b <= MASK; b++) {
+            int mulai = dari + awal[b];
+            int akhir = dari + awal[b + 1];
+            if (akhir - mulai == 1) {
+                kunciData[d] = kunci[urut[mulai]];
+                nilaiData[d++] = nilai[urut[mulai]];
+            } else if (akhir - mulai > 1) {
+                // Hash adalah permutasi, sehingga hash yang sama sampai bit terakhir berarti kunci kembar
+                if (geser + BIT_PER_TINGKAT >= Integer.SIZE) {
+                    throw new IllegalArgumentException("Kunci " + kunci[urut[mulai]] + " kembar");
+                }
+                anak[a++] = bangun(hash, kunci, nilai, urut, sementara, mulai, akhir, geser + BIT_PER_TINGKAT);
+            }
+        }
+        return new Simpul(petaData, petaAnak, kunciData, nilaiData, anak);
+    }
+
+    // Gabungan dua simpul pada tingkat yang sama; untuk kunci yang ada di keduanya nilai
+    // digabung dengan f (atau nilai dari b jika f null) dan kembar[0] ditambah satu
+    private static Simpul gabung(Simpul a, Simpul b, int geser, BinaryOperator<Object> f, int[] kembar) {
+        int semua = a.petaData | a.petaAnak | b.petaData | b.petaAnak;
+        int[] kunciData = new int[Integer.bitCount(semua)];
+        Object[] nilaiData = new Object[kunciData.length];
+        Simpul[] anak = new Simpul[kunciData.length];
+        int petaData = 0;
+        int petaAnak = 0;
+        int d = 0;
+        int n = 0;
+        int geserAnak = geser + BIT_PER_TINGKAT;
+        for (int sisa = semua; sisa != 0; sisa &= sisa - 1) {
+            int bit = sisa & -sisa;
+            int ia = Integer.bitCount(a.petaData & (bit - 1));
+            int ja = Integer.bitCount(a.petaAnak & (bit - 1));
+            int ib = Integer.bitCount(b.petaData & (bit - 1));
+            int jb = Integer.bitCount(b.petaAnak & (bit - 1));
+            Simpul hasilAnak = null;
+            if ((b.petaData & bit) != 0) {
+                int kb = b.kunci[ib];
+                if ((a.petaData & bit) != 0 && a.kunci[ia] != kb) {
+                    int ka = a.kunci[ia];
+                    hasilAnak = gabungkan(ka, a.nilai[ia], hash(ka), kb, b.nilai[ib], hash(kb), geserAnak);
+                } else if ((a.petaAnak & bit) != 0) {
+                    Object nilaiA = cari(a.anak[ja], kb, geserAnak);
+                    if (nilaiA != null) {
+                        kembar[0]++;
+                    }
+                    hasilAnak = tambah(a.anak[ja], kb, pilih(nilaiA, b.nilai[ib], f), hash(kb), geserAnak);
+                } else {
+                    Object nilaiA = null;
+                    if ((a.petaData & bit) != 0) {
+                        kembar[0]++;
+                        nilaiA = a.nilai[ia];
+                    }
+                    kunciData[d] = kb;
+                    nilaiData[d++] = pilih(nilaiA, b.nilai[ib], f);
+                    petaData |= bit;
+                }
+            } else if ((b.petaAnak & bit) != 0) {
+                Simpul anakB = b.anak[jb];
+                if ((a.petaData & bit) != 0) {
+                    int ka = a.kunci[ia];
+                    Object nilaiB = cari(anakB, ka, geserAnak);
+                    if (nilaiB == null) {
+                        hasilAnak = tambah(anakB, ka, a.nilai[ia], hash(ka), geserAnak);
+                    } else {
+                        kembar[0]++;
+                        hasilAnak = f == null ? anakB
+                                : tambah(anakB, ka, f.apply(a.nilai[ia], nilaiB), hash(ka), geserAnak);
+                    }
+                } else if ((a.petaAnak & bit) != 0) {
+                    hasilAnak = gabung(a.anak[ja], anakB, geserAnak, f, kembar);
+                } else {
+                    hasilAnak = anakB;
+                }
+            } else if ((a.petaData & bit) != 0) {
+                kunciData[d] = a.kunci[ia];
+                nilaiData[d++] = a.nilai[ia];
+                petaData |= bit;
+            } else {
+                hasilAnak = a.anak[ja];
+            }
+            if (hasilAnak != null) {
+                anak[n++] = hasilAnak;
+                petaAnak |= bit;
+            }
+        }
+        return new Simpul(petaData, petaAnak, Arrays.copyOf(kunciData, d), Arrays.copyOf(nilaiData, d),
+                Arrays.copyOf(anak, n));
+    }
+
+    private static Object pilih(Object nilaiA, Object nilaiB, BinaryOperator<Object> f) {
+        return nilaiA == null || f == null ? nilaiB : f.apply(nilaiA, nilaiB);
+    }
+
+    private static Object cari(Simpul s, int id, int geser) {
+        int h = hash(id) >>> geser;
+        while (s != null) {
+            int bit = 1 << (h & MASK);
+            if ((s.petaData & bit) != 0) {
+                int i = Integer.bitCount(s.petaData & (bit - 1));
+                return s.kunci[i] == id ? s.nilai[i] : null;
+            }
+            if ((s.petaAnak & bit) == 0) {
+                return null;
+            }
+            s = s.anak[Integer.bitCount(s.petaAnak & (bit - 1))];
+            h >>>= BIT_PER_TINGKAT;
+        }
+        return null;
+    }
+
+    private static Simpul gabungkan(int id1, Object nilai1, int h1, int id2, Object nilai2, int h2, int geser) {
+        int b1 = (h1 >>> geser) & MASK;
+        int b2 = (h2 >>> geser) & MASK;
+        if (b1 == b2) {
+            // Hash adalah permutasi kunci, sehingga dua kunci berbeda pasti berpisah di tingkat tertentu
+            return new Simpul(0, 1 << b1, new int[0], new Object[0],
+                    new Simpul[] {gabungkan(id1, nilai1, h1, id2, nilai2, h2, geser + BIT_PER_TINGKAT)});
+        }
+        return b1 < b2
+                ? new Simpul((1 << b1) | (1 << b2), 0, new int[] {id1, id2}, new Object[] {nilai1, nilai2}, new Simpul[0])
+                : new Simpul((1 << b1) | (1 << b2), 0, new int[] {id2, id1}, new Object[] {nilai2, nilai1}, new Simpul[0]);
+    }
+
+    // Kunci dipastikan ada; simpul anak yang tinggal satu entri dinaikkan ke induknya
+    private static Simpul hapus(Simpul s, int id, int h) {
+        int bit = 1 << (h & MASK);
+        if ((s.petaData & bit) != 0) {
+            int i = Integer.bitCount(s.petaData & (bit - 1));
+            return new Simpul(s.petaData ^ bit, s.petaAnak, hapusDari(s.kunci, i), hapusDari(s.nilai, i), s.anak);
+        }
+        int j = Integer.bitCount(s.petaAnak & (bit - 1));
+        Simpul anak = hapus(s.anak[j], id, h >>> BIT_PER_TINGKAT);
+        if (anak.petaAnak == 0 && anak.kunci.length == 1) {
+            int i = Integer.bitCount(s.petaData & (bit - 1));
+            return new Simpul(s.petaData | bit, s.petaAnak ^ bit,
+                    sisipkan(s.kunci, i, anak.kunci[0]), sisipkan(s.nilai, i, anak.nilai[0]), hapusDari(s.anak, j));
+        }
+        Simpul[] anakBaru = s.anak.clone();
+        anakBaru[j] = anak;
+        return new Simpul(s.petaData, s.petaAnak, s.kunci, s.nilai, anakBaru);
+    }
+
+    private static int[] sisipkan(int[] asal, int i, int x) {
+        int[] hasil = Arrays.copyOf(asal, asal.length + 1);
+        System.arraycopy(asal, i, hasil, i + 1, asal.length - i);
+        hasil[i] = x;
+        return hasil;
+    }
+
+    private static <T> T[] sisipkan(T[] asal, int i, T x) {
+        T[] hasil = Arrays.copyOf(asal, asal.length + 1);
+        System.arraycopy(asal, i, hasil, i + 1, asal.length - i);
+        hasil[i] = x;
+        return hasil;
+    }
+
+    private static int[] hapusDari(int[] asal, int i) {
+        int[] hasil = Arrays.copyOf(asal, asal.length - 1);
+        System.arraycopy(asal, i + 1, hasil, i, asal.length - i - 1);
+        return hasil;
+    }
+
+    private static <T> T[] hapusDari(T[] asal, int i) {
+        T[] hasil = Arrays.copyOf(asal, asal.length - 1);
+        System.arraycopy(asal, i + 1, hasil, i, asal.length - i - 1);
+        return hasil;
+    }
+
+    // Permutasi 32 bit agar ID berurutan maupun hash nama tersebar ke semua cabang
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Inner class Simpul untuk satu tingkat trie: entri langsung dan simpul anak,
+     * masing-masing ditandai bitmap 32 posisi
+     */
+    private static final class Simpul {
+        final int petaData;
+        final int petaAnak;
+        final int[] kunci;
+        final Object[] nilai;
+        final Simpul[] anak;
+
+        Simpul(int petaData, int petaAnak, int[] kunci, Object[] nilai, Simpul[] anak) {
+            this.petaData = petaData;
+            this.petaAnak = petaAnak;
+            this.kunci = kunci;
+            this.nilai = nilai;
+            this.anak = anak;
+        }
+
+        static Simpul satu(int posisi, int id, Object nilai) {
+            return new Simpul(1 << posisi, 0, new int[] {id}, new Object[] {nilai}, new Simpul[0]);
+        }
+
+        void untukSetiap(ObjIntConsumer<Object> aksi) {
+            for (int i = 0; i < kunci.length; i++) {
+                aksi.accept(nilai[i], kunci[i]);
+            }
+            for (Simpul s : anak) {
+                s.untukSetiap(aksi);
+            }
+        }
+    }
+}
@@ -0,0 +1,692 @@
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Kelas IndeksPencarianMenu untuk pencarian cepat (typeahead) berdasarkan nama menu.
+ * Nama dinormalisasi (huruf kecil, tanpa diakritik), lalu setiap akhiran nama yang
+ * dimulai di awal kata dimasukkan ke trie. Kueri cocok dengan awal kata mana pun
+ * ("goreng" dan "nasi gor" sama-sama menemukan "Nasi Goreng"), tetapi tidak di tengah kata.
+ *
+ * Setiap cabang trie menyimpan item terbaik subpohonnya, sehingga kueri sependek apa
+ * pun cukup membaca satu simpul. Subpohon kecil disimpan sebagai daun berisi entri
+ * terurut (burst trie) agar jumlah simpul tidak sebanyak jumlah huruf.
+ *
+ * Indeks tidak dapat diubah: tambah dan hapus mengembalikan indeks baru yang memakai
+ * bersama semua simpul di luar jalur yang berubah, sehingga versi lama tetap utuh.
+ */
+public final class IndeksPencarianMenu {
+    /** Indeks tanpa menu */
+    public static final IndeksPencarianMenu KOSONG = new IndeksPencarianMenu(null);
+
+    // Jumlah item terbaik per cabang; batas hasil yang lebih besar menelusuri subpohon
+    static final int JUMLAH_TERBAIK = 16;
+    // Daun dipecah per huruf jika entrinya melebihi kapasitas, dan cabang digabung
+    // kembali menjadi daun jika isinya tinggal setengah kapasitas
+    private static final int KAPASITAS_DAUN = 32;
+    private static final Pattern TANDA_DIAKRITIK = Pattern.compile("\\p{M}+");
+    private static final Entri[] TANPA_ENTRI = new Entri[0];
+    // Bit posisi kata pada kunci urut tambahSemua (nama menu jauh lebih pendek dari 2^24 huruf)
+    private static final int BIT_POSISI = 24;
+    // Huruf (+1) di bawah batas ini dikelompokkan dengan counting sort, sisanya dengan sort long
+    private static final int BATAS_HURUF_HITUNG = 256;
+    private static final int BATAS_POSISI = (1 << BIT_POSISI) - 1;
+
+    // Peringkat hasil: awalan nama, lalu awalan kata lain
+    private static final int SKOR_AWALAN_NAMA = 0;
+    private static final int SKOR_AWALAN_KATA = 1;
+
+    private final Simpul akar;
+
+    private IndeksPencarianMenu(Simpul akar) {
+        this.akar = akar;
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru yang juga memuat menu item
+     * @param item MenuItem yang akan diindeks
+     * @param nama Nama yang diindeks (biasanya item.getNama())
+     * @return Indeks baru, indeks ini tidak berubah
+     */
+    public IndeksPencarianMenu tambah(MenuItem item, String nama) {
+        String normal = normalisasi(nama);
+        Simpul baru = akar;
+        for (int awal : awalKataDari(normal)) {
+            baru = sisipkan(baru, new Entri(item, normal, awal), 0);
+        }
+        return new IndeksPencarianMenu(baru);
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru yang juga memuat banyak menu item sekaligus
+     * (misalnya saat memuat katalog). Trie dibangun ulang sekali dari semua entri yang
+     * sudah diurutkan, tanpa menyalin jalur untuk setiap item.
+     * @param daftarItem Menu item yang akan diindeks dengan namanya saat ini
+     * @return Indeks baru, indeks ini tidak berubah
+     */
+    public IndeksPencarianMenu tambahSemua(Collection<? extends MenuItem> daftarItem) {
+        int jumlahLama = akar == null ? 0 : akar.ukuran;
+        if (daftarItem.size() * 4L < jumlahLama) {
+            IndeksPencarianMenu hasil = this;
+            for (MenuItem item : daftarItem) {
+                hasil = hasil.tambah(item, item.getNama());
+            }
+            return hasil;
+        }
+        // Item diurutkan sekali menurut nama; urutan entri lalu cukup diurutkan sebagai long
+        // berisi skor, peringkat item dan posisi kata, tanpa membandingkan String per entri
+        ArrayList<Entri> lama = new ArrayList<>(jumlahLama);
+        if (akar != null) {
+            kumpulkan(akar, lama);
+        }
+        Set<MenuItem> sudah = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayList<Entri> perItem = new ArrayList<>(daftarItem.size() + lama.size() / 2);
+        for (Entri e : lama) {
+            if (sudah.add(e.item)) {
+                perItem.add(new Entri(e.item, e.nama, 0));
+            }
+        }
+        for (MenuItem item : daftarItem) {
+            perItem.add(new Entri(item, normalisasi(item.getNama()), 0));
+        }
+        Entri[] urutItem = perItem.toArray(TANPA_ENTRI);
+        Arrays.sort(urutItem);
+
+        long[] kunci = new long[lama.size() + daftarItem.size() * 4];
+        int jumlah = 0;
+        for (int r = 0; r < urutItem.length; r++) {
+            for (int awal : awalKataDari(urutItem[r].nama)) {
+                if (jumlah == kunci.length) {
+                    kunci = Arrays.copyOf(kunci, jumlah * 2);
+                }
+                long skor = awal == 0 ? SKOR_AWALAN_NAMA : SKOR_AWALAN_KATA;
+                kunci[jumlah++] = (skor << 62) | ((long) r << BIT_POSISI) | awal;
+            }
+        }
+        Arrays.sort(kunci, 0, jumlah);
+        Entri[] isi = new Entri[jumlah];
+        for (int i = 0; i < jumlah; i++) {
+            Entri pemilik = urutItem[(int) ((kunci[i] & ~(3L << 62)) >>> BIT_POSISI)];
+            int awal = (int) (kunci[i] & BATAS_POSISI);
+            isi[i] = new Entri(pemilik.item, pemilik.nama, awal);
+        }
+        return new IndeksPencarianMenu(isi.length == 0 ? null : bangun(isi, 0));
+    }
+
+    /**
+     * Metode untuk menggabungkan dua indeks dengan menu item yang berbeda, misalnya indeks
+     * potongan katalog yang dibangun terpisah di beberapa thread. Cabang digabung per huruf,
+     * dan subpohon yang hanya ada di salah satu indeks dipakai bersama tanpa disalin.
+     * @param lain Indeks yang tidak memuat satu pun menu item dari indeks ini
+     * @return Indeks baru berisi menu item kedua indeks, kedua indeks tidak berubah
+     */
+    public IndeksPencarianMenu gabung(IndeksPencarianMenu lain) {
+        if (lain.akar == null) {
+            return this;
+        }
+        if (akar == null) {
+            return lain;
+        }
+        return new IndeksPencarianMenu(gabung(akar, lain.akar, 0));
+    }
+
+    /**
+     * Metode untuk mendapatkan indeks baru tanpa menu item
+     * @param item MenuItem yang akan dihapus
+     * @param nama Nama yang dipakai saat item diindeks
+     * @return Indeks baru, atau indeks ini jika item tidak ada
+     */
+    public IndeksPencarianMenu hapus(MenuItem item, String nama) {
+        String normal = normalisasi(nama);
+        Simpul baru = akar;
+        for (int awal : awalKataDari(normal)) {
+            baru = buang(baru, item, normal, awal, 0);
+        }
+        return baru == akar ? this : new IndeksPencarianMenu(baru);
+    }
+
+    /**
+     * Metode untuk mencari menu yang salah satu katanya diawali kueri
+     * @param kueri Potongan nama (tidak peka huruf besar/kecil maupun diakritik)
+     * @param batas Jumlah hasil maksimum
+     * @return Hasil terbaik, diurutkan dari yang paling relevan
+     */
+    public ArrayList<MenuItem> cari(String kueri, int batas) {
+        ArrayList<MenuItem> hasil = new ArrayList<>();
+        if (kueri == null || batas <= 0) {
+            return hasil;
+        }
+        String q = normalisasi(kueri).trim();
+        if (q.isEmpty()) {
+            return hasil;
+        }
+
+        Simpul simpul = akar;
+        int kedalaman = 0;
+        while (simpul != null && simpul.huruf != null && kedalaman < q.length()) {
+            int i = Arrays.binarySearch(simpul.huruf, q.charAt(kedalaman));
+            simpul = i >= 0 ? simpul.anak[i] : null;
+            kedalaman++;
+        }
+        if (simpul == null) {
+            return hasil;
+        }
+
+        if (simpul.huruf == null) {
+            ambilUnik(Arrays.asList(simpul.entri), q, batas, hasil);
+        } else if (batas <= simpul.terbaik.length || simpul.terbaik.length < JUMLAH_TERBAIK) {
+            // Terbaik yang belum penuh berarti subpohon memang hanya berisi item sebanyak itu
+            for (int i = 0; i < Math.min(batas, simpul.terbaik.length); i++) {
+                hasil.add(simpul.terbaik[i].item);
+            }
+        } else {
+            ArrayList<Entri> semua = new ArrayList<>(simpul.ukuran);
+            kumpulkan(simpul, semua);
+            semua.sort(null);
+            ambilUnik(semua, null, batas, hasil);
+        }
+        return hasil;
+    }
+
+    /**
+     * Metode untuk menormalisasi teks: huruf kecil dan tanpa tanda diakritik
+     * @param teks Teks asli
+     * @return Teks ternormalisasi
+     */
+    public static String normalisasi(String teks) {
+        for (int i = 0; i < teks.length(); i++) {
+            if (teks.charAt(i) >= 0x80) {
+                String tanpaDiakritik = TANDA_DIAKRITIK.matcher(Normalizer.normalize(teks, Normalizer.Form.NFD))
+                    .replaceAll("");
+                return tanpaDiakritik.toLowerCase(Locale.ROOT);
+            }
+        }
+        return teks.toLowerCase(Locale.ROOT); // Teks ASCII tidak berubah oleh NFD
+    }
+
+    // Posisi awal setiap kata: huruf bukan spasi yang tidak didahului huruf atau angka
+    private static int[] awalKataDari(String nama) {
+        int[] awal = new int[nama.length()];
+        int jumlah = 0;
+        for (int i = 0; i < nama.length(); i++) {
+            boolean awalKata = i == 0 || !Character.isLetterOrDigit(nama.charAt(i - 1));
+            if (awalKata && !Character.isWhitespace(nama.charAt(i))) {
+                awal[jumlah++] = i;
+            }
+        }
+        return Arrays.copyOf(awal, jumlah);
+    }
+
+    private static Simpul sisipkan(Simpul simpul, Entri entri, int kedalaman) {
+        if (simpul == null) {
+            return Simpul.daun(new Entri[] {entri});
+        }
+        if (simpul.huruf == null) {
+            Entri[] isi = sisipTerurut(simpul.entri, entri);
+            return isi.length > KAPASITAS_DAUN ? bangun(isi, kedalaman) : Simpul.daun(isi);
+        }
+
+        Entri[] habis = simpul.entri;
+        char[] huruf = simpul.huruf;
+        Simpul[] anak = simpul.anak;
+        if (entri.panjangKunci() == kedalaman) {
+            habis = sisipTerurut(habis, entri);
+        } else {
+            char c = entri.hurufKe(kedalaman);
+            int i = Arrays.binarySearch(huruf, c);
+            if (i >= 0) {
+                anak = anak.clone();
+                anak[i] = sisipkan(anak[i], entri, kedalaman + 1);
+            } else {
+                i = -i - 1;
+                huruf = sisip(huruf, i, c);
+                anak = sisip(anak, i, Simpul.daun(new Entri[] {entri}));
+            }
+        }
+        return new Simpul(simpul.ukuran + 1, habis, huruf, anak, tawarkan(simpul.terbaik, entri));
+    }
+
+    private static Simpul buang(Simpul simpul, MenuItem item, String nama, int awal, int kedalaman) {
+        if (simpul == null) {
+            return null;
+        }
+        if (simpul.huruf == null) {
+            Entri[] isi = tanpa(simpul.entri, item, awal);
+            if (isi == simpul.entri) {
+                return simpul;
+            }
+            return isi.length == 0 ? null : Simpul.daun(isi);
+        }
+
+        Entri[] habis = simpul.entri;
+        char[] huruf = simpul.huruf;
+        Simpul[] anak = simpul.anak;
+        if (nama.length() - awal == kedalaman) {
+            habis = tanpa(habis, item, awal);
+            if (habis == simpul.entri) {
+                return simpul;
+            }
+        } else {
+            int i = Arrays.binarySearch(huruf, nama.charAt(awal + kedalaman));
+            if (i < 0) {
+                return simpul;
+            }
+            Simpul baru = buang(anak[i], item, nama, awal, kedalaman + 1);
+            if (baru == anak[i]) {
+                return simpul;
+            }
+            if (baru == null) {
+                huruf = hapus(huruf, i);
+                anak = hapus(anak, i);
+            } else {
+                anak = anak.clone();
+                anak[i] = baru;
+            }
+        }
+
+        Simpul hasil = new Simpul(simpul.ukuran - 1, habis, huruf, anak, simpul.terbaik);
+        if (hasil.ukuran <= KAPASITAS_DAUN / 2) {
+            ArrayList<Entri> semua = new ArrayList<>(hasil.ukuran);
+            kumpulkan(hasil, semua);
+            Entri[] isi = semua.toArray(TANPA_ENTRI);
+            Arrays.sort(isi);
+            return isi.length == 0 ? null : Simpul.daun(isi);
+        }
+        if (memuat(simpul.terbaik, item)) {
+            hasil = new Simpul(hasil.ukuran, habis, huruf, anak, hitungTerbaik(habis, anak));
+        }
+        return hasil;
+    }
+
+    // Membangun subpohon dari entri terurut yang sama-sama berawalan kunci sepanjang kedalaman
+    private static Simpul bangun(Entri[] isi, int kedalaman) {
+        if (isi.length <= KAPASITAS_DAUN) {
+            return Simpul.daun(isi);
+        }
+        // Sisa kunci setiap entri disalin ke satu array agar pembacaan huruf di setiap
+        // tingkat tidak melompat antar objek String
+        int total = 0;
+        for (Entri e : isi) {
+            total += e.panjangKunci() - kedalaman;
+        }
+        char[] huruf = new char[total];
+        int[] mulai = new int[isi.length + 1];
+        int[] urut = new int[isi.length];
+        for (int i = 0, p = 0; i < isi.length; i++) {
+            Entri e = isi[i];
+            mulai[i] = p;
+            e.nama.getChars(e.awal + kedalaman, e.nama.length(), huruf, p);
+            p += e.panjangKunci() - kedalaman;
+            urut[i] = i;
+        }
+        mulai[isi.length] = total;
+        return bangun(new BahanBangun(isi, huruf, mulai, urut), 0, isi.length, 0);
+    }
+
+    // Entri urut[dari..sampai) berawalan sama sepanjang d huruf sisa kunci dan terurut menurut peringkat
+    private static Simpul bangun(BahanBangun bahan, int dari, int sampai, int d) {
+        int jumlah = sampai - dari;
+        if (jumlah <= KAPASITAS_DAUN) {
+            return Simpul.daun(bahan.entri(dari, sampai));
+        }
+        // Huruf ke-d setiap entri: 0 jika kunci habis, selain itu huruf + 1
+        int[] huruf = new int[jumlah];
+        int minimum = Integer.MAX_VALUE;
+        int maksimum = 0;
+        for (int k = 0; k < jumlah; k++) {
+            huruf[k] = bahan.hurufKe(bahan.urut[dari + k], d);
+            minimum = Math.min(minimum, huruf[k]);
+            maksimum = Math.max(maksimum, huruf[k]);
+        }
+        if (minimum != maksimum) {
+            // Pengelompokan per huruf harus stabil agar urutan peringkat dalam kelompok terjaga
+            int[] salinan = Arrays.copyOfRange(bahan.urut, dari, sampai);
+            int[] hurufUrut = new int[jumlah];
+            if (maksimum < BATAS_HURUF_HITUNG) {
+                int[] posisi = new int[maksimum + 2];
+                for (int k = 0; k < jumlah; k++) {
+                    posisi[huruf[k] + 1]++;
+                }
+                for (int c = 1; c < posisi.length; c++) {
+                    posisi[c] += posisi[c - 1];
+                }
+                for (int k = 0; k < jumlah; k++) {
+                    int p = posisi[huruf[k]]++;
+                    bahan.urut[dari + p] = salinan[k];
+                    hurufUrut[p] = huruf[k];
+                }
+            } else {
+                // Huruf dan posisi dikemas dalam long sehingga sort tetap stabil
+                long[] kunci = new long[jumlah];
+                for (int k = 0; k < jumlah; k++) {
+                    kunci[k] = ((long) huruf[k] << 32) | k;
+                }
+                Arrays.sort(kunci);
+                for (int k = 0; k < jumlah; k++) {
+                    bahan.urut[dari + k] = salinan[(int) kunci[k]];
+                    hurufUrut[k] = (int) (kunci[k] >>> 32);
+                }
+            }
+            huruf = hurufUrut;
+        }
+
+        Entri[] habis = TANPA_ENTRI;
+        char[] daftarHuruf = new char[jumlah];
+        Simpul[] daftarAnak = new Simpul[jumlah];
+        int jumlahAnak = 0;
+        int awal = 0;
+        while (awal < jumlah) {
+            int c = huruf[awal];
+            int akhir = awal + 1;
+            while (akhir < jumlah && huruf[akhir] == c) {
+                akhir++;
+            }
+            if (c == 0) {
+                habis = bahan.entri(dari + awal, dari + akhir);
+            } else {
+                daftarHuruf[jumlahAnak] = (char) (c - 1);
+                daftarAnak[jumlahAnak++] = bangun(bahan, dari + awal, dari + akhir, d + 1);
+            }
+            awal = akhir;
+        }
+        daftarHuruf = Arrays.copyOf(daftarHuruf, jumlahAnak);
+        daftarAnak = Arrays.copyOf(daftarAnak, jumlahAnak);
+        return Simpul.cabang(habis, daftarHuruf, daftarAnak, hitungTerbaik(habis, daftarAnak));
+    }
+
+    // Gabungan dua subpohon pada kedalaman yang sama, tanpa item yang sama di keduanya
+    private static Simpul gabung(Simpul a, Simpul b, int kedalaman) {
+        if (a.huruf == null && b.huruf == null) {
+            Entri[] isi = gabungTerurut(a.entri, b.entri);
+            return isi.length > KAPASITAS_DAUN ? bangun(isi, kedalaman) : Simpul.daun(isi);
+        }
+        if (a.huruf == null || b.huruf == null) {
+            // Daun paling banyak berisi KAPASITAS_DAUN entri, cukup disisipkan ke cabang
+            Simpul hasil = a.huruf == null ? b : a;
+            for (Entri e : (a.huruf == null ? a : b).entri) {
+                hasil = sisipkan(hasil, e, kedalaman);
+            }
+            return hasil;
+        }
+        Entri[] habis = gabungTerurut(a.entri, b.entri);
+        char[] huruf = new char[a.huruf.length + b.huruf.length];
+        Simpul[] anak = new Simpul[huruf.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.huruf.length || j < b.huruf.length) {
+            if (j == b.huruf.length || (i < a.huruf.length && a.huruf[i] < b.huruf[j])) {
+                huruf[n] = a.huruf[i];
+                anak[n++] = a.anak[i++];
+            } else if (i == a.huruf.length || b.huruf[j] < a.huruf[i]) {
+                huruf[n] = b.huruf[j];
+                anak[n++] = b.anak[j++];
+            } else {
+                huruf[n] = a.huruf[i];
+                anak[n++] = gabung(a.anak[i++], b.anak[j++], kedalaman + 1);
+            }
+        }
+        huruf = Arrays.copyOf(huruf, n);
+        anak = Arrays.copyOf(anak, n);
+        return Simpul.cabang(habis, huruf, anak, hitungTerbaik(habis, anak));
+    }
+
+    // Item terbaik sebuah cabang: gabungan terurut dari entri yang habis di cabang itu
+    // dan terbaik (atau isi daun) setiap anak, setiap item sekali
+    private static Entri[] hitungTerbaik(Entri[] habis, Simpul[] anak) {
+        Entri[][] sumber = new Entri[anak.length + 1][];
+        sumber[0] = habis;
+        for (int i = 0; i < anak.length; i++) {
+            sumber[i + 1] = anak[i].huruf == null ? anak[i].entri : anak[i].terbaik;
+        }
+        int[] posisi = new int[sumber.length];
+        ArrayList<Entri> terbaik = new ArrayList<>(JUMLAH_TERBAIK);
+        while (terbaik.size() < JUMLAH_TERBAIK) {
+            int pilih = -1;
+            for (int i = 0; i < sumber.length; i++) {
+                if (posisi[i] < sumber[i].length && (pilih < 0
+                        || sumber[i][posisi[i]].compareTo(sumber[pilih][posisi[pilih]]) < 0)) {
+                    pilih = i;
+                }
+            }
+            if (pilih < 0) {
+                break;
+            }
+            Entri e = sumber[pilih][posisi[pilih]++];
+            if (!memuat(terbaik, e.item)) {
+                terbaik.add(e);
+            }
+        }
+        return terbaik.toArray(TANPA_ENTRI);
+    }
+
+    // Terbaik setelah entri baru masuk ke subpohon; setiap item paling banyak sekali
+    private static Entri[] tawarkan(Entri[] terbaik, Entri entri) {
+        boolean penuh = terbaik.length == JUMLAH_TERBAIK;
+        if (penuh && entri.compareTo(terbaik[terbaik.length - 1]) >= 0) {
+            return terbaik; // Juga tidak lebih baik dari entri lain item yang sama di terbaik
+        }
+        for (int i = 0; i < terbaik.length; i++) {
+            if (terbaik[i].item == entri.item) {
+                if (entri.compareTo(terbaik[i]) >= 0) {
+                    return terbaik;
+                }
+                return sisipTerurut(hapus(terbaik, i), entri);
+            }
+        }
+        if (!penuh) {
+            return sisipTerurut(terbaik, entri);
+        }
+        return sisipTerurut(Arrays.copyOf(terbaik, terbaik.length - 1), entri);
+    }
+
+    private static void kumpulkan(Simpul simpul, List<Entri> tujuan) {
+        Collections.addAll(tujuan, simpul.entri);
+        if (simpul.anak != null) {
+            for (Simpul a : simpul.anak) {
+                kumpulkan(a, tujuan);
+            }
+        }
+    }
+
+    // Entri terurut yang cocok dengan kueri (null jika semua cocok), setiap item sekali
+    private static void ambilUnik(List<Entri> terurut, String q, int batas, ArrayList<MenuItem> hasil) {
+        Set<MenuItem> sudah = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Entri e : terurut) {
+            if (hasil.size() == batas) {
+                return;
+            }
+            if ((q == null || e.nama.startsWith(q, e.awal)) && sudah.add(e.item)) {
+                hasil.add(e.item);
+            }
+        }
+    }
+
+    private static boolean memuat(Entri[] daftar, MenuItem item) {
+        for (Entri e : daftar) {
+            if (e.item == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean memuat(List<Entri> daftar, MenuItem item) {
+        for (Entri e : daftar) {
+            if (e.item == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entri[] sisipTerurut(Entri[] daftar, Entri entri) {
+        int i = Arrays.binarySearch(daftar, entri);
+        return sisip(daftar, i >= 0 ? i : -i - 1, entri);
+    }
+
+    private static Entri[] gabungTerurut(Entri[] a, Entri[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        Entri[] hasil = new Entri[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < hasil.length; k++) {
+            hasil[k] = j == b.length || (i < a.length && a[i].compareTo(b[j]) < 0) ? a[i++] : b[j++];
+        }
+        return hasil;
+    }
+
+    private static Entri[] tanpa(Entri[] daftar, MenuItem item, int awal) {
+        for (int i = 0; i < daftar.length; i++) {
+            if (daftar[i].item == item && daftar[i].awal == awal) {
+                return hapus(daftar, i);
+            }
+        }
+        return daftar;
+    }
+
+    private static <T> T[] sisip(T[] daftar, int i, T nilai) {
+        T[] baru = Arrays.copyOf(daftar, daftar.length + 1);
+        System.arraycopy(daftar, i, baru, i + 1, daftar.length - i);
+        baru[i] = nilai;
+        return baru;
+    }
+
+    private static char[] sisip(char[] daftar, int i, char nilai) {
+        char[] baru = Arrays.copyOf(daftar, daftar.length + 1);
+        System.arraycopy(daftar, i, baru, i + 1, daftar.length - i);
+        baru[i] = nilai;
+        return baru;
+    }
+
+    private static <T> T[] hapus(T[] daftar, int i) {
+        T[] baru = Arrays.copyOf(daftar, daftar.length - 1);
+        System.arraycopy(daftar, i + 1, baru, i, daftar.length - i - 1);
+        return baru;
+    }
+
+    private static char[] hapus(char[] daftar, int i) {
+        char[] baru = Arrays.copyOf(daftar, daftar.length - 1);
+        System.arraycopy(daftar, i + 1, baru, i, daftar.length - i - 1);
+        return baru;
+    }
+
+    /**
+     * Inner class BahanBangun untuk entri yang sedang dibangun menjadi subpohon:
+     * sisa kunci semua entri dalam satu array dan urutan entri yang dikelompokkan per huruf
+     */
+    private static final class BahanBangun {
+        final Entri[] isi;
+        final char[] huruf;
+        final int[] mulai;
+        final int[] urut;
+
+        BahanBangun(Entri[] isi, char[] huruf, int[] mulai, int[] urut) {
+            this.isi = isi;
+            this.huruf = huruf;
+            this.mulai = mulai;
+            this.urut = urut;
+        }
+
+        // 0 jika kunci entri habis sebelum huruf ke-d, selain itu huruf + 1
+        int hurufKe(int entri, int d) {
+            int p = mulai[entri] + d;
+            return p < mulai[entri + 1] ? huruf[p] + 1 : 0;
+        }
+
+        Entri[] entri(int dari, int sampai) {
+            Entri[] hasil = new Entri[sampai - dari];
+            for (int k = dari; k < sampai; k++) {
+                hasil[k - dari] = isi[urut[k]];
+            }
+            return hasil;
+        }
+    }
+
+    /**
+     * Inner class Simpul untuk daun (huruf == null, semua entri subpohon) atau cabang
+     * (entri yang kuncinya habis di cabang ini, anak per huruf, dan item terbaik)
+     */
+    private static final class Simpul {
+        final int ukuran;
+        final Entri[] entri;
+        final char[] huruf;
+        final Simpul[] anak;
+        final Entri[] terbaik;
+
+        Simpul(int ukuran, Entri[] entri, char[] huruf, Simpul[] anak, Entri[] terbaik) {
+            this.ukuran = ukuran;
+            this.entri = entri;
+            this.huruf = huruf;
+            this.anak = anak;
+            this.terbaik = terbaik;
+        }
+
+        static Simpul daun(Entri[] entri) {
+            return new Simpul(entri.length, entri, null, null, null);
+        }
+
+        static Simpul cabang(Entri[] entri, char[] huruf, Simpul[] anak, Entri[] terbaik) {
+            int ukuran = entri.length;
+            for (Simpul a : anak) {
+                ukuran += a.ukuran;
+            }
+            return new Simpul(ukuran, entri, huruf, anak, terbaik);
+        }
+    }
+
+    /**
+     * Inner class Entri untuk satu akhiran nama yang dimulai di awal kata,
+     * diurutkan menurut peringkat hasil
+     */
+    private static final class Entri implements Comparable<Entri> {
+        final MenuItem item;
+        final String nama;
+        final int awal;
+
+        Entri(MenuItem item, String nama, int awal) {
+            this.item = item;
+            this.nama = nama;
+            this.awal = awal;
+        }
+
+        int panjangKunci() {
+            return nama.length() - awal;
+        }
+
+        char hurufKe(int kedalaman) {
+            return nama.charAt(awal + kedalaman);
+        }
+
+        // Awalan nama, nama lebih pendek, nama, ID, lalu posisi kata
+        @Override
+        public int compareTo(Entri lain) {
+            int skor = awal == 0 ? SKOR_AWALAN_NAMA : SKOR_AWALAN_KATA;
+            int skorLain = lain.awal == 0 ? SKOR_AWALAN_NAMA : SKOR_AWALAN_KATA;
+            if (skor != skorLain) {
+                return Integer.compare(skor, skorLain);
+            }
+            if (nama.length() != lain.nama.length()) {
+                return Integer.compare(nama.length(), lain.nama.length());
+            }
+            int c = nama.compareTo(lain.nama);
+            if (c != 0) {
+                return c;
+            }
+            c = Integer.compare(item.getId(), lain.item.getId());
+            return c != 0 ? c : Integer.compare(awal, lain.awal);
+        }
+    }
+}
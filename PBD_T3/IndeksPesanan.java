@@ -0,0 +1,307 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Kelas IndeksPesanan untuk indeks pendamping LogPesanan.
+ *
+ * Setiap record di log mendapat satu entri berukuran tetap berisi ID pesanan,
+ * hash nomor meja, waktu pesanan dan offset record di log. Dengan indeks ini,
+ * pencarian berdasarkan ID, meja atau rentang waktu cukup membaca record yang
+ * cocok (seek) tanpa memindai seluruh log.
+ *
+ * Di memori, entri dengan ID atau meja yang sama dirangkai (ID dapat berulang
+ * karena penghitung ID dimulai ulang setiap aplikasi dijalankan), dan setiap blok
+ * {@value #UKURAN_BLOK} entri menyimpan waktu minimum dan maksimum sebagai titik
+ * periksa agar blok di luar rentang waktu dapat dilewati.
+ *
+ * File indeks hanya turunan dari log: tidak di-fsync, dan jika tertinggal atau rusak
+ * dilengkapi atau dibangun ulang dari log saat dibuka. Semua metode dipanggil dengan
+ * memegang lock objek ini.
+ *
+ * Format file (little-endian):
+ * <pre>
+ * int    MAGIC ("PIX1")
+ * short  versi format
+ * short  cadangan (0)
+ * entri: int id pesanan, int hash meja, long waktu (epoch ms), long offset record
+ * </pre>
+ */
+class IndeksPesanan implements AutoCloseable {
+    static final int MAGIC = 0x31584950; // "PIX1" dalam little-endian
+    static final short VERSI_FORMAT = 1;
+    static final int UKURAN_HEADER = 8;
+    static final int UKURAN_ENTRI = 24;
+    static final int UKURAN_BLOK = 64;
+    private static final int TANPA = -1;
+
+    private final Path path;
+    private final FileChannel channel;
+
+    private int jumlah;
+    private int[] idPesanan = new int[256];
+    private int[] hashMeja = new int[256];
+    private long[] waktu = new long[256];
+    private long[] offset = new long[256];
+    // Rantai entri sebelumnya dengan ID / meja yang sama
+    private int[] sebelumnyaSamaId = new int[256];
+    private int[] sebelumnyaSamaMeja = new int[256];
+    private final Map<Integer, Integer> terakhirDenganId = new HashMap<>();
+    private final Map<Integer, Integer> terakhirDiMeja = new HashMap<>();
+    // Titik periksa waktu per blok
+    private long[] waktuMinBlok = new long[4];
+    private long[] waktuMaksBlok = new long[4];
+
+    private int jumlahDiFile;
+    private boolean gagalTulis;
+
+    private IndeksPesanan(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Metode untuk membuka indeks dan memuat entri yang menunjuk ke bagian log yang valid.
+     * Header yang tidak dikenal atau offset yang tidak berurutan membuat indeks dikosongkan.
+     * @param namaFile Nama file indeks
+     * @param akhirLog Ukuran bagian log yang valid
+     * @return Indeks yang mungkin masih tertinggal dari log
+     * @throws IOException jika file indeks tidak dapat dibuka
+     */
+    static IndeksPesanan buka(String namaFile, long akhirLog) throws IOException {
+        Path path = Paths.get(namaFile);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        IndeksPesanan indeks = new IndeksPesanan(path, channel);
+        try {
+            if (!indeks.muat(akhirLog)) {
+                indeks.kosongkan();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return indeks;
+    }
+
+    private boolean muat(long akhirLog) throws IOException {
+        long ukuran = channel.size();
+        if (ukuran < UKURAN_HEADER) {
+            return false;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(Math.toIntExact(ukuran)).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, buf.position()) < 0) {
+                break;
+            }
+        }
+        buf.flip();
+        if (buf.remaining() < UKURAN_HEADER || buf.getInt() != MAGIC || buf.getShort() != VERSI_FORMAT) {
+            return false;
+        }
+        buf.getShort();
+
+        long offsetSebelumnya = -1;
+        while (buf.remaining() >= UKURAN_ENTRI) {
+            int id = buf.getInt();
+            int meja = buf.getInt();
+            long w = buf.getLong();
+            long off = buf.getLong();
+            if (off >= akhirLog) {
+                break; // Record sudah dibuang dari log (ekor terpotong)
+            }
+            if (off <= offsetSebelumnya || off < LogPesanan.UKURAN_HEADER) {
+                return false;
+            }
+            tambahKeMemori(id, meja, w, off);
+            offsetSebelumnya = off;
+        }
+        jumlahDiFile = jumlah;
+        long ukuranBenar = UKURAN_HEADER + (long) jumlah * UKURAN_ENTRI;
+        if (ukuran != ukuranBenar) {
+            channel.truncate(ukuranBenar);
+        }
+        return true;
+    }
+
+    /**
+     * Metode untuk mengosongkan indeks (di memori dan di file)
+     * @throws IOException jika file indeks tidak dapat ditulis ulang
+     */
+    void kosongkan() throws IOException {
+        jumlah = 0;
+        jumlahDiFile = 0;
+        terakhirDenganId.clear();
+        terakhirDiMeja.clear();
+        gagalTulis = false;
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(UKURAN_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putShort(VERSI_FORMAT).putShort((short) 0).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Metode untuk menambahkan entri record baru (belum ditulis ke file sampai simpan())
+     */
+    void tambah(int id, String noMeja, long waktuPesanan, long offsetRecord) {
+        tambahKeMemori(id, hashMeja(noMeja), waktuPesanan, offsetRecord);
+    }
+
+    private void tambahKeMemori(int id, int meja, long w, long off) {
+        if (jumlah == idPesanan.length) {
+            int baru = jumlah * 2;
+            idPesanan = Arrays.copyOf(idPesanan, baru);
+            hashMeja = Arrays.copyOf(hashMeja, baru);
+            waktu = Arrays.copyOf(waktu, baru);
+            offset = Arrays.copyOf(offset, baru);
+            sebelumnyaSamaId = Arrays.copyOf(sebelumnyaSamaId, baru);
+            sebelumnyaSamaMeja = Arrays.copyOf(sebelumnyaSamaMeja, baru);
+        }
+        int i = jumlah++;
+        idPesanan[i] = id;
+        hashMeja[i] = meja;
+        waktu[i] = w;
+        offset[i] = off;
+        Integer lama = terakhirDenganId.put(id, i);
+        sebelumnyaSamaId[i] = lama == null ? TANPA : lama;
+        lama = terakhirDiMeja.put(meja, i);
+        sebelumnyaSamaMeja[i] = lama == null ? TANPA : lama;
+
+        int blok = i / UKURAN_BLOK;
+        if (blok == waktuMinBlok.length) {
+            waktuMinBlok = Arrays.copyOf(waktuMinBlok, blok * 2);
+            waktuMaksBlok = Arrays.copyOf(waktuMaksBlok, blok * 2);
+        }
+        if (i % UKURAN_BLOK == 0) {
+            waktuMinBlok[blok] = w;
+            waktuMaksBlok[blok] = w;
+        } else {
+            waktuMinBlok[blok] = Math.min(waktuMinBlok[blok], w);
+            waktuMaksBlok[blok] = Math.max(waktuMaksBlok[blok], w);
+        }
+    }
+
+    /**
+     * Metode untuk menulis entri yang belum tersimpan ke file indeks.
+     * Kegagalan hanya dilaporkan; indeks akan dilengkapi dari log saat dibuka lagi.
+     */
+    void simpan() {
+        if (gagalTulis || jumlahDiFile == jumlah) {
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.allocate((jumlah - jumlahDiFile) * UKURAN_ENTRI).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = jumlahDiFile; i < jumlah; i++) {
+            buf.putInt(idPesanan[i]).putInt(hashMeja[i]).putLong(waktu[i]).putLong(offset[i]);
+        }
+        buf.flip();
+        try {
+            long posisi = UKURAN_HEADER + (long) jumlahDiFile * UKURAN_ENTRI;
+            while (buf.hasRemaining()) {
+                posisi += channel.write(buf, posisi);
+            }
+            jumlahDiFile = jumlah;
+        } catch (IOException e) {
+            gagalTulis = true;
+            System.err.println("Peringatan: indeks pesanan tidak dapat ditulis (" + e.getMessage()
+                + "), akan dibangun ulang saat dibuka lagi");
+        }
+    }
+
+    int getJumlah() {
+        return jumlah;
+    }
+
+    int getIdPesanan(int i) {
+        return idPesanan[i];
+    }
+
+    long getOffset(int i) {
+        return offset[i];
+    }
+
+    String getNamaFile() {
+        return path.toString();
+    }
+
+    /**
+     * Metode untuk mencari offset record dengan ID tertentu
+     * @return Offset sesuai urutan log
+     */
+    long[] cariId(int id) {
+        Integer awal = terakhirDenganId.get(id);
+        return kumpulkan(awal, sebelumnyaSamaId);
+    }
+
+    /**
+     * Metode untuk mencari offset record yang hash mejanya sama (pemanggil memastikan meja cocok)
+     * @return Offset sesuai urutan log
+     */
+    long[] cariMeja(String noMeja) {
+        Integer awal = terakhirDiMeja.get(hashMeja(noMeja));
+        return kumpulkan(awal, sebelumnyaSamaMeja);
+    }
+
+    /**
+     * Metode untuk mencari offset record dengan waktu dalam rentang [dari, sampai).
+     * Blok yang rentang waktunya tidak beririsan dilewati tanpa memeriksa entrinya.
+     * @return Offset sesuai urutan log
+     */
+    long[] cariRentangWaktu(long dari, long sampai) {
+        long[] hasil = new long[16];
+        int n = 0;
+        int jumlahBlok = (jumlah + UKURAN_BLOK - 1) / UKURAN_BLOK;
+        for (int blok = 0; blok < jumlahBlok; blok++) {
+            if (waktuMaksBlok[blok] < dari || waktuMinBlok[blok] >= sampai) {
+                continue;
+            }
+            int akhir = Math.min(jumlah, (blok + 1) * UKURAN_BLOK);
+            for (int i = blok * UKURAN_BLOK; i < akhir; i++) {
+                if (waktu[i] >= dari && waktu[i] < sampai) {
+                    if (n == hasil.length) {
+                        hasil = Arrays.copyOf(hasil, n * 2);
+                    }
+                    hasil[n++] = offset[i];
+                }
+            }
+        }
+        return Arrays.copyOf(hasil, n);
+    }
+
+    private long[] kumpulkan(Integer awal, int[] rantai) {
+        if (awal == null) {
+            return new long[0];
+        }
+        int n = 0;
+        for (int i = awal; i != TANPA; i = rantai[i]) {
+            n++;
+        }
+        long[] hasil = new long[n];
+        for (int i = awal; i != TANPA; i = rantai[i]) {
+            hasil[--n] = offset[i];
+        }
+        return hasil;
+    }
+
+    static int hashMeja(String noMeja) {
+        return noMeja == null ? 0 : noMeja.trim().toLowerCase(Locale.ROOT).hashCode();
+    }
+
+    static boolean mejaSama(String a, String b) {
+        return (a == null ? "" : a.trim()).equalsIgnoreCase(b == null ? "" : b.trim());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,374 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.zip.CRC32C;
+
+/**
+ * Kelas JurnalMenu untuk mencatat perubahan menu secara inkremental.
+ * Setiap perubahan (tambah, hapus, ubah satu item) ditambahkan sebagai satu
+ * record kecil di akhir file jurnal dan di-fsync, sehingga mengubah satu harga
+ * tidak perlu menulis ulang seluruh file menu. Setelah jumlah record mencapai
+ * batas kompaksi, seluruh menu disimpan ulang (FileHandler.simpanMenuKeFile)
+ * dan jurnal dikosongkan.
+ *
+ * Format file (UTF-8, satu record per baris):
+ * <pre>
+ * JURNAL MENU|generasi
+ * crc|T|baris toFileString           item ditambahkan di akhir daftar
+ * crc|H|posisi                       item pada posisi dihapus
+ * crc|U|posisi|baris toFileString    item pada posisi diubah
+ * </pre>
+ * crc adalah CRC32C (heksadesimal) dari teks record setelahnya. Jurnal hanya
+ * diputar ulang di atas file menu dengan generasi yang sama; hanya record terakhir
+ * yang terpotong atau checksum-nya tidak cocok (misalnya karena mati listrik) yang
+ * diabaikan dan dibuang. Record utuh yang tidak dapat diterapkan, atau checksum yang
+ * rusak di tengah jurnal, membuat jurnal gagal dibuka; isinya disalin ke file
+ * berakhiran {@value #AKHIRAN_RUSAK} karena jurnal basi akan dikosongkan setelah
+ * menu disimpan penuh.
+ */
+public class JurnalMenu implements PendengarPerubahanMenu, Closeable {
+    private static final String HEADER = "JURNAL MENU|";
+    private static final char TAMBAH = 'T';
+    private static final char HAPUS = 'H';
+    private static final char UBAH = 'U';
+    static final String AKHIRAN_RUSAK = ".rusak";
+
+    private final Path path;
+    private final MenuRestoran menuRestoran;
+    private final int batasKompaksi;
+    private final StringBuilder buffer = new StringBuilder(256);
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private int jumlahRecord;
+    // true jika ada record yang gagal ditulis; menu harus disimpan penuh
+    private boolean perluSimpanPenuh;
+    private boolean sedangKompaksi;
+
+    private JurnalMenu(Path path, MenuRestoran menuRestoran, int batasKompaksi) {
+        this.path = path;
+        this.menuRestoran = menuRestoran;
+        this.batasKompaksi = batasKompaksi;
+    }
+
+    /**
+     * Metode untuk membuka jurnal: record dengan generasi yang sama dengan menu
+     * diputar ulang, lalu jurnal dipasang sebagai pendengar perubahan menu
+     * @param namaFile Nama file jurnal
+     * @param menuRestoran Menu yang baru dimuat dari file menu
+     * @param batasKompaksi Jumlah record sebelum menu disimpan ulang penuh
+     * @return JurnalMenu yang sudah terpasang
+     * @throws IOException jika file jurnal tidak dapat dibaca atau dibuat, atau berisi
+     *         record yang tidak dapat diterapkan (jurnal disalin ke file .rusak)
+     */
+    public static JurnalMenu buka(String namaFile, MenuRestoran menuRestoran, int batasKompaksi) throws IOException {
+        if (batasKompaksi <= 0) {
+            throw new IllegalArgumentException("Batas kompaksi harus > 0");
+        }
+        JurnalMenu jurnal = new JurnalMenu(Paths.get(namaFile), menuRestoran, batasKompaksi);
+        long generasi = menuRestoran.getGenerasiFile();
+        long panjangValid = Files.exists(jurnal.path) ? jurnal.putarUlang(generasi) : -1;
+        if (panjangValid < 0) {
+            jurnal.mulaiUlang(generasi);
+        } else {
+            jurnal.bukaUntukMenambah(panjangValid);
+        }
+        menuRestoran.setPendengar(jurnal);
+        if (jurnal.jumlahRecord >= batasKompaksi) {
+            jurnal.kompaksi();
+        }
+        return jurnal;
+    }
+
+    public int getJumlahRecord() {
+        return jumlahRecord;
+    }
+
+    public boolean isPerluSimpanPenuh() {
+        return perluSimpanPenuh;
+    }
+
+    @Override
+    public void menuDitambah(Collection<? extends MenuItem> daftarItem) {
+        for (MenuItem item : daftarItem) {
+            tambahRecord(TAMBAH, -1, item);
+        }
+        tulisRecord(daftarItem.size());
+    }
+
+    @Override
+    public void menuDihapus(int posisi, MenuItem item) {
+        tambahRecord(HAPUS, posisi, null);
+        tulisRecord(1);
+    }
+
+    @Override
+    public void menuBerubah(int posisi, MenuItem item) {
+        if (posisi < 0) {
+            return; // Item belum/tidak lagi berada di menu
+        }
+        tambahRecord(UBAH, posisi, item);
+        tulisRecord(1);
+    }
+
+    @Override
+    public void menuDiganti() {
+        // Posisi record lama tidak berlaku lagi, jadi menu langsung disimpan penuh
+        kompaksi();
+    }
+
+    @Override
+    public void menuDisimpan(long generasi) {
+        try {
+            mulaiUlang(generasi);
+            perluSimpanPenuh = false;
+        } catch (IOException e) {
+            tandaiGagal(e);
+        }
+    }
+
+    /**
+     * Metode untuk menyimpan menu penuh dan mengosongkan jurnal
+     */
+    public void kompaksi() {
+        if (sedangKompaksi) {
+            return;
+        }
+        sedangKompaksi = true;
+        try {
+            FileHandler.simpanMenuKeFile(menuRestoran); // Memanggil menuDisimpan setelah berhasil
+        } catch (IOException e) {
+            tandaiGagal(e);
+        } finally {
+            sedangKompaksi = false;
+        }
+    }
+
+    /**
+     * Metode untuk menutup jurnal. Menu disimpan penuh jika ada record yang
+     * gagal ditulis atau jurnal sudah melewati batas kompaksi.
+     * @throws IOException jika penyimpanan penuh atau penutupan gagal
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (menuRestoran) {
+            try {
+                if (perluSimpanPenuh || jumlahRecord >= batasKompaksi) {
+                    FileHandler.simpanMenuKeFile(menuRestoran);
+                }
+            } finally {
+                if (menuRestoran.getPendengar() == this) {
+                    menuRestoran.setPendengar(null);
+                }
+                if (channel != null) {
+                    channel.close();
+                    channel = null;
+                }
+            }
+        }
+    }
+
+    private void tambahRecord(char jenis, int posisi, MenuItem item) {
+        int awal = buffer.length();
+        buffer.append("00000000|").append(jenis);
+        if (posisi >= 0) {
+            buffer.append('|').append(posisi);
+        }
+        if (item != null) {
+            buffer.append('|').append(item.toFileString());
+        }
+        // CRC dihitung dari teks setelah "crc|"
+        byte[] isi = buffer.substring(awal + 9).getBytes(StandardCharsets.UTF_8);
+        crc.reset();
+        crc.update(isi, 0, isi.length);
+        String hex = Integer.toHexString((int) crc.getValue());
+        buffer.replace(awal + 8 - hex.length(), awal + 8, hex);
+        buffer.append('\n');
+    }
+
+    private void tulisRecord(int jumlah) {
+        if (perluSimpanPenuh || channel == null) {
+            buffer.setLength(0); // Jurnal sudah tidak lengkap, tunggu simpan penuh
+            return;
+        }
+        try {
+            ByteBuffer data = StandardCharsets.UTF_8.encode(buffer.toString());
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(false);
+            jumlahRecord += jumlah;
+        } catch (IOException e) {
+            tandaiGagal(e);
+        } finally {
+            buffer.setLength(0);
+        }
+        if (jumlahRecord >= batasKompaksi) {
+            kompaksi();
+        }
+    }
+
+    private void tandaiGagal(IOException e) {
+        perluSimpanPenuh = true;
+        System.err.println("Peringatan: jurnal menu gagal ditulis, menu akan disimpan penuh - " + e.getMessage());
+    }
+
+    // Mengganti jurnal secara atomik dengan jurnal kosong untuk generasi tertentu
+    private void mulaiUlang(long generasi) throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        byte[] header = (HEADER + generasi + "\n").getBytes(StandardCharsets.UTF_8);
+        BerkasAtomik.tulis(path.toString(), out -> out.write(header));
+        jumlahRecord = 0;
+        bukaUntukMenambah(header.length);
+    }
+
+    private void bukaUntukMenambah(long panjangValid) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        if (channel.size() > panjangValid) {
+            channel.truncate(panjangValid); // Buang record terpotong di akhir
+            channel.force(false);
+        }
+        channel.position(panjangValid);
+    }
+
+    /**
+     * Memutar ulang record jurnal ke menu
+     * @return Panjang byte bagian jurnal yang valid, atau -1 jika jurnal bukan
+     *         untuk generasi ini (sudah basi) dan harus dikosongkan
+     */
+    private long putarUlang(long generasi) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        int akhirHeader = indeksBaris(data, 0);
+        if (akhirHeader < 0) {
+            return -1;
+        }
+        String header = new String(data, 0, akhirHeader, StandardCharsets.UTF_8);
+        if (!header.equals(HEADER + generasi)) {
+            return -1; // Perubahannya sudah tercakup di file menu yang lebih baru
+        }
+
+        PenguraiMenu pengurai = new PenguraiMenu();
+        int awal = akhirHeader + 1;
+        int nomorBaris = 1;
+        while (awal < data.length) {
+            int akhir = indeksBaris(data, awal);
+            if (akhir < 0) {
+                System.err.println("Jurnal menu: record terakhir terpotong, diabaikan");
+                break;
+            }
+            nomorBaris++;
+            if (!checksumCocok(data, awal, akhir)) {
+                if (akhir + 1 < data.length) {
+                    throw rusak(data, nomorBaris, "checksum tidak cocok di tengah jurnal", null);
+                }
+                System.err.println("Jurnal menu: record terakhir rusak, diabaikan");
+                break;
+            }
+            try {
+                terapkan(data, awal, akhir, pengurai, nomorBaris);
+            } catch (IOException | RuntimeException e) {
+                // Record utuh yang tidak dapat diterapkan bukan penulisan terputus:
+                // jurnal tidak dipotong agar record sesudahnya tidak hilang
+                throw rusak(data, nomorBaris, e.getMessage(), e);
+            }
+            jumlahRecord++;
+            awal = akhir + 1;
+        }
+        return awal;
+    }
+
+    // Isi jurnal disalin sebelum gagal, karena jurnal basi dikosongkan setelah menu disimpan penuh
+    private IOException rusak(byte[] data, int nomorBaris, String pesan, Exception sebab) {
+        String salinan = path + AKHIRAN_RUSAK;
+        String keterangan = "Jurnal menu tidak dapat diputar ulang di baris " + nomorBaris + " (" + pesan + ")";
+        try {
+            BerkasAtomik.tulis(salinan, out -> out.write(data));
+            keterangan += "; isi jurnal disalin ke " + salinan;
+        } catch (IOException e) {
+            keterangan += "; salinan " + salinan + " gagal ditulis: " + e.getMessage();
+        }
+        return new IOException(keterangan, sebab);
+    }
+
+    // Record yang terlalu pendek atau tanpa awalan crc dianggap rusak seperti checksum yang salah
+    private boolean checksumCocok(byte[] data, int awal, int akhir) {
+        if (akhir - awal < 11 || data[awal + 8] != '|') {
+            return false;
+        }
+        int crcTersimpan;
+        try {
+            crcTersimpan = Integer.parseUnsignedInt(new String(data, awal, 8, StandardCharsets.US_ASCII), 16);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        crc.reset();
+        crc.update(data, awal + 9, akhir - awal - 9);
+        return (int) crc.getValue() == crcTersimpan;
+    }
+
+    private void terapkan(byte[] data, int awal, int akhir, PenguraiMenu pengurai, int nomorBaris)
+            throws IOException {
+        String record = new String(data, awal + 9, akhir - awal - 9, StandardCharsets.UTF_8);
+        char jenis = record.charAt(0);
+        if (jenis == TAMBAH) {
+            MenuItem item = pengurai.uraiBaris(record.substring(2), nomorBaris);
+            menuRestoran.tambahSemuaMenuItem(Collections.singletonList(item));
+            return;
+        }
+        int pemisah = record.indexOf('|', 2);
+        int posisi = Integer.parseInt(pemisah < 0 ? record.substring(2) : record.substring(2, pemisah));
+        if (jenis == HAPUS) {
+            menuRestoran.hapusMenuItemPada(posisi);
+        } else if (jenis == UBAH && pemisah > 0) {
+            salinIsi(menuRestoran.getMenuItemPada(posisi), pengurai.uraiBaris(record.substring(pemisah + 1), nomorBaris));
+        } else {
+            throw new IOException("jenis record '" + jenis + "' tidak dikenal");
+        }
+    }
+
+    private static void salinIsi(MenuItem tujuan, MenuItem sumber) throws IOException {
+        if (tujuan.getClass() != sumber.getClass()) {
+            throw new IOException("tipe item pada posisi tidak sesuai (" + tujuan.getClass().getSimpleName()
+                + " vs " + sumber.getClass().getSimpleName() + ")");
+        }
+        tujuan.setNama(sumber.getNama());
+        tujuan.setHarga(sumber.getHarga());
+        tujuan.setKategori(sumber.getKategori());
+        if (tujuan instanceof Makanan) {
+            Makanan makanan = (Makanan) tujuan;
+            makanan.setJenisMakanan(((Makanan) sumber).getJenisMakanan());
+            makanan.setTingkatKepedasan(((Makanan) sumber).getTingkatKepedasan());
+        } else if (tujuan instanceof Minuman) {
+            Minuman minuman = (Minuman) tujuan;
+            minuman.setJenisMinuman(((Minuman) sumber).getJenisMinuman());
+            minuman.setUkuran(((Minuman) sumber).getUkuran());
+            minuman.setAdaGula(((Minuman) sumber).isAdaGula());
+        } else if (tujuan instanceof Diskon) {
+            Diskon diskon = (Diskon) tujuan;
+            diskon.setPersentaseDiskon(((Diskon) sumber).getPersentaseDiskon());
+            diskon.setMinimalPembelian(((Diskon) sumber).getMinimalPembelian());
+            diskon.setSyaratDiskon(((Diskon) sumber).getSyaratDiskon());
+            diskon.setAktif(((Diskon) sumber).isAktif());
+        }
+    }
+
+    private static int indeksBaris(byte[] data, int dari) {
+        for (int i = dari; i < data.length; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,608 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Kelas JurnalPesanan untuk memulihkan pesanan yang belum selesai setelah aplikasi
+ * mati mendadak (write-ahead log dengan checkpoint).
+ *
+ * Setiap perubahan pesanan terbuka (pesanan dibuat, item ditambah, jumlah atau catatan
+ * diubah, item dihapus, pesanan selesai atau dibatalkan) ditambahkan sebagai satu record
+ * kecil di akhir file jurnal dan di-fsync sebelum metode pengubahnya kembali. Setelah
+ * jumlah record mencapai batas checkpoint, seluruh pesanan yang masih terbuka ditulis
+ * ke file checkpoint secara atomik dan jurnal dikosongkan. Saat dibuka, checkpoint
+ * dimuat lalu hanya ekor jurnal sesudahnya yang diputar ulang, sehingga lama pemulihan
+ * dibatasi oleh batas checkpoint, bukan oleh lamanya aplikasi berjalan.
+ *
+ * Format file (little-endian):
+ * <pre>
+ * int    MAGIC ("PWL1" untuk jurnal, "PCK1" untuk checkpoint)
+ * short  versi format
+ * short  cadangan (0)
+ * long   generasi (jurnal hanya diputar ulang di atas checkpoint dengan generasi sama)
+ * record: int panjang isi, int CRC32C isi, isi:
+ *         byte jenis, int id pesanan, lalu sesuai jenis:
+ *         B/I  long waktu, teks pelanggan, teks meja, long pajak (basis poin),
+ *              long biaya pelayanan (sen), teks mode pembulatan
+ *         T    long urutan, int id menu, teks nama menu, varint jumlah,
+ *              long harga satuan (sen), teks catatan
+ *         J    long urutan, varint jumlah
+ *         C    long urutan, teks catatan
+ *         H    long urutan
+ *         K, S, X (dikosongkan, selesai, dibatalkan) tanpa isi tambahan
+ * </pre>
+ * Checkpoint hanya berisi record B dan T. Hanya record terakhir jurnal yang terpotong
+ * atau checksum-nya tidak cocok (penulisan yang terputus) yang dibuang. Record utuh yang
+ * tidak dapat diterapkan, atau checksum yang rusak di tengah jurnal, membuat jurnal gagal
+ * dibuka tanpa mengubah file agar record sesudahnya tidak hilang.
+ */
+public class JurnalPesanan implements PendengarPerubahanPesanan, Closeable {
+    static final int MAGIC_JURNAL = 0x314C5750; // "PWL1" dalam little-endian
+    static final int MAGIC_CHECKPOINT = 0x314B4350; // "PCK1" dalam little-endian
+    static final short VERSI_FORMAT = 1;
+    static final int UKURAN_HEADER = 16;
+    private static final int UKURAN_PREFIKS_RECORD = 8;
+    private static final int BATAS_UKURAN_RECORD = 1 << 20;
+
+    private static final byte BUKA = 'B';
+    private static final byte INFO = 'I';
+    private static final byte TAMBAH = 'T';
+    private static final byte JUMLAH = 'J';
+    private static final byte CATATAN = 'C';
+    private static final byte HAPUS = 'H';
+    private static final byte KOSONG = 'K';
+    private static final byte SELESAI = 'S';
+    private static final byte BATAL = 'X';
+
+    private final Path path;
+    private final Path pathCheckpoint;
+    private final MenuRestoran menuRestoran;
+    private final int batasCheckpoint;
+    private final PenulisBiner buffer = new PenulisBiner(256);
+    private final CRC32C crc = new CRC32C();
+
+    // Pesanan yang masih terbuka, sesuai urutan dibuat
+    private final LinkedHashMap<Integer, Pesanan> terbuka = new LinkedHashMap<>();
+    // Baris per nomor urut, hanya dipakai selama pemulihan
+    private final Map<Integer, Map<Long, Pesanan.ItemPesanan>> barisPulihan = new HashMap<>();
+
+    private FileChannel channel;
+    private long generasi;
+    private int jumlahRecord;
+    private int jumlahDiputarUlang;
+    // true jika ada record yang gagal ditulis; checkpoint harus ditulis ulang
+    private boolean perluCheckpoint;
+
+    private JurnalPesanan(Path path, Path pathCheckpoint, MenuRestoran menuRestoran, int batasCheckpoint) {
+        this.path = path;
+        this.pathCheckpoint = pathCheckpoint;
+        this.menuRestoran = menuRestoran;
+        this.batasCheckpoint = batasCheckpoint;
+    }
+
+    /**
+     * Metode untuk membuka jurnal: checkpoint terakhir dimuat, ekor jurnal dengan
+     * generasi yang sama diputar ulang, lalu jurnal dipasang sebagai pendengar
+     * semua pesanan yang dipulihkan
+     * @param namaFile Nama file jurnal
+     * @param namaCheckpoint Nama file checkpoint
+     * @param menuRestoran Menu untuk mencari kembali item yang dipesan
+     * @param batasCheckpoint Jumlah record sebelum checkpoint baru ditulis
+     * @return JurnalPesanan yang sudah terbuka
+     * @throws IOException jika checkpoint atau jurnal rusak (file tidak diubah) atau
+     *         file jurnal tidak dapat dibuat
+     */
+    public static JurnalPesanan buka(String namaFile, String namaCheckpoint, MenuRestoran menuRestoran,
+            int batasCheckpoint) throws IOException {
+        if (batasCheckpoint <= 0) {
+            throw new IllegalArgumentException("Batas checkpoint harus > 0");
+        }
+        JurnalPesanan jurnal = new JurnalPesanan(Paths.get(namaFile), Paths.get(namaCheckpoint),
+            menuRestoran, batasCheckpoint);
+        if (Files.exists(jurnal.pathCheckpoint)) {
+            jurnal.muatCheckpoint();
+        }
+        long panjangValid = Files.exists(jurnal.path) ? jurnal.putarUlang() : -1;
+        jurnal.barisPulihan.clear();
+        if (panjangValid < 0) {
+            jurnal.mulaiUlang(jurnal.generasi);
+        } else {
+            jurnal.bukaUntukMenambah(panjangValid);
+        }
+        jurnal.jumlahDiputarUlang = jurnal.jumlahRecord;
+        for (Pesanan pesanan : jurnal.terbuka.values()) {
+            pesanan.setPendengar(jurnal);
+        }
+        if (jurnal.jumlahRecord >= batasCheckpoint) {
+            jurnal.checkpoint();
+        }
+        return jurnal;
+    }
+
+    /**
+     * Metode untuk mendapatkan pesanan yang masih terbuka (termasuk yang dipulihkan)
+     * @return Salinan daftar pesanan terbuka, sesuai urutan dibuat
+     */
+    public synchronized List<Pesanan> getPesananTerbuka() {
+        return new ArrayList<>(terbuka.values());
+    }
+
+    public synchronized int getJumlahRecord() {
+        return jumlahRecord;
+    }
+
+    /**
+     * Metode untuk mendapatkan jumlah record jurnal yang diputar ulang saat dibuka
+     */
+    public int getJumlahDiputarUlang() {
+        return jumlahDiputarUlang;
+    }
+
+    public synchronized long getGenerasi() {
+        return generasi;
+    }
+
+    /**
+     * Metode untuk mulai mencatat pesanan baru (beserta baris yang sudah ada)
+     * @param pesanan Pesanan yang baru dibuat
+     */
+    public synchronized void daftarkan(Pesanan pesanan) {
+        if (terbuka.putIfAbsent(pesanan.getIdPesanan(), pesanan) != null) {
+            return;
+        }
+        pesanan.setPendengar(this);
+        buffer.reset();
+        kodekanPesanan(pesanan);
+        tulisRecord(1);
+    }
+
+    /**
+     * Metode untuk mencatat bahwa pesanan sudah selesai (sudah tersimpan di histori)
+     * @param pesanan Pesanan yang selesai
+     */
+    public synchronized void selesai(Pesanan pesanan) {
+        tutup(pesanan, SELESAI);
+    }
+
+    /**
+     * Metode untuk mencatat bahwa pesanan dibatalkan
+     * @param pesanan Pesanan yang dibatalkan
+     */
+    public synchronized void batal(Pesanan pesanan) {
+        tutup(pesanan, BATAL);
+    }
+
+    private void tutup(Pesanan pesanan, byte jenis) {
+        if (pesanan.getPendengar() == this) {
+            pesanan.setPendengar(null);
+        }
+        if (terbuka.remove(pesanan.getIdPesanan()) == null) {
+            return;
+        }
+        buffer.reset();
+        int awal = mulaiRecord(jenis, pesanan);
+        akhiriRecord(awal);
+        tulisRecord(1);
+    }
+
+    @Override
+    public synchronized void infoBerubah(Pesanan pesanan) {
+        if (!terdaftar(pesanan)) {
+            return;
+        }
+        buffer.reset();
+        kodekanInfo(INFO, pesanan);
+        tulisRecord(1);
+    }
+
+    @Override
+    public synchronized void barisDitambah(Pesanan pesanan, Pesanan.ItemPesanan item) {
+        if (!terdaftar(pesanan)) {
+            return;
+        }
+        buffer.reset();
+        kodekanBaris(pesanan, item);
+        tulisRecord(1);
+    }
+
+    @Override
+    public synchronized void jumlahBerubah(Pesanan pesanan, Pesanan.ItemPesanan item) {
+        if (!terdaftar(pesanan)) {
+            return;
+        }
+        buffer.reset();
+        int awal = mulaiRecord(JUMLAH, pesanan);
+        buffer.int64(item.getUrutan());
+        buffer.varint(item.getJumlah());
+        akhiriRecord(awal);
+        tulisRecord(1);
+    }
+
+    @Override
+    public synchronized void catatanBerubah(Pesanan pesanan, Pesanan.ItemPesanan item) {
+        if (!terdaftar(pesanan)) {
+            return;
+        }
+        buffer.reset();
+        int awal = mulaiRecord(CATATAN, pesanan);
+        buffer.int64(item.getUrutan());
+        buffer.teks(item.getCatatan());
+        akhiriRecord(awal);
+        tulisRecord(1);
+    }
+
+    @Override
+    public synchronized void barisDihapus(Pesanan pesanan, Pesanan.ItemPesanan item) {
+        if (!terdaftar(pesanan)) {
+            return;
+        }
+        buffer.reset();
+        int awal = mulaiRecord(HAPUS, pesanan);
+        buffer.int64(item.getUrutan());
+        akhiriRecord(awal);
+        tulisRecord(1);
+    }
+
+    @Override
+    public synchronized void pesananDikosongkan(Pesanan pesanan) {
+        if (!terdaftar(pesanan)) {
+            return;
+        }
+        buffer.reset();
+        akhiriRecord(mulaiRecord(KOSONG, pesanan));
+        tulisRecord(1);
+    }
+
+    private boolean terdaftar(Pesanan pesanan) {
+        return terbuka.get(pesanan.getIdPesanan()) == pesanan;
+    }
+
+    /**
+     * Metode untuk menulis checkpoint semua pesanan terbuka dan mengosongkan jurnal.
+     * Kegagalan hanya dilaporkan; checkpoint dicoba lagi pada perubahan berikutnya.
+     */
+    public synchronized void checkpoint() {
+        try {
+            tulisCheckpoint();
+        } catch (IOException e) {
+            tandaiGagal(e);
+        }
+    }
+
+    /**
+     * Metode untuk menutup jurnal. Checkpoint terakhir ditulis agar pemulihan
+     * berikutnya tidak perlu memutar ulang jurnal.
+     * @throws IOException jika checkpoint atau penutupan gagal
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (perluCheckpoint || jumlahRecord > 0) {
+                tulisCheckpoint();
+            }
+        } finally {
+            for (Pesanan pesanan : terbuka.values()) {
+                if (pesanan.getPendengar() == this) {
+                    pesanan.setPendengar(null);
+                }
+            }
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    // Checkpoint generasi baru ditulis atomik lebih dulu; jurnal generasi lama yang
+    // tertinggal setelah mati mendadak diabaikan karena isinya sudah tercakup
+    private void tulisCheckpoint() throws IOException {
+        long generasiBaru = generasi + 1;
+        buffer.reset();
+        buffer.int32(MAGIC_CHECKPOINT);
+        buffer.int16(VERSI_FORMAT);
+        buffer.int16((short) 0);
+        buffer.int64(generasiBaru);
+        for (Pesanan pesanan : terbuka.values()) {
+            kodekanPesanan(pesanan);
+        }
+        try {
+            BerkasAtomik.tulis(pathCheckpoint.toString(), out -> out.write(buffer.data, 0, buffer.panjang));
+        } finally {
+            buffer.reset();
+        }
+        generasi = generasiBaru;
+        mulaiUlang(generasiBaru);
+        perluCheckpoint = false;
+    }
+
+    private void tulisRecord(int jumlah) {
+        if (perluCheckpoint || channel == null) {
+            // Jurnal sudah tidak lengkap: checkpoint memuat seluruh keadaan terbaru
+            buffer.reset();
+            checkpoint();
+            return;
+        }
+        try {
+            ByteBuffer data = ByteBuffer.wrap(buffer.data, 0, buffer.panjang);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(false);
+            jumlahRecord += jumlah;
+        } catch (IOException e) {
+            tandaiGagal(e);
+        } finally {
+            buffer.reset();
+        }
+        if (perluCheckpoint || jumlahRecord >= batasCheckpoint) {
+            checkpoint();
+        }
+    }
+
+    private void tandaiGagal(IOException e) {
+        perluCheckpoint = true;
+        System.err.println("Peringatan: jurnal pesanan gagal ditulis, checkpoint akan dicoba lagi - " + e.getMessage());
+    }
+
+    // Mengganti jurnal secara atomik dengan jurnal kosong untuk generasi tertentu
+    private void mulaiUlang(long generasiJurnal) throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(UKURAN_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC_JURNAL).putShort(VERSI_FORMAT).putShort((short) 0).putLong(generasiJurnal);
+        BerkasAtomik.tulis(path.toString(), out -> out.write(header.array()));
+        jumlahRecord = 0;
+        bukaUntukMenambah(UKURAN_HEADER);
+    }
+
+    private void bukaUntukMenambah(long panjangValid) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        if (channel.size() > panjangValid) {
+            channel.truncate(panjangValid); // Buang record terpotong di akhir
+            channel.force(false);
+        }
+        channel.position(panjangValid);
+    }
+
+    // Record B diikuti satu record T per baris, sesuai urutan baris
+    private void kodekanPesanan(Pesanan pesanan) {
+        kodekanInfo(BUKA, pesanan);
+        for (Pesanan.ItemPesanan item : pesanan.getItemPesanan()) {
+            kodekanBaris(pesanan, item);
+        }
+    }
+
+    private void kodekanInfo(byte jenis, Pesanan pesanan) {
+        int awal = mulaiRecord(jenis, pesanan);
+        buffer.int64(pesanan.getTanggalPesanan().getTime());
+        buffer.teks(pesanan.getNamaPelanggan());
+        buffer.teks(pesanan.getNoMeja());
+        buffer.int64(pesanan.getPajakBasisPoin());
+        buffer.int64(pesanan.getBiayaPelayananSen());
+        buffer.teks(pesanan.getPembulatan().name());
+        akhiriRecord(awal);
+    }
+
+    private void kodekanBaris(Pesanan pesanan, Pesanan.ItemPesanan item) {
+        int awal = mulaiRecord(TAMBAH, pesanan);
+        buffer.int64(item.getUrutan());
+        buffer.int32(item.getMenuItem().getId());
+        buffer.teks(item.getMenuItem().getNama());
+        buffer.varint(item.getJumlah());
+        buffer.int64(item.getHargaSatuanSen());
+        buffer.teks(item.getCatatan());
+        akhiriRecord(awal);
+    }
+
+    private int mulaiRecord(byte jenis, Pesanan pesanan) {
+        int awal = buffer.panjang;
+        buffer.int32(0); // Panjang dan CRC diisi di akhiriRecord
+        buffer.int32(0);
+        buffer.int8(jenis);
+        buffer.int32(pesanan.getIdPesanan());
+        return awal;
+    }
+
+    private void akhiriRecord(int awal) {
+        int awalIsi = awal + UKURAN_PREFIKS_RECORD;
+        crc.reset();
+        crc.update(buffer.data, awalIsi, buffer.panjang - awalIsi);
+        buffer.setInt32(awal, buffer.panjang - awalIsi);
+        buffer.setInt32(awal + 4, (int) crc.getValue());
+    }
+
+    // Checkpoint ditulis atomik, jadi record yang rusak berarti file rusak (bukan terpotong)
+    private void muatCheckpoint() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(pathCheckpoint)).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < UKURAN_HEADER || data.getInt() != MAGIC_CHECKPOINT
+                || data.getShort() != VERSI_FORMAT) {
+            throw new IOException("File checkpoint pesanan tidak dikenal: " + pathCheckpoint);
+        }
+        data.getShort();
+        generasi = data.getLong();
+        while (data.hasRemaining()) {
+            int awal = data.position();
+            ByteBuffer isi = ambilRecord(data);
+            if (isi == null) {
+                throw new IOException("Checkpoint pesanan rusak pada offset " + awal);
+            }
+            try {
+                terapkan(isi);
+            } catch (IOException | RuntimeException e) {
+                throw new IOException("Checkpoint pesanan " + pathCheckpoint + " tidak dapat dimuat pada offset "
+                    + awal + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Memutar ulang ekor jurnal di atas checkpoint
+     * @return Panjang byte bagian jurnal yang valid, atau -1 jika jurnal bukan
+     *         untuk generasi ini (sudah basi) dan harus dikosongkan
+     */
+    private long putarUlang() throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < UKURAN_HEADER || data.getInt() != MAGIC_JURNAL
+                || data.getShort() != VERSI_FORMAT) {
+            return -1;
+        }
+        data.getShort();
+        if (data.getLong() != generasi) {
+            return -1; // Perubahannya sudah tercakup di checkpoint yang lebih baru
+        }
+        while (data.hasRemaining()) {
+            int awal = data.position();
+            ByteBuffer isi = ambilRecord(data);
+            if (isi == null) {
+                System.err.println("Jurnal pesanan: record terakhir terpotong, diabaikan");
+                data.position(awal);
+                break;
+            }
+            try {
+                terapkan(isi);
+            } catch (IOException | RuntimeException e) {
+                // Record utuh yang tidak dapat diterapkan bukan penulisan terputus:
+                // jurnal tidak dipotong agar record sesudahnya tetap ada untuk diperiksa
+                throw new IOException("Jurnal pesanan " + path + " tidak dapat diputar ulang pada offset "
+                    + awal + " (" + e.getMessage() + "); file tidak diubah", e);
+            }
+            jumlahRecord++;
+        }
+        return data.position();
+    }
+
+    /**
+     * Mengambil isi record berikutnya
+     * @return Isi record, atau null jika record terakhir terpotong atau checksum-nya tidak cocok
+     * @throws IOException jika checksum tidak cocok pada record yang masih diikuti record lain
+     */
+    private ByteBuffer ambilRecord(ByteBuffer data) throws IOException {
+        if (data.remaining() < UKURAN_PREFIKS_RECORD) {
+            return null;
+        }
+        int panjang = data.getInt(data.position());
+        int crcTersimpan = data.getInt(data.position() + 4);
+        if (panjang < 5 || panjang > BATAS_UKURAN_RECORD
+                || panjang > data.remaining() - UKURAN_PREFIKS_RECORD) {
+            return null;
+        }
+        int awalIsi = data.position() + UKURAN_PREFIKS_RECORD;
+        crc.reset();
+        crc.update(data.array(), awalIsi, panjang);
+        if ((int) crc.getValue() != crcTersimpan) {
+            if (awalIsi + panjang < data.limit()) {
+                throw new IOException("Checksum record pada offset " + data.position()
+                    + " tidak cocok di tengah file; file tidak diubah");
+            }
+            return null;
+        }
+        ByteBuffer isi = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        isi.limit(awalIsi + panjang).position(awalIsi);
+        data.position(awalIsi + panjang);
+        return isi;
+    }
+
+    private void terapkan(ByteBuffer isi) throws IOException {
+        PembacaBiner in = new PembacaBiner(isi);
+        byte jenis = isi.get();
+        int id = isi.getInt();
+        if (jenis == BUKA) {
+            Date waktu = new Date(isi.getLong());
+            Pesanan pesanan = new Pesanan(id, in.teks(), in.teks(), waktu);
+            pesanan.pulihkanTarif(isi.getLong(), isi.getLong(), RoundingMode.valueOf(in.teks()));
+            terbuka.put(id, pesanan);
+            barisPulihan.put(id, new HashMap<>());
+            return;
+        }
+
+        Pesanan pesanan = terbuka.get(id);
+        Map<Long, Pesanan.ItemPesanan> baris = barisPulihan.get(id);
+        if (pesanan == null || baris == null) {
+            throw new IOException("pesanan #" + id + " tidak dikenal");
+        }
+        switch (jenis) {
+            case INFO:
+                isi.getLong();
+                pesanan.setNamaPelanggan(in.teks());
+                pesanan.setNoMeja(in.teks());
+                pesanan.pulihkanTarif(isi.getLong(), isi.getLong(), RoundingMode.valueOf(in.teks()));
+                break;
+            case TAMBAH: {
+                long urutan = isi.getLong();
+                int idMenu = isi.getInt();
+                String namaMenu = in.teks();
+                int jumlah = in.varint();
+                long hargaSatuanSen = isi.getLong();
+                String catatan = in.teks();
+                MenuItem menuItem = cariMenu(idMenu, namaMenu, hargaSatuanSen);
+                baris.put(urutan, pesanan.pulihkanBaris(menuItem, jumlah, hargaSatuanSen, catatan, urutan));
+                break;
+            }
+            case JUMLAH:
+                cariBaris(baris, isi.getLong(), id).setJumlah(in.varint());
+                break;
+            case CATATAN:
+                cariBaris(baris, isi.getLong(), id).setCatatan(in.teks());
+                break;
+            case HAPUS: {
+                long urutan = isi.getLong();
+                pesanan.pulihkanHapusBaris(cariBaris(baris, urutan, id));
+                baris.remove(urutan);
+                break;
+            }
+            case KOSONG:
+                for (Pesanan.ItemPesanan item : baris.values()) {
+                    pesanan.pulihkanHapusBaris(item);
+                }
+                baris.clear();
+                break;
+            case SELESAI:
+            case BATAL:
+                terbuka.remove(id);
+                barisPulihan.remove(id);
+                break;
+            default:
+                throw new IOException("jenis record '" + (char) jenis + "' tidak dikenal");
+        }
+    }
+
+    private static Pesanan.ItemPesanan cariBaris(Map<Long, Pesanan.ItemPesanan> baris, long urutan, int id)
+            throws IOException {
+        Pesanan.ItemPesanan item = baris.get(urutan);
+        if (item == null) {
+            throw new IOException("baris " + urutan + " pesanan #" + id + " tidak dikenal");
+        }
+        return item;
+    }
+
+    // ID menu tidak disimpan di file menu, jadi ID hanya dipakai jika namanya masih sama
+    private MenuItem cariMenu(int idMenu, String namaMenu, long hargaSatuanSen) {
+        MenuItem menuItem = menuRestoran.cariMenuById(idMenu);
+        if (menuItem != null && menuItem.getNama().equals(namaMenu)) {
+            return menuItem;
+        }
+        menuItem = menuRestoran.cariMenuByNama(namaMenu);
+        if (menuItem != null) {
+            return menuItem;
+        }
+        System.err.println("Jurnal pesanan: menu '" + namaMenu + "' tidak ada lagi di daftar menu,"
+            + " dipulihkan sebagai item sementara");
+        return new Makanan(namaMenu, Uang.keRupiah(hargaSatuanSen), "lainnya");
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kelas KamusAtribut untuk dictionary encoding atribut menu (kategori, jenis, ukuran, dll).
+ * Nilai yang sama hanya disimpan sekali dan diberi kode int. Nilai kustom di luar
+ * nilai bawaan tetap boleh didaftarkan.
+ */
+public final class KamusAtribut {
+    // Kamus untuk setiap atribut bertipe teks pada MenuItem dan turunannya
+    public static final KamusAtribut KATEGORI = new KamusAtribut("kategori");
+    public static final KamusAtribut JENIS_MAKANAN = new KamusAtribut("jenisMakanan");
+    public static final KamusAtribut KEPEDASAN = new KamusAtribut("kepedasan");
+    public static final KamusAtribut JENIS_MINUMAN = new KamusAtribut("jenisMinuman");
+    public static final KamusAtribut UKURAN = new KamusAtribut("ukuran");
+
+    private final String namaAtribut;
+    private final ConcurrentHashMap<String, NilaiAtribut> nilaiByKunci;
+    private final ArrayList<NilaiAtribut> nilaiByKode;
+
+    private KamusAtribut(String namaAtribut) {
+        this.namaAtribut = namaAtribut;
+        this.nilaiByKunci = new ConcurrentHashMap<>();
+        this.nilaiByKode = new ArrayList<>();
+    }
+
+    public String getNamaAtribut() {
+        return namaAtribut;
+    }
+
+    /**
+     * Metode untuk mendapatkan nilai kanonik dari teks atribut.
+     * Teks yang hanya berbeda huruf besar/kecil menghasilkan objek yang sama, dan
+     * teks kanoniknya selalu huruf kecil (Locale.ROOT) sehingga tidak bergantung pada
+     * urutan pendaftaran.
+     * @param teks Teks atribut
+     * @return NilaiAtribut kanonik, null jika teks null
+     */
+    public NilaiAtribut intern(String teks) {
+        if (teks == null) {
+            return null;
+        }
+        String kunci = teks.toLowerCase(Locale.ROOT);
+        NilaiAtribut nilai = nilaiByKunci.get(kunci);
+        if (nilai != null) {
+            return nilai;
+        }
+        return nilaiByKunci.computeIfAbsent(kunci, this::daftarkan);
+    }
+
+    /**
+     * Metode untuk mendapatkan nilai berdasarkan kode
+     * @param kode Kode nilai
+     * @return NilaiAtribut dengan kode tersebut
+     */
+    public synchronized NilaiAtribut getByKode(int kode) {
+        if (kode < 0 || kode >= nilaiByKode.size()) {
+            throw new IllegalArgumentException("Kode " + kode + " tidak terdaftar pada kamus " + namaAtribut);
+        }
+        return nilaiByKode.get(kode);
+    }
+
+    /**
+     * Metode untuk mendapatkan jumlah nilai yang terdaftar
+     * @return Jumlah nilai unik
+     */
+    public synchronized int getJumlahNilai() {
+        return nilaiByKode.size();
+    }
+
+    private synchronized NilaiAtribut daftarkan(String teks) {
+        NilaiAtribut nilai = new NilaiAtribut(this, nilaiByKode.size(), teks);
+        nilaiByKode.add(nilai);
+        return nilai;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KamusAtribut[%s, nilai=%d]", namaAtribut, getJumlahNilai());
+    }
+}
@@ -0,0 +1,280 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Kelas KatalogBiner untuk menyimpan dan memuat menu dalam format biner ringkas.
+ * File dibaca sekaligus (atau di-memory-map jika besar), checksum diperiksa,
+ * lalu item dibangun tanpa split String maupun parseDouble.
+ *
+ * Format versi 2 (little-endian):
+ * <pre>
+ * int    MAGIC ("MNU1")
+ * short  versi format
+ * short  cadangan (0)
+ * long   generasi file (tidak ada pada versi 1), dicocokkan dengan JurnalMenu
+ * teks   nama restoran
+ * 5 x    kamus: varint jumlah, lalu teks per nilai
+ *        (kategori, jenis makanan, kepedasan, jenis minuman, ukuran)
+ * int    jumlah item
+ * item:  byte tipe, teks nama, long harga sen, varint kode kategori, lalu
+ *        Makanan: varint jenis, varint kepedasan
+ *        Minuman: varint jenis, varint ukuran, byte gula
+ *        Diskon : long basis poin, long minimal sen, teks syarat, byte aktif
+ * int    CRC32C dari semua byte sebelumnya
+ * </pre>
+ * Teks disimpan sebagai varint panjang byte diikuti byte UTF-8. Kode kamus
+ * bersifat lokal per file dan dipetakan ulang ke KamusAtribut saat dimuat.
+ * File versi 1 tetap dapat dimuat (dengan generasi 0).
+ */
+public final class KatalogBiner {
+    public static final int MAGIC = 0x31554E4D; // "MNU1" dalam little-endian
+    public static final short VERSI_FORMAT = 2;
+    private static final short VERSI_TANPA_GENERASI = 1;
+
+    private static final byte TIPE_MAKANAN = 1;
+    private static final byte TIPE_MINUMAN = 2;
+    private static final byte TIPE_DISKON = 3;
+
+    // File lebih besar dari ini di-memory-map alih-alih dibaca ke heap
+    private static final long BATAS_BACA_HEAP = 64L * 1024 * 1024;
+
+    private static final KamusAtribut[] KAMUS = {
+        KamusAtribut.KATEGORI, KamusAtribut.JENIS_MAKANAN, KamusAtribut.KEPEDASAN,
+        KamusAtribut.JENIS_MINUMAN, KamusAtribut.UKURAN
+    };
+    private static final int K_KATEGORI = 0;
+    private static final int K_JENIS_MAKANAN = 1;
+    private static final int K_KEPEDASAN = 2;
+    private static final int K_JENIS_MINUMAN = 3;
+    private static final int K_UKURAN = 4;
+
+    private KatalogBiner() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    /**
+     * Metode untuk menyimpan snapshot menu ke file biner dengan generasi file menu saat ini
+     * @param menuRestoran MenuRestoran yang akan disimpan
+     * @param namaFile Nama file tujuan
+     * @return Jumlah item yang disimpan
+     * @throws IOException jika terjadi error saat menulis file
+     */
+    public static int simpan(MenuRestoran menuRestoran, String namaFile) throws IOException {
+        return simpan(menuRestoran, namaFile, menuRestoran.getGenerasiFile());
+    }
+
+    /**
+     * Metode untuk menyimpan snapshot menu ke file biner. File diganti secara atomik.
+     * @param menuRestoran MenuRestoran yang akan disimpan
+     * @param namaFile Nama file tujuan
+     * @param generasi Generasi file yang dicatat di header
+     * @return Jumlah item yang disimpan
+     * @throws IOException jika terjadi error saat menulis file
+     */
+    public static int simpan(MenuRestoran menuRestoran, String namaFile, long generasi) throws IOException {
+        SnapshotMenu snapshot = menuRestoran.getSnapshot();
+
+        // Kumpulkan kamus lokal: setiap nilai atribut mendapat kode berurutan
+        ArrayList<IdentityHashMap<NilaiAtribut, Integer>> kamusLokal = new ArrayList<>();
+        for (int i = 0; i < KAMUS.length; i++) {
+            kamusLokal.add(new IdentityHashMap<>());
+        }
+        for (MenuItem item : snapshot) {
+            kodeLokal(kamusLokal.get(K_KATEGORI), item.getKategoriAtribut());
+            if (item instanceof Makanan) {
+                Makanan makanan = (Makanan) item;
+                kodeLokal(kamusLokal.get(K_JENIS_MAKANAN), makanan.getJenisMakananAtribut());
+                kodeLokal(kamusLokal.get(K_KEPEDASAN), makanan.getTingkatKepedasanAtribut());
+            } else if (item instanceof Minuman) {
+                Minuman minuman = (Minuman) item;
+                kodeLokal(kamusLokal.get(K_JENIS_MINUMAN), minuman.getJenisMinumanAtribut());
+                kodeLokal(kamusLokal.get(K_UKURAN), minuman.getUkuranAtribut());
+            }
+        }
+
+        PenulisBiner out = new PenulisBiner(64 + snapshot.getJumlahMenu() * 48);
+        out.int32(MAGIC);
+        out.int16(VERSI_FORMAT);
+        out.int16((short) 0);
+        out.int64(generasi);
+        out.teks(menuRestoran.getNamaRestoran());
+        for (IdentityHashMap<NilaiAtribut, Integer> kamus : kamusLokal) {
+            NilaiAtribut[] urut = new NilaiAtribut[kamus.size()];
+            kamus.forEach((nilai, kode) -> urut[kode] = nilai);
+            out.varint(urut.length);
+            for (NilaiAtribut nilai : urut) {
+                out.teks(nilai.getTeks());
+            }
+        }
+
+        int jumlah = 0;
+        int posisiJumlah = out.panjang;
+        out.int32(0); // Diisi setelah item ditulis, karena item tak dikenal dilewati
+        for (MenuItem item : snapshot) {
+            if (item instanceof Makanan) {
+                Makanan makanan = (Makanan) item;
+                tulisDasar(out, TIPE_MAKANAN, item, kamusLokal);
+                out.varint(kamusLokal.get(K_JENIS_MAKANAN).get(makanan.getJenisMakananAtribut()));
+                out.varint(kamusLokal.get(K_KEPEDASAN).get(makanan.getTingkatKepedasanAtribut()));
+            } else if (item instanceof Minuman) {
+                Minuman minuman = (Minuman) item;
+                tulisDasar(out, TIPE_MINUMAN, item, kamusLokal);
+                out.varint(kamusLokal.get(K_JENIS_MINUMAN).get(minuman.getJenisMinumanAtribut()));
+                out.varint(kamusLokal.get(K_UKURAN).get(minuman.getUkuranAtribut()));
+                out.int8(minuman.isAdaGula() ? 1 : 0);
+            } else if (item instanceof Diskon) {
+                Diskon diskon = (Diskon) item;
+                tulisDasar(out, TIPE_DISKON, item, kamusLokal);
+                out.int64(diskon.getPersentaseBasisPoin());
+                out.int64(diskon.getMinimalPembelianSen());
+                out.teks(diskon.getSyaratDiskon());
+                out.int8(diskon.isAktif() ? 1 : 0);
+            } else {
+                continue;
+            }
+            jumlah++;
+        }
+        out.setInt32(posisiJumlah, jumlah);
+
+        CRC32C crc = new CRC32C();
+        crc.update(out.data, 0, out.panjang);
+        out.int32((int) crc.getValue());
+
+        BerkasAtomik.tulis(namaFile, tujuan -> tujuan.write(out.data, 0, out.panjang));
+        return jumlah;
+    }
+
+    /**
+     * Metode untuk memuat menu dari file biner
+     * @param namaFile Nama file sumber
+     * @return MenuRestoran berisi semua item dari file
+     * @throws IOException jika file tidak dapat dibaca, rusak, atau versinya tidak dikenal
+     */
+    public static MenuRestoran muat(String namaFile) throws IOException {
+        ByteBuffer buf = bacaSemua(namaFile);
+        int ukuran = buf.limit();
+        if (ukuran < 16) {
+            throw new IOException("File katalog terlalu pendek: " + namaFile);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(buf.duplicate().limit(ukuran - 4));
+        int crcTersimpan = buf.getInt(ukuran - 4);
+        if ((int) crc.getValue() != crcTersimpan) {
+            throw new IOException("Checksum katalog tidak cocok, file rusak: " + namaFile);
+        }
+        buf.limit(ukuran - 4);
+
+        PembacaBiner in = new PembacaBiner(buf);
+        if (buf.getInt() != MAGIC) {
+            throw new IOException("Bukan file katalog menu: " + namaFile);
+        }
+        short versi = buf.getShort();
+        if (versi != VERSI_FORMAT && versi != VERSI_TANPA_GENERASI) {
+            throw new IOException("Versi katalog " + versi + " tidak didukung (didukung: " + VERSI_FORMAT + ")");
+        }
+        buf.getShort(); // cadangan
+
+        try {
+            long generasi = versi == VERSI_TANPA_GENERASI ? 0 : buf.getLong();
+            MenuRestoran menuRestoran = new MenuRestoran(in.teks());
+            menuRestoran.setGenerasiFile(generasi, false);
+            NilaiAtribut[][] kamus = new NilaiAtribut[KAMUS.length][];
+            for (int k = 0; k < KAMUS.length; k++) {
+                kamus[k] = new NilaiAtribut[in.varint()];
+                for (int i = 0; i < kamus[k].length; i++) {
+                    kamus[k][i] = KAMUS[k].intern(in.teks());
+                }
+            }
+
+            int jumlah = buf.getInt();
+            ArrayList<MenuItem> daftar = new ArrayList<>(jumlah);
+            for (int i = 0; i < jumlah; i++) {
+                byte tipe = buf.get();
+                String nama = in.teks();
+                double harga = Uang.keRupiah(buf.getLong());
+                NilaiAtribut kategori = kamus[K_KATEGORI][in.varint()];
+                MenuItem item;
+                switch (tipe) {
+                    case TIPE_MAKANAN:
+                        item = new Makanan(nama, harga,
+                            kamus[K_JENIS_MAKANAN][in.varint()].getTeks(),
+                            kamus[K_KEPEDASAN][in.varint()].getTeks());
+                        break;
+                    case TIPE_MINUMAN:
+                        item = new Minuman(nama, harga,
+                            kamus[K_JENIS_MINUMAN][in.varint()].getTeks(),
+                            kamus[K_UKURAN][in.varint()].getTeks(),
+                            buf.get() != 0);
+                        break;
+                    case TIPE_DISKON:
+                        double persentase = Uang.basisPoinKeRasio(buf.getLong());
+                        double minimal = Uang.keRupiah(buf.getLong());
+                        Diskon diskon = new Diskon(nama, persentase, minimal, in.teks());
+                        diskon.setAktif(buf.get() != 0);
+                        item = diskon;
+                        break;
+                    default:
+                        throw new IOException("Tipe item " + tipe + " tidak dikenal pada item ke-" + (i + 1));
+                }
+                if (item.getKategoriAtribut() != kategori) {
+                    item.setKategori(kategori.getTeks());
+                }
+                daftar.add(item);
+            }
+            if (buf.hasRemaining()) {
+                throw new IOException("Ada " + buf.remaining() + " byte tak terbaca di akhir katalog");
+            }
+
+            menuRestoran.tambahSemuaMenuItem(daftar);
+            return menuRestoran;
+        } catch (RuntimeException e) {
+            // BufferUnderflow atau kode kamus di luar jangkauan: isi file tidak konsisten
+            throw new IOException("Katalog tidak valid: " + namaFile + " (" + e + ")", e);
+        }
+    }
+
+    private static ByteBuffer bacaSemua(String namaFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(namaFile), StandardOpenOption.READ)) {
+            long ukuran = channel.size();
+            ByteBuffer buf;
+            if (ukuran > BATAS_BACA_HEAP) {
+                if (ukuran > Integer.MAX_VALUE) {
+                    throw new IOException("File katalog terlalu besar: " + ukuran + " bytes");
+                }
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, ukuran);
+            } else {
+                buf = ByteBuffer.allocate((int) ukuran);
+                while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                    // Baca sampai penuh
+                }
+                if (buf.hasRemaining()) {
+                    throw new IOException("File katalog berubah saat dibaca: " + namaFile);
+                }
+                buf.flip();
+            }
+            return buf.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private static void kodeLokal(IdentityHashMap<NilaiAtribut, Integer> kamus, NilaiAtribut nilai) {
+        if (!kamus.containsKey(nilai)) {
+            kamus.put(nilai, kamus.size());
+        }
+    }
+
+    private static void tulisDasar(PenulisBiner out, byte tipe, MenuItem item,
+                                   ArrayList<IdentityHashMap<NilaiAtribut, Integer>> kamusLokal) {
+        out.int8(tipe);
+        out.teks(item.getNama());
+        out.int64(item.getHargaSen());
+        out.varint(kamusLokal.get(K_KATEGORI).get(item.getKategoriAtribut()));
+    }
+}
@@ -0,0 +1,765 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * Kelas LogPesanan untuk mencatat pesanan selesai ke log biner append-only.
+ *
+ * Setiap pesanan disimpan sebagai satu record berprefiks panjang dan ber-checksum,
+ * sehingga log dapat dibaca kembali dengan andal dan record terakhir yang terpotong
+ * (misalnya karena mati listrik) dapat dikenali dan dibuang. Record dikodekan di
+ * thread kasir, lalu satu thread penulis latar belakang menggabungkan semua record
+ * yang sedang antre menjadi satu write dan satu fsync (group commit).
+ *
+ * Format file (little-endian):
+ * <pre>
+ * int    MAGIC ("PSN1")
+ * short  versi format
+ * short  cadangan (0)
+ * record: int panjang isi, int CRC32C isi, lalu isi:
+ *         int id pesanan, long waktu (epoch ms), teks pelanggan, teks meja,
+ *         varint jumlah baris, per baris: teks nama menu, varint jumlah,
+ *         long harga satuan sen, long total sen, teks catatan;
+ *         long subtotal sen, long pajak sen, long biaya pelayanan sen, long total akhir sen
+ * </pre>
+ * Histori yang dapat dibaca manusia dibuat dari log saat diminta (tulisHistori).
+ * Pencarian berdasarkan ID, meja atau rentang waktu memakai IndeksPesanan pada file
+ * pendamping (nama log + ".idx") dan hanya membaca record yang cocok.
+ */
+public class LogPesanan implements AutoCloseable {
+    public static final int MAGIC = 0x314E5350; // "PSN1" dalam little-endian
+    public static final short VERSI_FORMAT = 1;
+    static final int UKURAN_HEADER = 8;
+    static final int UKURAN_PREFIKS_RECORD = 8;
+    // Batas wajar satu record, agar panjang yang rusak tidak dianggap valid
+    static final int BATAS_UKURAN_RECORD = 16 * 1024 * 1024;
+    public static final String AKHIRAN_INDEKS = ".idx";
+
+    /**
+     * Enum ModeDurabilitas untuk memilih kapan checkout dianggap tersimpan
+     */
+    public enum ModeDurabilitas {
+        /** Checkout menunggu sampai batch-nya ditulis dan di-fsync (paling aman) */
+        FSYNC,
+        /** Checkout menunggu sampai batch-nya ditulis ke OS, tanpa fsync (aman dari crash proses) */
+        TULIS,
+        /** Checkout tidak menunggu; batch ditulis dan di-fsync di latar belakang */
+        ASINKRON
+    }
+
+    private final Path path;
+    private final ModeDurabilitas mode;
+    private final FileChannel channel;
+    private final IndeksPesanan indeks;
+    private final LinkedBlockingQueue<Antrean> antrean = new LinkedBlockingQueue<>();
+    private final Thread penulis;
+    private final Object kunciTutup = new Object();
+
+    // Ukuran bagian log yang sudah selesai ditulis; pembaca tidak membaca melewati ini.
+    // Diubah bersama indeks di bawah lock indeks.
+    private volatile long ukuranTersimpan;
+    private volatile boolean ditutup;
+    private volatile IOException galat;
+
+    private LogPesanan(Path path, ModeDurabilitas mode, FileChannel channel, IndeksPesanan indeks,
+                       long ukuranValid, boolean hanyaBaca) {
+        this.path = path;
+        this.mode = mode;
+        this.channel = channel;
+        this.indeks = indeks;
+        this.ukuranTersimpan = ukuranValid;
+        if (hanyaBaca) {
+            this.penulis = null;
+        } else {
+            this.penulis = new Thread(this::jalankanPenulis, "penulis-log-pesanan");
+            this.penulis.setDaemon(true);
+        }
+    }
+
+    /**
+     * Metode untuk membuka (atau membuat) log pesanan. Record terakhir yang
+     * terpotong atau rusak dibuang sebelum record baru ditambahkan, lalu indeks
+     * dilengkapi untuk record yang belum terindeks.
+     * @param namaFile Nama file log
+     * @param mode Mode durabilitas checkout
+     * @return LogPesanan yang siap dipakai
+     * @throws IOException jika file bukan log pesanan atau tidak dapat dibuka
+     */
+    public static LogPesanan buka(String namaFile, ModeDurabilitas mode) throws IOException {
+        Path path = Paths.get(namaFile);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        IndeksPesanan indeks = null;
+        try {
+            long ukuranValid;
+            if (channel.size() < UKURAN_HEADER) {
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(UKURAN_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putShort(VERSI_FORMAT).putShort((short) 0).flip();
+                tulisPenuh(channel, header, 0);
+                channel.force(true);
+                BerkasAtomik.sinkronkanDirektori(path.toAbsolutePath().getParent());
+                ukuranValid = UKURAN_HEADER;
+            } else {
+                periksaHeader(channel, namaFile);
+                ukuranValid = cariAkhirValid(channel);
+                if (ukuranValid < channel.size()) {
+                    System.err.println("Log pesanan: " + (channel.size() - ukuranValid)
+                        + " byte terakhir tidak lengkap, dibuang");
+                    channel.truncate(ukuranValid);
+                    channel.force(true);
+                }
+            }
+            indeks = IndeksPesanan.buka(namaFile + AKHIRAN_INDEKS, ukuranValid);
+            lengkapiIndeks(channel, indeks, ukuranValid);
+            LogPesanan log = new LogPesanan(path, mode, channel, indeks, ukuranValid, false);
+            log.penulis.start();
+            return log;
+        } catch (IOException | RuntimeException e) {
+            if (indeks != null) {
+                indeks.close();
+            }
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Metode untuk membuka log yang sudah ditutup (misalnya segmen lama) hanya untuk dibaca.
+     * Ukuran log sudah diketahui, sehingga record tidak dipindai ulang; hanya indeks yang
+     * dilengkapi jika tertinggal.
+     * @param namaFile Nama file log
+     * @param ukuran Ukuran log yang valid
+     * @return LogPesanan yang tidak dapat ditulisi
+     * @throws IOException jika file bukan log pesanan atau lebih pendek dari ukuran
+     */
+    static LogPesanan bukaBaca(String namaFile, long ukuran) throws IOException {
+        Path path = Paths.get(namaFile);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        IndeksPesanan indeks = null;
+        try {
+            periksaHeader(channel, namaFile);
+            if (channel.size() < ukuran) {
+                throw new IOException("Log pesanan " + namaFile + " lebih pendek dari yang tercatat");
+            }
+            indeks = IndeksPesanan.buka(namaFile + AKHIRAN_INDEKS, ukuran);
+            lengkapiIndeks(channel, indeks, ukuran);
+            return new LogPesanan(path, ModeDurabilitas.TULIS, channel, indeks, ukuran, true);
+        } catch (IOException | RuntimeException e) {
+            if (indeks != null) {
+                indeks.close();
+            }
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Metode untuk mendapatkan ukuran bagian log yang sudah tersimpan
+     * @return Ukuran dalam byte
+     */
+    public long getUkuran() {
+        return ukuranTersimpan;
+    }
+
+    public ModeDurabilitas getMode() {
+        return mode;
+    }
+
+    public String getNamaFile() {
+        return path.toString();
+    }
+
+    /**
+     * Metode untuk mencatat pesanan yang sudah selesai. Pesanan dikodekan saat itu
+     * juga, sehingga boleh diubah atau dikosongkan setelah metode ini kembali.
+     * @param pesanan Pesanan yang dicatat
+     * @throws IOException jika log sudah ditutup atau penulisan gagal
+     */
+    public void catat(Pesanan pesanan) throws IOException {
+        long waktu = pesanan.getTanggalPesanan().getTime();
+        Antrean entri = new Antrean(kodekan(pesanan, waktu), pesanan.getIdPesanan(), pesanan.getNoMeja(), waktu);
+        synchronized (kunciTutup) {
+            if (ditutup) {
+                throw new IOException("Log pesanan sudah ditutup");
+            }
+            if (penulis == null) {
+                throw new IOException("Log pesanan hanya untuk dibaca");
+            }
+            IOException gagal = galat;
+            if (gagal != null) {
+                throw new IOException("Log pesanan tidak dapat ditulis: " + gagal.getMessage(), gagal);
+            }
+            antrean.add(entri);
+        }
+        if (mode != ModeDurabilitas.ASINKRON) {
+            tunggu(entri.selesai);
+        }
+    }
+
+    /**
+     * Metode untuk membaca semua pesanan yang sudah tersimpan di log
+     * @return Catatan pesanan sesuai urutan penulisan
+     * @throws IOException jika log tidak dapat dibaca
+     */
+    public List<CatatanPesanan> bacaSemua() throws IOException {
+        List<CatatanPesanan> hasil = new ArrayList<>();
+        PembacaLogPesanan pembaca = bukaPembaca();
+        while (pembaca.berikutnya()) {
+            hasil.add(pembaca.keCatatan());
+        }
+        return hasil;
+    }
+
+    /**
+     * Metode untuk membuka pembaca memory-mapped atas semua record yang sudah tersimpan.
+     * Cocok untuk laporan atas log besar; record yang ditulis setelahnya tidak terlihat.
+     * @return Pembaca yang diposisikan sebelum record pertama
+     */
+    public PembacaLogPesanan bukaPembaca() {
+        return new PembacaLogPesanan(channel, UKURAN_HEADER, ukuranTersimpan, PembacaLogPesanan.UKURAN_SEGMEN);
+    }
+
+    /**
+     * Metode untuk menulis histori pesanan yang dapat dibaca manusia
+     * @param tujuan Tujuan penulisan
+     * @return Jumlah pesanan yang ditulis
+     * @throws IOException jika log tidak dapat dibaca atau tujuan gagal ditulis
+     */
+    public int tulisHistori(Appendable tujuan) throws IOException {
+        // Dialirkan satu record demi satu agar log besar tidak dimuat seluruhnya ke heap
+        SimpleDateFormat formatTanggal = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss");
+        PembacaLogPesanan pembaca = bukaPembaca();
+        int jumlah = 0;
+        while (pembaca.berikutnya()) {
+            pembaca.keCatatan().tulisKe(tujuan, formatTanggal);
+            jumlah++;
+        }
+        return jumlah;
+    }
+
+    /**
+     * Metode untuk menulis catatan pesanan (misalnya hasil pencarian) dalam format histori
+     * @param daftarCatatan Catatan yang ditulis
+     * @param tujuan Tujuan penulisan
+     * @throws IOException jika tujuan gagal ditulis
+     */
+    public static void tulisHistori(List<CatatanPesanan> daftarCatatan, Appendable tujuan) throws IOException {
+        SimpleDateFormat formatTanggal = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss");
+        for (CatatanPesanan catatan : daftarCatatan) {
+            catatan.tulisKe(tujuan, formatTanggal);
+        }
+    }
+
+    /**
+     * Metode untuk mencari pesanan berdasarkan ID. ID dapat muncul lebih dari sekali
+     * karena penghitung ID dimulai ulang setiap aplikasi dijalankan.
+     * @param idPesanan ID pesanan
+     * @return Catatan pesanan dengan ID tersebut, sesuai urutan penulisan
+     * @throws IOException jika log tidak dapat dibaca
+     */
+    public List<CatatanPesanan> cariId(int idPesanan) throws IOException {
+        long[] daftarOffset;
+        synchronized (indeks) {
+            daftarOffset = indeks.cariId(idPesanan);
+        }
+        return bacaPada(daftarOffset);
+    }
+
+    /**
+     * Metode untuk mencari pesanan berdasarkan nomor meja (tanpa membedakan huruf besar/kecil)
+     * @param noMeja Nomor meja
+     * @return Catatan pesanan di meja tersebut, sesuai urutan penulisan
+     * @throws IOException jika log tidak dapat dibaca
+     */
+    public List<CatatanPesanan> cariMeja(String noMeja) throws IOException {
+        long[] daftarOffset;
+        synchronized (indeks) {
+            daftarOffset = indeks.cariMeja(noMeja);
+        }
+        List<CatatanPesanan> hasil = bacaPada(daftarOffset);
+        hasil.removeIf(catatan -> !IndeksPesanan.mejaSama(catatan.getNoMeja(), noMeja));
+        return hasil;
+    }
+
+    /**
+     * Metode untuk mencari pesanan dengan tanggal pesanan dalam rentang [dari, sampai)
+     * @param dari Awal rentang (termasuk)
+     * @param sampai Akhir rentang (tidak termasuk)
+     * @return Catatan pesanan dalam rentang, sesuai urutan penulisan
+     * @throws IOException jika log tidak dapat dibaca
+     */
+    public List<CatatanPesanan> cariRentangWaktu(Date dari, Date sampai) throws IOException {
+        long[] daftarOffset;
+        synchronized (indeks) {
+            daftarOffset = indeks.cariRentangWaktu(dari.getTime(), sampai.getTime());
+        }
+        return bacaPada(daftarOffset);
+    }
+
+    /**
+     * Metode untuk membangun ulang indeks dari seluruh log (misalnya setelah file indeks
+     * hilang atau disalin dari mesin lain). Penulisan checkout tetap berjalan; batch yang
+     * datang selama pembangunan ulang menunggu sampai selesai.
+     * @return Jumlah record yang terindeks
+     * @throws IOException jika log tidak dapat dibaca atau indeks tidak dapat ditulis
+     */
+    public int bangunUlangIndeks() throws IOException {
+        synchronized (indeks) {
+            indeks.kosongkan();
+            lengkapiIndeks(channel, indeks, ukuranTersimpan);
+            return indeks.getJumlah();
+        }
+    }
+
+    /**
+     * Metode untuk mendapatkan jumlah pesanan di log
+     * @return Jumlah record yang tersimpan
+     */
+    public int getJumlahPesanan() {
+        synchronized (indeks) {
+            return indeks.getJumlah();
+        }
+    }
+
+    private List<CatatanPesanan> bacaPada(long[] daftarOffset) throws IOException {
+        List<CatatanPesanan> hasil = new ArrayList<>(daftarOffset.length);
+        ByteBuffer prefiks = ByteBuffer.allocate(UKURAN_PREFIKS_RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        for (long posisi : daftarOffset) {
+            hasil.add(CatatanPesanan.dekode(bacaIsiRecord(channel, posisi, prefiks)));
+        }
+        return hasil;
+    }
+
+    // Membaca isi record (tanpa prefiks) yang dimulai di posisi tertentu
+    private static ByteBuffer bacaIsiRecord(FileChannel channel, long posisi, ByteBuffer prefiks) throws IOException {
+        prefiks.clear();
+        bacaPenuh(channel, prefiks, posisi);
+        int panjang = prefiks.getInt(0);
+        if (panjang <= 0 || panjang > BATAS_UKURAN_RECORD) {
+            throw new IOException("Record log pesanan pada offset " + posisi + " tidak valid");
+        }
+        ByteBuffer isi = ByteBuffer.allocate(panjang).order(ByteOrder.LITTLE_ENDIAN);
+        bacaPenuh(channel, isi, posisi + UKURAN_PREFIKS_RECORD);
+        isi.flip();
+        return isi;
+    }
+
+    /**
+     * Menambahkan ke indeks semua record setelah record terindeks terakhir sampai akhir log.
+     * Jika entri terakhir indeks tidak cocok dengan log, indeks dibangun ulang dari awal.
+     */
+    private static void lengkapiIndeks(FileChannel channel, IndeksPesanan indeks, long akhir) throws IOException {
+        ByteBuffer prefiks = ByteBuffer.allocate(UKURAN_PREFIKS_RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        long posisi = UKURAN_HEADER;
+        int terakhir = indeks.getJumlah() - 1;
+        if (terakhir >= 0) {
+            long offsetTerakhir = indeks.getOffset(terakhir);
+            long setelahTerakhir = -1;
+            try {
+                ByteBuffer isi = bacaIsiRecord(channel, offsetTerakhir, prefiks);
+                if (isi.getInt(0) == indeks.getIdPesanan(terakhir)) {
+                    setelahTerakhir = offsetTerakhir + UKURAN_PREFIKS_RECORD + isi.limit();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Offset tidak menunjuk ke awal record
+            }
+            if (setelahTerakhir > 0 && setelahTerakhir <= akhir) {
+                posisi = setelahTerakhir;
+            } else {
+                System.err.println("Indeks pesanan tidak cocok dengan log, dibangun ulang");
+                indeks.kosongkan();
+            }
+        }
+        while (posisi < akhir) {
+            ByteBuffer isi = bacaIsiRecord(channel, posisi, prefiks);
+            PembacaBiner in = new PembacaBiner(isi);
+            int idPesanan = isi.getInt();
+            long waktu = isi.getLong();
+            in.teks(); // nama pelanggan
+            indeks.tambah(idPesanan, in.teks(), waktu, posisi);
+            posisi += UKURAN_PREFIKS_RECORD + isi.limit();
+        }
+        indeks.simpan();
+    }
+
+    /**
+     * Metode untuk menutup log. Semua record yang sudah antre ditulis dan di-fsync dulu.
+     * @throws IOException jika penulisan terakhir gagal
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (kunciTutup) {
+            if (ditutup) {
+                return;
+            }
+            ditutup = true;
+            antrean.add(Antrean.BERHENTI);
+        }
+        try {
+            if (penulis != null) {
+                penulis.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Penutupan log pesanan dihentikan");
+        } finally {
+            channel.close();
+            synchronized (indeks) {
+                indeks.close();
+            }
+        }
+        if (galat != null) {
+            throw new IOException("Log pesanan tidak lengkap: " + galat.getMessage(), galat);
+        }
+    }
+
+    // Thread penulis: ambil semua record yang antre, tulis sekaligus, fsync sekali
+    private void jalankanPenulis() {
+        List<Antrean> batch = new ArrayList<>();
+        PenulisBiner gabungan = new PenulisBiner(64 * 1024);
+        boolean berhenti = false;
+        while (!berhenti) {
+            try {
+                batch.add(antrean.take());
+            } catch (InterruptedException e) {
+                continue; // Hanya berhenti melalui close()
+            }
+            antrean.drainTo(batch);
+
+            gabungan.reset();
+            for (Antrean entri : batch) {
+                if (entri == Antrean.BERHENTI) {
+                    berhenti = true;
+                } else {
+                    gabungan.pastikan(entri.record.length);
+                    System.arraycopy(entri.record, 0, gabungan.data, gabungan.panjang, entri.record.length);
+                    gabungan.panjang += entri.record.length;
+                }
+            }
+
+            IOException gagal = galat;
+            if (gagal == null && gabungan.panjang > 0) {
+                try {
+                    long posisi = ukuranTersimpan;
+                    tulisPenuh(channel, ByteBuffer.wrap(gabungan.data, 0, gabungan.panjang), posisi);
+                    if (mode != ModeDurabilitas.TULIS || berhenti) {
+                        channel.force(false);
+                    }
+                    synchronized (indeks) {
+                        long offset = posisi;
+                        for (Antrean entri : batch) {
+                            if (entri != Antrean.BERHENTI) {
+                                indeks.tambah(entri.idPesanan, entri.noMeja, entri.waktu, offset);
+                                offset += entri.record.length;
+                            }
+                        }
+                        indeks.simpan();
+                        ukuranTersimpan = offset;
+                    }
+                } catch (IOException e) {
+                    galat = e;
+                    gagal = e;
+                }
+            }
+            for (Antrean entri : batch) {
+                if (entri.selesai != null) {
+                    if (gagal == null) {
+                        entri.selesai.complete(null);
+                    } else {
+                        entri.selesai.completeExceptionally(gagal);
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private static byte[] kodekan(Pesanan pesanan, long waktu) {
+        PenulisBiner out = new PenulisBiner(256);
+        out.int32(0); // panjang, diisi di akhir
+        out.int32(0); // CRC, diisi di akhir
+        out.int32(pesanan.getIdPesanan());
+        out.int64(waktu);
+        out.teks(pesanan.getNamaPelanggan());
+        out.teks(pesanan.getNoMeja());
+        List<Pesanan.ItemPesanan> daftarItem = pesanan.getItemPesanan();
+        out.varint(daftarItem.size());
+        for (Pesanan.ItemPesanan item : daftarItem) {
+            out.teks(item.getMenuItem().getNama());
+            out.varint(item.getJumlah());
+            out.int64(item.getHargaSatuanSen());
+            out.int64(item.getTotalHargaSen());
+            out.teks(item.getCatatan());
+        }
+        out.int64(pesanan.hitungSubtotalSen());
+        out.int64(pesanan.hitungPajakSen());
+        out.int64(pesanan.getBiayaPelayananSen());
+        out.int64(pesanan.hitungTotalAkhirSen());
+
+        int panjangIsi = out.panjang - UKURAN_PREFIKS_RECORD;
+        CRC32C crc = new CRC32C();
+        crc.update(out.data, UKURAN_PREFIKS_RECORD, panjangIsi);
+        out.setInt32(0, panjangIsi);
+        out.setInt32(4, (int) crc.getValue());
+        return Arrays.copyOf(out.data, out.panjang);
+    }
+
+    private static void periksaHeader(FileChannel channel, String namaFile) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(UKURAN_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        bacaPenuh(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Bukan file log pesanan: " + namaFile);
+        }
+        short versi = header.getShort();
+        if (versi != VERSI_FORMAT) {
+            throw new IOException("Versi log pesanan " + versi + " tidak didukung (didukung: " + VERSI_FORMAT + ")");
+        }
+    }
+
+    /**
+     * Memindai record dari awal log dan mengembalikan posisi akhir record valid terakhir
+     */
+    static long cariAkhirValid(FileChannel channel) throws IOException {
+        long ukuran = channel.size();
+        long posisi = UKURAN_HEADER;
+        ByteBuffer prefiks = ByteBuffer.allocate(UKURAN_PREFIKS_RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer isi = ByteBuffer.allocate(4096);
+        CRC32C crc = new CRC32C();
+        while (posisi + UKURAN_PREFIKS_RECORD <= ukuran) {
+            prefiks.clear();
+            bacaPenuh(channel, prefiks, posisi);
+            prefiks.flip();
+            int panjang = prefiks.getInt();
+            int crcTersimpan = prefiks.getInt();
+            if (panjang <= 0 || panjang > BATAS_UKURAN_RECORD
+                    || posisi + UKURAN_PREFIKS_RECORD + panjang > ukuran) {
+                break;
+            }
+            if (isi.capacity() < panjang) {
+                isi = ByteBuffer.allocate(Math.max(panjang, isi.capacity() * 2));
+            }
+            isi.clear().limit(panjang);
+            bacaPenuh(channel, isi, posisi + UKURAN_PREFIKS_RECORD);
+            isi.flip();
+            crc.reset();
+            crc.update(isi);
+            if ((int) crc.getValue() != crcTersimpan) {
+                break;
+            }
+            posisi += UKURAN_PREFIKS_RECORD + panjang;
+        }
+        return posisi;
+    }
+
+    private static void tulisPenuh(FileChannel channel, ByteBuffer data, long posisi) throws IOException {
+        while (data.hasRemaining()) {
+            posisi += channel.write(data, posisi);
+        }
+    }
+
+    // Membaca sampai buffer penuh mulai dari posisi tertentu
+    private static void bacaPenuh(FileChannel channel, ByteBuffer tujuan, long posisi) throws IOException {
+        while (tujuan.hasRemaining()) {
+            int dibaca = channel.read(tujuan, posisi);
+            if (dibaca < 0) {
+                throw new IOException("Log pesanan berakhir sebelum waktunya");
+            }
+            posisi += dibaca;
+        }
+    }
+
+    private static void tunggu(CompletableFuture<Void> selesai) throws IOException {
+        try {
+            selesai.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Menunggu log pesanan dihentikan");
+        } catch (ExecutionException e) {
+            Throwable sebab = e.getCause();
+            throw new IOException("Gagal menulis log pesanan: " + sebab.getMessage(), sebab);
+        }
+    }
+
+    /**
+     * Inner class Antrean untuk satu record yang menunggu ditulis
+     */
+    private static class Antrean {
+        static final Antrean BERHENTI = new Antrean(null, 0, null, 0);
+
+        final byte[] record;
+        final int idPesanan;
+        final String noMeja;
+        final long waktu;
+        final CompletableFuture<Void> selesai;
+
+        Antrean(byte[] record, int idPesanan, String noMeja, long waktu) {
+            this.record = record;
+            this.idPesanan = idPesanan;
+            this.noMeja = noMeja;
+            this.waktu = waktu;
+            this.selesai = record == null ? null : new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Inner class CatatanPesanan untuk satu pesanan yang dibaca dari log
+     */
+    public static class CatatanPesanan {
+        private final int idPesanan;
+        private final long waktu;
+        private final String namaPelanggan;
+        private final String noMeja;
+        private final List<BarisCatatan> daftarBaris;
+        private final long subtotalSen;
+        private final long pajakSen;
+        private final long biayaPelayananSen;
+        private final long totalAkhirSen;
+
+        private CatatanPesanan(int idPesanan, long waktu, String namaPelanggan, String noMeja,
+                               List<BarisCatatan> daftarBaris, long subtotalSen, long pajakSen,
+                               long biayaPelayananSen, long totalAkhirSen) {
+            this.idPesanan = idPesanan;
+            this.waktu = waktu;
+            this.namaPelanggan = namaPelanggan;
+            this.noMeja = noMeja;
+            this.daftarBaris = daftarBaris;
+            this.subtotalSen = subtotalSen;
+            this.pajakSen = pajakSen;
+            this.biayaPelayananSen = biayaPelayananSen;
+            this.totalAkhirSen = totalAkhirSen;
+        }
+
+        static CatatanPesanan dekode(ByteBuffer isi) throws IOException {
+            try {
+                PembacaBiner in = new PembacaBiner(isi);
+                int idPesanan = isi.getInt();
+                long waktu = isi.getLong();
+                String namaPelanggan = in.teks();
+                String noMeja = in.teks();
+                int jumlahBaris = in.varint();
+                List<BarisCatatan> daftarBaris = new ArrayList<>(jumlahBaris);
+                for (int i = 0; i < jumlahBaris; i++) {
+                    daftarBaris.add(new BarisCatatan(in.teks(), in.varint(), isi.getLong(), isi.getLong(), in.teks()));
+                }
+                return new CatatanPesanan(idPesanan, waktu, namaPelanggan, noMeja,
+                    Collections.unmodifiableList(daftarBaris),
+                    isi.getLong(), isi.getLong(), isi.getLong(), isi.getLong());
+            } catch (RuntimeException e) {
+                throw new IOException("Record log pesanan tidak valid (" + e + ")", e);
+            }
+        }
+
+        public int getIdPesanan() {
+            return idPesanan;
+        }
+
+        public Date getTanggalPesanan() {
+            return new Date(waktu);
+        }
+
+        public long getWaktu() {
+            return waktu;
+        }
+
+        public String getNamaPelanggan() {
+            return namaPelanggan;
+        }
+
+        public String getNoMeja() {
+            return noMeja;
+        }
+
+        public List<BarisCatatan> getDaftarBaris() {
+            return daftarBaris;
+        }
+
+        public long getSubtotalSen() {
+            return subtotalSen;
+        }
+
+        public long getPajakSen() {
+            return pajakSen;
+        }
+
+        public long getBiayaPelayananSen() {
+            return biayaPelayananSen;
+        }
+
+        public long getTotalAkhirSen() {
+            return totalAkhirSen;
+        }
+
+        // Format sama dengan histori pesanan_data.txt lama
+        void tulisKe(Appendable tujuan, SimpleDateFormat formatTanggal) throws IOException {
+            String baris = System.lineSeparator();
+            tujuan.append("=".repeat(70)).append(baris);
+            tujuan.append("PESANAN #").append(String.valueOf(idPesanan)).append(baris);
+            tujuan.append("Pelanggan: ").append(namaPelanggan).append(baris);
+            tujuan.append("Meja: ").append(noMeja).append(baris);
+            tujuan.append("Tanggal: ").append(formatTanggal.format(new Date(waktu))).append(baris);
+            tujuan.append("-".repeat(70)).append(baris);
+            for (BarisCatatan b : daftarBaris) {
+                tujuan.append(String.format("%s|%d|%.2f|%s", b.namaMenu, b.jumlah,
+                    Uang.keRupiah(b.totalSen), b.catatan)).append(baris);
+            }
+            tujuan.append(String.format("TOTAL|%.2f", Uang.keRupiah(totalAkhirSen))).append(baris);
+            tujuan.append(baris);
+        }
+    }
+
+    /**
+     * Inner class BarisCatatan untuk satu baris item pada catatan pesanan
+     */
+    public static class BarisCatatan {
+        private final String namaMenu;
+        private final int jumlah;
+        private final long hargaSatuanSen;
+        private final long totalSen;
+        private final String catatan;
+
+        private BarisCatatan(String namaMenu, int jumlah, long hargaSatuanSen, long totalSen, String catatan) {
+            this.namaMenu = namaMenu;
+            this.jumlah = jumlah;
+            this.hargaSatuanSen = hargaSatuanSen;
+            this.totalSen = totalSen;
+            this.catatan = catatan;
+        }
+
+        public String getNamaMenu() {
+            return namaMenu;
+        }
+
+        public int getJumlah() {
+            return jumlah;
+        }
+
+        public long getHargaSatuanSen() {
+            return hargaSatuanSen;
+        }
+
+        public long getTotalSen() {
+            return totalSen;
+        }
+
+        public String getCatatan() {
+            return catatan;
+        }
+    }
+}
@@ -1,11 +1,17 @@
+import java.util.List;
+
 /**
  * Kelas Makanan yang merupakan turunan dari MenuItem.
  * Mengimplementasikan inheritance dan polymorphism.
  */
 public class Makanan extends MenuItem {
     // Atribut khusus untuk kelas Makanan
-    private String jenisMakanan; // pokok, pendamping, penutup, dll
-    private String tingkatKepedasan; // tidak pedas, sedang, pedas, sangat pedas
+    // Nilai kanonik dari KamusAtribut, dibandingkan dengan ==
+    public static final NilaiAtribut TIDAK_PEDAS = KamusAtribut.KEPEDASAN.intern("tidak pedas");
+
+    // Atribut khusus di-intern agar tidak terduplikasi untuk setiap item
+    private volatile NilaiAtribut jenisMakanan; // pokok, pendamping, penutup, dll
+    private volatile NilaiAtribut tingkatKepedasan; // tidak pedas, sedang, pedas, sangat pedas
 
     /**
      * Constructor untuk kelas Makanan
@@ -16,8 +22,8 @@ public class Makanan extends MenuItem {
      */
     public Makanan(String nama, double harga, String jenisMakanan, String tingkatKepedasan) {
         super(nama, harga, "makanan");
-        this.jenisMakanan = jenisMakanan;
-        this.tingkatKepedasan = tingkatKepedasan;
+        this.jenisMakanan = KamusAtribut.JENIS_MAKANAN.intern(jenisMakanan);
+        this.tingkatKepedasan = KamusAtribut.KEPEDASAN.intern(tingkatKepedasan);
     }
 
     /**
@@ -32,19 +38,30 @@ public class Makanan extends MenuItem {
 
     // Getter dan Setter untuk atribut khusus Makanan
     public String getJenisMakanan() {
+        return NilaiAtribut.teksDari(jenisMakanan);
+    }
+
+    public NilaiAtribut getJenisMakananAtribut() {
         return jenisMakanan;
     }
 
     public void setJenisMakanan(String jenisMakanan) {
-        this.jenisMakanan = jenisMakanan;
+        NilaiAtribut nilai = KamusAtribut.JENIS_MAKANAN.intern(jenisMakanan);
+        ubahIsi(() -> this.jenisMakanan = nilai);
     }
 
+    // Teks kanonik dari KamusAtribut.KEPEDASAN, selalu huruf kecil
     public String getTingkatKepedasan() {
+        return NilaiAtribut.teksDari(tingkatKepedasan);
+    }
+
+    public NilaiAtribut getTingkatKepedasanAtribut() {
         return tingkatKepedasan;
     }
 
     public void setTingkatKepedasan(String tingkatKepedasan) {
-        this.tingkatKepedasan = tingkatKepedasan;
+        NilaiAtribut nilai = KamusAtribut.KEPEDASAN.intern(tingkatKepedasan);
+        ubahIsi(() -> this.tingkatKepedasan = nilai);
     }
 
     /**
@@ -60,6 +77,17 @@ public class Makanan extends MenuItem {
         System.out.println("------------------------");
     }
 
+    /**
+     * Override isiAtribut untuk mengindeks jenis dan tingkat kepedasan
+     */
+    @Override
+    protected void isiAtribut(List<String> atribut) {
+        super.isiAtribut(atribut);
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.JENIS_MAKANAN, jenisMakanan));
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.KEPEDASAN, tingkatKepedasan));
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.PEDAS, isPedas()));
+    }
+
     /**
      * Override metode toString untuk representasi spesifik makanan
      */
@@ -79,10 +107,11 @@ public class Makanan extends MenuItem {
     }
 
     /**
-     * Metode untuk memeriksa apakah makanan pedas
+     * Metode untuk memeriksa apakah makanan pedas. Tidak peka huruf besar/kecil
+     * ("Tidak Pedas" juga dianggap tidak pedas), sama seperti Minuman.isPanas.
      */
     public boolean isPedas() {
-        return !tingkatKepedasan.equals("tidak pedas");
+        return tingkatKepedasan != TIDAK_PEDAS;
     }
 
     /**
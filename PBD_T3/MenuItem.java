@@ -1,14 +1,29 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Kelas abstrak MenuItem yang menjadi kelas dasar untuk semua menu item dalam restoran.
  * Mengimplementasikan konsep abstraksi dan encapsulation.
  */
 public abstract class MenuItem {
     // Atribut private untuk implementasi encapsulation
-    private String nama;
-    private double harga;
-    private String kategori;
-    private static int counterId = 1;
+    // Volatile agar pembaca tanpa lock melihat nilai terakhir yang ditulis setter
+    private volatile String nama;
+    private volatile long hargaSen; // harga dalam sen, lihat kelas Uang
+    private volatile NilaiAtribut kategori; // di-intern melalui KamusAtribut.KATEGORI
+    private static final AtomicInteger counterId = new AtomicInteger(1);
+    // Blok ID yang dicadangkan untuk thread ini (lihat pakaiIdCadangan), null jika memakai counterId
+    private static final ThreadLocal<int[]> idCadangan = new ThreadLocal<>();
     private final int id;
+    // Kunci atribut tipe per kelas turunan, dibentuk sekali per kelas
+    private static final ClassValue<String> KUNCI_TIPE = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> tipe) {
+            return IndeksAtributMenu.kunci(IndeksAtributMenu.TIPE, tipe.getSimpleName());
+        }
+    };
+    // MenuRestoran yang memuat item ini; setter dijalankan di dalam lock penulisnya
+    private volatile MenuRestoran pemilik;
 
     /**
      * Constructor untuk kelas MenuItem
@@ -18,9 +33,39 @@ public abstract class MenuItem {
      */
     public MenuItem(String nama, double harga, String kategori) {
         this.nama = nama;
-        this.harga = harga;
-        this.kategori = kategori;
-        this.id = counterId++;
+        this.hargaSen = Uang.dariRupiah(harga);
+        this.kategori = KamusAtribut.KATEGORI.intern(kategori);
+        this.id = ambilIdBerikutnya();
+    }
+
+    private static int ambilIdBerikutnya() {
+        int[] cadangan = idCadangan.get();
+        return cadangan == null ? counterId.getAndIncrement() : cadangan[0]++;
+    }
+
+    /**
+     * Metode untuk mencadangkan sejumlah ID berurutan, agar item yang dibuat paralel
+     * tetap mendapat ID sesuai urutan file
+     * @param jumlah Jumlah ID yang dicadangkan
+     * @return ID pertama blok cadangan
+     */
+    static int cadangkanId(int jumlah) {
+        return counterId.getAndAdd(jumlah);
+    }
+
+    /**
+     * Metode agar item yang dibuat thread ini memakai ID cadangan mulai dari idAwal
+     * @param idAwal ID untuk item berikutnya yang dibuat thread ini
+     */
+    static void pakaiIdCadangan(int idAwal) {
+        idCadangan.set(new int[] {idAwal});
+    }
+
+    /**
+     * Metode untuk kembali memakai counter ID biasa pada thread ini
+     */
+    static void lepasIdCadangan() {
+        idCadangan.remove();
     }
 
     // Getter methods untuk encapsulation
@@ -29,10 +74,35 @@ public abstract class MenuItem {
     }
 
     public double getHarga() {
-        return harga;
+        return Uang.keRupiah(hargaSen);
+    }
+
+    public long getHargaSen() {
+        return hargaSen;
+    }
+
+    /**
+     * Metode untuk mendapatkan harga satuan yang dipakai saat menghitung pesanan.
+     * Kelas turunan dapat meng-override (misalnya Minuman dengan harga per ukuran).
+     * @return Harga satuan efektif
+     */
+    public double getHargaEfektif() {
+        return Uang.keRupiah(getHargaEfektifSen());
+    }
+
+    /**
+     * Metode untuk mendapatkan harga satuan efektif dalam sen
+     * @return Harga satuan efektif dalam sen
+     */
+    public long getHargaEfektifSen() {
+        return hargaSen;
     }
 
     public String getKategori() {
+        return NilaiAtribut.teksDari(kategori);
+    }
+
+    public NilaiAtribut getKategoriAtribut() {
         return kategori;
     }
 
@@ -43,7 +113,7 @@ public abstract class MenuItem {
     // Setter methods dengan validasi
     public void setNama(String nama) {
         if (nama != null && !nama.trim().isEmpty()) {
-            this.nama = nama;
+            ubahIsi(() -> this.nama = nama);
         } else {
             throw new IllegalArgumentException("Nama tidak boleh kosong");
         }
@@ -51,7 +121,11 @@ public abstract class MenuItem {
 
     public void setHarga(double harga) {
         if (harga >= 0) {
-            this.harga = harga;
+            long sen = Uang.dariRupiah(harga);
+            ubahIsi(() -> {
+                this.hargaSen = sen;
+                hargaBerubah();
+            });
         } else {
             throw new IllegalArgumentException("Harga tidak boleh negatif");
         }
@@ -59,12 +133,65 @@ public abstract class MenuItem {
 
     public void setKategori(String kategori) {
         if (kategori != null && !kategori.trim().isEmpty()) {
-            this.kategori = kategori;
+            NilaiAtribut nilai = KamusAtribut.KATEGORI.intern(kategori);
+            ubahIsi(() -> this.kategori = nilai);
         } else {
             throw new IllegalArgumentException("Kategori tidak boleh kosong");
         }
     }
 
+    /**
+     * Metode yang dipanggil setelah harga dasar berubah, di dalam perubahan yang sama.
+     * Kelas turunan dapat meng-override untuk menghitung ulang nilai turunan harga.
+     */
+    protected void hargaBerubah() {
+    }
+
+    /**
+     * Metode untuk menjalankan perubahan isi item. Jika item ada di menu, perubahan
+     * dijalankan di dalam lock penulis MenuRestoran bersama pengindeksan ulangnya,
+     * sehingga pembaca tidak pernah melihat item yang sudah berubah tetapi indeksnya belum.
+     * Dipakai setter kelas ini dan kelas turunan.
+     * @param perubahan Penulisan field item
+     */
+    protected final void ubahIsi(Runnable perubahan) {
+        while (true) {
+            MenuRestoran menu = pemilik;
+            if (menu == null) {
+                // MenuRestoran juga mengunci item saat menambahkannya, sehingga item tidak
+                // dapat masuk ke menu di tengah perubahan ini
+                synchronized (this) {
+                    if (pemilik == null) {
+                        perubahan.run();
+                        return;
+                    }
+                }
+            } else if (menu.ubahMenuItem(this, perubahan)) {
+                return;
+            }
+            // Pemilik berganti sebelum lock didapat, ulangi dengan pemilik terbaru
+        }
+    }
+
+    // Dipanggil oleh MenuRestoran saat item ditambahkan atau dihapus
+    MenuRestoran getPemilik() {
+        return pemilik;
+    }
+
+    void setPemilik(MenuRestoran pemilik) {
+        this.pemilik = pemilik;
+    }
+
+    /**
+     * Metode untuk mengisi pasangan atribut=nilai yang diindeks IndeksAtributMenu.
+     * Kelas turunan menambahkan atribut khususnya setelah memanggil super.
+     * @param atribut List tujuan kunci atribut
+     */
+    protected void isiAtribut(List<String> atribut) {
+        atribut.add(KUNCI_TIPE.get(getClass()));
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.KATEGORI, kategori));
+    }
+
     /**
      * Metode abstrak yang harus diimplementasikan oleh kelas turunan
      * untuk menampilkan informasi spesifik tentang menu item
@@ -75,7 +202,7 @@ public abstract class MenuItem {
      * Metode untuk menampilkan informasi dasar menu item
      */
     public void tampilInfoDasar() {
-        System.out.printf("ID: %d | %s - Rp%.2f (%s)%n", id, nama, harga, kategori);
+        System.out.printf("ID: %d | %s - Rp%.2f (%s)%n", id, nama, getHarga(), kategori);
     }
 
     /**
@@ -83,7 +210,7 @@ public abstract class MenuItem {
      */
     @Override
     public String toString() {
-        return String.format("ID: %d | %s - Rp%.2f (%s)", id, nama, harga, kategori);
+        return String.format("ID: %d | %s - Rp%.2f (%s)", id, nama, getHarga(), kategori);
     }
 
     /**
@@ -91,6 +218,6 @@ public abstract class MenuItem {
      */
     public String toFileString() {
         return String.format("%s|%s|%.2f|%s",
-            this.getClass().getSimpleName(), nama, harga, kategori);
+            this.getClass().getSimpleName(), nama, getHarga(), kategori);
     }
 }
\ No newline at end of file
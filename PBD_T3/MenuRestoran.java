@@ -1,30 +1,131 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Kelas MenuRestoran untuk mengelola semua item menu dalam restoran.
  * Mengimplementasikan konsep encapsulation dan pengelolaan koleksi objek.
+ *
+ * Semua perubahan menu (termasuk setter MenuItem yang ada di menu ini) dilakukan oleh
+ * satu penulis pada satu waktu (synchronized). Semua indeks tidak dapat diubah, sehingga
+ * setiap perubahan menerbitkan SnapshotMenu baru dalam O(log n) melalui field volatile,
+ * dan semua pembacaan (pencarian, filter, kategori, rentang harga/nama) hanya membaca
+ * snapshot terakhir tanpa mengunci, baik pada mode satu terminal maupun mode konkuren.
  */
 public class MenuRestoran {
-    // ArrayList untuk menyimpan semua item menu - implementasi encapsulation
-    private ArrayList<MenuItem> daftarMenu;
+    // Jumlah item minimum per potongan saat indeks dibangun paralel; potongan yang lebih
+    // kecil tidak sebanding dengan biaya menggabungkan indeksnya
+    private static final int UKURAN_POTONGAN_MIN = 16 * 1024;
+
+    // Semua indeks yang sedang disusun penulis; hanya diakses di dalam lock ini
+    private final SnapshotMenu.Penyusun isi;
     private String namaRestoran;
+    // Urutan untuk item berikutnya yang ditambahkan di akhir daftar
+    private long urutanBerikutnya;
+
+    // Pengali harga minuman per ukuran yang berlaku di outlet ini
+    private TabelHargaUkuran tabelHargaUkuran;
+
+    // Mesin diskon tersusun, null jika ada diskon yang berubah sejak disusun
+    private volatile MesinDiskon mesinDiskon;
+
+    // Versi naik setiap kali snapshot baru diterbitkan
+    private long versi;
+    // Snapshot terakhir yang diterbitkan penulis; satu-satunya yang dibaca pembaca
+    private volatile SnapshotMenu snapshot;
+    private final boolean konkuren;
+
+    // Pendengar perubahan (misalnya JurnalMenu), null jika tidak ada
+    private PendengarPerubahanMenu pendengar;
+    // Generasi file menu tempat isi ini dimuat atau terakhir disimpan, dicocokkan dengan jurnal
+    private long generasiFile;
 
     /**
      * Constructor untuk kelas MenuRestoran
      * @param namaRestoran Nama restoran
+     * @param konkuren true jika menu dipakai bersama oleh banyak thread/terminal
      */
-    public MenuRestoran(String namaRestoran) {
+    public MenuRestoran(String namaRestoran, boolean konkuren) {
         this.namaRestoran = namaRestoran;
-        this.daftarMenu = new ArrayList<>();
+        this.konkuren = konkuren;
+        this.isi = new SnapshotMenu.Penyusun();
+        this.tabelHargaUkuran = TabelHargaUkuran.DEFAULT;
+        this.snapshot = new SnapshotMenu(versi, isi);
+    }
+
+    /**
+     * Constructor untuk kelas MenuRestoran (mode satu terminal)
+     * @param namaRestoran Nama restoran
+     */
+    public MenuRestoran(String namaRestoran) {
+        this(namaRestoran, false);
     }
 
     // Getter untuk daftar menu (protected untuk encapsulation)
     public ArrayList<MenuItem> getDaftarMenu() {
-        return new ArrayList<>(daftarMenu); // Return copy untuk encapsulation
+        return new ArrayList<>(snapshot.getDaftarMenu()); // Return copy untuk encapsulation
+    }
+
+    /**
+     * Metode untuk mendapatkan snapshot immutable dari menu beserta indeksnya.
+     * Snapshot sudah diterbitkan oleh perubahan terakhir, sehingga pembaca tidak
+     * mengunci dan tidak menyalin daftar menu.
+     * @return SnapshotMenu untuk versi menu saat ini
+     */
+    public SnapshotMenu getSnapshot() {
+        return snapshot;
+    }
+
+    public long getVersi() {
+        return snapshot.getVersi();
+    }
+
+    public boolean isKonkuren() {
+        return konkuren;
+    }
+
+    // Dipanggil di akhir setiap perubahan, masih di dalam lock penulis
+    private void terbitkan() {
+        versi++;
+        snapshot = new SnapshotMenu(versi, isi);
+    }
+
+    public synchronized PendengarPerubahanMenu getPendengar() {
+        return pendengar;
+    }
+
+    /**
+     * Metode untuk memasang pendengar perubahan menu
+     * @param pendengar Pendengar baru, atau null untuk melepas
+     */
+    public synchronized void setPendengar(PendengarPerubahanMenu pendengar) {
+        this.pendengar = pendengar;
+    }
+
+    public synchronized long getGenerasiFile() {
+        return generasiFile;
+    }
+
+    /**
+     * Metode untuk mencatat generasi file menu yang sesuai dengan isi menu ini
+     * dan memberi tahu pendengar bahwa seluruh menu sudah tersimpan
+     * @param generasiFile Generasi file menu
+     * @param baruDisimpan true jika menu baru saja disimpan (bukan dimuat)
+     */
+    synchronized void setGenerasiFile(long generasiFile, boolean baruDisimpan) {
+        this.generasiFile = generasiFile;
+        if (baruDisimpan && pendengar != null) {
+            pendengar.menuDisimpan(generasiFile);
+        }
     }
 
     public String getNamaRestoran() {
@@ -35,17 +136,131 @@ public class MenuRestoran {
         this.namaRestoran = namaRestoran;
     }
 
+    public synchronized TabelHargaUkuran getTabelHargaUkuran() {
+        return tabelHargaUkuran;
+    }
+
+    /**
+     * Metode untuk mengatur pengali harga per ukuran untuk semua minuman di outlet ini.
+     * Harga disesuaikan setiap minuman langsung dihitung ulang.
+     * @param tabelHargaUkuran Tabel pengali yang baru
+     */
+    public synchronized void setTabelHargaUkuran(TabelHargaUkuran tabelHargaUkuran) {
+        if (tabelHargaUkuran == null) {
+            throw new IllegalArgumentException("Tabel harga ukuran tidak boleh null");
+        }
+        this.tabelHargaUkuran = tabelHargaUkuran;
+        for (Minuman minuman : this.<Minuman>lihatItem(isi.daftarMinuman)) {
+            minuman.setTabelHargaUkuran(tabelHargaUkuran);
+        }
+    }
+
     /**
      * Metode untuk menambahkan menu item ke dalam daftar
      * @param item MenuItem yang akan ditambahkan
      */
-    public void tambahMenuItem(MenuItem item) {
-        if (item != null) {
-            daftarMenu.add(item);
-            System.out.println("Menu berhasil ditambahkan: " + item.getNama());
+    public synchronized void tambahMenuItem(MenuItem item) {
+        periksaBaru(item);
+        tambahKeSemuaIndeks(item);
+        isi.indeksPencarian = isi.indeksPencarian.tambah(item, item.getNama());
+        terbitkan();
+        if (pendengar != null) {
+            pendengar.menuDitambah(Collections.singletonList(item));
+        }
+        System.out.println("Menu berhasil ditambahkan: " + item.getNama());
+    }
+
+    /**
+     * Metode untuk menambahkan banyak menu item sekaligus (misalnya saat memuat katalog).
+     * Tidak mencetak pesan per item dan snapshot hanya diterbitkan sekali. Semua item
+     * diperiksa lebih dulu, sehingga tidak ada item yang ditambahkan jika satu ditolak.
+     * Setiap indeks dibangun sekali dari semua item baru (diurutkan lalu disusun
+     * seimbang) dan digabung dengan indeks yang ada, bukan disisipkan satu per satu.
+     * @param daftarItem Menu item yang akan ditambahkan
+     * @return Jumlah menu item yang ditambahkan
+     */
+    public synchronized int tambahSemuaMenuItem(Collection<? extends MenuItem> daftarItem) {
+        return tambahSemuaMenuItem(daftarItem, null);
+    }
+
+    /**
+     * Metode untuk menambahkan banyak menu item sekaligus dengan indeks yang dibangun
+     * paralel. Item dibagi menjadi potongan berurutan; semua indeks setiap potongan
+     * kecuali indeks atribut dibangun di pool lalu digabung berpasangan, seperti
+     * tambahSemuaMenuItem(daftarItem). Lock penulis dipegang sampai selesai, sementara
+     * pembaca tetap membaca snapshot sebelumnya.
+     * @param daftarItem Menu item yang akan ditambahkan
+     * @param pool ForkJoinPool untuk membangun indeks, atau null untuk membangun semuanya
+     *             di thread pemanggil
+     * @return Jumlah menu item yang ditambahkan
+     */
+    public synchronized int tambahSemuaMenuItem(Collection<? extends MenuItem> daftarItem, ForkJoinPool pool) {
+        Set<Integer> idBaru = new HashSet<>();
+        for (MenuItem item : daftarItem) {
+            periksaBaru(item);
+            if (!idBaru.add(item.getId())) {
+                throw new IllegalArgumentException("Menu dengan ID " + item.getId() + " muncul dua kali");
+            }
+        }
+
+        MenuItem[] semua = daftarItem.toArray(new MenuItem[0]);
+        int jumlah = semua.length;
+        int ukuranPotongan = pool == null ? jumlah
+                : Math.max(UKURAN_POTONGAN_MIN, (jumlah + pool.getParallelism() - 1) / pool.getParallelism());
+        CatatanMenu[] baru = new CatatanMenu[jumlah];
+        BangunPotongan bangun = new BangunPotongan(semua, isi.indeksAtribut.slotBerikutnya(jumlah),
+                urutanBerikutnya, baru, 0, jumlah, ukuranPotongan);
+        urutanBerikutnya += jumlah;
+        int jumlahDiskon = isi.daftarDiskon.ukuran();
+        if (pool == null) {
+            isi.gabung(bangun.compute());
         } else {
+            // Penggabungan dengan indeks yang ada juga di pool agar paralel per indeks
+            pool.invoke(ForkJoinTask.adapt(() -> isi.gabung(bangun.compute())));
+        }
+        if (isi.daftarDiskon.ukuran() != jumlahDiskon) {
+            mesinDiskon = null;
+        }
+        isi.indeksAtribut = isi.indeksAtribut.tambahSemua(baru, jumlah);
+        terbitkan();
+        if (pendengar != null) {
+            pendengar.menuDitambah(daftarItem);
+        }
+        return jumlah;
+    }
+
+    private void periksaBaru(MenuItem item) {
+        if (item == null) {
             throw new IllegalArgumentException("Menu item tidak boleh null");
         }
+        if (isi.indeksId.get(item.getId()) != null) {
+            throw new IllegalArgumentException("Menu dengan ID " + item.getId() + " sudah ada");
+        }
+    }
+
+    // Lock item agar setter item yang belum punya pemilik tidak berjalan di tengah
+    // pencatatan; urutan lock selalu menu lalu item
+    private CatatanMenu catat(MenuItem item, long urutan, int slot) {
+        synchronized (item) {
+            if (item instanceof Minuman) {
+                ((Minuman) item).setTabelHargaUkuran(tabelHargaUkuran);
+            }
+            CatatanMenu catatan = new CatatanMenu(item, urutan, slot);
+            item.setPemilik(this);
+            return catatan;
+        }
+    }
+
+    private void tambahKeSemuaIndeks(MenuItem item) {
+        CatatanMenu catatan = catat(item, urutanBerikutnya++, isi.indeksAtribut.slotBerikutnya());
+        isi.daftarMenu = isi.daftarMenu.tambah(catatan);
+        isi.indeksId = isi.indeksId.tambah(item.getId(), catatan);
+        tambahKeIndeksNama(catatan);
+        isi.indeksKategori = isi.indeksKategori.tambah(catatan);
+        tambahKeDaftarTipe(catatan);
+        isi.indeksHarga = isi.indeksHarga.tambah(catatan);
+        isi.indeksUrutNama = isi.indeksUrutNama.tambah(catatan);
+        isi.indeksAtribut = isi.indeksAtribut.tambah(catatan);
     }
 
     /**
@@ -53,32 +268,64 @@ public class MenuRestoran {
      * @param id ID menu item yang akan dihapus
      * @return true jika berhasil dihapus, false jika tidak ditemukan
      */
-    public boolean hapusMenuItem(int id) {
-        Iterator<MenuItem> iterator = daftarMenu.iterator();
-        while (iterator.hasNext()) {
-            MenuItem item = iterator.next();
-            if (item.getId() == id) {
-                iterator.remove();
-                System.out.println("Menu berhasil dihapus: " + item.getNama());
-                return true;
-            }
+    public synchronized boolean hapusMenuItem(int id) {
+        CatatanMenu catatan = isi.indeksId.get(id);
+        if (catatan != null) {
+            hapusDariSemuaIndeks(catatan, isi.daftarMenu.posisi(catatan));
+            System.out.println("Menu berhasil dihapus: " + catatan.item.getNama());
+            return true;
         }
         System.out.println("Menu dengan ID " + id + " tidak ditemukan");
         return false;
     }
 
+    /**
+     * Metode untuk menghapus menu item pada posisi tertentu tanpa mencetak pesan
+     * (dipakai saat memutar ulang jurnal)
+     * @param posisi Posisi item pada daftar menu
+     * @return MenuItem yang dihapus
+     */
+    synchronized MenuItem hapusMenuItemPada(int posisi) {
+        CatatanMenu catatan = isi.daftarMenu.get(posisi);
+        hapusDariSemuaIndeks(catatan, posisi);
+        return catatan.item;
+    }
+
+    /**
+     * Metode untuk mendapatkan menu item pada posisi tertentu
+     * @param posisi Posisi item pada daftar menu
+     * @return MenuItem pada posisi tersebut
+     */
+    MenuItem getMenuItemPada(int posisi) {
+        return snapshot.getMenuItemPada(posisi);
+    }
+
+    // Semua indeks O(log n); posisi dihitung dari pohon daftarMenu dalam O(log n)
+    private void hapusDariSemuaIndeks(CatatanMenu catatan, int posisi) {
+        MenuItem item = catatan.item;
+        isi.indeksId = isi.indeksId.hapus(item.getId());
+        isi.daftarMenu = isi.daftarMenu.hapus(catatan);
+        hapusDariIndeksNama(catatan);
+        isi.indeksKategori = isi.indeksKategori.hapus(catatan);
+        hapusDariDaftarTipe(catatan);
+        isi.indeksHarga = isi.indeksHarga.hapus(catatan);
+        isi.indeksUrutNama = isi.indeksUrutNama.hapus(catatan);
+        isi.indeksPencarian = isi.indeksPencarian.hapus(item, catatan.nama);
+        isi.indeksAtribut = isi.indeksAtribut.hapus(catatan);
+        item.setPemilik(null);
+        terbitkan();
+        if (pendengar != null) {
+            pendengar.menuDihapus(posisi, item);
+        }
+    }
+
     /**
      * Metode untuk mencari menu item berdasarkan ID
      * @param id ID menu item yang dicari
      * @return MenuItem jika ditemukan, null jika tidak
      */
     public MenuItem cariMenuById(int id) {
-        for (MenuItem item : daftarMenu) {
-            if (item.getId() == id) {
-                return item;
-            }
-        }
-        return null;
+        return snapshot.cariMenuById(id);
     }
 
     /**
@@ -87,12 +334,204 @@ public class MenuRestoran {
      * @return MenuItem jika ditemukan, null jika tidak
      */
     public MenuItem cariMenuByNama(String nama) {
-        for (MenuItem item : daftarMenu) {
-            if (item.getNama().equalsIgnoreCase(nama)) {
-                return item;
+        if (nama == null) {
+            return null;
+        }
+        return snapshot.cariMenuByNama(nama);
+    }
+
+    /**
+     * Metode untuk mencari menu berdasarkan potongan nama yang mengawali salah satu
+     * kata pada nama (misalnya "gor" untuk "Nasi Goreng"). Pencarian tidak peka huruf
+     * besar/kecil maupun diakritik, dan waktunya tidak bergantung pada jumlah menu.
+     * @param kueri Potongan nama yang diketik kasir
+     * @param batas Jumlah hasil maksimum
+     * @return Hasil paling relevan terlebih dahulu
+     */
+    public ArrayList<MenuItem> cariMenu(String kueri, int batas) {
+        return snapshot.cariMenu(kueri, batas);
+    }
+
+    /**
+     * Metode yang dipanggil MenuItem.ubahIsi untuk menjalankan perubahan isi item
+     * di dalam lock penulis, lalu mengindeks ulang item dan menerbitkan snapshot baru
+     * @param item MenuItem yang berubah
+     * @param perubahan Penulisan field item
+     * @return false jika item tidak (lagi) ada di menu ini dan perubahan tidak dijalankan
+     */
+    synchronized boolean ubahMenuItem(MenuItem item, Runnable perubahan) {
+        if (item.getPemilik() != this) {
+            return false;
+        }
+        perubahan.run();
+        // Catatan diambil setelah perubahan: jika perubahan memanggil setter lain,
+        // catatan ini sudah mencerminkan pengindeksan ulang dari setter tersebut
+        CatatanMenu lama = isi.indeksId.get(item.getId());
+        CatatanMenu baru = new CatatanMenu(item, lama.urutan, lama.slot);
+        isi.indeksId = isi.indeksId.tambah(item.getId(), baru);
+        // Urutan tidak berubah: catatan di daftar dan pohon tipe diganti di tempat
+        isi.daftarMenu = isi.daftarMenu.tambah(baru);
+        tambahKeDaftarTipe(baru);
+        if (!lama.nama.equals(baru.nama)) {
+            hapusDariIndeksNama(lama);
+            tambahKeIndeksNama(baru);
+            isi.indeksUrutNama = isi.indeksUrutNama.hapus(lama).tambah(baru);
+            isi.indeksPencarian = isi.indeksPencarian.hapus(item, lama.nama).tambah(item, baru.nama);
+        }
+        if (lama.hargaSen != baru.hargaSen) {
+            isi.indeksHarga = isi.indeksHarga.hapus(lama).tambah(baru);
+        }
+        if (!lama.kunciKategori.equals(baru.kunciKategori)) {
+            isi.indeksKategori = isi.indeksKategori.hapus(lama).tambah(baru);
+        }
+        isi.indeksAtribut = isi.indeksAtribut.ganti(lama, baru);
+        terbitkan();
+        if (pendengar != null) {
+            pendengar.menuBerubah(isi.daftarMenu.posisi(baru), item);
+        }
+        return true;
+    }
+
+    // Catatan dengan hash nama yang sama disimpan bersama dalam satu array
+    private void tambahKeIndeksNama(CatatanMenu catatan) {
+        int hash = catatan.kunciNama.hashCode();
+        CatatanMenu[] lama = isi.indeksNama.get(hash);
+        CatatanMenu[] baru;
+        if (lama == null) {
+            baru = new CatatanMenu[] {catatan};
+        } else {
+            baru = Arrays.copyOf(lama, lama.length + 1);
+            baru[lama.length] = catatan;
+        }
+        isi.indeksNama = isi.indeksNama.tambah(hash, baru);
+    }
+
+    // Dicocokkan berdasarkan item, karena catatan di indeks nama bisa lebih lama dari
+    // catatan terbaru jika perubahan sesudahnya tidak mengubah nama
+    private void hapusDariIndeksNama(CatatanMenu catatan) {
+        int hash = catatan.kunciNama.hashCode();
+        CatatanMenu[] lama = isi.indeksNama.get(hash);
+        if (lama == null) {
+            return;
+        }
+        CatatanMenu[] baru = new CatatanMenu[lama.length];
+        int jumlah = 0;
+        for (CatatanMenu c : lama) {
+            if (c.item != catatan.item) {
+                baru[jumlah++] = c;
+            }
+        }
+        isi.indeksNama = jumlah == 0 ? isi.indeksNama.hapus(hash)
+                : isi.indeksNama.tambah(hash, Arrays.copyOf(baru, jumlah));
+    }
+
+    // Catatan dikelompokkan per hash nama (diurutkan), lalu semua kelompok dimasukkan sekaligus
+    private static IndeksIdMenu<CatatanMenu[]> bangunIndeksNama(CatatanMenu[] baru) {
+        long[] urut = new long[baru.length];
+        for (int i = 0; i < baru.length; i++) {
+            urut[i] = ((long) baru[i].kunciNama.hashCode() << 32) | i;
+        }
+        Arrays.sort(urut);
+        int[] hash = new int[baru.length];
+        CatatanMenu[][] kelompok = new CatatanMenu[baru.length][];
+        int n = 0;
+        for (int i = 0; i < urut.length; ) {
+            int h = (int) (urut[i] >> 32);
+            int j = i;
+            while (j < urut.length && (int) (urut[j] >> 32) == h) {
+                j++;
+            }
+            CatatanMenu[] isiKelompok = new CatatanMenu[j - i];
+            for (int k = i; k < j; k++) {
+                isiKelompok[k - i] = baru[(int) urut[k]];
+            }
+            hash[n] = h;
+            kelompok[n++] = isiKelompok;
+            i = j;
+        }
+        return IndeksIdMenu.<CatatanMenu[]>kosong().tambahSemua(hash, kelompok, n);
+    }
+
+    /**
+     * Metode untuk mendapatkan mesin diskon berisi semua diskon aktif.
+     * Mesin hanya disusun ulang jika diskon ditambah, dihapus, diaktifkan,
+     * dinonaktifkan atau diubah sejak penyusunan terakhir.
+     * @return MesinDiskon untuk kondisi diskon saat ini
+     */
+    public MesinDiskon getMesinDiskon() {
+        MesinDiskon mesin = mesinDiskon;
+        return mesin != null ? mesin : susunMesinDiskon();
+    }
+
+    // Synchronized agar mesin tidak disusun dari diskon yang sedang diubah setter
+    private synchronized MesinDiskon susunMesinDiskon() {
+        MesinDiskon mesin = mesinDiskon;
+        if (mesin == null) {
+            mesin = isi.daftarDiskon.isKosong() ? MesinDiskon.KOSONG
+                    : new MesinDiskon(this.<Diskon>lihatItem(isi.daftarDiskon));
+            mesinDiskon = mesin;
+        }
+        return mesin;
+    }
+
+    /**
+     * Metode untuk memfilter menu berdasarkan atribut menggunakan operasi bitset.
+     * Contoh: filterMenu(new FilterMenu().dengan("pedas", true).dengan("jenisMakanan", "pokok"))
+     * @param filter Syarat atribut yang harus dipenuhi
+     * @return List menu yang memenuhi semua syarat
+     */
+    public ArrayList<MenuItem> filterMenu(FilterMenu filter) {
+        return snapshot.filterMenu(filter);
+    }
+
+    // Pohon tipe diganti juga saat diskon berubah, sehingga mesin diskon selalu disusun ulang
+    private void tambahKeDaftarTipe(CatatanMenu catatan) {
+        if (catatan.item instanceof Makanan) {
+            isi.daftarMakanan = isi.daftarMakanan.tambah(catatan);
+        } else if (catatan.item instanceof Minuman) {
+            isi.daftarMinuman = isi.daftarMinuman.tambah(catatan);
+        } else if (catatan.item instanceof Diskon) {
+            isi.daftarDiskon = isi.daftarDiskon.tambah(catatan);
+            mesinDiskon = null;
+        }
+    }
+
+    private void hapusDariDaftarTipe(CatatanMenu catatan) {
+        if (catatan.item instanceof Makanan) {
+            isi.daftarMakanan = isi.daftarMakanan.hapus(catatan);
+        } else if (catatan.item instanceof Minuman) {
+            isi.daftarMinuman = isi.daftarMinuman.hapus(catatan);
+        } else if (catatan.item instanceof Diskon) {
+            isi.daftarDiskon = isi.daftarDiskon.hapus(catatan);
+            mesinDiskon = null;
+        }
+    }
+
+    // Pohon tidak dapat diubah, sehingga view tetap utuh walaupun penulis mengubah menu
+    private <E extends MenuItem> List<E> lihatItem(PohonUrut<CatatanMenu> pohon) {
+        return CatatanMenu.daftarItem(pohon.lihat());
+    }
+
+    private static PohonUrut<CatatanMenu> bangunTerurut(CatatanMenu[] semua, Comparator<CatatanMenu> pembanding) {
+        CatatanMenu[] isi = semua.clone();
+        Arrays.sort(isi, pembanding);
+        return PohonUrut.dariTerurut(pembanding, isi, isi.length);
+    }
+
+    private static PohonUrut<CatatanMenu> bangunDaftarTipe(CatatanMenu[] terurut, Class<? extends MenuItem> tipe) {
+        CatatanMenu[] isi = new CatatanMenu[terurut.length];
+        int jumlah = 0;
+        for (CatatanMenu catatan : terurut) {
+            if (tipe.isInstance(catatan.item)) {
+                isi[jumlah++] = catatan;
             }
         }
-        return null;
+        return PohonUrut.dariTerurut(CatatanMenu.URUTAN, isi, jumlah);
+    }
+
+    // Nama dan kategori dilipat ke huruf kecil agar setara dengan equalsIgnoreCase
+    static String kunciNama(String nama) {
+        return nama.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -101,13 +540,27 @@ public class MenuRestoran {
      * @return List MenuItem dengan kategori tertentu
      */
     public ArrayList<MenuItem> getMenuByKategori(String kategori) {
-        ArrayList<MenuItem> hasil = new ArrayList<>();
-        for (MenuItem item : daftarMenu) {
-            if (item.getKategori().equalsIgnoreCase(kategori)) {
-                hasil.add(item);
-            }
-        }
-        return hasil;
+        return new ArrayList<>(snapshot.getViewKategori(kategori));
+    }
+
+    /**
+     * Metode untuk mendapatkan tampilan read-only menu pada kategori tertentu
+     * tanpa menyalin isi kategori. Tampilan adalah potret saat dipanggil dan tidak
+     * ikut berubah ketika menu diubah sesudahnya.
+     * @param kategori Kategori yang dicari
+     * @return List read-only, kosong jika kategori tidak ada
+     */
+    public List<MenuItem> getViewKategori(String kategori) {
+        return snapshot.getViewKategori(kategori);
+    }
+
+    /**
+     * Metode untuk mendapatkan jumlah menu pada kategori tertentu dalam O(log n)
+     * @param kategori Kategori yang dihitung
+     * @return Jumlah menu pada kategori tersebut
+     */
+    public int getJumlahMenuKategori(String kategori) {
+        return snapshot.getViewKategori(kategori).size();
     }
 
     /**
@@ -115,7 +568,7 @@ public class MenuRestoran {
      */
     public void tampilkanSemuaMenu() {
         System.out.println("=== MENU " + namaRestoran.toUpperCase() + " ===");
-        if (daftarMenu.isEmpty()) {
+        if (isMenuKosong()) {
             System.out.println("Belum ada menu yang tersedia.");
             return;
         }
@@ -131,7 +584,7 @@ public class MenuRestoran {
      * @param kategori Kategori yang akan ditampilkan
      */
     public void tampilkanMenuByKategori(String kategori) {
-        ArrayList<MenuItem> menuKategori = getMenuByKategori(kategori);
+        List<MenuItem> menuKategori = getViewKategori(kategori);
         if (!menuKategori.isEmpty()) {
             System.out.println("\n--- " + kategori.toUpperCase() + " ---");
             for (MenuItem item : menuKategori) {
@@ -153,11 +606,86 @@ public class MenuRestoran {
         }
     }
 
+    /**
+     * Metode untuk mendapatkan menu dengan harga dalam rentang tertentu, O(log n + k)
+     * @param hargaMin Harga minimum (inklusif)
+     * @param hargaMax Harga maksimum (inklusif)
+     * @return List menu terurut berdasarkan harga
+     */
+    public ArrayList<MenuItem> getMenuByRentangHarga(double hargaMin, double hargaMax) {
+        if (hargaMin > hargaMax) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(snapshot.getMenuByRentangHarga(hargaMin, hargaMax));
+    }
+
+    /**
+     * Metode untuk mendapatkan menu dengan nama dalam rentang alfabet tertentu
+     * @param namaAwal Nama awal (inklusif, tidak peka huruf besar/kecil)
+     * @param namaAkhir Nama akhir (inklusif, tidak peka huruf besar/kecil)
+     * @return List menu terurut berdasarkan nama
+     */
+    public ArrayList<MenuItem> getMenuByRentangNama(String namaAwal, String namaAkhir) {
+        if (String.CASE_INSENSITIVE_ORDER.compare(namaAwal, namaAkhir) > 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(snapshot.getMenuByRentangNama(namaAwal, namaAkhir));
+    }
+
+    /**
+     * Metode untuk mendapatkan semua menu terurut berdasarkan harga (ascending)
+     * tanpa mengubah urutan daftarMenu
+     * @return List menu terurut berdasarkan harga
+     */
+    public ArrayList<MenuItem> getMenuTerurutByHarga() {
+        return new ArrayList<>(snapshot.getMenuTerurutByHarga());
+    }
+
+    /**
+     * Metode untuk mendapatkan semua menu terurut berdasarkan nama (A-Z)
+     * tanpa mengubah urutan daftarMenu
+     * @return List menu terurut berdasarkan nama
+     */
+    public ArrayList<MenuItem> getMenuTerurutByNama() {
+        return new ArrayList<>(snapshot.getMenuTerurutByNama());
+    }
+
+    /**
+     * Metode untuk menampilkan menu terurut per kategori tanpa mengubah daftarMenu
+     * @param urutHarga true untuk urut harga, false untuk urut nama
+     */
+    public void tampilkanMenuTerurut(boolean urutHarga) {
+        System.out.println("=== MENU " + namaRestoran.toUpperCase() + " ("
+            + (urutHarga ? "URUT HARGA" : "URUT NAMA") + ") ===");
+        ArrayList<MenuItem> terurut = urutHarga ? getMenuTerurutByHarga() : getMenuTerurutByNama();
+        if (terurut.isEmpty()) {
+            System.out.println("Belum ada menu yang tersedia.");
+            return;
+        }
+
+        String[] kategoriTampil = {"makanan", "minuman", "diskon"};
+        for (String kategori : kategoriTampil) {
+            boolean adaHeader = false;
+            for (MenuItem item : terurut) {
+                if (item.getKategori().equalsIgnoreCase(kategori)) {
+                    if (!adaHeader) {
+                        System.out.println("\n--- " + kategori.toUpperCase() + " ---");
+                        adaHeader = true;
+                    }
+                    System.out.println(item);
+                }
+            }
+        }
+    }
+
     /**
      * Metode untuk mengurutkan menu berdasarkan harga (ascending)
+     * @deprecated Mengubah urutan daftarMenu untuk semua pengguna;
+     *             gunakan getMenuTerurutByHarga() atau tampilkanMenuTerurut(true)
      */
-    public void urutkanMenuByHarga() {
-        Collections.sort(daftarMenu, new Comparator<MenuItem>() {
+    @Deprecated
+    public synchronized void urutkanMenuByHarga() {
+        urutkanSemuaDaftar(new Comparator<MenuItem>() {
             @Override
             public int compare(MenuItem m1, MenuItem m2) {
                 return Double.compare(m1.getHarga(), m2.getHarga());
@@ -167,9 +695,12 @@ public class MenuRestoran {
 
     /**
      * Metode untuk mengurutkan menu berdasarkan nama (alphabetical)
+     * @deprecated Mengubah urutan daftarMenu untuk semua pengguna;
+     *             gunakan getMenuTerurutByNama() atau tampilkanMenuTerurut(false)
      */
-    public void urutkanMenuByNama() {
-        Collections.sort(daftarMenu, new Comparator<MenuItem>() {
+    @Deprecated
+    public synchronized void urutkanMenuByNama() {
+        urutkanSemuaDaftar(new Comparator<MenuItem>() {
             @Override
             public int compare(MenuItem m1, MenuItem m2) {
                 return m1.getNama().compareToIgnoreCase(m2.getNama());
@@ -177,13 +708,40 @@ public class MenuRestoran {
         });
     }
 
+    // Semua item mendapat urutan baru sesuai pembanding, lalu setiap pohon dibangun ulang
+    // sehingga kategori, tipe dan nama kembar ikut mengikuti urutan daftarMenu
+    private void urutkanSemuaDaftar(Comparator<MenuItem> pembanding) {
+        List<CatatanMenu> terurut = new ArrayList<>(isi.daftarMenu.lihat());
+        terurut.sort((a, b) -> pembanding.compare(a.item, b.item));
+        CatatanMenu[] semua = new CatatanMenu[terurut.size()];
+        isi.indeksNama = IndeksIdMenu.kosong();
+        for (int i = 0; i < semua.length; i++) {
+            CatatanMenu lama = terurut.get(i);
+            semua[i] = new CatatanMenu(lama.item, i, lama.slot);
+            isi.indeksId = isi.indeksId.tambah(lama.item.getId(), semua[i]);
+            tambahKeIndeksNama(semua[i]);
+        }
+        urutanBerikutnya = semua.length;
+        isi.daftarMenu = PohonUrut.dariTerurut(CatatanMenu.URUTAN, semua, semua.length);
+        isi.daftarMakanan = bangunDaftarTipe(semua, Makanan.class);
+        isi.daftarMinuman = bangunDaftarTipe(semua, Minuman.class);
+        isi.daftarDiskon = bangunDaftarTipe(semua, Diskon.class);
+        isi.indeksKategori = bangunTerurut(semua, CatatanMenu.KATEGORI);
+        isi.indeksHarga = bangunTerurut(semua, CatatanMenu.HARGA);
+        isi.indeksUrutNama = bangunTerurut(semua, CatatanMenu.NAMA);
+        terbitkan();
+        if (pendengar != null) {
+            pendengar.menuDiganti();
+        }
+    }
+
     /**
      * Metode untuk menghitung total harga semua menu
      * @return Total harga semua menu
      */
     public double getTotalHargaSemuaMenu() {
         double total = 0;
-        for (MenuItem item : daftarMenu) {
+        for (MenuItem item : snapshot) {
             if (!item.getKategori().equals("diskon")) {
                 total += item.getHarga();
             }
@@ -195,12 +753,12 @@ public class MenuRestoran {
      * Metode untuk mendapatkan statistik menu
      */
     public void tampilkanStatistikMenu() {
-        int totalMakanan = getMenuByKategori("makanan").size();
-        int totalMinuman = getMenuByKategori("minuman").size();
-        int totalDiskon = getMenuByKategori("diskon").size();
+        int totalMakanan = getJumlahMenuKategori("makanan");
+        int totalMinuman = getJumlahMenuKategori("minuman");
+        int totalDiskon = getJumlahMenuKategori("diskon");
 
         System.out.println("=== STATISTIK MENU ===");
-        System.out.println("Total Menu: " + daftarMenu.size());
+        System.out.println("Total Menu: " + getJumlahMenu());
         System.out.println("- Makanan: " + totalMakanan);
         System.out.println("- Minuman: " + totalMinuman);
         System.out.println("- Diskon: " + totalDiskon);
@@ -211,8 +769,17 @@ public class MenuRestoran {
     /**
      * Metode untuk membersihkan semua menu
      */
-    public void clearMenu() {
-        daftarMenu.clear();
+    public synchronized void clearMenu() {
+        for (CatatanMenu catatan : isi.daftarMenu) {
+            catatan.item.setPemilik(null);
+        }
+        isi.kosongkan();
+        urutanBerikutnya = 0;
+        mesinDiskon = null;
+        terbitkan();
+        if (pendengar != null) {
+            pendengar.menuDiganti();
+        }
         System.out.println("Semua menu telah dihapus.");
     }
 
@@ -221,7 +788,7 @@ public class MenuRestoran {
      * @return Jumlah total menu
      */
     public int getJumlahMenu() {
-        return daftarMenu.size();
+        return snapshot.getJumlahMenu();
     }
 
     /**
@@ -229,7 +796,7 @@ public class MenuRestoran {
      * @return true jika menu kosong
      */
     public boolean isMenuKosong() {
-        return daftarMenu.isEmpty();
+        return getJumlahMenu() == 0;
     }
 
     /**
@@ -237,13 +804,15 @@ public class MenuRestoran {
      * @return List menu makanan
      */
     public ArrayList<Makanan> getDaftarMakanan() {
-        ArrayList<Makanan> makananList = new ArrayList<>();
-        for (MenuItem item : daftarMenu) {
-            if (item instanceof Makanan) {
-                makananList.add((Makanan) item);
-            }
-        }
-        return makananList;
+        return new ArrayList<>(snapshot.getViewMakanan());
+    }
+
+    /**
+     * Metode untuk mendapatkan tampilan read-only menu makanan tanpa menyalin
+     * @return List read-only menu makanan
+     */
+    public List<Makanan> getViewMakanan() {
+        return snapshot.getViewMakanan();
     }
 
     /**
@@ -251,13 +820,15 @@ public class MenuRestoran {
      * @return List menu minuman
      */
     public ArrayList<Minuman> getDaftarMinuman() {
-        ArrayList<Minuman> minumanList = new ArrayList<>();
-        for (MenuItem item : daftarMenu) {
-            if (item instanceof Minuman) {
-                minumanList.add((Minuman) item);
-            }
-        }
-        return minumanList;
+        return new ArrayList<>(snapshot.getViewMinuman());
+    }
+
+    /**
+     * Metode untuk mendapatkan tampilan read-only menu minuman tanpa menyalin
+     * @return List read-only menu minuman
+     */
+    public List<Minuman> getViewMinuman() {
+        return snapshot.getViewMinuman();
     }
 
     /**
@@ -265,13 +836,15 @@ public class MenuRestoran {
      * @return List menu diskon
      */
     public ArrayList<Diskon> getDaftarDiskon() {
-        ArrayList<Diskon> diskonList = new ArrayList<>();
-        for (MenuItem item : daftarMenu) {
-            if (item instanceof Diskon) {
-                diskonList.add((Diskon) item);
-            }
-        }
-        return diskonList;
+        return new ArrayList<>(snapshot.getViewDiskon());
+    }
+
+    /**
+     * Metode untuk mendapatkan tampilan read-only menu diskon tanpa menyalin
+     * @return List read-only menu diskon
+     */
+    public List<Diskon> getViewDiskon() {
+        return snapshot.getViewDiskon();
     }
 
     /**
@@ -280,6 +853,74 @@ public class MenuRestoran {
     @Override
     public String toString() {
         return String.format("MenuRestoran[nama=%s, totalMenu=%d]",
-            namaRestoran, daftarMenu.size());
+            namaRestoran, getJumlahMenu());
+    }
+
+    /**
+     * Inner class BangunPotongan untuk membangun indeks item baru semua[dari..sampai).
+     * Rentang dibelah dua sampai tidak lebih dari ukuranPotongan item, indeks setiap
+     * potongan dibangun terpisah, lalu kedua belahan digabung (belahan kiri lebih dulu
+     * pada daftar menu). Dijalankan penulis yang memegang lock menu.
+     */
+    private final class BangunPotongan extends RecursiveTask<SnapshotMenu.Penyusun> {
+        private static final long serialVersionUID = 1L;
+
+        private final MenuItem[] semua;
+        private final int[] slot;
+        private final long urutanAwal;
+        // Catatan setiap item baru diisi pada posisi yang sama untuk indeks atribut
+        private final CatatanMenu[] baru;
+        private final int dari;
+        private final int sampai;
+        private final int ukuranPotongan;
+
+        BangunPotongan(MenuItem[] semua, int[] slot, long urutanAwal, CatatanMenu[] baru,
+                       int dari, int sampai, int ukuranPotongan) {
+            this.semua = semua;
+            this.slot = slot;
+            this.urutanAwal = urutanAwal;
+            this.baru = baru;
+            this.dari = dari;
+            this.sampai = sampai;
+            this.ukuranPotongan = ukuranPotongan;
+        }
+
+        @Override
+        protected SnapshotMenu.Penyusun compute() {
+            if (sampai - dari > ukuranPotongan) {
+                int tengah = (dari + sampai) >>> 1;
+                BangunPotongan kanan = new BangunPotongan(semua, slot, urutanAwal, baru, tengah, sampai,
+                        ukuranPotongan);
+                kanan.fork();
+                SnapshotMenu.Penyusun hasil = new BangunPotongan(semua, slot, urutanAwal, baru, dari, tengah,
+                        ukuranPotongan).compute();
+                hasil.gabung(kanan.join());
+                return hasil;
+            }
+
+            int jumlah = sampai - dari;
+            CatatanMenu[] potongan = new CatatanMenu[jumlah];
+            int[] id = new int[jumlah];
+            for (int i = 0; i < jumlah; i++) {
+                MenuItem item = semua[dari + i];
+                potongan[i] = catat(item, urutanAwal + dari + i, slot[dari + i]);
+                baru[dari + i] = potongan[i];
+                id[i] = item.getId();
+            }
+            SnapshotMenu.Penyusun hasil = new SnapshotMenu.Penyusun();
+            // Catatan potongan sudah urut sesuai urutan tampil
+            hasil.daftarMenu = PohonUrut.dariTerurut(CatatanMenu.URUTAN, potongan, jumlah);
+            hasil.indeksId = IndeksIdMenu.<CatatanMenu>kosong().tambahSemua(id, potongan, jumlah);
+            hasil.indeksNama = bangunIndeksNama(potongan);
+            hasil.indeksKategori = bangunTerurut(potongan, CatatanMenu.KATEGORI);
+            hasil.daftarMakanan = bangunDaftarTipe(potongan, Makanan.class);
+            hasil.daftarMinuman = bangunDaftarTipe(potongan, Minuman.class);
+            hasil.daftarDiskon = bangunDaftarTipe(potongan, Diskon.class);
+            hasil.indeksHarga = bangunTerurut(potongan, CatatanMenu.HARGA);
+            hasil.indeksUrutNama = bangunTerurut(potongan, CatatanMenu.NAMA);
+            hasil.indeksPencarian = IndeksPencarianMenu.KOSONG.tambahSemua(
+                    Arrays.asList(semua).subList(dari, sampai));
+            return hasil;
+        }
     }
-}
\ No newline at end of file
+}
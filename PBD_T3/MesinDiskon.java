@@ -0,0 +1,102 @@
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Kelas MesinDiskon untuk memilih diskon terbaik saat checkout.
+ * Aturan diskon aktif disusun sekali berdasarkan minimal pembelian, lalu setiap
+ * posisi menyimpan aturan dengan persentase terbesar di antara aturan sebelumnya.
+ * Pencarian diskon terbaik untuk suatu total cukup satu binary search, O(log n).
+ * Objek ini immutable; MenuRestoran menyusunnya ulang hanya jika diskon berubah.
+ */
+public final class MesinDiskon {
+    public static final MesinDiskon KOSONG = new MesinDiskon(new ArrayList<>());
+
+    // Nilai aturan disalin saat penyusunan agar hasil tetap konsisten walau Diskon diubah
+    private final Diskon[] aturan;
+    private final long[] minimalSen;
+    private final long[] basisPoin;
+    // terbaik[i] = indeks aturan dengan persentase terbesar di antara aturan 0..i
+    private final int[] terbaik;
+
+    /**
+     * Constructor untuk kelas MesinDiskon
+     * @param daftarDiskon Semua diskon; yang tidak aktif diabaikan
+     */
+    public MesinDiskon(Collection<Diskon> daftarDiskon) {
+        ArrayList<Diskon> aktif = new ArrayList<>(daftarDiskon.size());
+        for (Diskon d : daftarDiskon) {
+            if (d != null && d.isAktif()) {
+                aktif.add(d);
+            }
+        }
+        // Sort stabil: untuk minimal yang sama, urutan asli dipertahankan
+        aktif.sort(Comparator.comparingLong(Diskon::getMinimalPembelianSen));
+
+        int n = aktif.size();
+        this.aturan = aktif.toArray(new Diskon[0]);
+        this.minimalSen = new long[n];
+        this.basisPoin = new long[n];
+        this.terbaik = new int[n];
+        for (int i = 0; i < n; i++) {
+            minimalSen[i] = aturan[i].getMinimalPembelianSen();
+            basisPoin[i] = aturan[i].getPersentaseBasisPoin();
+            terbaik[i] = (i > 0 && basisPoin[terbaik[i - 1]] >= basisPoin[i]) ? terbaik[i - 1] : i;
+        }
+    }
+
+    /**
+     * Metode untuk mencari diskon dengan potongan terbesar untuk total belanja
+     * @param totalBelanjaSen Total belanja dalam sen
+     * @param mode Mode pembulatan potongan ke sen
+     * @return Diskon terbaik, atau null jika tidak ada yang memberi potongan
+     */
+    public Diskon cariDiskonTerbaik(long totalBelanjaSen, RoundingMode mode) {
+        int i = indeksTerbaik(totalBelanjaSen);
+        if (i < 0 || Uang.kaliBasisPoin(totalBelanjaSen, basisPoin[i], mode) <= 0) {
+            return null;
+        }
+        return aturan[i];
+    }
+
+    /**
+     * Metode untuk menghitung potongan dari diskon terbaik
+     * @param totalBelanjaSen Total belanja dalam sen
+     * @param mode Mode pembulatan potongan ke sen
+     * @return Potongan dalam sen, 0 jika tidak ada diskon yang berlaku
+     */
+    public long hitungDiskonSen(long totalBelanjaSen, RoundingMode mode) {
+        int i = indeksTerbaik(totalBelanjaSen);
+        if (i < 0) {
+            return 0;
+        }
+        return Math.max(0, Uang.kaliBasisPoin(totalBelanjaSen, basisPoin[i], mode));
+    }
+
+    public int getJumlahAturan() {
+        return aturan.length;
+    }
+
+    // Binary search aturan terakhir dengan minimal <= total, lalu ambil yang terbaik sebelumnya
+    private int indeksTerbaik(long totalBelanjaSen) {
+        int kiri = 0;
+        int kanan = minimalSen.length - 1;
+        int posisi = -1;
+        while (kiri <= kanan) {
+            int tengah = (kiri + kanan) >>> 1;
+            if (minimalSen[tengah] <= totalBelanjaSen) {
+                posisi = tengah;
+                kiri = tengah + 1;
+            } else {
+                kanan = tengah - 1;
+            }
+        }
+        return posisi < 0 ? -1 : terbaik[posisi];
+    }
+
+    @Override
+    public String toString() {
+        return "MesinDiskon[" + aturan.length + " aturan aktif]";
+    }
+}
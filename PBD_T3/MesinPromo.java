@@ -0,0 +1,559 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Kelas MesinPromo untuk menghitung promosi pesanan dari sekumpulan aturan.
+ * Aturan (potongan persen di atas ambang, beli N gratis M, bonus item termurah,
+ * paket kategori) disusun sekali menjadi rencana evaluasi: kategori yang dipakai
+ * dipetakan ke nomor slot dan aturan diurutkan berdasarkan prioritas.
+ * Setiap pesanan lalu dievaluasi dalam satu kali lintasan baris; item termurah
+ * per kategori diambil dari min-heap.
+ *
+ * Setiap unit item hanya dapat dipakai satu aturan beli-gratis atau paket. Aturan
+ * beli-gratis menggratiskan unit termurah yang belum terpakai dan memakai unit yang
+ * dibayar dari yang termahal; aturan paket memakai unit termahal yang belum terpakai.
+ * Aturan berikutnya pada kategori yang sama hanya menghitung unit sisanya.
+ *
+ * Uang dalam sen dan persen dalam basis poin, dihitung dengan Uang.
+ *
+ * Contoh:
+ * MesinPromo promo = new MesinPromo.Penyusun()
+ *     .beliGratis("Beli 2 Gratis 1 Minuman", "minuman", 2, 1, 0)
+ *     .persenAmbang("Diskon 10%", 1000, 10000000)
+ *     .susun();
+ */
+public final class MesinPromo {
+    public static final long BASIS_POIN_PENUH = Uang.BASIS_POIN_PENUH;
+    public static final MesinPromo KOSONG = new Penyusun().susun();
+
+    private final Aturan[] aturan;
+    private final HashMap<String, Integer> slotKategori;
+    private final boolean[] perluHeap;
+
+    private MesinPromo(List<Aturan> daftar) {
+        ArrayList<Aturan> urut = new ArrayList<>(daftar);
+        // Sort stabil: prioritas sama dievaluasi sesuai urutan penambahan
+        urut.sort(Comparator.comparingInt((Aturan a) -> a.prioritas));
+        this.aturan = new Aturan[urut.size()];
+
+        // Setiap mesin memegang salinan aturan dengan slotnya sendiri, sehingga
+        // penyusun yang dipakai lagi tidak mengubah mesin yang sudah jadi
+        this.slotKategori = new HashMap<>();
+        for (int j = 0; j < aturan.length; j++) {
+            Aturan a = urut.get(j);
+            int[] slot = new int[a.kategori.length];
+            for (int i = 0; i < a.kategori.length; i++) {
+                Integer s = slotKategori.get(a.kategori[i]);
+                if (s == null) {
+                    s = slotKategori.size();
+                    slotKategori.put(a.kategori[i], s);
+                }
+                slot[i] = s;
+            }
+            aturan[j] = new Aturan(a, slot);
+        }
+        this.perluHeap = new boolean[slotKategori.size()];
+        for (Aturan a : aturan) {
+            if (a.jenis == Jenis.BELI_GRATIS || a.jenis == Jenis.BONUS_TERMURAH) {
+                perluHeap[a.slot[0]] = true;
+            }
+        }
+    }
+
+    /**
+     * Metode untuk memulai evaluasi satu pesanan
+     * @return Evaluasi baru; tambahkan setiap baris lalu panggil selesai()
+     */
+    public Evaluasi mulai() {
+        return new Evaluasi(this);
+    }
+
+    public int getJumlahAturan() {
+        return aturan.length;
+    }
+
+    @Override
+    public String toString() {
+        return "MesinPromo" + Arrays.toString(aturan);
+    }
+
+    // Kategori dilipat ke huruf kecil agar setara dengan equalsIgnoreCase
+    private static String kunci(String kategori) {
+        return kategori == null ? "" : kategori.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Enum jenis aturan promosi
+     */
+    public enum Jenis {
+        PERSEN_AMBANG,   // Potongan persen dari total jika total >= ambang
+        BELI_GRATIS,     // Setiap beli N item kategori, M item termurah gratis
+        BONUS_TERMURAH,  // Bonus item termurah dari kategori (tidak memotong total)
+        PAKET_KATEGORI   // Potongan tetap untuk setiap paket satu item per kategori
+    }
+
+    /**
+     * Inner class Aturan untuk menyimpan satu aturan promosi
+     */
+    private static class Aturan {
+        final Jenis jenis;
+        final String nama;
+        final String[] kategori;
+        final long minimalSen;
+        final int prioritas;
+        final boolean eksklusif;
+        // Arti parameter tergantung jenis: basis poin, beli/gratis, atau potongan per paket
+        final long nilai;
+        final int beli;
+        final int gratis;
+        // Nomor slot tiap kategori; hanya terisi pada salinan milik MesinPromo
+        final int[] slot;
+
+        Aturan(Jenis jenis, String nama, String[] kategori, long minimalSen, int prioritas,
+               boolean eksklusif, long nilai, int beli, int gratis) {
+            this.jenis = jenis;
+            this.nama = nama;
+            this.kategori = kategori;
+            this.minimalSen = minimalSen;
+            this.prioritas = prioritas;
+            this.eksklusif = eksklusif;
+            this.nilai = nilai;
+            this.beli = beli;
+            this.gratis = gratis;
+            this.slot = null;
+        }
+
+        Aturan(Aturan asal, int[] slot) {
+            this.jenis = asal.jenis;
+            this.nama = asal.nama;
+            this.kategori = asal.kategori;
+            this.minimalSen = asal.minimalSen;
+            this.prioritas = asal.prioritas;
+            this.eksklusif = asal.eksklusif;
+            this.nilai = asal.nilai;
+            this.beli = asal.beli;
+            this.gratis = asal.gratis;
+            this.slot = slot;
+        }
+
+        @Override
+        public String toString() {
+            return jenis + ":" + nama;
+        }
+    }
+
+    /**
+     * Inner class Penyusun untuk menyusun MesinPromo secara bertahap.
+     * Aturan dievaluasi dari prioritas terkecil; aturan eksklusif yang berlaku
+     * menghentikan evaluasi aturan sesudahnya.
+     */
+    public static class Penyusun {
+        private final ArrayList<Aturan> daftar = new ArrayList<>();
+        private int prioritas = 0;
+        private boolean eksklusif = false;
+
+        /**
+         * Metode untuk mengatur prioritas dan sifat eksklusif aturan berikutnya
+         * @param prioritas Prioritas (lebih kecil dievaluasi lebih dulu)
+         * @param eksklusif true jika aturan tidak dapat digabung dengan aturan sesudahnya
+         * @return Penyusun ini untuk chaining
+         */
+        public Penyusun prioritas(int prioritas, boolean eksklusif) {
+            this.prioritas = prioritas;
+            this.eksklusif = eksklusif;
+            return this;
+        }
+
+        /**
+         * Metode untuk menambah potongan persen dari total jika total mencapai ambang.
+         * Persen dihitung dari total setelah potongan aturan sebelumnya.
+         * @param nama Nama promo yang tampil di struk
+         * @param basisPoin Persentase dalam basis poin (1000 = 10%)
+         * @param minimalSen Total minimal dalam sen
+         * @return Penyusun ini untuk chaining
+         */
+        public Penyusun persenAmbang(String nama, long basisPoin, long minimalSen) {
+            if (basisPoin < 0 || basisPoin > BASIS_POIN_PENUH) {
+                throw new IllegalArgumentException("Persentase harus antara 0 dan " + BASIS_POIN_PENUH + " basis poin");
+            }
+            return tambah(new Aturan(Jenis.PERSEN_AMBANG, nama, new String[0], minimalSen,
+                prioritas, eksklusif, basisPoin, 0, 0));
+        }
+
+        /**
+         * Metode untuk menambah promo beli N gratis M: dari setiap N+M item kategori
+         * yang belum dipakai aturan sebelumnya, M item termurah digratiskan
+         * @param nama Nama promo yang tampil di struk
+         * @param kategori Kategori item
+         * @param beli Jumlah item yang dibayar per kelompok
+         * @param gratis Jumlah item gratis per kelompok
+         * @param minimalSen Total minimal dalam sen (0 jika tanpa syarat)
+         * @return Penyusun ini untuk chaining
+         */
+        public Penyusun beliGratis(String nama, String kategori, int beli, int gratis, long minimalSen) {
+            if (beli <= 0 || gratis <= 0) {
+                throw new IllegalArgumentException("Jumlah beli dan gratis harus > 0");
+            }
+            return tambah(new Aturan(Jenis.BELI_GRATIS, nama, new String[] {kunci(kategori)}, minimalSen,
+                prioritas, eksklusif, 0, beli, gratis));
+        }
+
+        /**
+         * Metode untuk menambah bonus item termurah dari kategori yang dipesan
+         * (item bonus diberikan di luar pesanan sehingga total tidak berubah)
+         * @param nama Nama promo yang tampil di struk
+         * @param kategori Kategori item
+         * @param jumlahBonus Jumlah item bonus
+         * @param minimalSen Total minimal dalam sen
+         * @return Penyusun ini untuk chaining
+         */
+        public Penyusun bonusTermurah(String nama, String kategori, int jumlahBonus, long minimalSen) {
+            if (jumlahBonus <= 0) {
+                throw new IllegalArgumentException("Jumlah bonus harus > 0");
+            }
+            return tambah(new Aturan(Jenis.BONUS_TERMURAH, nama, new String[] {kunci(kategori)}, minimalSen,
+                prioritas, eksklusif, 0, 0, jumlahBonus));
+        }
+
+        /**
+         * Metode untuk menambah potongan paket: setiap kombinasi satu item dari
+         * masing-masing kategori yang belum dipakai aturan sebelumnya mendapat potongan tetap
+         * @param nama Nama promo yang tampil di struk
+         * @param potonganSen Potongan per paket dalam sen
+         * @param minimalSen Total minimal dalam sen
+         * @param kategori Kategori penyusun paket (boleh berulang, misalnya dua minuman)
+         * @return Penyusun ini untuk chaining
+         */
+        public Penyusun paketKategori(String nama, long potonganSen, long minimalSen, String... kategori) {
+            if (kategori.length == 0 || potonganSen < 0) {
+                throw new IllegalArgumentException("Paket membutuhkan minimal satu kategori dan potongan >= 0");
+            }
+            String[] kunciKategori = new String[kategori.length];
+            for (int i = 0; i < kategori.length; i++) {
+                kunciKategori[i] = kunci(kategori[i]);
+            }
+            return tambah(new Aturan(Jenis.PAKET_KATEGORI, nama, kunciKategori, minimalSen,
+                prioritas, eksklusif, potonganSen, 0, 0));
+        }
+
+        private Penyusun tambah(Aturan a) {
+            daftar.add(a);
+            return this;
+        }
+
+        /**
+         * Metode untuk menyusun rencana evaluasi dari semua aturan
+         * @return MesinPromo immutable yang dapat dipakai bersama
+         */
+        public MesinPromo susun() {
+            return new MesinPromo(daftar);
+        }
+    }
+
+    /**
+     * Inner class Evaluasi untuk mengumpulkan baris satu pesanan dalam satu lintasan
+     */
+    public static class Evaluasi {
+        private final MesinPromo mesin;
+        private final int[] jumlahPerSlot;
+        // Unit per slot yang sudah dipakai aturan beli-gratis atau paket
+        private final int[] terpakai;
+        // Unit termurah yang sudah digratiskan: baris ke-barisMurah di termurah, unitBarisMurah
+        // unit pertama baris itu sudah terpakai
+        private final int[] barisMurah;
+        private final int[] unitBarisMurah;
+        // Per slot; null untuk slot yang tidak butuh item termurah
+        private final List<PriorityQueue<BarisHeap>> heap;
+        // Item yang sudah dikeluarkan dari heap, urut dari termurah, dipakai bersama antar aturan
+        private final List<ArrayList<BarisHeap>> termurah;
+        private int urutan;
+        private boolean selesai;
+
+        private Evaluasi(MesinPromo mesin) {
+            this.mesin = mesin;
+            int n = mesin.perluHeap.length;
+            this.jumlahPerSlot = new int[n];
+            this.terpakai = new int[n];
+            this.barisMurah = new int[n];
+            this.unitBarisMurah = new int[n];
+            this.heap = new ArrayList<>(n);
+            this.termurah = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                boolean perlu = mesin.perluHeap[i];
+                heap.add(perlu ? new PriorityQueue<>(BarisHeap.URUTAN) : null);
+                termurah.add(perlu ? new ArrayList<>() : null);
+            }
+        }
+
+        /**
+         * Metode untuk menambahkan satu baris pesanan
+         * @param nama Nama item
+         * @param kategori Kategori item
+         * @param hargaSatuanSen Harga satuan dalam sen
+         * @param jumlah Jumlah item
+         * @return Evaluasi ini untuk chaining
+         */
+        public Evaluasi tambah(String nama, String kategori, long hargaSatuanSen, int jumlah) {
+            if (selesai) {
+                throw new IllegalStateException("Evaluasi sudah selesai");
+            }
+            if (jumlah <= 0) {
+                return this;
+            }
+            Integer slot = mesin.slotKategori.get(kunci(kategori));
+            if (slot != null) {
+                jumlahPerSlot[slot] += jumlah;
+                if (heap.get(slot) != null) {
+                    heap.get(slot).offer(new BarisHeap(nama, hargaSatuanSen, jumlah, urutan));
+                }
+            }
+            urutan++;
+            return this;
+        }
+
+        /**
+         * Metode untuk menerapkan semua aturan terhadap baris yang sudah ditambahkan
+         * @param totalDasarSen Total yang dipakai untuk ambang dan potongan persen (dalam sen)
+         * @return HasilPromo berisi potongan dan bonus yang berlaku
+         */
+        public HasilPromo selesai(long totalDasarSen) {
+            if (selesai) {
+                throw new IllegalStateException("Evaluasi sudah selesai");
+            }
+            selesai = true;
+
+            HasilPromo hasil = new HasilPromo();
+            long sisa = totalDasarSen;
+            for (Aturan a : mesin.aturan) {
+                if (totalDasarSen < a.minimalSen) {
+                    continue;
+                }
+                boolean berlaku;
+                switch (a.jenis) {
+                    case PERSEN_AMBANG:
+                        berlaku = catatPotongan(hasil, a,
+                            Uang.kaliBasisPoin(Math.max(0, sisa), a.nilai, Uang.PEMBULATAN_DEFAULT), sisa);
+                        break;
+                    case BELI_GRATIS:
+                        int slot = a.slot[0];
+                        int kelompok = (jumlahPerSlot[slot] - terpakai[slot]) / (a.beli + a.gratis);
+                        int jumlahGratis = kelompok * a.gratis;
+                        berlaku = catatPotongan(hasil, a, hargaTermurah(slot, jumlahGratis, false), sisa);
+                        if (berlaku) {
+                            hargaTermurah(slot, jumlahGratis, true);
+                            terpakai[slot] += kelompok * (a.beli + a.gratis);
+                        }
+                        break;
+                    case BONUS_TERMURAH:
+                        berlaku = catatBonus(hasil, a);
+                        break;
+                    default:
+                        int paket = jumlahPaket(a);
+                        berlaku = catatPotongan(hasil, a, Uang.kali(a.nilai, paket), sisa);
+                        if (berlaku) {
+                            for (int s : a.slot) {
+                                terpakai[s] += paket;
+                            }
+                        }
+                        break;
+                }
+                if (berlaku) {
+                    sisa = totalDasarSen - hasil.getTotalPotonganSen();
+                    if (a.eksklusif) {
+                        break;
+                    }
+                }
+            }
+            return hasil;
+        }
+
+        // Potongan dibatasi agar total tidak pernah negatif
+        private static boolean catatPotongan(HasilPromo hasil, Aturan a, long potonganSen, long sisaSen) {
+            long potongan = Math.min(potonganSen, Math.max(0, sisaSen));
+            if (potongan <= 0) {
+                return false;
+            }
+            hasil.tambahPotongan(a.nama, potongan);
+            return true;
+        }
+
+        private boolean catatBonus(HasilPromo hasil, Aturan a) {
+            int slot = a.slot[0];
+            if (!keluarkanSampai(slot, 1)) {
+                return false;
+            }
+            BarisHeap paling = termurah.get(slot).get(0);
+            hasil.bonus.add(new Bonus(a.nama, paling.nama, a.gratis, paling.hargaSen));
+            return true;
+        }
+
+        // Jumlah harga k unit termurah dari slot yang belum digratiskan, diambil dari
+        // min-heap seperlunya; jika pakai, unit tersebut ditandai sudah digratiskan
+        private long hargaTermurah(int slot, int k, boolean pakai) {
+            long total = 0;
+            int sisa = k;
+            int i = barisMurah[slot];
+            int lewati = unitBarisMurah[slot];
+            ArrayList<BarisHeap> keluar = termurah.get(slot);
+            while (sisa > 0) {
+                if (i == keluar.size() && !keluarkanSampai(slot, i + 1)) {
+                    break;
+                }
+                BarisHeap b = keluar.get(i);
+                int ambil = Math.min(sisa, b.jumlah - lewati);
+                total = Math.addExact(total, Uang.kali(b.hargaSen, ambil));
+                sisa -= ambil;
+                lewati += ambil;
+                if (lewati == b.jumlah) {
+                    i++;
+                    lewati = 0;
+                }
+            }
+            if (pakai) {
+                barisMurah[slot] = i;
+                unitBarisMurah[slot] = lewati;
+            }
+            return total;
+        }
+
+        private boolean keluarkanSampai(int slot, int banyak) {
+            ArrayList<BarisHeap> keluar = termurah.get(slot);
+            PriorityQueue<BarisHeap> sisa = heap.get(slot);
+            while (keluar.size() < banyak && !sisa.isEmpty()) {
+                keluar.add(sisa.poll());
+            }
+            return keluar.size() >= banyak;
+        }
+
+        private int jumlahPaket(Aturan a) {
+            // Kategori yang berulang dalam paket membutuhkan beberapa item per paket
+            int paket = Integer.MAX_VALUE;
+            for (int i = 0; i < a.slot.length; i++) {
+                int perPaket = 0;
+                for (int s : a.slot) {
+                    if (s == a.slot[i]) {
+                        perPaket++;
+                    }
+                }
+                paket = Math.min(paket, (jumlahPerSlot[a.slot[i]] - terpakai[a.slot[i]]) / perPaket);
+            }
+            return paket;
+        }
+    }
+
+    /**
+     * Inner class BarisHeap untuk entri min-heap harga satuan per kategori
+     */
+    private static class BarisHeap {
+        // Termurah dulu; harga sama diurutkan sesuai urutan baris dipesan
+        static final Comparator<BarisHeap> URUTAN = Comparator
+            .comparingLong((BarisHeap b) -> b.hargaSen)
+            .thenComparingInt(b -> b.urutan);
+
+        final String nama;
+        final long hargaSen;
+        final int jumlah;
+        final int urutan;
+
+        BarisHeap(String nama, long hargaSen, int jumlah, int urutan) {
+            this.nama = nama;
+            this.hargaSen = hargaSen;
+            this.jumlah = jumlah;
+            this.urutan = urutan;
+        }
+    }
+
+    /**
+     * Inner class Bonus untuk menyimpan item bonus yang diberikan promo
+     */
+    public static class Bonus {
+        private final String namaPromo;
+        private final String namaItem;
+        private final int jumlah;
+        private final long hargaSatuanSen;
+
+        Bonus(String namaPromo, String namaItem, int jumlah, long hargaSatuanSen) {
+            this.namaPromo = namaPromo;
+            this.namaItem = namaItem;
+            this.jumlah = jumlah;
+            this.hargaSatuanSen = hargaSatuanSen;
+        }
+
+        public String getNamaPromo() {
+            return namaPromo;
+        }
+
+        public String getNamaItem() {
+            return namaItem;
+        }
+
+        public int getJumlah() {
+            return jumlah;
+        }
+
+        public long getHargaSatuanSen() {
+            return hargaSatuanSen;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %dx %s", namaPromo, jumlah, namaItem);
+        }
+    }
+
+    /**
+     * Inner class HasilPromo untuk menyimpan potongan dan bonus hasil evaluasi
+     */
+    public static class HasilPromo {
+        private final ArrayList<String> namaPotongan = new ArrayList<>();
+        private final ArrayList<Long> jumlahPotongan = new ArrayList<>();
+        private final ArrayList<Bonus> bonus = new ArrayList<>();
+        private long totalPotonganSen;
+
+        void tambahPotongan(String nama, long potonganSen) {
+            namaPotongan.add(nama);
+            jumlahPotongan.add(potonganSen);
+            totalPotonganSen += potonganSen;
+        }
+
+        public long getTotalPotonganSen() {
+            return totalPotonganSen;
+        }
+
+        public int getJumlahPotongan() {
+            return namaPotongan.size();
+        }
+
+        public String getNamaPotongan(int i) {
+            return namaPotongan.get(i);
+        }
+
+        public long getPotonganSen(int i) {
+            return jumlahPotongan.get(i);
+        }
+
+        /**
+         * Metode untuk mendapatkan item bonus yang diberikan
+         * @return List read-only item bonus
+         */
+        public List<Bonus> getBonus() {
+            return Collections.unmodifiableList(bonus);
+        }
+
+        public boolean isKosong() {
+            return namaPotongan.isEmpty() && bonus.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("HasilPromo[potongan=%d sen dari %d promo, bonus=%s]",
+                totalPotonganSen, namaPotongan.size(), bonus);
+        }
+    }
+}
@@ -1,12 +1,27 @@
+import java.util.List;
+
 /**
  * Kelas Minuman yang merupakan turunan dari MenuItem.
  * Mengimplementasikan inheritance dan polymorphism.
  */
 public class Minuman extends MenuItem {
     // Atribut khusus untuk kelas Minuman
-    private String jenisMinuman; // panas, dingin, hangat
-    private String ukuran; // small, medium, large
-    private boolean adaGula;
+    // Nilai kanonik dari KamusAtribut, dibandingkan dengan ==
+    public static final NilaiAtribut PANAS = KamusAtribut.JENIS_MINUMAN.intern("panas");
+    public static final NilaiAtribut HANGAT = KamusAtribut.JENIS_MINUMAN.intern("hangat");
+    public static final NilaiAtribut DINGIN = KamusAtribut.JENIS_MINUMAN.intern("dingin");
+    public static final NilaiAtribut SMALL = KamusAtribut.UKURAN.intern("small");
+    public static final NilaiAtribut MEDIUM = KamusAtribut.UKURAN.intern("medium");
+    public static final NilaiAtribut LARGE = KamusAtribut.UKURAN.intern("large");
+
+    // Atribut khusus di-intern agar tidak terduplikasi untuk setiap item
+    private volatile NilaiAtribut jenisMinuman; // panas, dingin, hangat
+    private volatile NilaiAtribut ukuran; // small, medium, large
+    private volatile boolean adaGula;
+
+    // Harga setelah pengali ukuran, dihitung ulang saat harga/ukuran/tabel berubah
+    private volatile TabelHargaUkuran tabelHargaUkuran;
+    private volatile long hargaDisesuaikanSen;
 
     /**
      * Constructor lengkap untuk kelas Minuman
@@ -18,9 +33,11 @@ public class Minuman extends MenuItem {
      */
     public Minuman(String nama, double harga, String jenisMinuman, String ukuran, boolean adaGula) {
         super(nama, harga, "minuman");
-        this.jenisMinuman = jenisMinuman;
-        this.ukuran = ukuran;
+        this.jenisMinuman = KamusAtribut.JENIS_MINUMAN.intern(jenisMinuman);
+        this.ukuran = KamusAtribut.UKURAN.intern(ukuran);
         this.adaGula = adaGula;
+        this.tabelHargaUkuran = TabelHargaUkuran.DEFAULT;
+        hitungUlangHargaDisesuaikan();
     }
 
     /**
@@ -35,19 +52,56 @@ public class Minuman extends MenuItem {
 
     // Getter dan Setter untuk atribut khusus Minuman
     public String getJenisMinuman() {
+        return NilaiAtribut.teksDari(jenisMinuman);
+    }
+
+    public NilaiAtribut getJenisMinumanAtribut() {
         return jenisMinuman;
     }
 
     public void setJenisMinuman(String jenisMinuman) {
-        this.jenisMinuman = jenisMinuman;
+        NilaiAtribut nilai = KamusAtribut.JENIS_MINUMAN.intern(jenisMinuman);
+        ubahIsi(() -> this.jenisMinuman = nilai);
     }
 
     public String getUkuran() {
+        return NilaiAtribut.teksDari(ukuran);
+    }
+
+    public NilaiAtribut getUkuranAtribut() {
         return ukuran;
     }
 
     public void setUkuran(String ukuran) {
-        this.ukuran = ukuran;
+        NilaiAtribut nilai = KamusAtribut.UKURAN.intern(ukuran);
+        ubahIsi(() -> {
+            this.ukuran = nilai;
+            hitungUlangHargaDisesuaikan();
+        });
+    }
+
+    public TabelHargaUkuran getTabelHargaUkuran() {
+        return tabelHargaUkuran;
+    }
+
+    /**
+     * Metode untuk mengganti tabel pengali ukuran (biasanya diatur oleh MenuRestoran/outlet)
+     * @param tabelHargaUkuran Tabel pengali yang dipakai
+     */
+    public void setTabelHargaUkuran(TabelHargaUkuran tabelHargaUkuran) {
+        if (tabelHargaUkuran == null) {
+            throw new IllegalArgumentException("Tabel harga ukuran tidak boleh null");
+        }
+        this.tabelHargaUkuran = tabelHargaUkuran;
+        hitungUlangHargaDisesuaikan();
+    }
+
+    /**
+     * Override hargaBerubah agar harga disesuaikan ikut dihitung ulang saat setHarga
+     */
+    @Override
+    protected void hargaBerubah() {
+        hitungUlangHargaDisesuaikan();
     }
 
     public boolean isAdaGula() {
@@ -55,7 +109,7 @@ public class Minuman extends MenuItem {
     }
 
     public void setAdaGula(boolean adaGula) {
-        this.adaGula = adaGula;
+        ubahIsi(() -> this.adaGula = adaGula);
     }
 
     /**
@@ -72,6 +126,18 @@ public class Minuman extends MenuItem {
         System.out.println("------------------------");
     }
 
+    /**
+     * Override isiAtribut untuk mengindeks jenis, ukuran dan gula
+     */
+    @Override
+    protected void isiAtribut(List<String> atribut) {
+        super.isiAtribut(atribut);
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.JENIS_MINUMAN, jenisMinuman));
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.UKURAN, ukuran));
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.PANAS, isPanas()));
+        atribut.add(IndeksAtributMenu.kunci(IndeksAtributMenu.GULA, adaGula));
+    }
+
     /**
      * Override metode toString untuk representasi spesifik minuman
      */
@@ -94,7 +160,7 @@ public class Minuman extends MenuItem {
      * Metode untuk memeriksa apakah minuman panas
      */
     public boolean isPanas() {
-        return jenisMinuman.equalsIgnoreCase("panas") || jenisMinuman.equalsIgnoreCase("hangat");
+        return jenisMinuman == PANAS || jenisMinuman == HANGAT;
     }
 
     /**
@@ -108,15 +174,20 @@ public class Minuman extends MenuItem {
      * Metode untuk menyesuaikan harga berdasarkan ukuran
      */
     public double getHargaDisesuaikan() {
-        double hargaAsli = getHarga();
-        switch (ukuran.toLowerCase()) {
-            case "small":
-                return hargaAsli * 0.8;
-            case "large":
-                return hargaAsli * 1.2;
-            default:
-                return hargaAsli; // medium
-        }
+        return Uang.keRupiah(hargaDisesuaikanSen);
+    }
+
+    /**
+     * Override getHargaEfektif: minuman dihitung dengan harga disesuaikan ukuran
+     */
+    @Override
+    public long getHargaEfektifSen() {
+        return hargaDisesuaikanSen;
+    }
+
+    private void hitungUlangHargaDisesuaikan() {
+        hargaDisesuaikanSen = Uang.kaliBasisPoin(getHargaSen(),
+            tabelHargaUkuran.getPengaliBasisPoin(ukuran), Uang.PEMBULATAN_DEFAULT);
     }
 
     /**
@@ -0,0 +1,45 @@
+/**
+ * Kelas NilaiAtribut yang merepresentasikan satu nilai atribut yang sudah di-intern
+ * oleh KamusAtribut. Setiap nilai (tidak peka huruf besar/kecil) hanya memiliki
+ * satu objek, sehingga perbandingan cukup dengan == atau kode int.
+ */
+public final class NilaiAtribut {
+    private final KamusAtribut kamus;
+    private final int kode;
+    private final String teks;
+
+    NilaiAtribut(KamusAtribut kamus, int kode, String teks) {
+        this.kamus = kamus;
+        this.kode = kode;
+        this.teks = teks;
+    }
+
+    public KamusAtribut getKamus() {
+        return kamus;
+    }
+
+    public int getKode() {
+        return kode;
+    }
+
+    public String getTeks() {
+        return teks;
+    }
+
+    /**
+     * Metode untuk mendapatkan teks dari nilai yang mungkin null
+     * @param nilai NilaiAtribut atau null
+     * @return Teks nilai, null jika nilai null
+     */
+    public static String teksDari(NilaiAtribut nilai) {
+        return nilai == null ? null : nilai.teks;
+    }
+
+    /**
+     * Override metode toString agar nilai tampil seperti String aslinya
+     */
+    @Override
+    public String toString() {
+        return teks;
+    }
+}
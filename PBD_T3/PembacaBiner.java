@@ -0,0 +1,45 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kelas PembacaBiner untuk varint dan teks dari ByteBuffer (pasangan PenulisBiner).
+ * Dipakai bersama oleh KatalogBiner dan LogPesanan.
+ */
+final class PembacaBiner {
+    final ByteBuffer buf;
+    private byte[] sementara = new byte[256];
+
+    PembacaBiner(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    int varint() throws IOException {
+        int hasil = 0;
+        for (int geser = 0; geser < 35; geser += 7) {
+            byte b = buf.get();
+            hasil |= (b & 0x7F) << geser;
+            if (b >= 0) {
+                return hasil;
+            }
+        }
+        throw new IOException("Varint terlalu panjang pada posisi " + buf.position());
+    }
+
+    String teks() throws IOException {
+        int panjang = varint();
+        if (panjang < 0 || panjang > buf.remaining()) {
+            throw new IOException("Panjang teks " + panjang + " melewati akhir data");
+        }
+        if (buf.hasArray()) {
+            int awal = buf.arrayOffset() + buf.position();
+            buf.position(buf.position() + panjang);
+            return new String(buf.array(), awal, panjang, StandardCharsets.UTF_8);
+        }
+        if (panjang > sementara.length) {
+            sementara = new byte[Math.max(panjang, sementara.length * 2)];
+        }
+        buf.get(sementara, 0, panjang);
+        return new String(sementara, 0, panjang, StandardCharsets.UTF_8);
+    }
+}
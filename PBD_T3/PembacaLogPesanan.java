@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Kelas PembacaLogPesanan untuk memindai record LogPesanan langsung dari memori
+ * yang dipetakan (memory-mapped), segmen demi segmen.
+ *
+ * Pembaca bekerja seperti kursor: berikutnya() maju ke record berikutnya tanpa
+ * membuat objek apa pun, dan field hanya dibaca saat diminta. Field berukuran tetap
+ * (ID, waktu dan total di akhir record) dibaca langsung dari buffer; teks baru
+ * didekode jika getter-nya dipanggil. Dengan begitu laporan yang hanya butuh total
+ * dapat memindai log berukuran gigabyte mendekati kecepatan baca disk tanpa membebani heap.
+ *
+ * Pembaca hanya melihat record yang sudah tersimpan saat pembaca dibuat, dan tidak
+ * thread-safe (satu pembaca untuk satu thread).
+ */
+public final class PembacaLogPesanan {
+    static final long UKURAN_SEGMEN = 256L * 1024 * 1024;
+    // Total di akhir isi record: subtotal, pajak, biaya pelayanan, total akhir (masing-masing long)
+    private static final int UKURAN_TOTAL = 32;
+    private static final int POSISI_PELANGGAN = 12; // Setelah int id dan long waktu
+
+    private final FileChannel channel;
+    private final long akhir;
+    private final long ukuranSegmen;
+
+    private MappedByteBuffer segmen;
+    private ByteBuffer lihat; // Duplikat segmen untuk membaca teks tanpa mengubah posisi segmen
+    private PembacaBiner pembacaTeks;
+    private long awalSegmen;
+    private long akhirSegmen;
+
+    private long berikutnyaOffset;
+    private long offsetRecord = -1;
+    private int awalIsi; // Posisi isi record saat ini di dalam segmen
+    private int panjangIsi;
+
+    PembacaLogPesanan(FileChannel channel, long awal, long akhir, long ukuranSegmen) {
+        this.channel = channel;
+        this.berikutnyaOffset = awal;
+        this.akhir = akhir;
+        this.ukuranSegmen = ukuranSegmen;
+    }
+
+    /**
+     * Metode untuk maju ke record berikutnya
+     * @return true jika ada record, false jika sudah di akhir log
+     * @throws IOException jika segmen tidak dapat dipetakan atau record tidak valid
+     */
+    public boolean berikutnya() throws IOException {
+        long posisi = berikutnyaOffset;
+        if (posisi >= akhir) {
+            offsetRecord = -1;
+            return false;
+        }
+        if (posisi + LogPesanan.UKURAN_PREFIKS_RECORD > akhirSegmen) {
+            petakan(posisi, LogPesanan.UKURAN_PREFIKS_RECORD);
+        }
+        int panjang = segmen.getInt((int) (posisi - awalSegmen));
+        if (panjang < UKURAN_TOTAL || panjang > LogPesanan.BATAS_UKURAN_RECORD
+                || posisi + LogPesanan.UKURAN_PREFIKS_RECORD + panjang > akhir) {
+            throw new IOException("Record log pesanan pada offset " + posisi + " tidak valid");
+        }
+        if (posisi + LogPesanan.UKURAN_PREFIKS_RECORD + panjang > akhirSegmen) {
+            petakan(posisi, LogPesanan.UKURAN_PREFIKS_RECORD + panjang);
+        }
+        offsetRecord = posisi;
+        awalIsi = (int) (posisi - awalSegmen) + LogPesanan.UKURAN_PREFIKS_RECORD;
+        panjangIsi = panjang;
+        berikutnyaOffset = posisi + LogPesanan.UKURAN_PREFIKS_RECORD + panjang;
+        return true;
+    }
+
+    // Memetakan segmen baru yang dimulai di awal record (record tidak pernah terbelah)
+    private void petakan(long posisi, int minimal) throws IOException {
+        long ukuran = Math.min(Math.max(ukuranSegmen, minimal), akhir - posisi);
+        segmen = channel.map(FileChannel.MapMode.READ_ONLY, posisi, ukuran);
+        segmen.order(ByteOrder.LITTLE_ENDIAN);
+        lihat = segmen.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        pembacaTeks = new PembacaBiner(lihat);
+        awalSegmen = posisi;
+        akhirSegmen = posisi + ukuran;
+    }
+
+    /**
+     * Metode untuk mendapatkan offset record saat ini di file log
+     */
+    public long getOffset() {
+        periksaRecord();
+        return offsetRecord;
+    }
+
+    public int getIdPesanan() {
+        periksaRecord();
+        return segmen.getInt(awalIsi);
+    }
+
+    public long getWaktu() {
+        periksaRecord();
+        return segmen.getLong(awalIsi + 4);
+    }
+
+    public long getSubtotalSen() {
+        return totalKe(0);
+    }
+
+    public long getPajakSen() {
+        return totalKe(1);
+    }
+
+    public long getBiayaPelayananSen() {
+        return totalKe(2);
+    }
+
+    public long getTotalAkhirSen() {
+        return totalKe(3);
+    }
+
+    /**
+     * Metode untuk mendapatkan nama pelanggan (teks didekode saat dipanggil)
+     */
+    public String getNamaPelanggan() throws IOException {
+        periksaRecord();
+        lihat.position(awalIsi + POSISI_PELANGGAN);
+        return pembacaTeks.teks();
+    }
+
+    /**
+     * Metode untuk mendapatkan nomor meja (teks didekode saat dipanggil)
+     */
+    public String getNoMeja() throws IOException {
+        periksaRecord();
+        lihat.position(awalIsi + POSISI_PELANGGAN);
+        lewatiTeks();
+        return pembacaTeks.teks();
+    }
+
+    /**
+     * Metode untuk mendapatkan jumlah baris item tanpa mendekode teks
+     */
+    public int getJumlahBaris() throws IOException {
+        periksaRecord();
+        lihat.position(awalIsi + POSISI_PELANGGAN);
+        lewatiTeks();
+        lewatiTeks();
+        return pembacaTeks.varint();
+    }
+
+    /**
+     * Metode untuk mendekode seluruh record saat ini
+     * @return Catatan pesanan lengkap
+     * @throws IOException jika record tidak valid
+     */
+    public LogPesanan.CatatanPesanan keCatatan() throws IOException {
+        periksaRecord();
+        ByteBuffer isi = segmen.duplicate();
+        isi.limit(awalIsi + panjangIsi).position(awalIsi);
+        return LogPesanan.CatatanPesanan.dekode(isi.slice().order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    private long totalKe(int indeks) {
+        periksaRecord();
+        return segmen.getLong(awalIsi + panjangIsi - UKURAN_TOTAL + indeks * 8);
+    }
+
+    private void lewatiTeks() throws IOException {
+        int panjang = pembacaTeks.varint();
+        lihat.position(lihat.position() + panjang);
+    }
+
+    private void periksaRecord() {
+        if (offsetRecord < 0) {
+            throw new IllegalStateException("Tidak ada record aktif; panggil berikutnya() dulu");
+        }
+    }
+}
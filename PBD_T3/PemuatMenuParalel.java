@@ -0,0 +1,272 @@
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Kelas PemuatMenuParalel untuk memuat file menu teks yang besar (misalnya katalog
+ * induk pemasok atau gabungan beberapa outlet) secara paralel.
+ *
+ * File dibagi menjadi potongan yang selalu berawal di awal baris, lalu diurai pada
+ * ForkJoinPool dalam dua tahap: tahap pertama hanya menghitung baris dan item valid
+ * setiap potongan, tahap kedua membuat item dengan blok ID yang sudah dicadangkan.
+ * Dengan begitu urutan item, ID item, dan nomor baris pada pesan kesalahan sama
+ * persis dengan pemuatan berurutan oleh PenguraiMenu.
+ *
+ * Indeks menu juga dibangun di pool yang sama: MenuRestoran membangun indeks setiap
+ * potongan item terpisah lalu menggabungkannya, sehingga yang tersisa berurutan hanya
+ * pemeriksaan ID, indeks atribut, dan penggabungan terakhir (lihat UkurPemuatMenuParalel).
+ */
+public class PemuatMenuParalel {
+    private static final int UKURAN_POTONGAN_MIN = 1024 * 1024;
+    private static final int UKURAN_POTONGAN_MAKS = 16 * 1024 * 1024;
+    private static final int UKURAN_JENDELA = 8 * 1024;
+
+    private final ForkJoinPool pool;
+    private final Charset charset;
+
+    /**
+     * Constructor untuk kelas PemuatMenuParalel dengan common pool
+     */
+    public PemuatMenuParalel() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor untuk kelas PemuatMenuParalel
+     * @param pool ForkJoinPool yang menjalankan penguraian
+     */
+    public PemuatMenuParalel(ForkJoinPool pool) {
+        this.pool = pool;
+        this.charset = Charset.defaultCharset(); // Sama dengan FileReader pada pemuatan berurutan
+    }
+
+    /**
+     * Metode untuk memuat file menu ke MenuRestoran
+     * @param namaFile Nama file menu teks
+     * @param tujuan MenuRestoran tujuan
+     * @param kesalahan List tujuan untuk pesan baris rusak ("Baris n: ..."), sesuai urutan file
+     * @return Jumlah item yang ditambahkan
+     * @throws IOException jika file tidak dapat dibaca
+     */
+    public int muatKe(String namaFile, MenuRestoran tujuan, List<String> kesalahan) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(namaFile), StandardOpenOption.READ)) {
+            JendelaByte jendela = new JendelaByte(channel);
+            long[] header = cariAwalData(jendela);
+            if (header == null) {
+                return 0; // Tidak ada garis '=' sehingga tidak ada bagian data
+            }
+            List<long[]> potongan = bagiPotongan(jendela, header[0]);
+            int jumlahPotongan = potongan.size();
+
+            // Tahap 1: hitung baris dan item valid setiap potongan
+            List<Callable<int[]>> tugasHitung = new ArrayList<>(jumlahPotongan);
+            for (long[] batas : potongan) {
+                tugasHitung.add(() -> {
+                    PenguraiMenu pengurai = new PenguraiMenu();
+                    int jumlahItem = pengurai.hitungPotongan(bukaPotongan(channel, batas));
+                    return new int[] {jumlahItem, pengurai.getJumlahBaris()};
+                });
+            }
+            List<int[]> hitungan = jalankan(tugasHitung);
+
+            int totalItem = 0;
+            for (int[] h : hitungan) {
+                totalItem = Math.addExact(totalItem, h[0]);
+            }
+            int idAwal = MenuItem.cadangkanId(totalItem);
+
+            // Tahap 2: buat item, setiap potongan memakai blok ID dan nomor baris miliknya
+            List<Callable<HasilPotongan>> tugasUrai = new ArrayList<>(jumlahPotongan);
+            int idPotongan = idAwal;
+            long nomorBaris = header[1];
+            for (int i = 0; i < jumlahPotongan; i++) {
+                long[] batas = potongan.get(i);
+                int idMulai = idPotongan;
+                int barisMulai = Math.toIntExact(nomorBaris);
+                int perkiraanItem = hitungan.get(i)[0];
+                tugasUrai.add(() -> {
+                    HasilPotongan hasil = new HasilPotongan(perkiraanItem);
+                    MenuItem.pakaiIdCadangan(idMulai);
+                    try {
+                        new PenguraiMenu().uraiPotongan(bukaPotongan(channel, batas), barisMulai,
+                            hasil.daftarItem, hasil.kesalahan);
+                    } finally {
+                        MenuItem.lepasIdCadangan();
+                    }
+                    return hasil;
+                });
+                idPotongan += perkiraanItem;
+                nomorBaris += hitungan.get(i)[1];
+            }
+
+            List<MenuItem> semuaItem = new ArrayList<>(totalItem);
+            for (HasilPotongan hasil : jalankan(tugasUrai)) {
+                semuaItem.addAll(hasil.daftarItem);
+                kesalahan.addAll(hasil.kesalahan);
+            }
+            return tujuan.tambahSemuaMenuItem(semuaItem, pool);
+        }
+    }
+
+    /**
+     * Mencari awal bagian data: baris setelah baris yang dilewati sesudah garis '=' pertama
+     * @return {posisi byte, jumlah baris header}, atau null jika tidak ada garis '='
+     */
+    private static long[] cariAwalData(JendelaByte jendela) throws IOException {
+        long posisi = 0;
+        long baris = 0;
+        long ukuran = jendela.ukuran;
+        while (posisi < ukuran) {
+            boolean garis = jendela.byteDi(posisi) == '=';
+            posisi = jendela.awalBarisBerikutnya(posisi);
+            baris++;
+            if (garis) {
+                if (posisi < ukuran) {
+                    posisi = jendela.awalBarisBerikutnya(posisi); // Baris sesudah garis dilewati
+                    baris++;
+                }
+                return new long[] {posisi, baris};
+            }
+        }
+        return null;
+    }
+
+    private List<long[]> bagiPotongan(JendelaByte jendela, long awalData) throws IOException {
+        long ukuran = jendela.ukuran;
+        long target = (ukuran - awalData) / (pool.getParallelism() * 4L);
+        long ukuranPotongan = Math.max(UKURAN_POTONGAN_MIN, Math.min(UKURAN_POTONGAN_MAKS, target));
+
+        List<long[]> potongan = new ArrayList<>();
+        long awal = awalData;
+        while (awal < ukuran) {
+            long akhir = awal + ukuranPotongan >= ukuran
+                ? ukuran : jendela.awalBarisBerikutnya(awal + ukuranPotongan - 1);
+            // Garis '=' melewati baris sesudahnya, jadi keduanya harus berada di potongan yang sama
+            while (akhir < ukuran && jendela.byteDi(jendela.awalBarisSebelum(akhir, awal)) == '=') {
+                akhir = jendela.awalBarisBerikutnya(akhir);
+            }
+            potongan.add(new long[] {awal, akhir});
+            awal = akhir;
+        }
+        return potongan;
+    }
+
+    private Reader bukaPotongan(FileChannel channel, long[] batas) throws IOException {
+        byte[] isi = new byte[Math.toIntExact(batas[1] - batas[0])];
+        ByteBuffer buffer = ByteBuffer.wrap(isi);
+        long posisi = batas[0];
+        while (buffer.hasRemaining()) {
+            int dibaca = channel.read(buffer, posisi); // Baca posisional, aman dipakai bersama
+            if (dibaca < 0) {
+                throw new EOFException("File menu terpotong saat dibaca");
+            }
+            posisi += dibaca;
+        }
+        return new InputStreamReader(new ByteArrayInputStream(isi), charset);
+    }
+
+    private <T> List<T> jalankan(List<Callable<T>> daftarTugas) throws IOException {
+        List<T> hasil = new ArrayList<>(daftarTugas.size());
+        try {
+            for (Future<T> future : pool.invokeAll(daftarTugas)) {
+                hasil.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Pemuatan menu dihentikan");
+        } catch (ExecutionException e) {
+            Throwable sebab = e.getCause();
+            if (sebab instanceof IOException) {
+                throw (IOException) sebab;
+            }
+            if (sebab instanceof RuntimeException) {
+                throw (RuntimeException) sebab;
+            }
+            throw new IOException("Gagal memuat potongan menu: " + sebab.getMessage(), sebab);
+        }
+        return hasil;
+    }
+
+    /**
+     * Inner class HasilPotongan untuk item dan kesalahan satu potongan
+     */
+    private static class HasilPotongan {
+        private final List<MenuItem> daftarItem;
+        private final List<String> kesalahan = new ArrayList<>();
+
+        HasilPotongan(int perkiraanItem) {
+            this.daftarItem = new ArrayList<>(perkiraanItem);
+        }
+    }
+
+    /**
+     * Inner class JendelaByte untuk membaca byte di sekitar batas potongan
+     * tanpa memuat seluruh file
+     */
+    private static class JendelaByte {
+        private final FileChannel channel;
+        private final long ukuran;
+        private final ByteBuffer buffer = ByteBuffer.allocate(UKURAN_JENDELA);
+        private long posisiJendela = -1;
+
+        JendelaByte(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.ukuran = channel.size();
+        }
+
+        byte byteDi(long posisi) throws IOException {
+            if (posisiJendela < 0 || posisi < posisiJendela || posisi >= posisiJendela + buffer.limit()) {
+                // Jendela diletakkan di sekitar posisi agar pemindaian maju maupun mundur efisien
+                long awalJendela = Math.max(0, posisi - UKURAN_JENDELA / 2);
+                buffer.clear();
+                long p = awalJendela;
+                while (buffer.hasRemaining() && p < ukuran) {
+                    int dibaca = channel.read(buffer, p);
+                    if (dibaca < 0) {
+                        break;
+                    }
+                    p += dibaca;
+                }
+                buffer.flip();
+                posisiJendela = awalJendela;
+                if (posisi >= posisiJendela + buffer.limit()) {
+                    throw new EOFException("Posisi " + posisi + " melewati akhir file menu");
+                }
+            }
+            return buffer.get((int) (posisi - posisiJendela));
+        }
+
+        /** Posisi awal baris pertama sesudah posisi (atau ukuran file) */
+        long awalBarisBerikutnya(long posisi) throws IOException {
+            for (long p = posisi; p < ukuran; p++) {
+                if (byteDi(p) == '\n') {
+                    return p + 1;
+                }
+            }
+            return ukuran;
+        }
+
+        /** Posisi awal baris yang berakhir tepat sebelum awalBaris, tidak kurang dari batasBawah */
+        long awalBarisSebelum(long awalBaris, long batasBawah) throws IOException {
+            long p = awalBaris - 1; // '\n' penutup baris sebelumnya
+            while (p > batasBawah && byteDi(p - 1) != '\n') {
+                p--;
+            }
+            return p;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * Kelas PencetakStruk untuk merender detail pesanan dan struk pembayaran.
+ * Setiap thread memakai satu instance (lihat untukThreadIni) yang menyimpan
+ * buffer, formatter tanggal dan garis pemisah untuk dipakai ulang, sehingga
+ * satu struk dirender ke satu buffer lalu ditulis dengan satu kali penulisan.
+ * Instance tidak boleh dipakai bersama antar thread.
+ */
+public final class PencetakStruk {
+    private static final ThreadLocal<PencetakStruk> PER_THREAD = ThreadLocal.withInitial(PencetakStruk::new);
+
+    private static final String BARIS_BARU = System.lineSeparator();
+    private static final int LEBAR_DETAIL = 60;
+    private static final int LEBAR_STRUK = 65;
+    private static final int LEBAR_LABEL = 45;
+
+    private final StringBuilder buffer;
+    private final DateTimeFormatter formatTanggal;
+    private final String garisDetail;
+    private final String garisTipisDetail;
+    private final String garisStruk;
+    private final String garisTipisStruk;
+
+    // Dipakai ulang saat menulis ke channel
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bufferByte;
+
+    /**
+     * Constructor untuk kelas PencetakStruk
+     */
+    public PencetakStruk() {
+        this.buffer = new StringBuilder(4096);
+        this.formatTanggal = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+        this.garisDetail = "=".repeat(LEBAR_DETAIL);
+        this.garisTipisDetail = "-".repeat(LEBAR_DETAIL);
+        this.garisStruk = "=".repeat(LEBAR_STRUK);
+        this.garisTipisStruk = "-".repeat(LEBAR_STRUK);
+        this.encoder = StandardCharsets.UTF_8.newEncoder();
+        this.bufferByte = ByteBuffer.allocate(8192);
+    }
+
+    /**
+     * Metode untuk mendapatkan PencetakStruk milik thread saat ini
+     * @return Instance yang terikat pada thread pemanggil
+     */
+    public static PencetakStruk untukThreadIni() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Metode untuk merender detail pesanan ke buffer internal
+     * @param pesanan Pesanan yang dirender
+     * @return Isi buffer; hanya valid sampai render berikutnya pada instance ini
+     */
+    public CharSequence renderDetail(Pesanan pesanan) {
+        StringBuilder sb = buffer;
+        sb.setLength(0);
+
+        sb.append(BARIS_BARU).append(garisDetail).append(BARIS_BARU);
+        sb.append("                    DETAIL PESANAN").append(BARIS_BARU);
+        sb.append(garisDetail).append(BARIS_BARU);
+        sb.append("ID Pesanan: ").append(pesanan.getIdPesanan()).append(BARIS_BARU);
+        sb.append("Nama Pelanggan: ").append(pesanan.getNamaPelanggan()).append(BARIS_BARU);
+        sb.append("Nomor Meja: ").append(pesanan.getNoMeja()).append(BARIS_BARU);
+        sb.append("Tanggal: ");
+        tulisTanggal(pesanan.getTanggalPesanan());
+        sb.append(BARIS_BARU);
+        sb.append(garisTipisDetail).append(BARIS_BARU);
+        sb.append("ITEM PESANAN:").append(BARIS_BARU);
+
+        if (pesanan.isPesananKosong()) {
+            sb.append("  Belum ada item yang dipesan").append(BARIS_BARU);
+        } else {
+            for (Pesanan.ItemPesanan item : pesanan.barisPesanan()) {
+                sb.append("  ");
+                tulisItem(item);
+                sb.append(BARIS_BARU);
+            }
+        }
+
+        sb.append(garisTipisDetail).append(BARIS_BARU);
+        tulisTotalDetail("Subtotal", pesanan.hitungSubtotalSen());
+        int awal = sb.length();
+        sb.append("Pajak (").append(pesanan.getPajak() * 100).append("%)");
+        tulisTotalDetail(awal, pesanan.hitungPajakSen());
+        tulisTotalDetail("Biaya Pelayanan", pesanan.getBiayaPelayananSen());
+        sb.append(garisDetail).append(BARIS_BARU);
+        tulisTotalDetail("TOTAL AKHIR", pesanan.hitungTotalAkhirSen());
+        sb.append(garisDetail).append(BARIS_BARU);
+        return sb;
+    }
+
+    /**
+     * Metode untuk merender struk pembayaran ke buffer internal.
+     * Diskon terbaik diterapkan lebih dulu, lalu promosi dari total setelah diskon.
+     * @param pesanan Pesanan yang dirender
+     * @param mesinDiskon Mesin diskon tersusun
+     * @param mesinPromo Mesin promo tersusun
+     * @return Isi buffer; hanya valid sampai render berikutnya pada instance ini
+     */
+    public CharSequence renderStruk(Pesanan pesanan, MesinDiskon mesinDiskon, MesinPromo mesinPromo) {
+        StringBuilder sb = buffer;
+        sb.setLength(0);
+
+        long subtotal = pesanan.hitungSubtotalSen();
+        long pajak = pesanan.hitungPajakSen();
+        long totalSebelumDiskon = subtotal + pajak + pesanan.getBiayaPelayananSen();
+
+        // Diskon dengan potongan terbesar yang berlaku
+        Diskon diskonBerlaku = mesinDiskon.cariDiskonTerbaik(totalSebelumDiskon, pesanan.getPembulatan());
+        // Dasar promosi sama dengan Pesanan.hitungPromo(mesinDiskon, mesinPromo)
+        long totalSetelahDiskon = diskonBerlaku == null ? totalSebelumDiskon
+            : pesanan.hitungTotalSetelahDiskonSen(mesinDiskon);
+        long totalDiskon = totalSebelumDiskon - totalSetelahDiskon;
+
+        sb.append(BARIS_BARU).append(garisStruk).append(BARIS_BARU);
+        sb.append("                       STRUK PEMBAYARAN").append(BARIS_BARU);
+        sb.append(garisStruk).append(BARIS_BARU);
+        sb.append("RESTORAN: ").append(pesanan.getNamaPelanggan()).append(BARIS_BARU);
+        sb.append("ID Pesanan: #").append(pesanan.getIdPesanan()).append(BARIS_BARU);
+        sb.append("Tanggal: ");
+        tulisTanggal(pesanan.getTanggalPesanan());
+        sb.append(BARIS_BARU);
+        sb.append("Meja: ").append(pesanan.getNoMeja()).append(BARIS_BARU);
+        sb.append(garisTipisStruk).append(BARIS_BARU);
+        sb.append("ITEM YANG DIPESAN:").append(BARIS_BARU);
+
+        // Baris dirender dan dimasukkan ke evaluasi promo dalam lintasan yang sama
+        MesinPromo.Evaluasi evaluasiPromo = mesinPromo.mulai();
+        for (Pesanan.ItemPesanan item : pesanan.barisPesanan()) {
+            sb.append("  ");
+            int awal = sb.length();
+            sb.append(item.getMenuItem().getNama());
+            isiSpasi(awal, 35);
+            sb.append(' ');
+            awal = sb.length();
+            sb.append(item.getJumlah());
+            rataKanan(awal, 2);
+            sb.append(" x ");
+            tulisRupiahKanan(item.getHargaSatuanSen(), "Rp");
+            sb.append(" = ");
+            tulisRupiahKanan(item.getTotalHargaSen(), "Rp");
+            sb.append(BARIS_BARU);
+            evaluasiPromo.tambah(item.getMenuItem().getNama(), item.getMenuItem().getKategori(),
+                item.getHargaSatuanSen(), item.getJumlah());
+        }
+        MesinPromo.HasilPromo promo = evaluasiPromo.selesai(totalSetelahDiskon);
+        long totalAkhir = totalSetelahDiskon - promo.getTotalPotonganSen();
+
+        sb.append(garisTipisStruk).append(BARIS_BARU);
+        tulisTotalStruk("SUBTOTAL", subtotal, "Rp");
+        int awal = sb.length();
+        sb.append("PAJAK (").append(pesanan.getPajak() * 100).append("%)");
+        tulisTotalStruk(awal, pajak, "Rp");
+        tulisTotalStruk("BIAYA PELAYANAN", pesanan.getBiayaPelayananSen(), "Rp");
+
+        if (diskonBerlaku != null) {
+            awal = sb.length();
+            sb.append("DISKON (").append(diskonBerlaku.getPesanDiskon()).append(')');
+            tulisTotalStruk(awal, totalDiskon, "-Rp");
+        }
+        for (int i = 0; i < promo.getJumlahPotongan(); i++) {
+            awal = sb.length();
+            sb.append("PROMO (").append(promo.getNamaPotongan(i)).append(')');
+            tulisTotalStruk(awal, promo.getPotonganSen(i), "-Rp");
+        }
+
+        sb.append(garisStruk).append(BARIS_BARU);
+        tulisTotalStruk("TOTAL PEMBAYARAN", totalAkhir, "Rp");
+        sb.append(garisStruk).append(BARIS_BARU);
+
+        // Info tambahan
+        if (diskonBerlaku != null) {
+            sb.append(BARIS_BARU).append("INFO DISKON: ").append(diskonBerlaku.getPesanDiskon()).append(BARIS_BARU);
+        }
+        for (MesinPromo.Bonus bonus : promo.getBonus()) {
+            sb.append("BONUS: ").append(bonus.getJumlah()).append("x ").append(bonus.getNamaItem())
+                .append(" (").append(bonus.getNamaPromo()).append(')').append(BARIS_BARU);
+        }
+        return sb;
+    }
+
+    /**
+     * Metode untuk menulis isi buffer ke Appendable (PrintStream, Writer, StringBuilder)
+     * @param tujuan Tujuan penulisan
+     * @throws IOException jika penulisan gagal
+     */
+    public void tulisKe(Appendable tujuan) throws IOException {
+        tujuan.append(buffer);
+    }
+
+    /**
+     * Metode untuk menulis isi buffer ke channel sebagai UTF-8
+     * @param channel Channel tujuan (file, socket, pipe)
+     * @throws IOException jika penulisan gagal
+     */
+    public void tulisKe(WritableByteChannel channel) throws IOException {
+        CharBuffer sumber = CharBuffer.wrap(buffer);
+        encoder.reset();
+        while (true) {
+            CoderResult hasil = encoder.encode(sumber, bufferByte, true);
+            if (hasil.isUnderflow()) {
+                hasil = encoder.flush(bufferByte);
+            }
+            if (hasil.isError()) {
+                hasil.throwException();
+            }
+            kosongkanKe(channel);
+            if (hasil.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    private void kosongkanKe(WritableByteChannel channel) throws IOException {
+        bufferByte.flip();
+        while (bufferByte.hasRemaining()) {
+            channel.write(bufferByte);
+        }
+        bufferByte.clear();
+    }
+
+    private void tulisTanggal(Date tanggal) {
+        formatTanggal.formatTo(tanggal.toInstant(), buffer);
+    }
+
+    // Sama dengan ItemPesanan.toString: "nama - n x Rp0.00 = Rp0.00 (catatan)"
+    private void tulisItem(Pesanan.ItemPesanan item) {
+        StringBuilder sb = buffer;
+        sb.append(item.getMenuItem().getNama()).append(" - ").append(item.getJumlah()).append(" x Rp");
+        tulisRupiahPolos(item.getHargaSatuanSen());
+        sb.append(" = Rp");
+        tulisRupiahPolos(item.getTotalHargaSen());
+        sb.append(' ');
+        if (!item.getCatatan().isEmpty()) {
+            sb.append('(').append(item.getCatatan()).append(')');
+        }
+    }
+
+    // Format "%-45s: Rp %s"
+    private void tulisTotalDetail(String label, long sen) {
+        tulisTotalDetail(tambahLabel(label), sen);
+    }
+
+    private void tulisTotalDetail(int awalLabel, long sen) {
+        isiSpasi(awalLabel, LEBAR_LABEL);
+        buffer.append(": Rp ");
+        Uang.formatKe(buffer, sen);
+        buffer.append(BARIS_BARU);
+    }
+
+    // Format "%-45s: %9s" dengan awalan Rp atau -Rp
+    private void tulisTotalStruk(String label, long sen, String awalan) {
+        tulisTotalStruk(tambahLabel(label), sen, awalan);
+    }
+
+    private void tulisTotalStruk(int awalLabel, long sen, String awalan) {
+        isiSpasi(awalLabel, LEBAR_LABEL);
+        buffer.append(": ");
+        tulisRupiahKanan(sen, awalan);
+        buffer.append(BARIS_BARU);
+    }
+
+    private int tambahLabel(String label) {
+        int awal = buffer.length();
+        buffer.append(label);
+        return awal;
+    }
+
+    // Awalan dan nilai rata kanan selebar 9 kolom seperti %9s
+    private void tulisRupiahKanan(long sen, String awalan) {
+        int awal = buffer.length();
+        buffer.append(awalan);
+        Uang.formatKe(buffer, sen);
+        rataKanan(awal, 9);
+    }
+
+    // Format %.2f tanpa pemisah ribuan
+    private void tulisRupiahPolos(long sen) {
+        if (sen < 0) {
+            buffer.append('-');
+            sen = -sen;
+        }
+        long pecahan = sen % Uang.SEN_PER_RUPIAH;
+        buffer.append(sen / Uang.SEN_PER_RUPIAH).append('.')
+            .append((char) ('0' + pecahan / 10)).append((char) ('0' + pecahan % 10));
+    }
+
+    // Tambah spasi di kanan sampai teks sejak posisi awal selebar lebar kolom
+    private void isiSpasi(int awal, int lebar) {
+        for (int i = buffer.length() - awal; i < lebar; i++) {
+            buffer.append(' ');
+        }
+    }
+
+    // Geser teks sejak posisi awal ke kanan sampai selebar lebar kolom
+    private void rataKanan(int awal, int lebar) {
+        int kurang = lebar - (buffer.length() - awal);
+        for (int i = 0; i < kurang; i++) {
+            buffer.insert(awal, ' ');
+        }
+    }
+}
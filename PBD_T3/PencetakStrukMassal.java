@@ -0,0 +1,130 @@
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kelas PencetakStrukMassal untuk mencetak ulang struk banyak pesanan sekaligus
+ * (misalnya untuk audit). Struk dirender paralel oleh sejumlah pekerja tetap,
+ * tetapi ditulis ke tujuan sesuai urutan pesanan. Jumlah struk yang sedang
+ * dirender atau menunggu ditulis dibatasi, sehingga ribuan struk dapat dialirkan
+ * tanpa menyimpan semuanya di memori.
+ *
+ * Pesanan tidak boleh diubah selama dicetak.
+ */
+public class PencetakStrukMassal implements AutoCloseable {
+    private static final AtomicInteger NOMOR_POOL = new AtomicInteger(1);
+
+    private final ExecutorService pekerja;
+    private final int batasAntrean;
+    private final MesinDiskon mesinDiskon;
+    private final MesinPromo mesinPromo;
+
+    /**
+     * Constructor untuk kelas PencetakStrukMassal
+     * @param jumlahPekerja Jumlah thread perender
+     * @param mesinDiskon Mesin diskon yang dipakai semua struk
+     * @param mesinPromo Mesin promo yang dipakai semua struk
+     */
+    public PencetakStrukMassal(int jumlahPekerja, MesinDiskon mesinDiskon, MesinPromo mesinPromo) {
+        if (jumlahPekerja <= 0) {
+            throw new IllegalArgumentException("Jumlah pekerja harus > 0");
+        }
+        this.mesinDiskon = mesinDiskon;
+        this.mesinPromo = mesinPromo;
+        this.batasAntrean = jumlahPekerja * 4;
+
+        int nomorPool = NOMOR_POOL.getAndIncrement();
+        AtomicInteger nomorThread = new AtomicInteger(1);
+        this.pekerja = Executors.newFixedThreadPool(jumlahPekerja, tugas -> {
+            Thread t = new Thread(tugas, "pencetak-struk-" + nomorPool + "-" + nomorThread.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Constructor dengan jumlah pekerja sesuai jumlah prosesor
+     * @param mesinDiskon Mesin diskon yang dipakai semua struk
+     */
+    public PencetakStrukMassal(MesinDiskon mesinDiskon) {
+        this(Runtime.getRuntime().availableProcessors(), mesinDiskon, MesinPromo.KOSONG);
+    }
+
+    /**
+     * Metode untuk mencetak struk semua pesanan ke tujuan, sesuai urutan
+     * @param daftarPesanan Pesanan yang dicetak (boleh berupa aliran yang dibaca bertahap)
+     * @param tujuan Tujuan penulisan (Writer, PrintStream, StringBuilder)
+     * @return Jumlah struk yang dicetak
+     * @throws IOException jika penulisan atau perenderan gagal
+     */
+    public int cetakKe(Iterable<Pesanan> daftarPesanan, Appendable tujuan) throws IOException {
+        ArrayDeque<Future<String>> antrean = new ArrayDeque<>(batasAntrean);
+        int jumlah = 0;
+        try {
+            for (Pesanan pesanan : daftarPesanan) {
+                if (antrean.size() == batasAntrean) {
+                    tujuan.append(tunggu(antrean.poll()));
+                    jumlah++;
+                }
+                antrean.add(pekerja.submit(() ->
+                    PencetakStruk.untukThreadIni().renderStruk(pesanan, mesinDiskon, mesinPromo).toString()));
+            }
+            while (!antrean.isEmpty()) {
+                tujuan.append(tunggu(antrean.poll()));
+                jumlah++;
+            }
+            return jumlah;
+        } finally {
+            // Jika gagal di tengah jalan, batalkan struk yang belum ditulis
+            for (Future<String> sisa : antrean) {
+                sisa.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Metode untuk mencetak struk semua pesanan ke file teks (UTF-8)
+     * @param daftarPesanan Pesanan yang dicetak
+     * @param namaFile Nama file tujuan (ditimpa jika sudah ada)
+     * @return Jumlah struk yang dicetak
+     * @throws IOException jika terjadi error saat menulis file
+     */
+    public int cetakKeFile(Iterable<Pesanan> daftarPesanan, String namaFile) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(namaFile), StandardCharsets.UTF_8), 64 * 1024)) {
+            return cetakKe(daftarPesanan, writer);
+        }
+    }
+
+    private static String tunggu(Future<String> hasil) throws IOException {
+        try {
+            return hasil.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Pencetakan struk dihentikan");
+        } catch (ExecutionException e) {
+            Throwable sebab = e.getCause();
+            if (sebab instanceof RuntimeException) {
+                throw (RuntimeException) sebab;
+            }
+            throw new IOException("Gagal merender struk: " + sebab.getMessage(), sebab);
+        }
+    }
+
+    /**
+     * Metode untuk menghentikan semua pekerja
+     */
+    @Override
+    public void close() {
+        pekerja.shutdownNow();
+    }
+}
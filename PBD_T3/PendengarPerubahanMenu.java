@@ -0,0 +1,41 @@
+import java.util.Collection;
+
+/**
+ * Interface PendengarPerubahanMenu untuk menerima pemberitahuan setiap kali isi
+ * MenuRestoran berubah (misalnya JurnalMenu yang mencatat perubahan ke disk).
+ *
+ * Semua metode dipanggil di dalam lock penulis MenuRestoran, setelah perubahan
+ * selesai diterapkan. Posisi adalah indeks item pada daftar menu.
+ */
+public interface PendengarPerubahanMenu {
+    /**
+     * Dipanggil setelah item ditambahkan di akhir daftar menu
+     * @param daftarItem Item yang ditambahkan, sesuai urutan
+     */
+    void menuDitambah(Collection<? extends MenuItem> daftarItem);
+
+    /**
+     * Dipanggil setelah item dihapus
+     * @param posisi Posisi item sebelum dihapus
+     * @param item Item yang dihapus
+     */
+    void menuDihapus(int posisi, MenuItem item);
+
+    /**
+     * Dipanggil setelah nama, harga, kategori atau atribut item berubah
+     * @param posisi Posisi item
+     * @param item Item yang berubah
+     */
+    void menuBerubah(int posisi, MenuItem item);
+
+    /**
+     * Dipanggil setelah urutan atau seluruh isi menu berubah (pengurutan, clearMenu)
+     */
+    void menuDiganti();
+
+    /**
+     * Dipanggil setelah seluruh menu disimpan ke file dengan generasi tertentu
+     * @param generasi Generasi file menu yang baru disimpan
+     */
+    void menuDisimpan(long generasi);
+}
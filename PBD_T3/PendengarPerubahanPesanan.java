@@ -0,0 +1,51 @@
+/**
+ * Interface PendengarPerubahanPesanan untuk menerima pemberitahuan setiap kali isi
+ * Pesanan yang masih berjalan berubah (misalnya JurnalPesanan yang mencatat
+ * perubahan ke disk agar pesanan dapat dipulihkan setelah aplikasi mati mendadak).
+ *
+ * Semua metode dipanggil setelah perubahan selesai diterapkan dan total berjalan
+ * sudah diperbarui. Baris dikenali dari nomor urutnya di dalam pesanan.
+ */
+public interface PendengarPerubahanPesanan {
+    /**
+     * Dipanggil setelah nama pelanggan, nomor meja, pajak, biaya pelayanan
+     * atau mode pembulatan berubah
+     * @param pesanan Pesanan yang berubah
+     */
+    void infoBerubah(Pesanan pesanan);
+
+    /**
+     * Dipanggil setelah baris baru ditambahkan
+     * @param pesanan Pesanan yang berubah
+     * @param item Baris yang ditambahkan
+     */
+    void barisDitambah(Pesanan pesanan, Pesanan.ItemPesanan item);
+
+    /**
+     * Dipanggil setelah jumlah sebuah baris berubah
+     * @param pesanan Pesanan yang berubah
+     * @param item Baris yang jumlahnya berubah
+     */
+    void jumlahBerubah(Pesanan pesanan, Pesanan.ItemPesanan item);
+
+    /**
+     * Dipanggil setelah catatan sebuah baris berubah tanpa digabung ke baris lain
+     * @param pesanan Pesanan yang berubah
+     * @param item Baris yang catatannya berubah
+     */
+    void catatanBerubah(Pesanan pesanan, Pesanan.ItemPesanan item);
+
+    /**
+     * Dipanggil setelah baris dihapus atau digabung ke baris lain
+     * (penggabungan diikuti jumlahBerubah untuk baris tujuannya)
+     * @param pesanan Pesanan yang berubah
+     * @param item Baris yang dihapus
+     */
+    void barisDihapus(Pesanan pesanan, Pesanan.ItemPesanan item);
+
+    /**
+     * Dipanggil setelah semua baris pesanan dikosongkan
+     * @param pesanan Pesanan yang berubah
+     */
+    void pesananDikosongkan(Pesanan pesanan);
+}
@@ -0,0 +1,399 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kelas PenguraiMenu untuk mengurai file menu teks (format toFileString, dipisah '|').
+ * Isi file dibaca ke buffer char yang dipakai ulang, akhir baris dan batas field
+ * dicari dalam satu lintasan dan dicatat sebagai offset, lalu angka dan boolean diurai
+ * langsung dari buffer tanpa split, substring, Double.parseDouble maupun
+ * Boolean.parseBoolean. Teks atribut yang berulang (jenis, ukuran, kepedasan, syarat
+ * diskon) diambil dari cache, sehingga satu-satunya String baru per baris adalah nama.
+ *
+ * Baris yang rusak tidak diabaikan diam-diam: pesannya dicatat beserta nomor baris.
+ * Satu instance tidak boleh dipakai bersama antar thread.
+ */
+public final class PenguraiMenu {
+    private static final char PEMISAH = '|';
+    private static final int MAKS_FIELD = 16;
+    private static final int UKURAN_CACHE = 256; // Harus pangkat dua
+
+    private char[] buffer;
+    // Posisi awal setiap field dan posisi akhir baris di field terakhir + 1
+    private final int[] awalField;
+    private int jumlahField;
+    private final String[] cacheTeks;
+    // Mode hitung: baris divalidasi penuh tetapi objek menu tidak dibuat
+    private boolean hanyaPeriksa;
+    private int jumlahBaris;
+
+    /**
+     * Constructor untuk kelas PenguraiMenu
+     */
+    public PenguraiMenu() {
+        this.buffer = new char[64 * 1024];
+        this.awalField = new int[MAKS_FIELD + 1];
+        this.cacheTeks = new String[UKURAN_CACHE];
+    }
+
+    /**
+     * Metode untuk mengurai seluruh file menu. Seperti format simpanMenuKeFile,
+     * baris sebelum garis pertama yang diawali '=' adalah header, dan baris tepat
+     * setelah setiap garis '=' dilewati.
+     * @param reader Sumber teks
+     * @param hasil List tujuan untuk item yang berhasil diurai
+     * @param kesalahan List tujuan untuk pesan baris rusak ("Baris n: ...")
+     * @return Jumlah item yang berhasil diurai
+     * @throws IOException jika pembacaan gagal
+     */
+    public int urai(Reader reader, List<MenuItem> hasil, List<String> kesalahan) throws IOException {
+        hanyaPeriksa = false;
+        return urai(reader, 0, false, hasil, kesalahan);
+    }
+
+    /**
+     * Metode untuk mengurai satu potongan file yang sudah berada di bagian data
+     * (dipakai PemuatMenuParalel)
+     * @param reader Isi potongan, diawali awal baris
+     * @param nomorBarisAwal Jumlah baris file sebelum potongan ini
+     * @param hasil List tujuan untuk item yang berhasil diurai
+     * @param kesalahan List tujuan untuk pesan baris rusak
+     * @return Jumlah item yang berhasil diurai
+     * @throws IOException jika pembacaan gagal
+     */
+    int uraiPotongan(Reader reader, int nomorBarisAwal, List<MenuItem> hasil, List<String> kesalahan)
+            throws IOException {
+        hanyaPeriksa = false;
+        return urai(reader, nomorBarisAwal, true, hasil, kesalahan);
+    }
+
+    /**
+     * Metode untuk menghitung item valid pada satu potongan tanpa membuat objeknya.
+     * Jumlah baris potongan dapat dibaca melalui getJumlahBaris.
+     * @param reader Isi potongan, diawali awal baris
+     * @return Jumlah item yang akan dihasilkan uraiPotongan
+     * @throws IOException jika pembacaan gagal
+     */
+    int hitungPotongan(Reader reader) throws IOException {
+        hanyaPeriksa = true;
+        try {
+            return urai(reader, 0, true, null, null);
+        } finally {
+            hanyaPeriksa = false;
+        }
+    }
+
+    /**
+     * Metode untuk mendapatkan jumlah baris yang dibaca pada penguraian terakhir
+     * @return Jumlah baris
+     */
+    int getJumlahBaris() {
+        return jumlahBaris;
+    }
+
+    private int urai(Reader reader, int nomorBarisAwal, boolean bagianData,
+                     List<MenuItem> hasil, List<String> kesalahan) throws IOException {
+        int terisi = 0;
+        int nomorBaris = nomorBarisAwal;
+        int jumlahItem = 0;
+        boolean lewatiBerikutnya = false;
+        boolean habis = false;
+
+        while (!habis) {
+            if (terisi == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2); // Baris lebih panjang dari buffer
+            }
+            int dibaca = reader.read(buffer, terisi, buffer.length - terisi);
+            if (dibaca < 0) {
+                habis = true;
+            } else {
+                terisi += dibaca;
+            }
+
+            int awal = 0;
+            while (true) {
+                int akhir = pindaiBaris(awal, terisi);
+                if (akhir < 0) {
+                    if (!habis || awal == terisi) {
+                        break;
+                    }
+                    akhir = terisi; // Baris terakhir tanpa newline
+                }
+                int batas = akhir < terisi && buffer[akhir] == '\n' ? akhir + 1 : akhir;
+                if (akhir > awal && buffer[akhir - 1] == '\r') {
+                    akhir--;
+                }
+                awalField[jumlahField] = akhir + 1; // Seolah ada pemisah setelah akhir baris
+                nomorBaris++;
+
+                if (lewatiBerikutnya) {
+                    lewatiBerikutnya = false;
+                } else if (akhir > awal && buffer[awal] == '=') {
+                    bagianData = true;
+                    lewatiBerikutnya = true;
+                } else if (bagianData && (jumlahField > 1 || !kosong(awal, akhir))) {
+                    try {
+                        MenuItem item = uraiBaris(awal, akhir, nomorBaris);
+                        jumlahItem++;
+                        if (hasil != null) {
+                            hasil.add(item);
+                        }
+                    } catch (IOException e) {
+                        if (kesalahan != null) {
+                            kesalahan.add(e.getMessage());
+                        }
+                    }
+                }
+                awal = batas;
+                if (awal >= terisi) {
+                    break;
+                }
+            }
+
+            // Geser sisa baris yang belum lengkap ke awal buffer
+            System.arraycopy(buffer, awal, buffer, 0, terisi - awal);
+            terisi -= awal;
+        }
+        jumlahBaris = nomorBaris - nomorBarisAwal;
+        return jumlahItem;
+    }
+
+    /**
+     * Metode untuk mengurai satu baris menu
+     * @param baris Teks baris tanpa newline
+     * @param nomorBaris Nomor baris untuk pesan kesalahan
+     * @return MenuItem hasil uraian
+     * @throws IOException jika baris tidak valid, pesan diawali "Baris n: "
+     */
+    public MenuItem uraiBaris(CharSequence baris, int nomorBaris) throws IOException {
+        int panjang = baris.length();
+        if (panjang > buffer.length) {
+            buffer = new char[panjang];
+        }
+        for (int i = 0; i < panjang; i++) {
+            buffer[i] = baris.charAt(i);
+        }
+        int akhir = pindaiBaris(0, panjang);
+        if (akhir < 0) {
+            akhir = panjang;
+        }
+        awalField[jumlahField] = akhir + 1;
+        return uraiBaris(0, akhir, nomorBaris);
+    }
+
+    private MenuItem uraiBaris(int awal, int akhir, int nomorBaris) throws IOException {
+        try {
+            return buatItem(awal, akhir, nomorBaris);
+        } catch (IllegalArgumentException e) {
+            // Nilai ditolak oleh constructor menu item (misalnya harga negatif)
+            throw galat(nomorBaris, e.getMessage(), awal, akhir);
+        }
+    }
+
+    // Field baris sudah dicatat oleh pindaiBaris
+    private MenuItem buatItem(int awal, int akhir, int nomorBaris) throws IOException {
+        // Seperti String.split: field kosong di akhir baris tidak dihitung
+        int n = jumlahField;
+        while (n > 0 && panjangField(n - 1) == 0) {
+            n--;
+        }
+        if (n < 4) {
+            throw galat(nomorBaris, "jumlah field kurang dari 4", awal, akhir);
+        }
+
+        long hargaSen = desimal(2, 2, nomorBaris, "harga");
+        double harga = Uang.keRupiah(hargaSen);
+
+        if (samaDengan(0, "Makanan")) {
+            if (hanyaPeriksa) {
+                return null;
+            }
+            String nama = teks(1);
+            if (n >= 6) {
+                return samakanKategori(new Makanan(nama, harga, teksBerulang(4), teksBerulang(5)));
+            }
+            return samakanKategori(new Makanan(nama, harga, "umum"));
+        }
+        if (samaDengan(0, "Minuman")) {
+            if (hanyaPeriksa) {
+                return null;
+            }
+            String nama = teks(1);
+            if (n >= 7) {
+                return samakanKategori(new Minuman(nama, harga, teksBerulang(4), teksBerulang(5), bool(6)));
+            }
+            return samakanKategori(new Minuman(nama, harga, "biasa"));
+        }
+        if (samaDengan(0, "Diskon")) {
+            if (n < 7) {
+                throw galat(nomorBaris, "diskon membutuhkan minimal 7 field", awal, akhir);
+            }
+            long basisPoin = desimal(4, 4, nomorBaris, "persentase diskon");
+            long minimalSen = desimal(5, 2, nomorBaris, "minimal pembelian");
+            if (hanyaPeriksa) {
+                return null;
+            }
+            Diskon diskon = new Diskon(teks(1), Uang.basisPoinKeRasio(basisPoin), Uang.keRupiah(minimalSen), teksBerulang(6));
+            if (n >= 8) {
+                diskon.setAktif(bool(7));
+            }
+            return samakanKategori(diskon);
+        }
+        throw galat(nomorBaris, "tipe menu tidak dikenal '" + teks(0) + "'", awal, akhir);
+    }
+
+    // Kategori kustom (misalnya hasil setKategori) disimpan di field ke-4, seperti pada KatalogBiner
+    private MenuItem samakanKategori(MenuItem item) {
+        if (panjangField(3) > 0 && !samaDengan(3, item.getKategori())) {
+            item.setKategori(teksBerulang(3));
+        }
+        return item;
+    }
+
+    /**
+     * Mencari akhir baris sekaligus mencatat posisi awal setiap field dalam satu kali
+     * lintasan, sehingga setiap char baris hanya dibaca sekali
+     * @return Posisi '\n', atau -1 jika baris belum lengkap di buffer
+     */
+    private int pindaiBaris(int dari, int sampai) {
+        char[] isi = buffer;
+        int[] posisi = awalField;
+        int n = 0;
+        posisi[n++] = dari;
+        for (int i = dari; i < sampai; i++) {
+            char c = isi[i];
+            if (c == '\n') {
+                jumlahField = n;
+                return i;
+            }
+            if (c == PEMISAH && n < MAKS_FIELD) {
+                posisi[n++] = i + 1;
+            }
+        }
+        jumlahField = n;
+        return -1;
+    }
+
+    private boolean kosong(int awal, int akhir) {
+        for (int i = awal; i < akhir; i++) {
+            if (!Character.isWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int panjangField(int i) {
+        return awalField[i + 1] - 1 - awalField[i];
+    }
+
+    private String teks(int i) {
+        return new String(buffer, awalField[i], panjangField(i));
+    }
+
+    // Teks yang sering berulang diambil dari cache berdasarkan isi char
+    private String teksBerulang(int i) {
+        int awal = awalField[i];
+        int panjang = panjangField(i);
+        int hash = 0;
+        for (int k = 0; k < panjang; k++) {
+            hash = 31 * hash + buffer[awal + k];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (UKURAN_CACHE - 1);
+        String tersimpan = cacheTeks[slot];
+        if (tersimpan != null && tersimpan.length() == panjang && samaIsi(awal, tersimpan)) {
+            return tersimpan;
+        }
+        String baru = new String(buffer, awal, panjang);
+        cacheTeks[slot] = baru;
+        return baru;
+    }
+
+    private boolean samaDengan(int i, String teks) {
+        return panjangField(i) == teks.length() && samaIsi(awalField[i], teks);
+    }
+
+    private boolean samaIsi(int awal, String teks) {
+        for (int k = 0; k < teks.length(); k++) {
+            if (buffer[awal + k] != teks.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sama dengan Boolean.parseBoolean: hanya "true" (tidak peka huruf besar/kecil)
+    private boolean bool(int i) {
+        int awal = awalField[i];
+        if (panjangField(i) != 4) {
+            return false;
+        }
+        return (buffer[awal] | 0x20) == 't' && (buffer[awal + 1] | 0x20) == 'r'
+            && (buffer[awal + 2] | 0x20) == 'u' && (buffer[awal + 3] | 0x20) == 'e';
+    }
+
+    /**
+     * Mengurai angka desimal [-]digit[.digit] menjadi bilangan fixed-point
+     * dengan skala digit di belakang koma, dibulatkan HALF_UP
+     */
+    private long desimal(int i, int skala, int nomorBaris, String namaField) throws IOException {
+        int awal = awalField[i];
+        int akhir = awal + panjangField(i);
+        while (awal < akhir && buffer[awal] == ' ') {
+            awal++;
+        }
+        while (akhir > awal && buffer[akhir - 1] == ' ') {
+            akhir--;
+        }
+        boolean negatif = awal < akhir && buffer[awal] == '-';
+        int p = negatif ? awal + 1 : awal;
+
+        long nilai = 0;
+        int digit = 0;
+        int desimalTerpakai = 0;
+        boolean setelahKoma = false;
+        boolean naik = false;
+        try {
+            for (; p < akhir; p++) {
+                char c = buffer[p];
+                if (c == '.' && !setelahKoma) {
+                    setelahKoma = true;
+                } else if (c >= '0' && c <= '9') {
+                    digit++;
+                    if (!setelahKoma) {
+                        nilai = Math.addExact(Math.multiplyExact(nilai, 10), c - '0');
+                    } else if (desimalTerpakai < skala) {
+                        nilai = Math.addExact(Math.multiplyExact(nilai, 10), c - '0');
+                        desimalTerpakai++;
+                    } else if (desimalTerpakai == skala) {
+                        naik = c >= '5'; // Digit pertama yang dibuang menentukan pembulatan
+                        desimalTerpakai++;
+                    }
+                } else {
+                    throw galatField(nomorBaris, namaField, i);
+                }
+            }
+            if (digit == 0) {
+                throw galatField(nomorBaris, namaField, i);
+            }
+            for (; desimalTerpakai < skala; desimalTerpakai++) {
+                nilai = Math.multiplyExact(nilai, 10);
+            }
+            if (naik) {
+                nilai = Math.addExact(nilai, 1);
+            }
+        } catch (ArithmeticException e) {
+            throw galatField(nomorBaris, namaField, i);
+        }
+        return negatif ? -nilai : nilai;
+    }
+
+    private IOException galatField(int nomorBaris, String namaField, int i) {
+        return new IOException("Baris " + nomorBaris + ": " + namaField + " tidak valid '" + teks(i) + "'");
+    }
+
+    private IOException galat(int nomorBaris, String pesan, int awal, int akhir) {
+        return new IOException("Baris " + nomorBaris + ": " + pesan + " - " + new String(buffer, awal, akhir - awal));
+    }
+}
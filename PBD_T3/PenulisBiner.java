@@ -0,0 +1,69 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Kelas PenulisBiner: buffer byte yang tumbuh otomatis, little-endian.
+ * Dipakai bersama oleh KatalogBiner dan LogPesanan.
+ */
+final class PenulisBiner {
+    byte[] data;
+    int panjang;
+
+    PenulisBiner(int kapasitas) {
+        this.data = new byte[Math.max(kapasitas, 64)];
+    }
+
+    void reset() {
+        panjang = 0;
+    }
+
+    void pastikan(int tambahan) {
+        if (panjang + tambahan > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, panjang + tambahan));
+        }
+    }
+
+    void int8(int v) {
+        pastikan(1);
+        data[panjang++] = (byte) v;
+    }
+
+    void int16(short v) {
+        int8(v);
+        int8(v >> 8);
+    }
+
+    void int32(int v) {
+        pastikan(4);
+        setInt32(panjang, v);
+        panjang += 4;
+    }
+
+    void setInt32(int posisi, int v) {
+        data[posisi] = (byte) v;
+        data[posisi + 1] = (byte) (v >> 8);
+        data[posisi + 2] = (byte) (v >> 16);
+        data[posisi + 3] = (byte) (v >> 24);
+    }
+
+    void int64(long v) {
+        int32((int) v);
+        int32((int) (v >>> 32));
+    }
+
+    void varint(int v) {
+        while ((v & ~0x7F) != 0) {
+            int8((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        int8(v);
+    }
+
+    void teks(String s) {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        varint(b.length);
+        pastikan(b.length);
+        System.arraycopy(b, 0, data, panjang, b.length);
+        panjang += b.length;
+    }
+}
@@ -1,7 +1,13 @@
 import java.util.ArrayList;
 import java.util.Date;
-import java.text.SimpleDateFormat;
-import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Kelas Pesanan untuk mencatat pesanan pelanggan.
@@ -9,14 +15,27 @@ import java.text.DecimalFormat;
  */
 public class Pesanan {
     // Atribut private untuk encapsulation
-    private ArrayList<ItemPesanan> itemPesanan;
+    // Urutan baris sesuai waktu dipesan; LinkedHashSet agar hapus baris O(1)
+    private LinkedHashSet<ItemPesanan> itemPesanan;
+    // Indeks baris per ID menu, lalu per catatan (urutan sisip = baris paling awal dulu)
+    private HashMap<Integer, LinkedHashMap<String, ItemPesanan>> indeksBaris;
+    private long urutanBerikutnya;
     private String namaPelanggan;
     private Date tanggalPesanan;
     private String noMeja;
-    private static int counterIdPesanan = 1;
+    private static final AtomicInteger counterIdPesanan = new AtomicInteger(1);
     private final int idPesanan;
-    private double pajak;
-    private double biayaPelayanan;
+    // Uang dalam sen dan rasio dalam basis poin (lihat kelas Uang)
+    private long pajakBasisPoin;
+    private long biayaPelayananSen;
+    private RoundingMode pembulatan;
+
+    // Total berjalan, diperbarui setiap kali item ditambah, diubah atau dihapus
+    private long subtotalSen;
+    private int totalJumlahItem;
+
+    // Diberi tahu setiap kali isi pesanan berubah (misalnya JurnalPesanan)
+    private PendengarPerubahanPesanan pendengar;
 
     // Konstanta untuk biaya
     public static final double PAJAK_DEFAULT = 0.10; // 10%
@@ -28,20 +47,36 @@ public class Pesanan {
     public static class ItemPesanan {
         private MenuItem menuItem;
         private int jumlah;
-        private double hargaSatuan;
+        private long hargaSatuanSen;
         private String catatan;
-
+        // Pesanan yang memuat item ini, diberi tahu saat jumlah atau catatan berubah
+        private Pesanan pesanan;
+        // Nomor urut baris dalam pesanan, untuk menjaga urutan indeks per menu
+        private long urutan;
+
+        /**
+         * Constructor ItemPesanan. Harga satuan dikunci saat item dipesan
+         * (sudah termasuk penyesuaian ukuran minuman).
+         */
         public ItemPesanan(MenuItem menuItem, int jumlah, String catatan) {
             this.menuItem = menuItem;
             this.jumlah = jumlah;
-            this.hargaSatuan = menuItem.getHarga();
-            this.catatan = catatan;
+            this.hargaSatuanSen = menuItem.getHargaEfektifSen();
+            this.catatan = catatan == null ? "" : catatan;
         }
 
         public ItemPesanan(MenuItem menuItem, int jumlah) {
             this(menuItem, jumlah, "");
         }
 
+        // Untuk pemulihan: harga satuan yang sudah dikunci dipakai apa adanya
+        ItemPesanan(MenuItem menuItem, int jumlah, long hargaSatuanSen, String catatan) {
+            this.menuItem = menuItem;
+            this.jumlah = jumlah;
+            this.hargaSatuanSen = hargaSatuanSen;
+            this.catatan = catatan == null ? "" : catatan;
+        }
+
         // Getter methods
         public MenuItem getMenuItem() {
             return menuItem;
@@ -52,7 +87,15 @@ public class Pesanan {
         }
 
         public double getHargaSatuan() {
-            return hargaSatuan;
+            return Uang.keRupiah(hargaSatuanSen);
+        }
+
+        public long getHargaSatuanSen() {
+            return hargaSatuanSen;
+        }
+
+        long getUrutan() {
+            return urutan;
         }
 
         public String getCatatan() {
@@ -60,24 +103,34 @@ public class Pesanan {
         }
 
         public double getTotalHarga() {
-            double harga = menuItem.getHarga();
-
-            // Jika minuman, hitung harga disesuaikan ukuran
-            if (menuItem instanceof Minuman) {
-                harga = ((Minuman) menuItem).getHargaDisesuaikan();
-            }
+            return Uang.keRupiah(getTotalHargaSen());
+        }
 
-            return harga * jumlah;
+        public long getTotalHargaSen() {
+            return Uang.kali(hargaSatuanSen, jumlah);
         }
 
         public void setJumlah(int jumlah) {
             if (jumlah > 0) {
+                int jumlahLama = this.jumlah;
                 this.jumlah = jumlah;
+                if (pesanan != null) {
+                    pesanan.jumlahItemBerubah(this, jumlahLama);
+                }
             }
         }
 
+        /**
+         * Metode untuk mengubah catatan. Jika pesanan sudah memiliki baris lain
+         * untuk menu dan catatan yang sama, jumlah item ini digabung ke baris tersebut.
+         * @param catatan Catatan baru
+         */
         public void setCatatan(String catatan) {
-            this.catatan = catatan;
+            String catatanLama = this.catatan;
+            this.catatan = catatan == null ? "" : catatan;
+            if (pesanan != null && !catatanLama.equals(this.catatan)) {
+                pesanan.catatanItemBerubah(this, catatanLama);
+            }
         }
 
         @Override
@@ -94,13 +147,28 @@ public class Pesanan {
      * @param noMeja Nomor meja
      */
     public Pesanan(String namaPelanggan, String noMeja) {
+        this(counterIdPesanan.getAndIncrement(), namaPelanggan, noMeja, new Date());
+    }
+
+    /**
+     * Constructor untuk memulihkan pesanan yang belum selesai (lihat JurnalPesanan).
+     * Penghitung ID dinaikkan agar pesanan baru tidak memakai ID yang sama.
+     * @param idPesanan ID pesanan semula
+     * @param namaPelanggan Nama pelanggan
+     * @param noMeja Nomor meja
+     * @param tanggalPesanan Waktu pesanan semula
+     */
+    Pesanan(int idPesanan, String namaPelanggan, String noMeja, Date tanggalPesanan) {
+        counterIdPesanan.accumulateAndGet(idPesanan + 1, Math::max);
         this.namaPelanggan = namaPelanggan;
         this.noMeja = noMeja;
-        this.itemPesanan = new ArrayList<>();
-        this.tanggalPesanan = new Date();
-        this.idPesanan = counterIdPesanan++;
-        this.pajak = PAJAK_DEFAULT;
-        this.biayaPelayanan = BIAYA_PELAYANAN_DEFAULT;
+        this.itemPesanan = new LinkedHashSet<>();
+        this.indeksBaris = new HashMap<>();
+        this.tanggalPesanan = new Date(tanggalPesanan.getTime());
+        this.idPesanan = idPesanan;
+        this.pajakBasisPoin = Uang.rasioKeBasisPoin(PAJAK_DEFAULT);
+        this.biayaPelayananSen = Uang.dariRupiah(BIAYA_PELAYANAN_DEFAULT);
+        this.pembulatan = Uang.PEMBULATAN_DEFAULT;
     }
 
     /**
@@ -128,11 +196,35 @@ public class Pesanan {
     }
 
     public double getPajak() {
-        return pajak;
+        return Uang.basisPoinKeRasio(pajakBasisPoin);
     }
 
     public double getBiayaPelayanan() {
-        return biayaPelayanan;
+        return Uang.keRupiah(biayaPelayananSen);
+    }
+
+    public long getBiayaPelayananSen() {
+        return biayaPelayananSen;
+    }
+
+    public RoundingMode getPembulatan() {
+        return pembulatan;
+    }
+
+    long getPajakBasisPoin() {
+        return pajakBasisPoin;
+    }
+
+    public PendengarPerubahanPesanan getPendengar() {
+        return pendengar;
+    }
+
+    /**
+     * Metode untuk memasang pendengar perubahan pesanan (null untuk melepas)
+     * @param pendengar Pendengar yang diberi tahu setelah setiap perubahan
+     */
+    public void setPendengar(PendengarPerubahanPesanan pendengar) {
+        this.pendengar = pendengar;
     }
 
     public ArrayList<ItemPesanan> getItemPesanan() {
@@ -142,21 +234,49 @@ public class Pesanan {
     // Setter methods
     public void setNamaPelanggan(String namaPelanggan) {
         this.namaPelanggan = namaPelanggan;
+        beriTahuInfo();
     }
 
     public void setNoMeja(String noMeja) {
         this.noMeja = noMeja;
+        beriTahuInfo();
     }
 
     public void setPajak(double pajak) {
         if (pajak >= 0 && pajak <= 1) {
-            this.pajak = pajak;
+            this.pajakBasisPoin = Uang.rasioKeBasisPoin(pajak);
+            beriTahuInfo();
         }
     }
 
     public void setBiayaPelayanan(double biayaPelayanan) {
         if (biayaPelayanan >= 0) {
-            this.biayaPelayanan = biayaPelayanan;
+            this.biayaPelayananSen = Uang.dariRupiah(biayaPelayanan);
+            beriTahuInfo();
+        }
+    }
+
+    /**
+     * Metode untuk mengatur mode pembulatan pajak dan diskon ke sen
+     * @param pembulatan Mode pembulatan (default HALF_UP)
+     */
+    public void setPembulatan(RoundingMode pembulatan) {
+        if (pembulatan != null) {
+            this.pembulatan = pembulatan;
+            beriTahuInfo();
+        }
+    }
+
+    // Untuk pemulihan: tarif pajak dan biaya pelayanan persis seperti tercatat
+    void pulihkanTarif(long pajakBasisPoin, long biayaPelayananSen, RoundingMode pembulatan) {
+        this.pajakBasisPoin = pajakBasisPoin;
+        this.biayaPelayananSen = biayaPelayananSen;
+        this.pembulatan = pembulatan;
+    }
+
+    private void beriTahuInfo() {
+        if (pendengar != null) {
+            pendengar.infoBerubah(this);
         }
     }
 
@@ -167,17 +287,15 @@ public class Pesanan {
      */
     public void tambahItem(MenuItem menuItem, int jumlah) {
         if (menuItem != null && jumlah > 0) {
-            // Cek apakah item sudah ada dalam pesanan
-            for (ItemPesanan item : itemPesanan) {
-                if (item.getMenuItem().getId() == menuItem.getId()) {
-                    // Update jumlah jika item sudah ada
-                    item.setJumlah(item.getJumlah() + jumlah);
-                    System.out.println("Jumlah item diperbarui: " + item);
-                    return;
-                }
+            // Update jumlah jika item sudah ada dalam pesanan
+            ItemPesanan item = cariBaris(menuItem.getId());
+            if (item != null) {
+                item.setJumlah(item.getJumlah() + jumlah);
+                System.out.println("Jumlah item diperbarui: " + item);
+                return;
             }
             // Tambah item baru jika belum ada
-            itemPesanan.add(new ItemPesanan(menuItem, jumlah));
+            tambahBaris(new ItemPesanan(menuItem, jumlah));
             System.out.println("Item berhasil ditambahkan: " + menuItem.getNama() + " (" + jumlah + "x)");
         } else {
             throw new IllegalArgumentException("MenuItem tidak valid atau jumlah harus > 0");
@@ -185,32 +303,67 @@ public class Pesanan {
     }
 
     /**
-     * Metode untuk menambahkan item dengan catatan
+     * Metode untuk menambahkan item dengan catatan. Item dengan menu dan catatan
+     * yang sama digabung ke baris yang sudah ada.
      * @param menuItem MenuItem yang akan ditambahkan
      * @param jumlah Jumlah item
      * @param catatan Catatan khusus
      */
     public void tambahItem(MenuItem menuItem, int jumlah, String catatan) {
         if (menuItem != null && jumlah > 0) {
-            itemPesanan.add(new ItemPesanan(menuItem, jumlah, catatan));
+            ItemPesanan item = cariBaris(menuItem.getId(), catatan);
+            if (item != null) {
+                item.setJumlah(item.getJumlah() + jumlah);
+                System.out.println("Jumlah item diperbarui: " + item);
+                return;
+            }
+            tambahBaris(new ItemPesanan(menuItem, jumlah, catatan));
             System.out.println("Item berhasil ditambahkan: " + menuItem.getNama() + " (" + jumlah + "x)");
         } else {
             throw new IllegalArgumentException("MenuItem tidak valid atau jumlah harus > 0");
         }
     }
 
+    /**
+     * Metode untuk menambahkan banyak item sekaligus (misalnya pesanan katering).
+     * Semua masukan divalidasi lebih dulu sehingga pesanan tidak berubah jika ada yang tidak valid.
+     * @param daftarItem Peta MenuItem ke jumlah yang dipesan
+     * @return Jumlah baris baru yang dibuat (sisanya digabung ke baris yang sudah ada)
+     */
+    public int tambahItems(Map<MenuItem, Integer> daftarItem) {
+        for (Map.Entry<MenuItem, Integer> entri : daftarItem.entrySet()) {
+            if (entri.getKey() == null || entri.getValue() == null || entri.getValue() <= 0) {
+                throw new IllegalArgumentException("MenuItem tidak valid atau jumlah harus > 0: " + entri);
+            }
+        }
+
+        int barisBaru = 0;
+        for (Map.Entry<MenuItem, Integer> entri : daftarItem.entrySet()) {
+            MenuItem menuItem = entri.getKey();
+            int jumlah = entri.getValue();
+            ItemPesanan item = cariBaris(menuItem.getId());
+            if (item != null) {
+                item.setJumlah(item.getJumlah() + jumlah);
+            } else {
+                tambahBaris(new ItemPesanan(menuItem, jumlah));
+                barisBaru++;
+            }
+        }
+        System.out.println(daftarItem.size() + " item berhasil ditambahkan (" + barisBaru + " baris baru)");
+        return barisBaru;
+    }
+
     /**
      * Metode untuk menghapus item dari pesanan
      * @param idMenuItem ID MenuItem yang akan dihapus
      * @return true jika berhasil dihapus
      */
     public boolean hapusItem(int idMenuItem) {
-        for (int i = 0; i < itemPesanan.size(); i++) {
-            if (itemPesanan.get(i).getMenuItem().getId() == idMenuItem) {
-                ItemPesanan itemDihapus = itemPesanan.remove(i);
-                System.out.println("Item berhasil dihapus: " + itemDihapus.getMenuItem().getNama());
-                return true;
-            }
+        ItemPesanan itemDihapus = cariBaris(idMenuItem);
+        if (itemDihapus != null) {
+            lepasBaris(itemDihapus);
+            System.out.println("Item berhasil dihapus: " + itemDihapus.getMenuItem().getNama());
+            return true;
         }
         System.out.println("Item dengan ID " + idMenuItem + " tidak ditemukan dalam pesanan");
         return false;
@@ -227,27 +380,167 @@ public class Pesanan {
             return hapusItem(idMenuItem);
         }
 
-        for (ItemPesanan item : itemPesanan) {
-            if (item.getMenuItem().getId() == idMenuItem) {
-                item.setJumlah(jumlahBaru);
-                System.out.println("Jumlah item berhasil diubah: " + item);
-                return true;
-            }
+        ItemPesanan item = cariBaris(idMenuItem);
+        if (item != null) {
+            item.setJumlah(jumlahBaru);
+            System.out.println("Jumlah item berhasil diubah: " + item);
+            return true;
         }
         System.out.println("Item dengan ID " + idMenuItem + " tidak ditemukan dalam pesanan");
         return false;
     }
 
+    // Baris paling awal untuk ID menu tersebut, apa pun catatannya
+    private ItemPesanan cariBaris(int idMenuItem) {
+        LinkedHashMap<String, ItemPesanan> baris = indeksBaris.get(idMenuItem);
+        return baris == null ? null : baris.values().iterator().next();
+    }
+
+    private ItemPesanan cariBaris(int idMenuItem, String catatan) {
+        LinkedHashMap<String, ItemPesanan> baris = indeksBaris.get(idMenuItem);
+        return baris == null ? null : baris.get(catatan == null ? "" : catatan);
+    }
+
+    // Semua penambahan baris melewati metode ini agar total berjalan dan indeks tetap konsisten
+    private void tambahBaris(ItemPesanan item) {
+        itemPesanan.add(item);
+        indeksBaris.computeIfAbsent(item.getMenuItem().getId(), k -> new LinkedHashMap<>())
+            .put(item.getCatatan(), item);
+        item.pesanan = this;
+        item.urutan = urutanBerikutnya++;
+        subtotalSen += item.getTotalHargaSen();
+        totalJumlahItem += item.getJumlah();
+        if (pendengar != null) {
+            pendengar.barisDitambah(this, item);
+        }
+    }
+
+    private void lepasBaris(ItemPesanan item) {
+        itemPesanan.remove(item);
+        lepasIndeks(item, item.getCatatan());
+        item.pesanan = null;
+        subtotalSen -= item.getTotalHargaSen();
+        totalJumlahItem -= item.getJumlah();
+        if (pendengar != null) {
+            pendengar.barisDihapus(this, item);
+        }
+    }
+
+    /**
+     * Metode untuk memulihkan satu baris persis seperti tercatat: harga satuan,
+     * catatan dan nomor urut tidak diubah, dan baris tidak digabung.
+     * @return Baris yang dipulihkan
+     */
+    ItemPesanan pulihkanBaris(MenuItem menuItem, int jumlah, long hargaSatuanSen, String catatan, long urutan) {
+        ItemPesanan item = new ItemPesanan(menuItem, jumlah, hargaSatuanSen, catatan);
+        long berikutnya = Math.max(urutanBerikutnya, urutan + 1);
+        urutanBerikutnya = urutan;
+        tambahBaris(item);
+        urutanBerikutnya = berikutnya;
+        return item;
+    }
+
+    /**
+     * Metode untuk melepas baris yang dipulihkan (record hapus di jurnal)
+     */
+    void pulihkanHapusBaris(ItemPesanan item) {
+        if (item.pesanan == this) {
+            lepasBaris(item);
+        }
+    }
+
+    /**
+     * Metode yang dipanggil ItemPesanan.setJumlah agar total berjalan ikut berubah
+     * @param item Item yang jumlahnya berubah
+     * @param jumlahLama Jumlah sebelum diubah
+     */
+    void jumlahItemBerubah(ItemPesanan item, int jumlahLama) {
+        int selisih = item.getJumlah() - jumlahLama;
+        subtotalSen += Uang.kali(item.getHargaSatuanSen(), selisih);
+        totalJumlahItem += selisih;
+        if (pendengar != null) {
+            pendengar.jumlahBerubah(this, item);
+        }
+    }
+
+    /**
+     * Metode yang dipanggil ItemPesanan.setCatatan agar indeks catatan ikut berubah
+     * @param item Item yang catatannya berubah
+     * @param catatanLama Catatan sebelum diubah
+     */
+    void catatanItemBerubah(ItemPesanan item, String catatanLama) {
+        lepasIndeks(item, catatanLama);
+        ItemPesanan sudahAda = cariBaris(item.getMenuItem().getId(), item.getCatatan());
+        if (sudahAda == null) {
+            LinkedHashMap<String, ItemPesanan> baris =
+                indeksBaris.computeIfAbsent(item.getMenuItem().getId(), k -> new LinkedHashMap<>());
+            baris.put(item.getCatatan(), item);
+            if (baris.size() > 1) {
+                // Susun ulang agar baris paling awal tetap di depan
+                ArrayList<ItemPesanan> urut = new ArrayList<>(baris.values());
+                urut.sort((x, y) -> Long.compare(x.urutan, y.urutan));
+                baris.clear();
+                for (ItemPesanan b : urut) {
+                    baris.put(b.getCatatan(), b);
+                }
+            }
+            if (pendengar != null) {
+                pendengar.catatanBerubah(this, item);
+            }
+            return;
+        }
+        // Menu dan catatan sekarang sama dengan baris lain: gabungkan jumlahnya
+        itemPesanan.remove(item);
+        item.pesanan = null;
+        subtotalSen -= item.getTotalHargaSen();
+        totalJumlahItem -= item.getJumlah();
+        if (pendengar != null) {
+            pendengar.barisDihapus(this, item);
+        }
+        sudahAda.setJumlah(sudahAda.getJumlah() + item.getJumlah());
+    }
+
+    private void lepasIndeks(ItemPesanan item, String catatan) {
+        int id = item.getMenuItem().getId();
+        LinkedHashMap<String, ItemPesanan> baris = indeksBaris.get(id);
+        if (baris != null && baris.get(catatan) == item) {
+            baris.remove(catatan);
+            if (baris.isEmpty()) {
+                indeksBaris.remove(id);
+            }
+        }
+    }
+
     /**
      * Metode untuk menghitung subtotal (total sebelum pajak dan biaya lainnya)
-     * @return Subtotal pesanan
+     * @return Subtotal pesanan, dibaca dari total berjalan dalam O(1)
      */
     public double hitungSubtotal() {
-        double subtotal = 0;
+        return Uang.keRupiah(subtotalSen);
+    }
+
+    public long hitungSubtotalSen() {
+        return subtotalSen;
+    }
+
+    /**
+     * Metode untuk menghitung ulang subtotal dari semua item (untuk verifikasi)
+     * @return Subtotal hasil penjumlahan ulang
+     */
+    public double hitungUlangSubtotal() {
+        return Uang.keRupiah(hitungUlangSubtotalSen());
+    }
+
+    /**
+     * Metode untuk menghitung ulang subtotal dari semua item dalam sen
+     * @return Subtotal hasil penjumlahan ulang dalam sen
+     */
+    public long hitungUlangSubtotalSen() {
+        long total = 0;
         for (ItemPesanan item : itemPesanan) {
-            subtotal += item.getTotalHarga();
+            total += item.getTotalHargaSen();
         }
-        return subtotal;
+        return total;
     }
 
     /**
@@ -255,7 +548,15 @@ public class Pesanan {
      * @return Jumlah pajak
      */
     public double hitungPajak() {
-        return hitungSubtotal() * pajak;
+        return Uang.keRupiah(hitungPajakSen());
+    }
+
+    /**
+     * Metode untuk menghitung total pajak dalam sen, dibulatkan sesuai mode pembulatan
+     * @return Jumlah pajak dalam sen
+     */
+    public long hitungPajakSen() {
+        return Uang.kaliBasisPoin(subtotalSen, pajakBasisPoin, pembulatan);
     }
 
     /**
@@ -263,7 +564,15 @@ public class Pesanan {
      * @return Total akhir pesanan
      */
     public double hitungTotalAkhir() {
-        return hitungSubtotal() + hitungPajak() + biayaPelayanan;
+        return Uang.keRupiah(hitungTotalAkhirSen());
+    }
+
+    /**
+     * Metode untuk menghitung total akhir pesanan dalam sen
+     * @return Total akhir pesanan dalam sen
+     */
+    public long hitungTotalAkhirSen() {
+        return subtotalSen + hitungPajakSen() + biayaPelayananSen;
     }
 
     /**
@@ -272,45 +581,20 @@ public class Pesanan {
      * @return Jumlah diskon yang diberikan
      */
     public double terapkanDiskon(Diskon diskon) {
-        if (diskon != null && diskon.diskonBerlaku(hitungTotalAkhir())) {
-            double jumlahDiskon = diskon.hitungDiskon(hitungTotalAkhir());
-            return jumlahDiskon;
+        if (diskon == null) {
+            return 0;
         }
-        return 0;
+        // 0 jika diskon tidak berlaku
+        return Uang.keRupiah(diskon.hitungDiskonSen(hitungTotalAkhirSen(), pembulatan));
     }
 
     /**
      * Metode untuk menampilkan detail pesanan
      */
     public void tampilDetailPesanan() {
-        DecimalFormat df = new DecimalFormat("#,##0.00");
-        SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss");
-
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("                    DETAIL PESANAN");
-        System.out.println("=".repeat(60));
-        System.out.println("ID Pesanan: " + idPesanan);
-        System.out.println("Nama Pelanggan: " + namaPelanggan);
-        System.out.println("Nomor Meja: " + noMeja);
-        System.out.println("Tanggal: " + sdf.format(tanggalPesanan));
-        System.out.println("-".repeat(60));
-        System.out.println("ITEM PESANAN:");
-
-        if (itemPesanan.isEmpty()) {
-            System.out.println("  Belum ada item yang dipesan");
-        } else {
-            for (ItemPesanan item : itemPesanan) {
-                System.out.println("  " + item);
-            }
-        }
-
-        System.out.println("-".repeat(60));
-        System.out.printf("%-45s: Rp %s%n", "Subtotal", df.format(hitungSubtotal()));
-        System.out.printf("%-45s: Rp %s%n", "Pajak (" + (pajak * 100) + "%)", df.format(hitungPajak()));
-        System.out.printf("%-45s: Rp %s%n", "Biaya Pelayanan", df.format(biayaPelayanan));
-        System.out.println("=".repeat(60));
-        System.out.printf("%-45s: Rp %s%n", "TOTAL AKHIR", df.format(hitungTotalAkhir()));
-        System.out.println("=".repeat(60));
+        PencetakStruk pencetak = PencetakStruk.untukThreadIni();
+        pencetak.renderDetail(this);
+        cetakKeLayar(pencetak);
     }
 
     /**
@@ -318,64 +602,78 @@ public class Pesanan {
      * @param diskon Daftar diskon yang tersedia
      */
     public void cetakStruk(ArrayList<Diskon> diskon) {
-        DecimalFormat df = new DecimalFormat("#,##0.00");
-        SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss");
-
-        double subtotal = hitungSubtotal();
-        double pajak = hitungPajak();
-        double totalSebelumDiskon = subtotal + pajak + biayaPelayanan;
-        double totalDiskon = 0;
-
-        // Cek diskon yang berlaku
-        Diskon diskonBerlaku = null;
-        for (Diskon d : diskon) {
-            if (d.diskonBerlaku(totalSebelumDiskon)) {
-                double jumlahDiskon = d.hitungDiskon(totalSebelumDiskon);
-                if (jumlahDiskon > totalDiskon) {
-                    totalDiskon = jumlahDiskon;
-                    diskonBerlaku = d;
-                }
-            }
-        }
+        cetakStruk(new MesinDiskon(diskon));
+    }
 
-        double totalAkhir = totalSebelumDiskon - totalDiskon;
+    /**
+     * Metode untuk mencetak struk dengan diskon terbaik dari mesin diskon
+     * @param mesinDiskon Mesin diskon tersusun (lihat MenuRestoran.getMesinDiskon)
+     */
+    public void cetakStruk(MesinDiskon mesinDiskon) {
+        cetakStruk(mesinDiskon, MesinPromo.KOSONG);
+    }
+
+    /**
+     * Metode untuk menghitung total akhir setelah diskon terbaik dalam sen.
+     * Total ini menjadi dasar ambang dan persen promosi, baik di struk maupun di hitungPromo.
+     * @param mesinDiskon Mesin diskon tersusun
+     * @return Total akhir dikurangi diskon terbaik yang berlaku
+     */
+    public long hitungTotalSetelahDiskonSen(MesinDiskon mesinDiskon) {
+        long total = hitungTotalAkhirSen();
+        return total - mesinDiskon.hitungDiskonSen(total, pembulatan);
+    }
 
-        System.out.println("\n" + "=".repeat(65));
-        System.out.println("                       STRUK PEMBAYARAN");
-        System.out.println("=".repeat(65));
-        System.out.println("RESTORAN: " + namaPelanggan);
-        System.out.println("ID Pesanan: #" + idPesanan);
-        System.out.println("Tanggal: " + sdf.format(tanggalPesanan));
-        System.out.println("Meja: " + noMeja);
-        System.out.println("-".repeat(65));
-        System.out.println("ITEM YANG DIPESAN:");
+    /**
+     * Metode untuk menghitung promosi yang berlaku untuk pesanan ini (tanpa diskon)
+     * @param mesinPromo Mesin promo tersusun
+     * @return HasilPromo dengan total akhir pesanan sebagai dasar ambang dan persen
+     */
+    public MesinPromo.HasilPromo hitungPromo(MesinPromo mesinPromo) {
+        return hitungPromo(MesinDiskon.KOSONG, mesinPromo);
+    }
 
+    /**
+     * Metode untuk menghitung promosi yang berlaku untuk pesanan ini, dengan dasar
+     * yang sama seperti struk: total setelah diskon terbaik
+     * @param mesinDiskon Mesin diskon tersusun
+     * @param mesinPromo Mesin promo tersusun
+     * @return HasilPromo dengan total setelah diskon sebagai dasar ambang dan persen
+     */
+    public MesinPromo.HasilPromo hitungPromo(MesinDiskon mesinDiskon, MesinPromo mesinPromo) {
+        MesinPromo.Evaluasi evaluasi = mesinPromo.mulai();
         for (ItemPesanan item : itemPesanan) {
-            System.out.printf("  %-35s %2d x %9s = %9s%n",
-                item.getMenuItem().getNama(),
-                item.getJumlah(),
-                "Rp" + df.format(item.getHargaSatuan()),
-                "Rp" + df.format(item.getTotalHarga()));
+            evaluasi.tambah(item.getMenuItem().getNama(), item.getMenuItem().getKategori(),
+                item.getHargaSatuanSen(), item.getJumlah());
         }
+        return evaluasi.selesai(hitungTotalSetelahDiskonSen(mesinDiskon));
+    }
 
-        System.out.println("-".repeat(65));
-        System.out.printf("%-45s: %9s%n", "SUBTOTAL", "Rp" + df.format(subtotal));
-        System.out.printf("%-45s: %9s%n", "PAJAK (" + (this.pajak * 100) + "%)", "Rp" + df.format(pajak));
-        System.out.printf("%-45s: %9s%n", "BIAYA PELAYANAN", "Rp" + df.format(biayaPelayanan));
+    /**
+     * Metode untuk mencetak struk dengan diskon terbaik lalu promosi.
+     * Promosi dihitung dari total setelah diskon.
+     * @param mesinDiskon Mesin diskon tersusun
+     * @param mesinPromo Mesin promo tersusun
+     */
+    public void cetakStruk(MesinDiskon mesinDiskon, MesinPromo mesinPromo) {
+        PencetakStruk pencetak = PencetakStruk.untukThreadIni();
+        pencetak.renderStruk(this, mesinDiskon, mesinPromo);
+        cetakKeLayar(pencetak);
+    }
 
-        if (diskonBerlaku != null) {
-            System.out.printf("%-45s: %9s%n", "DISKON (" + diskonBerlaku.getPesanDiskon() + ")",
-                              "-Rp" + df.format(totalDiskon));
+    // Satu kali penulisan ke System.out untuk seluruh isi struk
+    private static void cetakKeLayar(PencetakStruk pencetak) {
+        try {
+            pencetak.tulisKe(System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // PrintStream tidak melempar IOException
         }
+        System.out.flush();
+    }
 
-        System.out.println("=".repeat(65));
-        System.out.printf("%-45s: %9s%n", "TOTAL PEMBAYARAN", "Rp" + df.format(totalAkhir));
-        System.out.println("=".repeat(65));
-
-        // Info tambahan
-        if (diskonBerlaku != null) {
-            System.out.println("\nINFO DISKON: " + diskonBerlaku.getPesanDiskon());
-        }
+    // Baris pesanan tanpa salinan, untuk PencetakStruk
+    Iterable<ItemPesanan> barisPesanan() {
+        return itemPesanan;
     }
 
     /**
@@ -391,18 +689,23 @@ public class Pesanan {
      * @return Total jumlah semua item
      */
     public int getTotalJumlahItem() {
-        int total = 0;
-        for (ItemPesanan item : itemPesanan) {
-            total += item.getJumlah();
-        }
-        return total;
+        return totalJumlahItem;
     }
 
     /**
      * Metode untuk mengosongkan pesanan
      */
     public void kosongkanPesanan() {
+        for (ItemPesanan item : itemPesanan) {
+            item.pesanan = null;
+        }
         itemPesanan.clear();
+        indeksBaris.clear();
+        subtotalSen = 0;
+        totalJumlahItem = 0;
+        if (pendengar != null) {
+            pendengar.pesananDikosongkan(this);
+        }
         System.out.println("Pesanan telah dikosongkan.");
     }
 
@@ -0,0 +1,485 @@
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Kelas PohonUrut berupa pohon biner seimbang berbobot (weight-balanced) yang terurut
+ * menurut pembanding dan menyimpan ukuran setiap subpohon. Selain tambah, hapus dan
+ * cari dalam O(log n), pohon dapat menjawab posisi sebuah elemen (rank) dan elemen
+ * pada posisi tertentu (select) dalam O(log n), sehingga dapat dipakai sebagai daftar
+ * terurut yang penghapusannya tidak menggeser seluruh isi.
+ *
+ * Pohon tidak dapat diubah: tambah dan hapus mengembalikan pohon baru yang memakai
+ * bersama semua simpul di luar jalur yang berubah, sehingga versi lama tetap utuh.
+ *
+ * @param <T> Tipe elemen; elemen yang setara menurut pembanding dianggap sama
+ */
+final class PohonUrut<T> implements Iterable<T> {
+    // Parameter keseimbangan pohon berbobot (Adams, seperti pada Data.Map Haskell)
+    private static final int DELTA = 3;
+    private static final int RASIO = 2;
+
+    private final Comparator<? super T> pembanding;
+    private final Simpul<T> akar;
+
+    private PohonUrut(Comparator<? super T> pembanding, Simpul<T> akar) {
+        this.pembanding = pembanding;
+        this.akar = akar;
+    }
+
+    /**
+     * Metode untuk membuat pohon kosong
+     * @param pembanding Urutan elemen pohon
+     * @return Pohon tanpa elemen
+     */
+    static <T> PohonUrut<T> kosong(Comparator<? super T> pembanding) {
+        return new PohonUrut<>(pembanding, null);
+    }
+
+    /**
+     * Metode untuk membangun pohon seimbang dari elemen yang sudah terurut dalam O(n)
+     * @param pembanding Urutan elemen pohon
+     * @param terurut Elemen terurut menurut pembanding tanpa duplikat
+     * @param jumlah Jumlah elemen terurut yang dipakai dari awal array
+     * @return Pohon berisi elemen tersebut
+     */
+    static <T> PohonUrut<T> dariTerurut(Comparator<? super T> pembanding, T[] terurut, int jumlah) {
+        return new PohonUrut<>(pembanding, bangun(terurut, 0, jumlah));
+    }
+
+    public int ukuran() {
+        return ukuran(akar);
+    }
+
+    public boolean isKosong() {
+        return akar == null;
+    }
+
+    /**
+     * Metode untuk mendapatkan pohon baru yang juga memuat elemen
+     * (elemen setara yang sudah ada diganti)
+     * @param nilai Elemen yang ditambahkan
+     * @return Pohon baru, pohon ini tidak berubah
+     */
+    PohonUrut<T> tambah(T nilai) {
+        return new PohonUrut<>(pembanding, tambah(akar, nilai));
+    }
+
+    /**
+     * Metode untuk mendapatkan pohon baru tanpa elemen yang setara dengan nilai
+     * @param nilai Elemen yang dihapus
+     * @return Pohon baru, atau pohon ini jika elemen tidak ada
+     */
+    PohonUrut<T> hapus(T nilai) {
+        Simpul<T> baru = hapus(akar, nilai);
+        return baru == akar ? this : new PohonUrut<>(pembanding, baru);
+    }
+
+    /**
+     * Metode untuk menggabungkan dua pohon dengan pembanding yang sama dalam
+     * O(m log(n/m + 1)); elemen setara diambil dari pohon lain
+     * @param lain Pohon yang digabungkan
+     * @return Pohon baru berisi elemen kedua pohon
+     */
+    PohonUrut<T> gabung(PohonUrut<T> lain) {
+        if (lain.akar == null) {
+            return this;
+        }
+        if (akar == null) {
+            return new PohonUrut<>(pembanding, lain.akar);
+        }
+        return new PohonUrut<>(pembanding, gabung(akar, lain.akar));
+    }
+
+    /**
+     * Metode untuk mendapatkan elemen pada posisi tertentu dalam O(log n)
+     * @param posisi Posisi elemen, mulai dari 0
+     * @return Elemen pada posisi tersebut
+     */
+    T get(int posisi) {
+        if (posisi < 0 || posisi >= ukuran(akar)) {
+            throw new IndexOutOfBoundsException("Posisi " + posisi + ", ukuran " + ukuran(akar));
+        }
+        Simpul<T> s = akar;
+        while (true) {
+            int kiri = ukuran(s.kiri);
+            if (posisi < kiri) {
+                s = s.kiri;
+            } else if (posisi == kiri) {
+                return s.nilai;
+            } else {
+                posisi -= kiri + 1;
+                s = s.kanan;
+            }
+        }
+    }
+
+    /**
+     * Metode untuk mencari elemen yang setara dengan nilai
+     * @param nilai Elemen yang dicari
+     * @return Elemen di pohon, null jika tidak ada
+     */
+    T cari(T nilai) {
+        Simpul<T> s = akar;
+        while (s != null) {
+            int c = pembanding.compare(nilai, s.nilai);
+            if (c == 0) {
+                return s.nilai;
+            }
+            s = c < 0 ? s.kiri : s.kanan;
+        }
+        return null;
+    }
+
+    /**
+     * Metode untuk mendapatkan posisi elemen yang setara dengan nilai dalam O(log n)
+     * @param nilai Elemen yang dicari
+     * @return Posisi elemen, -1 jika tidak ada
+     */
+    int posisi(T nilai) {
+        Simpul<T> s = akar;
+        int sebelum = 0;
+        while (s != null) {
+            int c = pembanding.compare(nilai, s.nilai);
+            if (c == 0) {
+                return sebelum + ukuran(s.kiri);
+            }
+            if (c < 0) {
+                s = s.kiri;
+            } else {
+                sebelum += ukuran(s.kiri) + 1;
+                s = s.kanan;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Metode untuk menghitung elemen yang berada sebelum suatu batas dalam O(log n).
+     * Batas diberikan sebagai arah: negatif untuk elemen sebelum batas, selain itu
+     * nol atau positif, dan harus monoton mengikuti urutan pohon.
+     * @param arah Arah setiap elemen terhadap batas
+     * @return Jumlah elemen sebelum batas, sekaligus posisi elemen pertama sesudahnya
+     */
+    int hitungSebelum(ToIntFunction<? super T> arah) {
+        Simpul<T> s = akar;
+        int sebelum = 0;
+        while (s != null) {
+            if (arah.applyAsInt(s.nilai) < 0) {
+                sebelum += ukuran(s.kiri) + 1;
+                s = s.kanan;
+            } else {
+                s = s.kiri;
+            }
+        }
+        return sebelum;
+    }
+
+    /**
+     * Metode untuk mendapatkan tampilan read-only elemen pada rentang posisi.
+     * Tampilan tidak menyalin elemen: get O(log n) dan iterasi O(1) per elemen.
+     * @param dari Posisi awal (inklusif)
+     * @param sampai Posisi akhir (eksklusif)
+     * @return List read-only yang tidak ikut berubah bersama pemilik pohon
+     */
+    List<T> lihat(int dari, int sampai) {
+        if (dari < 0 || sampai > ukuran(akar) || dari > sampai) {
+            throw new IndexOutOfBoundsException("Rentang " + dari + ".." + sampai + ", ukuran " + ukuran(akar));
+        }
+        return new Tampilan<>(this, dari, sampai);
+    }
+
+    /**
+     * Metode untuk mendapatkan tampilan read-only seluruh isi pohon
+     * @return List read-only terurut
+     */
+    List<T> lihat() {
+        return lihat(0, ukuran(akar));
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Penjelajah<>(akar, 0, ukuran(akar));
+    }
+
+    // ===== Operasi simpul =====
+
+    private static int ukuran(Simpul<?> s) {
+        return s == null ? 0 : s.ukuran;
+    }
+
+    private static <T> Simpul<T> bangun(T[] terurut, int dari, int sampai) {
+        if (dari >= sampai) {
+            return null;
+        }
+        int tengah = (dari + sampai) >>> 1;
+        return new Simpul<>(terurut[tengah], bangun(terurut, dari, tengah), bangun(terurut, tengah + 1, sampai));
+    }
+
+    private Simpul<T> tambah(Simpul<T> s, T nilai) {
+        if (s == null) {
+            return new Simpul<>(nilai, null, null);
+        }
+        int c = pembanding.compare(nilai, s.nilai);
+        if (c < 0) {
+            return seimbangkan(s.nilai, tambah(s.kiri, nilai), s.kanan);
+        }
+        if (c > 0) {
+            return seimbangkan(s.nilai, s.kiri, tambah(s.kanan, nilai));
+        }
+        return new Simpul<>(nilai, s.kiri, s.kanan);
+    }
+
+    private Simpul<T> hapus(Simpul<T> s, T nilai) {
+        if (s == null) {
+            return null;
+        }
+        int c = pembanding.compare(nilai, s.nilai);
+        if (c < 0) {
+            Simpul<T> kiri = hapus(s.kiri, nilai);
+            return kiri == s.kiri ? s : seimbangkan(s.nilai, kiri, s.kanan);
+        }
+        if (c > 0) {
+            Simpul<T> kanan = hapus(s.kanan, nilai);
+            return kanan == s.kanan ? s : seimbangkan(s.nilai, s.kiri, kanan);
+        }
+        return rekat(s.kiri, s.kanan);
+    }
+
+    private Simpul<T> gabung(Simpul<T> a, Simpul<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        // Pohon yang lebih kecil dipecah menurut akar pohon yang lebih besar
+        if (a.ukuran < b.ukuran) {
+            Simpul<T>[] pecahan = pecah(a, b.nilai);
+            return sambung(b.nilai, gabung(pecahan[0], b.kiri), gabung(pecahan[1], b.kanan));
+        }
+        Simpul<T>[] pecahan = pecah(b, a.nilai);
+        Simpul<T> tengah = pecahan[2];
+        return sambung(tengah != null ? tengah.nilai : a.nilai,
+                gabung(a.kiri, pecahan[0]), gabung(a.kanan, pecahan[1]));
+    }
+
+    // [elemen sebelum nilai, elemen sesudah nilai, simpul berisi elemen setara atau null]
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Simpul<T>[] pecah(Simpul<T> s, T nilai) {
+        if (s == null) {
+            return new Simpul[3];
+        }
+        int c = pembanding.compare(nilai, s.nilai);
+        if (c < 0) {
+            Simpul<T>[] hasil = pecah(s.kiri, nilai);
+            hasil[1] = sambung(s.nilai, hasil[1], s.kanan);
+            return hasil;
+        }
+        if (c > 0) {
+            Simpul<T>[] hasil = pecah(s.kanan, nilai);
+            hasil[0] = sambung(s.nilai, s.kiri, hasil[0]);
+            return hasil;
+        }
+        return new Simpul[] {s.kiri, s.kanan, s};
+    }
+
+    // Menyambung dua pohon dengan nilai di antaranya, ukuran keduanya boleh timpang
+    private static <T> Simpul<T> sambung(T nilai, Simpul<T> kiri, Simpul<T> kanan) {
+        if (kiri == null) {
+            return sisipMin(nilai, kanan);
+        }
+        if (kanan == null) {
+            return sisipMaks(nilai, kiri);
+        }
+        if (DELTA * kiri.ukuran < kanan.ukuran) {
+            return seimbangkan(kanan.nilai, sambung(nilai, kiri, kanan.kiri), kanan.kanan);
+        }
+        if (DELTA * kanan.ukuran < kiri.ukuran) {
+            return seimbangkan(kiri.nilai, kiri.kiri, sambung(nilai, kiri.kanan, kanan));
+        }
+        return new Simpul<>(nilai, kiri, kanan);
+    }
+
+    private static <T> Simpul<T> sisipMin(T nilai, Simpul<T> s) {
+        if (s == null) {
+            return new Simpul<>(nilai, null, null);
+        }
+        return seimbangkan(s.nilai, sisipMin(nilai, s.kiri), s.kanan);
+    }
+
+    private static <T> Simpul<T> sisipMaks(T nilai, Simpul<T> s) {
+        if (s == null) {
+            return new Simpul<>(nilai, null, null);
+        }
+        return seimbangkan(s.nilai, s.kiri, sisipMaks(nilai, s.kanan));
+    }
+
+    // Menyatukan dua subpohon bersebelahan yang seimbang satu sama lain
+    private static <T> Simpul<T> rekat(Simpul<T> kiri, Simpul<T> kanan) {
+        if (kiri == null) {
+            return kanan;
+        }
+        if (kanan == null) {
+            return kiri;
+        }
+        if (kiri.ukuran > kanan.ukuran) {
+            Simpul<T> maks = kiri;
+            while (maks.kanan != null) {
+                maks = maks.kanan;
+            }
+            return seimbangkan(maks.nilai, hapusMaks(kiri), kanan);
+        }
+        Simpul<T> min = kanan;
+        while (min.kiri != null) {
+            min = min.kiri;
+        }
+        return seimbangkan(min.nilai, kiri, hapusMin(kanan));
+    }
+
+    private static <T> Simpul<T> hapusMin(Simpul<T> s) {
+        if (s.kiri == null) {
+            return s.kanan;
+        }
+        return seimbangkan(s.nilai, hapusMin(s.kiri), s.kanan);
+    }
+
+    private static <T> Simpul<T> hapusMaks(Simpul<T> s) {
+        if (s.kanan == null) {
+            return s.kiri;
+        }
+        return seimbangkan(s.nilai, s.kiri, hapusMaks(s.kanan));
+    }
+
+    // Rotasi tunggal atau ganda jika salah satu sisi lebih dari DELTA kali sisi lain
+    private static <T> Simpul<T> seimbangkan(T nilai, Simpul<T> kiri, Simpul<T> kanan) {
+        int uKiri = ukuran(kiri);
+        int uKanan = ukuran(kanan);
+        if (uKiri + uKanan >= 2) {
+            if (uKanan > DELTA * uKiri) {
+                if (ukuran(kanan.kiri) < RASIO * ukuran(kanan.kanan)) {
+                    return new Simpul<>(kanan.nilai, new Simpul<>(nilai, kiri, kanan.kiri), kanan.kanan);
+                }
+                Simpul<T> tengah = kanan.kiri;
+                return new Simpul<>(tengah.nilai, new Simpul<>(nilai, kiri, tengah.kiri),
+                        new Simpul<>(kanan.nilai, tengah.kanan, kanan.kanan));
+            }
+            if (uKiri > DELTA * uKanan) {
+                if (ukuran(kiri.kanan) < RASIO * ukuran(kiri.kiri)) {
+                    return new Simpul<>(kiri.nilai, kiri.kiri, new Simpul<>(nilai, kiri.kanan, kanan));
+                }
+                Simpul<T> tengah = kiri.kanan;
+                return new Simpul<>(tengah.nilai, new Simpul<>(kiri.nilai, kiri.kiri, tengah.kiri),
+                        new Simpul<>(nilai, tengah.kanan, kanan));
+            }
+        }
+        return new Simpul<>(nilai, kiri, kanan);
+    }
+
+    /**
+     * Inner class Simpul untuk satu elemen beserta ukuran subpohonnya
+     */
+    private static final class Simpul<T> {
+        final T nilai;
+        final Simpul<T> kiri;
+        final Simpul<T> kanan;
+        final int ukuran;
+
+        Simpul(T nilai, Simpul<T> kiri, Simpul<T> kanan) {
+            this.nilai = nilai;
+            this.kiri = kiri;
+            this.kanan = kanan;
+            this.ukuran = ukuran(kiri) + ukuran(kanan) + 1;
+        }
+    }
+
+    /**
+     * Inner class Penjelajah untuk iterasi in-order mulai dari posisi tertentu
+     */
+    private static final class Penjelajah<T> implements Iterator<T> {
+        private final ArrayDeque<Simpul<T>> tumpukan = new ArrayDeque<>();
+        private int sisa;
+
+        Penjelajah(Simpul<T> akar, int dari, int sampai) {
+            this.sisa = sampai - dari;
+            // Turun ke elemen pada posisi dari, menyimpan leluhur yang masih harus dikunjungi
+            Simpul<T> s = akar;
+            while (s != null) {
+                int kiri = ukuran(s.kiri);
+                if (dari < kiri) {
+                    tumpukan.push(s);
+                    s = s.kiri;
+                } else if (dari == kiri) {
+                    tumpukan.push(s);
+                    break;
+                } else {
+                    dari -= kiri + 1;
+                    s = s.kanan;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return sisa > 0;
+        }
+
+        @Override
+        public T next() {
+            if (sisa <= 0) {
+                throw new NoSuchElementException();
+            }
+            Simpul<T> s = tumpukan.pop();
+            for (Simpul<T> t = s.kanan; t != null; t = t.kiri) {
+                tumpukan.push(t);
+            }
+            sisa--;
+            return s.nilai;
+        }
+    }
+
+    /**
+     * Inner class Tampilan untuk rentang posisi pohon sebagai List read-only
+     */
+    private static final class Tampilan<T> extends AbstractList<T> {
+        private final PohonUrut<T> pohon;
+        private final int dari;
+        private final int sampai;
+
+        Tampilan(PohonUrut<T> pohon, int dari, int sampai) {
+            this.pohon = pohon;
+            this.dari = dari;
+            this.sampai = sampai;
+        }
+
+        @Override
+        public T get(int posisi) {
+            if (posisi < 0 || posisi >= sampai - dari) {
+                throw new IndexOutOfBoundsException("Posisi " + posisi + ", ukuran " + (sampai - dari));
+            }
+            return pohon.get(dari + posisi);
+        }
+
+        @Override
+        public int size() {
+            return sampai - dari;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Penjelajah<>(pohon.akar, dari, sampai);
+        }
+
+        @Override
+        public List<T> subList(int awal, int akhir) {
+            if (awal < 0 || akhir > sampai - dari || awal > akhir) {
+                throw new IndexOutOfBoundsException("Rentang " + awal + ".." + akhir + ", ukuran " + (sampai - dari));
+            }
+            return new Tampilan<>(pohon, dari + awal, dari + akhir);
+        }
+    }
+}
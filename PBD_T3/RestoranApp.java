@@ -1,6 +1,9 @@
 import java.util.Scanner;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
+import java.util.Calendar;
+import java.util.Date;
+import java.text.SimpleDateFormat;
 
 /**
  * Kelas utama aplikasi manajemen restoran.
@@ -19,6 +22,7 @@ public class RestoranApp {
     private static MenuRestoran menuRestoran;
     private static ArrayList<Pesanan> daftarPesanan;
     private static Pesanan pesananAktif;
+    private static JurnalPesanan jurnalPesanan;
 
     public static void main(String[] args) {
         try {
@@ -33,9 +37,14 @@ public class RestoranApp {
             daftarPesanan = new ArrayList<>();
             pesananAktif = null;
 
+            // Pesanan yang belum selesai saat aplikasi terakhir berhenti dipulihkan dari jurnal
+            bukaJurnalPesanan();
+
             System.out.println("Aplikasi berhasil dimuat!");
             System.out.println("Menu tersedia: " + menuRestoran.getJumlahMenu() + " item");
 
+            pulihkanPesananTerbuka();
+
             // Tampilkan menu utama
             menuUtama();
 
@@ -48,10 +57,61 @@ public class RestoranApp {
             buatMenuDefault();
             daftarPesanan = new ArrayList<>();
             pesananAktif = null;
+            if (jurnalPesanan == null) {
+                bukaJurnalPesanan();
+            }
+            pulihkanPesananTerbuka();
             menuUtama();
         }
     }
 
+    /**
+     * Metode untuk membuka jurnal pesanan dan memberi tahu pengguna jika jurnal tidak
+     * dapat dibuka, karena pesanan yang berjalan tidak akan dapat dipulihkan
+     */
+    private static void bukaJurnalPesanan() {
+        jurnalPesanan = FileHandler.bukaJurnalPesanan(menuRestoran);
+        if (jurnalPesanan == null) {
+            System.out.println("PERINGATAN: Jurnal pesanan tidak aktif. Pesanan yang belum selesai akan hilang");
+            System.out.println("jika aplikasi berhenti sebelum pesanan diselesaikan.");
+        }
+    }
+
+    /**
+     * Metode untuk menawarkan kelanjutan pesanan yang belum selesai saat aplikasi
+     * terakhir berhenti. Pesanan yang tidak dilanjutkan dibatalkan.
+     */
+    private static void pulihkanPesananTerbuka() {
+        if (jurnalPesanan == null) {
+            return;
+        }
+        for (Pesanan pesanan : jurnalPesanan.getPesananTerbuka()) {
+            try {
+                // Aplikasi dapat berhenti setelah pesanan disimpan tetapi sebelum ditutup di jurnal
+                if (FileHandler.isPesananTercatat(pesanan)) {
+                    jurnalPesanan.selesai(pesanan);
+                    System.out.println("Pesanan #" + pesanan.getIdPesanan() + " sudah tersimpan di histori.");
+                    continue;
+                }
+            } catch (Exception e) {
+                System.err.println("Histori pesanan tidak dapat diperiksa: " + e.getMessage());
+            }
+
+            System.out.println("\n=== PESANAN BELUM SELESAI DIPULIHKAN ===");
+            pesanan.tampilDetailPesanan();
+            System.out.print("Lanjutkan pesanan #" + pesanan.getIdPesanan() + "? (Ya/Tidak): ");
+            String konfirmasi = scanner.nextLine();
+
+            if (konfirmasi.equalsIgnoreCase("Ya")) {
+                pesananAktif = pesanan;
+                prosesPemesanan();
+            } else {
+                jurnalPesanan.batal(pesanan);
+                System.out.println("Pesanan #" + pesanan.getIdPesanan() + " dibatalkan.");
+            }
+        }
+    }
+
     /**
      * Menu utama aplikasi
      */
@@ -398,14 +458,10 @@ public class RestoranApp {
 
         switch (pilihan) {
             case 1:
-                menuRestoran.urutkanMenuByHarga();
-                System.out.println("Menu diurutkan berdasarkan harga!");
-                menuRestoran.tampilkanSemuaMenu();
+                menuRestoran.tampilkanMenuTerurut(true);
                 break;
             case 2:
-                menuRestoran.urutkanMenuByNama();
-                System.out.println("Menu diurutkan berdasarkan nama!");
-                menuRestoran.tampilkanSemuaMenu();
+                menuRestoran.tampilkanMenuTerurut(false);
                 break;
             case 3:
                 return;
@@ -431,6 +487,9 @@ public class RestoranApp {
         String noMeja = scanner.nextLine();
 
         pesananAktif = new Pesanan(namaPelanggan, noMeja);
+        if (jurnalPesanan != null) {
+            jurnalPesanan.daftarkan(pesananAktif);
+        }
         prosesPemesanan();
     }
 
@@ -476,9 +535,14 @@ public class RestoranApp {
                         pesananAktif.tampilDetailPesanan();
                         break;
                     case 6:
-                        selesaikanPesanan();
-                        return;
+                        if (selesaikanPesanan()) {
+                            return;
+                        }
+                        break;
                     case 7:
+                        if (jurnalPesanan != null) {
+                            jurnalPesanan.batal(pesananAktif);
+                        }
                         pesananAktif = null;
                         return;
                 }
@@ -494,7 +558,21 @@ public class RestoranApp {
      */
     private static void tambahItemKePesanan() {
         System.out.println("\n=== TAMBAH ITEM KE PESANAN ===");
-        menuRestoran.tampilkanSemuaMenu();
+        System.out.print("Cari nama menu (Enter untuk tampilkan semua): ");
+        String kueri = scanner.nextLine().trim();
+
+        if (kueri.isEmpty()) {
+            menuRestoran.tampilkanSemuaMenu();
+        } else {
+            ArrayList<MenuItem> hasilCari = menuRestoran.cariMenu(kueri, 10);
+            if (hasilCari.isEmpty()) {
+                System.out.println("Tidak ada menu yang cocok dengan \"" + kueri + "\".");
+                return;
+            }
+            for (MenuItem hasil : hasilCari) {
+                System.out.println(hasil);
+            }
+        }
 
         System.out.print("Pilih ID menu: ");
         int id = getIntInput(1, Integer.MAX_VALUE);
@@ -560,27 +638,32 @@ public class RestoranApp {
     }
 
     /**
-     * Metode untuk menyelesaikan pesanan
+     * Metode untuk menyelesaikan pesanan. Pesanan yang gagal disimpan tetap aktif dan
+     * terbuka di jurnal, dan tidak masuk ke daftar pesanan, agar penyimpanan dapat diulang.
+     * @return true jika pesanan selesai dan tersimpan
      */
-    private static void selesaikanPesanan() {
+    private static boolean selesaikanPesanan() {
         if (pesananAktif.isPesananKosong()) {
             System.out.println("Pesanan masih kosong!");
-            return;
+            return false;
         }
 
         System.out.println("\n=== SELESAIKAN PESANAN ===");
 
-        // Ambil daftar diskon
-        ArrayList<Diskon> daftarDiskon = menuRestoran.getDaftarDiskon();
-
-        // Cetak struk dengan diskon
-        pesananAktif.cetakStruk(daftarDiskon);
+        // Cetak struk dengan diskon (mesin diskon hanya disusun ulang jika diskon berubah)
+        pesananAktif.cetakStruk(menuRestoran.getMesinDiskon());
 
         // Simpan pesanan ke file
         try {
             FileHandler.simpanPesananKeFile(pesananAktif);
         } catch (Exception e) {
             System.err.println("Gagal menyimpan pesanan ke file: " + e.getMessage());
+            System.out.println("Pesanan #" + pesananAktif.getIdPesanan()
+                + " belum selesai. Pilih menu 6 untuk mencoba menyimpan lagi.");
+            return false;
+        }
+        if (jurnalPesanan != null) {
+            jurnalPesanan.selesai(pesananAktif);
         }
 
         // Tambahkan ke daftar pesanan
@@ -596,6 +679,7 @@ public class RestoranApp {
         } else {
             pesananAktif = null;
         }
+        return true;
     }
 
     /**
@@ -615,11 +699,12 @@ public class RestoranApp {
             System.out.println("1. Tampilkan Semua Pesanan");
             System.out.println("2. Lihat Detail Pesanan");
             System.out.println("3. Lihat Histori Pesanan dari File");
-            System.out.println("4. Kembali");
-            System.out.print("Pilih (1-4): ");
+            System.out.println("4. Cetak Ulang Semua Struk ke File");
+            System.out.println("5. Kembali");
+            System.out.print("Pilih (1-5): ");
 
             try {
-                int pilihan = getIntInput(1, 4);
+                int pilihan = getIntInput(1, 5);
 
                 switch (pilihan) {
                     case 1:
@@ -636,6 +721,9 @@ public class RestoranApp {
                         }
                         break;
                     case 4:
+                        cetakUlangSemuaStruk();
+                        break;
+                    case 5:
                         return;
                 }
             } catch (Exception e) {
@@ -645,6 +733,19 @@ public class RestoranApp {
         }
     }
 
+    /**
+     * Metode untuk mencetak ulang struk semua pesanan ke file (untuk audit)
+     */
+    private static void cetakUlangSemuaStruk() {
+        String namaFile = "struk_cetak_ulang.txt";
+        try (PencetakStrukMassal pencetak = new PencetakStrukMassal(menuRestoran.getMesinDiskon())) {
+            int jumlah = pencetak.cetakKeFile(daftarPesanan, namaFile);
+            System.out.println(jumlah + " struk berhasil dicetak ke file: " + namaFile);
+        } catch (Exception e) {
+            System.err.println("Gagal mencetak ulang struk: " + e.getMessage());
+        }
+    }
+
     /**
      * Metode untuk menampilkan semua pesanan
      */
@@ -685,18 +786,21 @@ public class RestoranApp {
             System.out.println("4. Export Menu ke CSV");
             System.out.println("5. Lihat Histori Pesanan");
             System.out.println("6. Hapus Histori Pesanan");
-            System.out.println("7. Statistik File");
-            System.out.println("8. Kembali");
-            System.out.print("Pilih (1-8): ");
+            System.out.println("7. Cari Histori Pesanan");
+            System.out.println("8. Bangun Ulang Indeks Pesanan");
+            System.out.println("9. Statistik File");
+            System.out.println("10. Kembali");
+            System.out.print("Pilih (1-10): ");
 
             try {
-                int pilihan = getIntInput(1, 8);
+                int pilihan = getIntInput(1, 10);
 
                 switch (pilihan) {
                     case 1:
                         FileHandler.simpanMenuKeFile(menuRestoran);
                         break;
                     case 2:
+                        FileHandler.tutupJurnal(menuRestoran);
                         menuRestoran = FileHandler.muatMenuDariFile();
                         System.out.println("Menu berhasil dimuat ulang!");
                         break;
@@ -716,12 +820,24 @@ public class RestoranApp {
                         FileHandler.tampilkanHistoriPesanan();
                         break;
                     case 6:
-                        FileHandler.hapusHistoriPesanan();
+                        System.out.print("Hapus pesanan lebih lama dari berapa hari? (0 = hapus semua): ");
+                        int hari = getIntInput(0, Integer.MAX_VALUE);
+                        if (hari == 0) {
+                            FileHandler.hapusHistoriPesanan();
+                        } else {
+                            FileHandler.hapusHistoriPesananSebelum(hari);
+                        }
                         break;
                     case 7:
-                        FileHandler.tampilkanStatistikFile();
+                        cariHistoriPesanan();
                         break;
                     case 8:
+                        FileHandler.bangunUlangIndeksPesanan();
+                        break;
+                    case 9:
+                        FileHandler.tampilkanStatistikFile();
+                        break;
+                    case 10:
                         return;
                 }
             } catch (Exception e) {
@@ -731,6 +847,50 @@ public class RestoranApp {
         }
     }
 
+    /**
+     * Metode untuk mencari histori pesanan berdasarkan ID, meja atau rentang waktu
+     */
+    private static void cariHistoriPesanan() throws Exception {
+        System.out.println("\n=== CARI HISTORI PESANAN ===");
+        System.out.println("1. Berdasarkan ID Pesanan");
+        System.out.println("2. Berdasarkan Meja");
+        System.out.println("3. Berdasarkan Rentang Waktu");
+        System.out.println("4. Kembali");
+        System.out.print("Pilih (1-4): ");
+        int pilihan = getIntInput(1, 4);
+
+        switch (pilihan) {
+            case 1:
+                System.out.print("ID pesanan: ");
+                FileHandler.cariPesananById(getIntInput(1, Integer.MAX_VALUE));
+                break;
+            case 2:
+                System.out.print("Nomor meja: ");
+                FileHandler.cariPesananDiMeja(scanner.nextLine().trim());
+                break;
+            case 3:
+                SimpleDateFormat format = new SimpleDateFormat("dd-MM-yyyy HH:mm");
+                format.setLenient(false);
+                System.out.print("Tanggal (dd-MM-yyyy): ");
+                String tanggal = scanner.nextLine().trim();
+                System.out.print("Dari jam (HH:mm): ");
+                Date dari = format.parse(tanggal + " " + scanner.nextLine().trim());
+                System.out.print("Sampai jam (HH:mm): ");
+                Date sampai = format.parse(tanggal + " " + scanner.nextLine().trim());
+                if (!sampai.after(dari)) {
+                    // Rentang melewati tengah malam, misalnya 22:00 - 02:00
+                    Calendar kalender = Calendar.getInstance();
+                    kalender.setTime(sampai);
+                    kalender.add(Calendar.DAY_OF_MONTH, 1);
+                    sampai = kalender.getTime();
+                }
+                FileHandler.cariPesananAntara(dari, sampai);
+                break;
+            case 4:
+                return;
+        }
+    }
+
     /**
      * Metode untuk menampilkan statistik
      */
@@ -745,12 +905,20 @@ public class RestoranApp {
         System.out.println("Total Pesanan: " + daftarPesanan.size());
 
         if (!daftarPesanan.isEmpty()) {
-            double totalPendapatan = 0;
+            long totalPendapatanSen = 0;
             for (Pesanan p : daftarPesanan) {
-                totalPendapatan += p.hitungTotalAkhir();
+                totalPendapatanSen += p.hitungTotalAkhirSen();
             }
-            System.out.println("Total Pendapatan: Rp" + String.format("%.2f", totalPendapatan));
-            System.out.println("Rata-rata per Pesanan: Rp" + String.format("%.2f", totalPendapatan / daftarPesanan.size()));
+            long rataRataSen = Uang.bagi(totalPendapatanSen, daftarPesanan.size(), Uang.PEMBULATAN_DEFAULT);
+            System.out.println("Total Pendapatan: Rp" + Uang.format(totalPendapatanSen));
+            System.out.println("Rata-rata per Pesanan: Rp" + Uang.format(rataRataSen));
+        }
+
+        System.out.println("\nStatistik Histori Pesanan (semua sesi):");
+        try {
+            FileHandler.tampilkanRingkasanHistoriPesanan();
+        } catch (Exception e) {
+            System.err.println("Gagal membaca histori pesanan: " + e.getMessage());
         }
 
         System.out.println("=".repeat(60));
@@ -764,13 +932,29 @@ public class RestoranApp {
         System.out.println("Terima kasih telah menggunakan Aplikasi Manajemen Restoran!");
 
         try {
-            // Simpan data sebelum keluar
-            FileHandler.simpanMenuKeFile(menuRestoran);
+            // Simpan data sebelum keluar (cukup menutup jurnal jika perubahan sudah dicatat)
+            FileHandler.tutupMenu(menuRestoran);
             System.out.println("Data berhasil disimpan.");
         } catch (Exception e) {
             System.err.println("Peringatan: Gagal menyimpan data - " + e.getMessage());
         }
 
+        try {
+            // Pesanan yang masih antre di log ditulis sebelum keluar
+            FileHandler.tutupLogPesanan();
+        } catch (Exception e) {
+            System.err.println("Peringatan: Gagal menyimpan log pesanan - " + e.getMessage());
+        }
+
+        if (jurnalPesanan != null) {
+            try {
+                // Checkpoint terakhir agar pemulihan berikutnya tidak perlu memutar ulang jurnal
+                jurnalPesanan.close();
+            } catch (Exception e) {
+                System.err.println("Peringatan: Gagal menutup jurnal pesanan - " + e.getMessage());
+            }
+        }
+
         System.out.println("=".repeat(60));
     }
 
@@ -0,0 +1,278 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Kelas SnapshotMenu yang merupakan potret immutable dari menu pada satu versi,
+ * lengkap dengan semua indeksnya (ID, nama, kategori, tipe, harga, urut nama,
+ * pencarian dan atribut). Snapshot dibagikan ke semua pembaca (exporter, tampilan,
+ * pemesanan, terminal POS) sehingga tidak perlu menyalin daftar menu dan tidak perlu
+ * mengunci: setiap perubahan menu menerbitkan snapshot baru, dan snapshot lama tetap
+ * utuh karena semua indeks tidak dapat diubah.
+ */
+public final class SnapshotMenu implements Iterable<MenuItem> {
+    private final long versi;
+    private final PohonUrut<CatatanMenu> urutanMenu;
+    private final List<MenuItem> daftarMenu;
+    private final IndeksIdMenu<CatatanMenu> indeksId;
+    // Hash nama (huruf kecil) ke catatan dengan hash tersebut
+    private final IndeksIdMenu<CatatanMenu[]> indeksNama;
+    private final PohonUrut<CatatanMenu> indeksKategori;
+    private final PohonUrut<CatatanMenu> daftarMakanan;
+    private final PohonUrut<CatatanMenu> daftarMinuman;
+    private final PohonUrut<CatatanMenu> daftarDiskon;
+    private final PohonUrut<CatatanMenu> indeksHarga;
+    private final PohonUrut<CatatanMenu> indeksUrutNama;
+    private final IndeksPencarianMenu indeksPencarian;
+    private final IndeksAtributMenu indeksAtribut;
+
+    /**
+     * Constructor untuk kelas SnapshotMenu dari isi yang sedang disusun penulis
+     * @param versi Versi katalog saat snapshot dibuat
+     * @param isi Indeks menu saat ini; hanya referensinya yang disalin
+     */
+    SnapshotMenu(long versi, Penyusun isi) {
+        this.versi = versi;
+        this.urutanMenu = isi.daftarMenu;
+        this.daftarMenu = CatatanMenu.daftarItem(isi.daftarMenu.lihat());
+        this.indeksId = isi.indeksId;
+        this.indeksNama = isi.indeksNama;
+        this.indeksKategori = isi.indeksKategori;
+        this.daftarMakanan = isi.daftarMakanan;
+        this.daftarMinuman = isi.daftarMinuman;
+        this.daftarDiskon = isi.daftarDiskon;
+        this.indeksHarga = isi.indeksHarga;
+        this.indeksUrutNama = isi.indeksUrutNama;
+        this.indeksPencarian = isi.indeksPencarian;
+        this.indeksAtribut = isi.indeksAtribut;
+    }
+
+    public long getVersi() {
+        return versi;
+    }
+
+    /**
+     * Metode untuk mendapatkan daftar menu read-only pada snapshot ini
+     * @return List menu yang tidak dapat diubah
+     */
+    public List<MenuItem> getDaftarMenu() {
+        return daftarMenu;
+    }
+
+    public int getJumlahMenu() {
+        return urutanMenu.ukuran();
+    }
+
+    public boolean isKosong() {
+        return urutanMenu.isKosong();
+    }
+
+    /**
+     * Metode untuk mencari menu item berdasarkan ID pada snapshot ini
+     * @param id ID menu item yang dicari
+     * @return MenuItem jika ditemukan, null jika tidak
+     */
+    public MenuItem cariMenuById(int id) {
+        CatatanMenu catatan = indeksId.get(id);
+        return catatan == null ? null : catatan.item;
+    }
+
+    /**
+     * Metode untuk mencari menu item berdasarkan nama pada snapshot ini
+     * @param nama Nama menu item yang dicari (tidak peka huruf besar/kecil)
+     * @return MenuItem pertama pada daftar menu dengan nama tersebut, null jika tidak ada
+     */
+    public MenuItem cariMenuByNama(String nama) {
+        String kunci = MenuRestoran.kunciNama(nama);
+        CatatanMenu[] calon = indeksNama.get(kunci.hashCode());
+        CatatanMenu pertama = null;
+        if (calon != null) {
+            for (CatatanMenu catatan : calon) {
+                if (catatan.kunciNama.equals(kunci) && (pertama == null || catatan.urutan < pertama.urutan)) {
+                    pertama = catatan;
+                }
+            }
+        }
+        return pertama == null ? null : pertama.item;
+    }
+
+    /**
+     * Metode untuk mendapatkan menu item pada posisi tertentu dalam O(log n)
+     * @param posisi Posisi item pada daftar menu
+     * @return MenuItem pada posisi tersebut
+     */
+    public MenuItem getMenuItemPada(int posisi) {
+        return urutanMenu.get(posisi).item;
+    }
+
+    /**
+     * Metode untuk mencari menu berdasarkan potongan nama yang mengawali salah satu kata
+     * @param kueri Potongan nama yang diketik kasir
+     * @param batas Jumlah hasil maksimum
+     * @return Hasil paling relevan terlebih dahulu
+     */
+    public ArrayList<MenuItem> cariMenu(String kueri, int batas) {
+        return indeksPencarian.cari(kueri, batas);
+    }
+
+    /**
+     * Metode untuk memfilter menu berdasarkan atribut menggunakan operasi bitset
+     * @param filter Syarat atribut yang harus dipenuhi
+     * @return List menu yang memenuhi semua syarat
+     */
+    public ArrayList<MenuItem> filterMenu(FilterMenu filter) {
+        return indeksAtribut.filter(filter);
+    }
+
+    /**
+     * Metode untuk mendapatkan menu pada kategori tertentu tanpa menyalin, O(log n)
+     * @param kategori Kategori yang dicari (tidak peka huruf besar/kecil)
+     * @return List read-only sesuai urutan daftar menu, kosong jika kategori tidak ada
+     */
+    public List<MenuItem> getViewKategori(String kategori) {
+        String kunci = MenuRestoran.kunciNama(kategori);
+        int dari = indeksKategori.hitungSebelum(c -> c.kunciKategori.compareTo(kunci));
+        int sampai = indeksKategori.hitungSebelum(c -> c.kunciKategori.compareTo(kunci) <= 0 ? -1 : 1);
+        return CatatanMenu.daftarItem(indeksKategori.lihat(dari, sampai));
+    }
+
+    public List<Makanan> getViewMakanan() {
+        return CatatanMenu.daftarItem(daftarMakanan.lihat());
+    }
+
+    public List<Minuman> getViewMinuman() {
+        return CatatanMenu.daftarItem(daftarMinuman.lihat());
+    }
+
+    public List<Diskon> getViewDiskon() {
+        return CatatanMenu.daftarItem(daftarDiskon.lihat());
+    }
+
+    /**
+     * Metode untuk mendapatkan menu dengan harga dalam rentang tertentu, O(log n) + hasil
+     * @param hargaMin Harga minimum (inklusif)
+     * @param hargaMax Harga maksimum (inklusif)
+     * @return List read-only terurut berdasarkan harga
+     */
+    public List<MenuItem> getMenuByRentangHarga(double hargaMin, double hargaMax) {
+        int dari = indeksHarga.hitungSebelum(c -> Double.compare(Uang.keRupiah(c.hargaSen), hargaMin));
+        int sampai = indeksHarga.hitungSebelum(c -> Uang.keRupiah(c.hargaSen) <= hargaMax ? -1 : 1);
+        return CatatanMenu.daftarItem(indeksHarga.lihat(dari, Math.max(dari, sampai)));
+    }
+
+    /**
+     * Metode untuk mendapatkan menu dengan nama dalam rentang alfabet tertentu
+     * @param namaAwal Nama awal (inklusif, tidak peka huruf besar/kecil)
+     * @param namaAkhir Nama akhir (inklusif, tidak peka huruf besar/kecil)
+     * @return List read-only terurut berdasarkan nama
+     */
+    public List<MenuItem> getMenuByRentangNama(String namaAwal, String namaAkhir) {
+        int dari = indeksUrutNama.hitungSebelum(c -> String.CASE_INSENSITIVE_ORDER.compare(c.nama, namaAwal));
+        int sampai = indeksUrutNama.hitungSebelum(
+                c -> String.CASE_INSENSITIVE_ORDER.compare(c.nama, namaAkhir) <= 0 ? -1 : 1);
+        return CatatanMenu.daftarItem(indeksUrutNama.lihat(dari, Math.max(dari, sampai)));
+    }
+
+    public List<MenuItem> getMenuTerurutByHarga() {
+        return CatatanMenu.daftarItem(indeksHarga.lihat());
+    }
+
+    public List<MenuItem> getMenuTerurutByNama() {
+        return CatatanMenu.daftarItem(indeksUrutNama.lihat());
+    }
+
+    @Override
+    public Iterator<MenuItem> iterator() {
+        return daftarMenu.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SnapshotMenu[versi=%d, totalMenu=%d]", versi, getJumlahMenu());
+    }
+
+    /**
+     * Inner class Penyusun untuk indeks menu yang sedang diubah penulis MenuRestoran
+     * (di dalam lock penulis). Setiap field menunjuk indeks yang tidak dapat diubah,
+     * sehingga snapshot cukup menyalin referensinya.
+     */
+    static final class Penyusun {
+        PohonUrut<CatatanMenu> daftarMenu;
+        IndeksIdMenu<CatatanMenu> indeksId;
+        IndeksIdMenu<CatatanMenu[]> indeksNama;
+        PohonUrut<CatatanMenu> indeksKategori;
+        PohonUrut<CatatanMenu> daftarMakanan;
+        PohonUrut<CatatanMenu> daftarMinuman;
+        PohonUrut<CatatanMenu> daftarDiskon;
+        PohonUrut<CatatanMenu> indeksHarga;
+        PohonUrut<CatatanMenu> indeksUrutNama;
+        IndeksPencarianMenu indeksPencarian;
+        IndeksAtributMenu indeksAtribut;
+
+        Penyusun() {
+            kosongkan();
+        }
+
+        void kosongkan() {
+            daftarMenu = PohonUrut.kosong(CatatanMenu.URUTAN);
+            indeksId = IndeksIdMenu.kosong();
+            indeksNama = IndeksIdMenu.kosong();
+            indeksKategori = PohonUrut.kosong(CatatanMenu.KATEGORI);
+            daftarMakanan = PohonUrut.kosong(CatatanMenu.URUTAN);
+            daftarMinuman = PohonUrut.kosong(CatatanMenu.URUTAN);
+            daftarDiskon = PohonUrut.kosong(CatatanMenu.URUTAN);
+            indeksHarga = PohonUrut.kosong(CatatanMenu.HARGA);
+            indeksUrutNama = PohonUrut.kosong(CatatanMenu.NAMA);
+            indeksPencarian = IndeksPencarianMenu.KOSONG;
+            indeksAtribut = IndeksAtributMenu.KOSONG;
+        }
+
+        /**
+         * Metode untuk menggabungkan indeks menu lain yang disusun terpisah, misalnya
+         * potongan katalog yang indeksnya dibangun di thread lain. Catatan di penyusun
+         * lain harus berada sesudah semua catatan di penyusun ini pada daftar menu.
+         * Indeks atribut tidak digabung karena slotnya dibagikan oleh MenuRestoran.
+         * Jika dipanggil dari ForkJoinPool, indeks yang besar digabung paralel.
+         * @param lain Penyusun dengan menu item yang tidak ada di penyusun ini
+         */
+        void gabung(Penyusun lain) {
+            Runnable[] langkah = {
+                () -> {
+                    daftarMenu = daftarMenu.gabung(lain.daftarMenu);
+                    indeksId = indeksId.gabung(lain.indeksId, null);
+                    indeksNama = indeksNama.gabung(lain.indeksNama, Penyusun::sambung);
+                },
+                () -> {
+                    indeksKategori = indeksKategori.gabung(lain.indeksKategori);
+                    daftarMakanan = daftarMakanan.gabung(lain.daftarMakanan);
+                    daftarMinuman = daftarMinuman.gabung(lain.daftarMinuman);
+                    daftarDiskon = daftarDiskon.gabung(lain.daftarDiskon);
+                },
+                () -> indeksHarga = indeksHarga.gabung(lain.indeksHarga),
+                () -> indeksUrutNama = indeksUrutNama.gabung(lain.indeksUrutNama),
+                () -> indeksPencarian = indeksPencarian.gabung(lain.indeksPencarian),
+            };
+            if (!ForkJoinTask.inForkJoinPool()) {
+                for (Runnable r : langkah) {
+                    r.run();
+                }
+                return;
+            }
+            // Setiap langkah mengisi field yang berbeda; invokeAll menunggu semuanya selesai
+            List<ForkJoinTask<?>> tugas = new ArrayList<>(langkah.length);
+            for (Runnable r : langkah) {
+                tugas.add(ForkJoinTask.adapt(r));
+            }
+            ForkJoinTask.invokeAll(tugas);
+        }
+
+        // Catatan dengan hash nama yang sama, catatan lama lebih dulu
+        private static CatatanMenu[] sambung(CatatanMenu[] lama, CatatanMenu[] baru) {
+            CatatanMenu[] hasil = Arrays.copyOf(lama, lama.length + baru.length);
+            System.arraycopy(baru, 0, hasil, lama.length, baru.length);
+            return hasil;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.Arrays;
+
+/**
+ * Kelas TabelHargaUkuran yang menyimpan pengali harga minuman per ukuran.
+ * Tabel bersifat immutable dan diindeks dengan kode KamusAtribut.UKURAN,
+ * sehingga pencarian pengali hanya berupa akses array.
+ * Setiap outlet (MenuRestoran) dapat memakai tabelnya sendiri.
+ */
+public final class TabelHargaUkuran {
+    // Tabel bawaan: small 80%, medium 100%, large 120%
+    public static final TabelHargaUkuran DEFAULT = new TabelHargaUkuran(new double[0])
+        .denganPengali("small", 0.8)
+        .denganPengali("medium", 1.0)
+        .denganPengali("large", 1.2);
+
+    private final double[] pengali; // NaN = tidak diatur, dianggap 1.0
+
+    private TabelHargaUkuran(double[] pengali) {
+        this.pengali = pengali;
+    }
+
+    /**
+     * Metode untuk membuat tabel baru dengan pengali untuk satu ukuran
+     * @param ukuran Nama ukuran (boleh ukuran kustom)
+     * @param nilaiPengali Pengali harga, harus > 0
+     * @return Tabel baru, tabel ini tidak berubah
+     */
+    public TabelHargaUkuran denganPengali(String ukuran, double nilaiPengali) {
+        if (!(nilaiPengali > 0)) {
+            throw new IllegalArgumentException("Pengali harga harus lebih dari 0");
+        }
+        int kode = KamusAtribut.UKURAN.intern(ukuran).getKode();
+        int panjangLama = pengali.length;
+        double[] baru = Arrays.copyOf(pengali, Math.max(panjangLama, kode + 1));
+        Arrays.fill(baru, panjangLama, baru.length, Double.NaN);
+        baru[kode] = nilaiPengali;
+        return new TabelHargaUkuran(baru);
+    }
+
+    /**
+     * Metode untuk mendapatkan pengali harga suatu ukuran
+     * @param ukuran Ukuran yang sudah di-intern (boleh null)
+     * @return Pengali harga, 1.0 jika ukuran tidak diatur
+     */
+    public double getPengali(NilaiAtribut ukuran) {
+        if (ukuran == null) {
+            return 1.0;
+        }
+        int kode = ukuran.getKode();
+        if (kode >= pengali.length || Double.isNaN(pengali[kode])) {
+            return 1.0;
+        }
+        return pengali[kode];
+    }
+
+    /**
+     * Metode untuk mendapatkan pengali dalam basis poin untuk aritmetika Uang
+     * @param ukuran Ukuran yang sudah di-intern (boleh null)
+     * @return Pengali dalam basis poin (10000 = 1.0)
+     */
+    public long getPengaliBasisPoin(NilaiAtribut ukuran) {
+        return Uang.rasioKeBasisPoin(getPengali(ukuran));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TabelHargaUkuran[");
+        boolean pertama = true;
+        for (int kode = 0; kode < pengali.length; kode++) {
+            if (!Double.isNaN(pengali[kode])) {
+                if (!pertama) {
+                    sb.append(", ");
+                }
+                sb.append(KamusAtribut.UKURAN.getByKode(kode)).append('=').append(pengali[kode]);
+                pertama = false;
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,180 @@
+import java.math.RoundingMode;
+
+/**
+ * Kelas utilitas Uang untuk aritmetika uang fixed-point.
+ * Nilai uang disimpan sebagai long dalam satuan sen (1/100 Rupiah) dan rasio
+ * (pajak, diskon, pengali) dalam basis poin (1/10000). Semua operasi bekerja pada
+ * tipe primitif sehingga tidak ada alokasi objek dan tidak ada drift pembulatan double.
+ */
+public final class Uang {
+    public static final long SEN_PER_RUPIAH = 100;
+    public static final long BASIS_POIN_PENUH = 10_000; // 100%
+    public static final RoundingMode PEMBULATAN_DEFAULT = RoundingMode.HALF_UP;
+
+    private Uang() {
+        // Kelas utilitas, tidak untuk diinstansiasi
+    }
+
+    /**
+     * Metode untuk mengonversi Rupiah (double) ke sen, dibulatkan ke sen terdekat
+     * @param rupiah Nilai dalam Rupiah
+     * @return Nilai dalam sen
+     */
+    public static long dariRupiah(double rupiah) {
+        if (Double.isNaN(rupiah) || Double.isInfinite(rupiah)) {
+            throw new IllegalArgumentException("Nilai uang tidak valid: " + rupiah);
+        }
+        return Math.round(rupiah * SEN_PER_RUPIAH);
+    }
+
+    /**
+     * Metode untuk mengonversi sen ke Rupiah (double) untuk API lama dan tampilan
+     * @param sen Nilai dalam sen
+     * @return Nilai dalam Rupiah
+     */
+    public static double keRupiah(long sen) {
+        return sen / (double) SEN_PER_RUPIAH;
+    }
+
+    /**
+     * Metode untuk mengonversi rasio desimal (0.1 = 10%) ke basis poin
+     * @param rasio Rasio desimal
+     * @return Rasio dalam basis poin
+     */
+    public static long rasioKeBasisPoin(double rasio) {
+        if (Double.isNaN(rasio) || Double.isInfinite(rasio)) {
+            throw new IllegalArgumentException("Rasio tidak valid: " + rasio);
+        }
+        return Math.round(rasio * BASIS_POIN_PENUH);
+    }
+
+    /**
+     * Metode untuk mengonversi basis poin ke rasio desimal
+     * @param basisPoin Rasio dalam basis poin
+     * @return Rasio desimal
+     */
+    public static double basisPoinKeRasio(long basisPoin) {
+        return basisPoin / (double) BASIS_POIN_PENUH;
+    }
+
+    /**
+     * Metode untuk mengalikan nilai uang dengan jumlah barang
+     * @param sen Nilai satuan dalam sen
+     * @param jumlah Jumlah barang
+     * @return Total dalam sen
+     * @throws ArithmeticException jika terjadi overflow
+     */
+    public static long kali(long sen, int jumlah) {
+        return Math.multiplyExact(sen, (long) jumlah);
+    }
+
+    /**
+     * Metode untuk mengalikan nilai uang dengan rasio dalam basis poin
+     * @param sen Nilai dalam sen
+     * @param basisPoin Rasio dalam basis poin (1000 = 10%)
+     * @param mode Mode pembulatan ke sen
+     * @return Hasil dalam sen
+     */
+    public static long kaliBasisPoin(long sen, long basisPoin, RoundingMode mode) {
+        return bagi(Math.multiplyExact(sen, basisPoin), BASIS_POIN_PENUH, mode);
+    }
+
+    /**
+     * Metode untuk pembagian bilangan bulat dengan mode pembulatan eksplisit
+     * @param pembilang Pembilang
+     * @param penyebut Penyebut (tidak boleh 0)
+     * @param mode Mode pembulatan
+     * @return Hasil bagi yang dibulatkan
+     * @throws ArithmeticException jika penyebut 0 atau mode UNNECESSARY tidak terpenuhi
+     */
+    public static long bagi(long pembilang, long penyebut, RoundingMode mode) {
+        long hasil = pembilang / penyebut;
+        long sisa = pembilang % penyebut;
+        if (sisa == 0) {
+            return hasil;
+        }
+
+        // Tanda hasil bagi sebenarnya: -1 atau 1
+        int tanda = (int) ((pembilang ^ penyebut) >> 63) | 1;
+        long sisaAbs = Math.abs(sisa);
+        long penyebutAbs = Math.abs(penyebut);
+        int bandingSetengah = Long.compare(sisaAbs, penyebutAbs - sisaAbs);
+
+        boolean naik;
+        switch (mode) {
+            case DOWN:
+                naik = false;
+                break;
+            case UP:
+                naik = true;
+                break;
+            case FLOOR:
+                naik = tanda < 0;
+                break;
+            case CEILING:
+                naik = tanda > 0;
+                break;
+            case HALF_UP:
+                naik = bandingSetengah >= 0;
+                break;
+            case HALF_DOWN:
+                naik = bandingSetengah > 0;
+                break;
+            case HALF_EVEN:
+                naik = bandingSetengah > 0 || (bandingSetengah == 0 && (hasil & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("Pembulatan diperlukan untuk " + pembilang + "/" + penyebut);
+        }
+        return naik ? hasil + tanda : hasil;
+    }
+
+    /**
+     * Metode untuk menulis nilai uang dengan format #,##0.00 ke StringBuilder
+     * tanpa membuat DecimalFormat atau String perantara
+     * @param sb Tujuan penulisan
+     * @param sen Nilai dalam sen
+     * @return StringBuilder yang sama untuk chaining
+     */
+    public static StringBuilder formatKe(StringBuilder sb, long sen) {
+        if (sen < 0) {
+            sb.append('-');
+            if (sen == Long.MIN_VALUE) {
+                // -Long.MIN_VALUE overflow, tangani digit terakhir secara terpisah
+                formatRupiahKe(sb, -(sen / SEN_PER_RUPIAH));
+                return sb.append('.').append('0').append((char) ('0' - (sen % 10)));
+            }
+            sen = -sen;
+        }
+        formatRupiahKe(sb, sen / SEN_PER_RUPIAH);
+        long pecahan = sen % SEN_PER_RUPIAH;
+        return sb.append('.').append((char) ('0' + pecahan / 10)).append((char) ('0' + pecahan % 10));
+    }
+
+    /**
+     * Metode untuk memformat nilai uang dengan format #,##0.00
+     * @param sen Nilai dalam sen
+     * @return String terformat, contoh 1,234,567.50
+     */
+    public static String format(long sen) {
+        return formatKe(new StringBuilder(24), sen).toString();
+    }
+
+    // Menulis bagian Rupiah dengan pemisah ribuan koma
+    private static void formatRupiahKe(StringBuilder sb, long rupiah) {
+        if (rupiah < 1000) {
+            sb.append(rupiah);
+            return;
+        }
+        formatRupiahKe(sb, rupiah / 1000);
+        long sisa = rupiah % 1000;
+        sb.append(',');
+        if (sisa < 100) {
+            sb.append('0');
+        }
+        if (sisa < 10) {
+            sb.append('0');
+        }
+        sb.append(sisa);
+    }
+}
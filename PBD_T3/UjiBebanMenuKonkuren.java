@@ -0,0 +1,236 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Uji beban MenuRestoran mode konkuren dengan banyak penulis dan pembaca sekaligus.
+ * Penulis menambah, mengganti nama dan menghapus menu, membuat pesanan, dan bersama-sama
+ * memanggil setNama/setHarga/setKategori pada menu bersama; pembaca terus mengambil
+ * snapshot dan mencari menu tanpa lock. Setiap snapshot harus konsisten dengan
+ * indeksnya sendiri, versinya tidak boleh mundur, menu dasar tidak boleh hilang,
+ * ID menu dan ID pesanan tidak boleh kembar, dan setelah semua penulis selesai
+ * setiap indeks harus memuat nilai terakhir menu bersama.
+ *
+ * Jalankan: java UjiBebanMenuKonkuren [penulis] [pembaca] [putaran]
+ * Keluar dengan kode 1 jika ada pelanggaran.
+ */
+public class UjiBebanMenuKonkuren {
+    private static final int JUMLAH_MENU_DASAR = 200;
+    private static final int JUMLAH_MENU_BERSAMA = 8;
+    private static final String[] KATEGORI_BERSAMA = {"makanan", "spesial", "musiman"};
+
+    public static void main(String[] args) throws InterruptedException {
+        int jumlahPenulis = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int jumlahPembaca = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int putaran = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        // MenuRestoran mencetak pesan untuk setiap tambah/hapus
+        PrintStream keluaran = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        AtomicReference<String> pelanggaran = new AtomicReference<>();
+        Set<Integer> idMenu = ConcurrentHashMap.newKeySet();
+        Set<Integer> idPesanan = ConcurrentHashMap.newKeySet();
+
+        MenuRestoran menu = new MenuRestoran("Uji Beban", true);
+        ArrayList<MenuItem> menuDasar = new ArrayList<>();
+        for (int i = 0; i < JUMLAH_MENU_DASAR; i++) {
+            menuDasar.add(catatId(new Makanan("Dasar " + i, 10000 + i, "pokok"), idMenu, pelanggaran));
+        }
+        ArrayList<MenuItem> menuBersama = new ArrayList<>();
+        for (int i = 0; i < JUMLAH_MENU_BERSAMA; i++) {
+            menuBersama.add(catatId(new Makanan("Bersama " + i, 20000, "pokok"), idMenu, pelanggaran));
+        }
+        menu.tambahSemuaMenuItem(menuDasar);
+        menu.tambahSemuaMenuItem(menuBersama);
+
+        AtomicBoolean selesai = new AtomicBoolean();
+        AtomicLong jumlahBaca = new AtomicLong();
+        CountDownLatch mulai = new CountDownLatch(1);
+        ArrayList<Thread> penulis = new ArrayList<>();
+        ArrayList<Thread> pembaca = new ArrayList<>();
+
+        for (int t = 0; t < jumlahPenulis; t++) {
+            final int nomor = t;
+            penulis.add(new Thread(() -> {
+                tunggu(mulai);
+                for (int i = 0; i < putaran && pelanggaran.get() == null; i++) {
+                    MenuItem item = catatId(new Makanan("P" + nomor + "-" + i, 5000 + i, "pokok"),
+                            idMenu, pelanggaran);
+                    menu.tambahSemuaMenuItem(Collections.singletonList(item));
+                    item.setNama("P" + nomor + "-" + i + " baru");
+
+                    // Semua penulis mengubah menu bersama yang sama
+                    MenuItem bersama = menuBersama.get((nomor + i) % JUMLAH_MENU_BERSAMA);
+                    bersama.setHarga(1000 + (nomor * 31 + i) % 500);
+                    bersama.setNama("Bersama " + bersama.getId() + " v" + nomor + "-" + i);
+                    bersama.setKategori(KATEGORI_BERSAMA[(nomor + i) % KATEGORI_BERSAMA.length]);
+
+                    Pesanan pesanan = new Pesanan("Uji " + nomor, String.valueOf(i));
+                    if (!idPesanan.add(pesanan.getIdPesanan())) {
+                        pelanggaran.compareAndSet(null, "ID pesanan " + pesanan.getIdPesanan() + " kembar");
+                    }
+                    pesanan.tambahItem(bersama, 1);
+
+                    // Separuh menu penulis tetap ada sampai akhir
+                    if (i % 2 == 0 && !menu.hapusMenuItem(item.getId())) {
+                        pelanggaran.compareAndSet(null, "menu " + item.getNama() + " tidak dapat dihapus");
+                    }
+                }
+            }, "penulis-" + t));
+        }
+        for (int t = 0; t < jumlahPembaca; t++) {
+            pembaca.add(new Thread(() -> {
+                tunggu(mulai);
+                long versiTerakhir = -1;
+                long baca = 0;
+                int dasar = 0;
+                while (!selesai.get() && pelanggaran.get() == null) {
+                    SnapshotMenu snapshot = menu.getSnapshot();
+                    if (snapshot.getVersi() < versiTerakhir) {
+                        pelanggaran.compareAndSet(null, "versi snapshot mundur: "
+                                + snapshot.getVersi() + " < " + versiTerakhir);
+                    }
+                    versiTerakhir = snapshot.getVersi();
+                    for (MenuItem item : snapshot) {
+                        if (snapshot.cariMenuById(item.getId()) != item) {
+                            pelanggaran.compareAndSet(null, "indeks snapshot versi "
+                                    + snapshot.getVersi() + " tidak memuat " + item.getNama());
+                        }
+                    }
+                    // Setiap indeks snapshot memuat semua menu, tidak lebih dan tidak kurang
+                    int jumlahKategori = 0;
+                    for (String kategori : KATEGORI_BERSAMA) {
+                        jumlahKategori += snapshot.getViewKategori(kategori).size();
+                    }
+                    if (jumlahKategori != snapshot.getJumlahMenu()
+                            || snapshot.getMenuTerurutByHarga().size() != snapshot.getJumlahMenu()
+                            || snapshot.getMenuTerurutByNama().size() != snapshot.getJumlahMenu()) {
+                        pelanggaran.compareAndSet(null, "ukuran indeks snapshot versi "
+                                + snapshot.getVersi() + " tidak sama dengan jumlah menu");
+                    }
+                    MenuItem item = menuDasar.get(dasar);
+                    if (menu.cariMenuById(item.getId()) != item
+                            || menu.cariMenuByNama(item.getNama()) != item) {
+                        pelanggaran.compareAndSet(null, "menu dasar " + item.getNama() + " hilang");
+                    }
+                    dasar = (dasar + 1) % menuDasar.size();
+                    baca++;
+                }
+                jumlahBaca.addAndGet(baca);
+            }, "pembaca-" + t));
+        }
+
+        for (Thread thread : penulis) {
+            thread.start();
+        }
+        for (Thread thread : pembaca) {
+            thread.start();
+        }
+        long awal = System.nanoTime();
+        mulai.countDown();
+        for (Thread thread : penulis) {
+            thread.join();
+        }
+        long durasiNano = System.nanoTime() - awal;
+        selesai.set(true);
+        for (Thread thread : pembaca) {
+            thread.join();
+        }
+        System.setOut(keluaran);
+
+        // Setelah semua penulis selesai snapshot harus sama persis dengan isi menu
+        int jumlahDiharapkan = JUMLAH_MENU_DASAR + JUMLAH_MENU_BERSAMA + jumlahPenulis * (putaran / 2);
+        SnapshotMenu akhir = menu.getSnapshot();
+        if (pelanggaran.get() == null && akhir.getVersi() != menu.getVersi()) {
+            pelanggaran.set("snapshot akhir versi " + akhir.getVersi() + ", menu versi " + menu.getVersi());
+        }
+        if (pelanggaran.get() == null && akhir.getJumlahMenu() != jumlahDiharapkan) {
+            pelanggaran.set("jumlah menu akhir " + akhir.getJumlahMenu() + ", diharapkan " + jumlahDiharapkan);
+        }
+        if (pelanggaran.get() == null) {
+            for (MenuItem item : akhir) {
+                if (menu.cariMenuByNama(item.getNama()) != item) {
+                    pelanggaran.set("menu " + item.getNama() + " tidak ditemukan berdasarkan nama");
+                    break;
+                }
+            }
+        }
+        if (pelanggaran.get() == null) {
+            periksaMenuBersama(akhir, menuBersama, pelanggaran);
+        }
+
+        double detik = durasiNano / 1e9;
+        System.out.printf("%d penulis x %d putaran, %d pembaca: %.0f perubahan/detik, %.0f baca/detik%n",
+                jumlahPenulis, putaran, jumlahPembaca,
+                jumlahPenulis * putaran * 6 / detik, jumlahBaca.get() / detik);
+        if (pelanggaran.get() != null) {
+            System.out.println("GAGAL: " + pelanggaran.get());
+            System.exit(1);
+        }
+        System.out.println("OK: " + akhir.getJumlahMenu() + " menu, versi " + akhir.getVersi()
+                + ", " + idMenu.size() + " ID menu dan " + idPesanan.size() + " ID pesanan unik");
+    }
+
+    // Indeks nama, harga, kategori, atribut dan pencarian harus memuat nilai terakhir
+    // setiap menu bersama, dan urutan harga/nama harus sesuai nilai item saat ini
+    private static void periksaMenuBersama(SnapshotMenu akhir, List<MenuItem> menuBersama,
+                                           AtomicReference<String> pelanggaran) {
+        for (MenuItem item : menuBersama) {
+            String masalah = null;
+            if (akhir.cariMenuByNama(item.getNama()) != item) {
+                masalah = "indeks nama";
+            } else if (!akhir.getMenuByRentangHarga(item.getHarga(), item.getHarga()).contains(item)) {
+                masalah = "indeks harga";
+            } else if (!akhir.getViewKategori(item.getKategori()).contains(item)) {
+                masalah = "indeks kategori";
+            } else if (!akhir.filterMenu(new FilterMenu()
+                    .dengan(IndeksAtributMenu.KATEGORI, item.getKategori())).contains(item)) {
+                masalah = "indeks atribut";
+            } else if (!akhir.cariMenu(item.getNama(), 5).contains(item)) {
+                masalah = "indeks pencarian";
+            }
+            if (masalah != null) {
+                pelanggaran.set(masalah + " tidak sesuai untuk " + item.getNama());
+                return;
+            }
+        }
+        List<MenuItem> urutHarga = akhir.getMenuTerurutByHarga();
+        for (int i = 1; i < urutHarga.size(); i++) {
+            if (urutHarga.get(i - 1).getHargaSen() > urutHarga.get(i).getHargaSen()) {
+                pelanggaran.set("indeks harga tidak terurut pada " + urutHarga.get(i).getNama());
+                return;
+            }
+        }
+        List<MenuItem> urutNama = akhir.getMenuTerurutByNama();
+        for (int i = 1; i < urutNama.size(); i++) {
+            if (urutNama.get(i - 1).getNama().compareToIgnoreCase(urutNama.get(i).getNama()) > 0) {
+                pelanggaran.set("indeks nama tidak terurut pada " + urutNama.get(i).getNama());
+                return;
+            }
+        }
+    }
+
+    private static MenuItem catatId(MenuItem item, Set<Integer> idMenu, AtomicReference<String> pelanggaran) {
+        if (!idMenu.add(item.getId())) {
+            pelanggaran.compareAndSet(null, "ID menu " + item.getId() + " kembar");
+        }
+        return item;
+    }
+
+    private static void tunggu(CountDownLatch mulai) {
+        try {
+            mulai.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
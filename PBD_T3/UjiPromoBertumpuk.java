@@ -0,0 +1,241 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Uji aturan MesinPromo yang bertumpuk pada kategori yang sama (beberapa beli-gratis,
+ * atau beli-gratis dengan paket kategori). Beberapa skenario dihitung tangan, lalu
+ * pesanan dan aturan acak dibandingkan dengan model per unit: setiap unit ditandai
+ * saat dipakai sebuah aturan, sehingga tidak ada unit yang dipotong dua kali.
+ *
+ * Jalankan: java UjiPromoBertumpuk [jumlahPesanan] [seed]
+ * Keluar dengan kode 1 dan mencetak seed jika ada pelanggaran.
+ */
+public class UjiPromoBertumpuk {
+    private static final String[] KATEGORI = {"minuman", "makanan", "camilan"};
+
+    // Aturan model: beli-gratis (kategori[0], beli, gratis) atau paket (kategori, potongan)
+    private static class AturanModel {
+        final String nama;
+        final boolean paket;
+        final int prioritas;
+        final String[] kategori;
+        final int beli;
+        final int gratis;
+        final long potonganSen;
+
+        AturanModel(String nama, boolean paket, int prioritas, String[] kategori, int beli, int gratis,
+                    long potonganSen) {
+            this.nama = nama;
+            this.paket = paket;
+            this.prioritas = prioritas;
+            this.kategori = kategori;
+            this.beli = beli;
+            this.gratis = gratis;
+            this.potonganSen = potonganSen;
+        }
+    }
+
+    public static void main(String[] args) {
+        int jumlahPesanan = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long seedAwal = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        periksaSkenario();
+        for (long seed = seedAwal; seed < seedAwal + jumlahPesanan; seed++) {
+            String galat = ujiAcak(new Random(seed));
+            if (galat != null) {
+                System.out.println("GAGAL seed " + seed + ": " + galat);
+                System.exit(1);
+            }
+        }
+        System.out.println("OK: skenario dan " + jumlahPesanan + " pesanan acak");
+    }
+
+    private static void periksaSkenario() {
+        // Dua beli 2 gratis 1 pada 6 minuman: aturan kedua tidak punya unit sisa
+        MesinPromo.Evaluasi e = new MesinPromo.Penyusun()
+            .beliGratis("B2G1 pertama", "minuman", 2, 1, 0)
+            .beliGratis("B2G1 kedua", "minuman", 2, 1, 0)
+            .susun().mulai();
+        for (int i = 1; i <= 6; i++) {
+            e.tambah("Minuman " + i, "minuman", i * 1000, 1);
+        }
+        harapkan("dua beli-gratis", e.selesai(21000), 3000);
+
+        // Beli 1 gratis 1 memakai kedua minuman, sehingga paket tidak punya minuman
+        e = new MesinPromo.Penyusun()
+            .beliGratis("B1G1", "minuman", 1, 1, 0)
+            .paketKategori("Paket", 500, 0, "makanan", "minuman")
+            .susun().mulai();
+        e.tambah("Teh", "minuman", 1000, 1).tambah("Jus", "minuman", 2000, 1).tambah("Nasi", "makanan", 5000, 1);
+        harapkan("beli-gratis lalu paket", e.selesai(8000), 1000);
+
+        // Paket lebih dulu memakai minuman termahal, sisa satu minuman tidak cukup untuk B1G1
+        e = new MesinPromo.Penyusun()
+            .prioritas(0, false).paketKategori("Paket", 500, 0, "makanan", "minuman")
+            .prioritas(1, false).beliGratis("B1G1", "minuman", 1, 1, 0)
+            .susun().mulai();
+        e.tambah("Teh", "minuman", 1000, 1).tambah("Jus", "minuman", 2000, 1).tambah("Nasi", "makanan", 5000, 1);
+        harapkan("paket lalu beli-gratis", e.selesai(8000), 500);
+
+        // Baris dengan beberapa unit dipakai sebagian oleh aturan pertama
+        e = new MesinPromo.Penyusun()
+            .beliGratis("B1G1", "minuman", 1, 1, 0)
+            .beliGratis("B1G2", "minuman", 1, 2, 0)
+            .susun().mulai();
+        e.tambah("Teh", "minuman", 1000, 3).tambah("Air", "minuman", 500, 1).tambah("Jus", "minuman", 4000, 3);
+        // B1G1: 3 kelompok dari 7 unit, gratis 500 + 1000 + 1000, bayar 3 x 4000; sisa 1 unit
+        harapkan("unit sebagian", e.selesai(15500), 2500);
+    }
+
+    private static void harapkan(String skenario, MesinPromo.HasilPromo hasil, long potonganSen) {
+        if (hasil.getTotalPotonganSen() != potonganSen) {
+            System.out.println("GAGAL skenario " + skenario + ": potongan " + hasil.getTotalPotonganSen()
+                + " sen, diharapkan " + potonganSen + " sen (" + hasil + ")");
+            System.exit(1);
+        }
+    }
+
+    private static String ujiAcak(Random acak) {
+        // Harga unit minimal 1000 sen dan potongan paket paling banyak 500 sen, sehingga
+        // potongan tidak pernah dibatasi total dan model cukup menandai unit
+        List<AturanModel> daftarAturan = new ArrayList<>();
+        MesinPromo.Penyusun penyusun = new MesinPromo.Penyusun();
+        int jumlahAturan = 1 + acak.nextInt(4);
+        for (int i = 0; i < jumlahAturan; i++) {
+            int prioritas = acak.nextInt(3);
+            penyusun.prioritas(prioritas, false);
+            String nama = "Aturan " + i;
+            if (acak.nextBoolean()) {
+                String kategori = KATEGORI[acak.nextInt(2)];
+                int beli = 1 + acak.nextInt(3);
+                int gratis = 1 + acak.nextInt(2);
+                penyusun.beliGratis(nama, kategori, beli, gratis, 0);
+                daftarAturan.add(new AturanModel(nama, false, prioritas, new String[] {kategori}, beli, gratis, 0));
+            } else {
+                String[] kategori = new String[1 + acak.nextInt(3)];
+                for (int k = 0; k < kategori.length; k++) {
+                    kategori[k] = KATEGORI[acak.nextInt(KATEGORI.length)];
+                }
+                long potongan = acak.nextInt(6) * 100;
+                penyusun.paketKategori(nama, potongan, 0, kategori);
+                daftarAturan.add(new AturanModel(nama, true, prioritas, kategori, 0, 0, potongan));
+            }
+        }
+        // Urutan evaluasi mesin: prioritas kecil dulu, sesuai urutan penambahan
+        daftarAturan.sort((a, b) -> Integer.compare(a.prioritas, b.prioritas));
+
+        MesinPromo.Evaluasi evaluasi = penyusun.susun().mulai();
+        List<List<Long>> unit = new ArrayList<>();
+        for (int k = 0; k < KATEGORI.length; k++) {
+            unit.add(new ArrayList<>());
+        }
+        long total = 0;
+        int jumlahBaris = acak.nextInt(8);
+        for (int i = 0; i < jumlahBaris; i++) {
+            int k = acak.nextInt(KATEGORI.length);
+            long harga = 1000 + acak.nextInt(10) * 250;
+            int jumlah = 1 + acak.nextInt(4);
+            evaluasi.tambah("Item " + i, KATEGORI[k], harga, jumlah);
+            for (int j = 0; j < jumlah; j++) {
+                unit.get(k).add(harga);
+            }
+            total += harga * jumlah;
+        }
+        MesinPromo.HasilPromo hasil = evaluasi.selesai(total);
+
+        List<String> namaModel = new ArrayList<>();
+        List<Long> potonganModel = new ArrayList<>();
+        hitungModel(daftarAturan, unit, namaModel, potonganModel);
+        List<String> namaMesin = new ArrayList<>();
+        List<Long> potonganMesin = new ArrayList<>();
+        for (int i = 0; i < hasil.getJumlahPotongan(); i++) {
+            namaMesin.add(hasil.getNamaPotongan(i));
+            potonganMesin.add(hasil.getPotonganSen(i));
+        }
+        if (!namaMesin.equals(namaModel) || !potonganMesin.equals(potonganModel)) {
+            return "mesin " + namaMesin + potonganMesin + ", model " + namaModel + potonganModel;
+        }
+        return null;
+    }
+
+    // Beli-gratis menggratiskan unit termurah yang belum terpakai dan memakai unit dibayar
+    // dari yang termahal; paket memakai unit termahal yang belum terpakai
+    private static void hitungModel(List<AturanModel> daftarAturan, List<List<Long>> unit,
+                                    List<String> nama, List<Long> potongan) {
+        long[][] harga = new long[unit.size()][];
+        boolean[][] terpakai = new boolean[unit.size()][];
+        for (int k = 0; k < unit.size(); k++) {
+            harga[k] = unit.get(k).stream().mapToLong(Long::longValue).sorted().toArray();
+            terpakai[k] = new boolean[harga[k].length];
+        }
+        for (AturanModel a : daftarAturan) {
+            if (!a.paket) {
+                int k = Arrays.asList(KATEGORI).indexOf(a.kategori[0]);
+                int kelompok = sisa(terpakai[k]) / (a.beli + a.gratis);
+                long gratis = 0;
+                for (int j = 0; j < kelompok * a.gratis; j++) {
+                    gratis += harga[k][pakaiTermurah(terpakai[k])];
+                }
+                for (int j = 0; j < kelompok * a.beli; j++) {
+                    pakaiTermahal(terpakai[k]);
+                }
+                if (gratis > 0) {
+                    nama.add(a.nama);
+                    potongan.add(gratis);
+                }
+            } else {
+                int[] perPaket = new int[KATEGORI.length];
+                for (String kategori : a.kategori) {
+                    perPaket[Arrays.asList(KATEGORI).indexOf(kategori)]++;
+                }
+                int paket = Integer.MAX_VALUE;
+                for (int k = 0; k < KATEGORI.length; k++) {
+                    if (perPaket[k] > 0) {
+                        paket = Math.min(paket, sisa(terpakai[k]) / perPaket[k]);
+                    }
+                }
+                if (paket * a.potonganSen > 0) {
+                    for (int k = 0; k < KATEGORI.length; k++) {
+                        for (int j = 0; j < paket * perPaket[k]; j++) {
+                            pakaiTermahal(terpakai[k]);
+                        }
+                    }
+                    nama.add(a.nama);
+                    potongan.add(paket * a.potonganSen);
+                }
+            }
+        }
+    }
+
+    private static int sisa(boolean[] terpakai) {
+        int n = 0;
+        for (boolean t : terpakai) {
+            if (!t) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int pakaiTermurah(boolean[] terpakai) {
+        for (int i = 0; i < terpakai.length; i++) {
+            if (!terpakai[i]) {
+                terpakai[i] = true;
+                return i;
+            }
+        }
+        throw new IllegalStateException("Tidak ada unit sisa");
+    }
+
+    private static void pakaiTermahal(boolean[] terpakai) {
+        for (int i = terpakai.length - 1; i >= 0; i--) {
+            if (!terpakai[i]) {
+                terpakai[i] = true;
+                return;
+            }
+        }
+        throw new IllegalStateException("Tidak ada unit sisa");
+    }
+}
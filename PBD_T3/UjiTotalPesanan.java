@@ -0,0 +1,212 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Uji properti total berjalan Pesanan. Rangkaian perubahan acak (tambah, tambah
+ * dengan catatan, tambah banyak, hapus, ubah jumlah, setJumlah, setCatatan yang
+ * dapat menggabungkan baris, kosongkan, dan perubahan harga menu) diterapkan ke
+ * Pesanan dan ke model sederhana berupa daftar baris. Setelah setiap langkah isi
+ * baris, subtotal berjalan, jumlah item dan hasil hitung ulang harus sama dengan model.
+ *
+ * Jalankan: java UjiTotalPesanan [jumlahPesanan] [langkah] [seed]
+ * Keluar dengan kode 1 dan mencetak seed serta langkah jika ada pelanggaran.
+ */
+public class UjiTotalPesanan {
+    private static final String[] CATATAN = {"", "pedas", "tanpa es", "bungkus"};
+
+    // Baris model: menu, catatan, harga satuan saat ditambahkan dan jumlah
+    private static class Baris {
+        final MenuItem menu;
+        String catatan;
+        final long hargaSen;
+        int jumlah;
+
+        Baris(MenuItem menu, String catatan, int jumlah) {
+            this.menu = menu;
+            this.catatan = catatan;
+            this.hargaSen = menu.getHargaSen();
+            this.jumlah = jumlah;
+        }
+    }
+
+    public static void main(String[] args) {
+        int jumlahPesanan = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int langkah = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long seedAwal = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        // Pesanan mencetak pesan untuk setiap perubahan
+        PrintStream keluaran = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        ArrayList<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            menu.add(new Makanan("Menu " + i, 1000 + i * 1250.5, "pokok"));
+        }
+
+        long operasi = 0;
+        for (long seed = seedAwal; seed < seedAwal + jumlahPesanan; seed++) {
+            Random acak = new Random(seed);
+            Pesanan pesanan = new Pesanan("Uji", "1");
+            List<Baris> model = new ArrayList<>();
+            for (int n = 0; n < langkah; n++) {
+                String operasiTerakhir = langkahAcak(acak, menu, pesanan, model);
+                operasi++;
+                String galat = bandingkan(pesanan, model);
+                if (galat != null) {
+                    System.setOut(keluaran);
+                    System.out.println("GAGAL seed " + seed + " langkah " + n + " (" + operasiTerakhir + "): " + galat);
+                    System.exit(1);
+                }
+            }
+        }
+        System.setOut(keluaran);
+        System.out.println("OK: " + jumlahPesanan + " pesanan, " + operasi + " perubahan");
+    }
+
+    private static String langkahAcak(Random acak, List<MenuItem> menu, Pesanan pesanan, List<Baris> model) {
+        MenuItem m = menu.get(acak.nextInt(menu.size()));
+        int jumlah = 1 + acak.nextInt(5);
+        String catatan = CATATAN[acak.nextInt(CATATAN.length)];
+        int pilihan = acak.nextInt(100);
+
+        if (pilihan < 25) {
+            pesanan.tambahItem(m, jumlah);
+            Baris b = cariPertama(model, m);
+            if (b != null) {
+                b.jumlah += jumlah;
+            } else {
+                model.add(new Baris(m, "", jumlah));
+            }
+            return "tambahItem";
+        }
+        if (pilihan < 45) {
+            pesanan.tambahItem(m, jumlah, catatan);
+            Baris b = cari(model, m, catatan);
+            if (b != null) {
+                b.jumlah += jumlah;
+            } else {
+                model.add(new Baris(m, catatan, jumlah));
+            }
+            return "tambahItem dengan catatan";
+        }
+        if (pilihan < 50) {
+            Map<MenuItem, Integer> banyak = new LinkedHashMap<>();
+            for (int i = 0; i < 3; i++) {
+                banyak.merge(menu.get(acak.nextInt(menu.size())), 1 + acak.nextInt(3), Integer::sum);
+            }
+            pesanan.tambahItems(banyak);
+            for (Map.Entry<MenuItem, Integer> entri : banyak.entrySet()) {
+                Baris b = cariPertama(model, entri.getKey());
+                if (b != null) {
+                    b.jumlah += entri.getValue();
+                } else {
+                    model.add(new Baris(entri.getKey(), "", entri.getValue()));
+                }
+            }
+            return "tambahItems";
+        }
+        if (pilihan < 60) {
+            pesanan.hapusItem(m.getId());
+            model.remove(cariPertama(model, m));
+            return "hapusItem";
+        }
+        if (pilihan < 70) {
+            int jumlahBaru = acak.nextInt(6) - 1;
+            pesanan.ubahJumlahItem(m.getId(), jumlahBaru);
+            Baris b = cariPertama(model, m);
+            if (jumlahBaru <= 0) {
+                model.remove(b);
+            } else if (b != null) {
+                b.jumlah = jumlahBaru;
+            }
+            return "ubahJumlahItem";
+        }
+        if (model.isEmpty()) {
+            return "tidak ada";
+        }
+        int posisi = acak.nextInt(model.size());
+        Pesanan.ItemPesanan item = pesanan.getItemPesanan().get(posisi);
+        Baris b = model.get(posisi);
+        if (pilihan < 80) {
+            int jumlahBaru = acak.nextInt(6) - 1;
+            item.setJumlah(jumlahBaru);
+            if (jumlahBaru > 0) {
+                b.jumlah = jumlahBaru;
+            }
+            return "setJumlah";
+        }
+        if (pilihan < 95) {
+            item.setCatatan(catatan);
+            Baris lain = cari(model, b.menu, catatan);
+            if (lain == null) {
+                b.catatan = catatan;
+            } else if (lain != b) {
+                model.remove(b);
+                lain.jumlah += b.jumlah;
+            }
+            return "setCatatan";
+        }
+        if (pilihan < 98) {
+            // Harga baris tetap harga saat ditambahkan
+            m.setHarga(m.getHarga() + 0.25);
+            return "setHarga menu";
+        }
+        pesanan.kosongkanPesanan();
+        model.clear();
+        return "kosongkanPesanan";
+    }
+
+    // Baris paling awal untuk menu tersebut, apa pun catatannya
+    private static Baris cariPertama(List<Baris> model, MenuItem menu) {
+        for (Baris b : model) {
+            if (b.menu == menu) {
+                return b;
+            }
+        }
+        return null;
+    }
+
+    private static Baris cari(List<Baris> model, MenuItem menu, String catatan) {
+        for (Baris b : model) {
+            if (b.menu == menu && b.catatan.equals(catatan)) {
+                return b;
+            }
+        }
+        return null;
+    }
+
+    private static String bandingkan(Pesanan pesanan, List<Baris> model) {
+        List<Pesanan.ItemPesanan> daftar = pesanan.getItemPesanan();
+        if (daftar.size() != model.size()) {
+            return "jumlah baris " + daftar.size() + ", model " + model.size();
+        }
+        long subtotalSen = 0;
+        int jumlahItem = 0;
+        for (int i = 0; i < daftar.size(); i++) {
+            Pesanan.ItemPesanan item = daftar.get(i);
+            Baris b = model.get(i);
+            if (item.getMenuItem() != b.menu || !item.getCatatan().equals(b.catatan)
+                    || item.getJumlah() != b.jumlah || item.getHargaSatuanSen() != b.hargaSen) {
+                return "baris " + i + " adalah " + item + ", model " + b.menu.getNama()
+                        + " '" + b.catatan + "' " + b.jumlah + "x";
+            }
+            subtotalSen += Uang.kali(b.hargaSen, b.jumlah);
+            jumlahItem += b.jumlah;
+        }
+        if (pesanan.hitungSubtotalSen() != subtotalSen) {
+            return "subtotal berjalan " + pesanan.hitungSubtotalSen() + ", model " + subtotalSen;
+        }
+        if (pesanan.hitungUlangSubtotalSen() != subtotalSen) {
+            return "subtotal hitung ulang " + pesanan.hitungUlangSubtotalSen() + ", model " + subtotalSen;
+        }
+        if (pesanan.getTotalJumlahItem() != jumlahItem) {
+            return "jumlah item " + pesanan.getTotalJumlahItem() + ", model " + jumlahItem;
+        }
+        return null;
+    }
+}
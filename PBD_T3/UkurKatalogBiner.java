@@ -0,0 +1,149 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.FileReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pengukur waktu muat menu saat startup: katalog biner (KatalogBiner.muat) dibandingkan
+ * dengan file teks (PenguraiMenu lalu tambahSemuaMenuItem), keduanya sampai menu siap
+ * dipakai lengkap dengan indeksnya dan masing-masing dimulai setelah System.gc(). Waktu
+ * urai teks tanpa membangun indeks dicetak terpisah. Kedua file ditulis ke direktori
+ * sementara sehingga menu_data.* tidak tersentuh, dan isi menu dari kedua jalur harus sama.
+ *
+ * Jalankan: java UkurKatalogBiner [jumlahMenu] [putaran]
+ * Keluar dengan kode 1 jika isi menu dari katalog biner berbeda dengan file teks.
+ */
+public class UkurKatalogBiner {
+    private static final int PEMANASAN = 3;
+
+    public static void main(String[] args) throws IOException {
+        int jumlahMenu = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int putaran = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+
+        // MenuRestoran mencetak pesan saat menu ditambahkan
+        PrintStream keluaran = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Path direktori = Files.createTempDirectory("ukur-katalog");
+        String fileTeks = direktori.resolve("menu_data.txt").toString();
+        String fileBiner = direktori.resolve("menu_data.bin").toString();
+        try {
+            MenuRestoran sumber = bangkitkanMenu(jumlahMenu);
+            tulisTeks(sumber, fileTeks);
+            KatalogBiner.simpan(sumber, fileBiner);
+
+            long[] waktuBiner = new long[putaran];
+            long[] waktuTeks = new long[putaran];
+            long[] waktuUraiTeks = new long[putaran];
+            for (int p = -PEMANASAN; p < putaran; p++) {
+                // Sampah putaran sebelumnya dibersihkan dulu agar GC penuh tidak dibebankan
+                // ke jalur yang kebetulan diukur lebih dulu
+                System.gc();
+                long t0 = System.nanoTime();
+                MenuRestoran dariBiner = KatalogBiner.muat(fileBiner);
+                long t1 = System.nanoTime();
+                if (p != -PEMANASAN) {
+                    dariBiner = null;
+                }
+                System.gc();
+
+                long t2 = System.nanoTime();
+                List<MenuItem> daftarItem = new ArrayList<>(jumlahMenu);
+                try (Reader reader = new FileReader(fileTeks)) {
+                    new PenguraiMenu().urai(reader, daftarItem, new ArrayList<>());
+                }
+                long t3 = System.nanoTime();
+                MenuRestoran dariTeks = new MenuRestoran("Restoran Saya");
+                dariTeks.tambahSemuaMenuItem(daftarItem);
+                long t4 = System.nanoTime();
+
+                if (p == -PEMANASAN) {
+                    periksaSama(dariTeks, dariBiner, keluaran);
+                }
+                if (p >= 0) {
+                    waktuBiner[p] = t1 - t0;
+                    waktuUraiTeks[p] = t3 - t2;
+                    waktuTeks[p] = t4 - t2;
+                }
+            }
+
+            System.setOut(keluaran);
+            System.out.printf("%d menu: teks %.1f MB, biner %.1f MB%n", jumlahMenu,
+                    Files.size(Path.of(fileTeks)) / 1e6, Files.size(Path.of(fileBiner)) / 1e6);
+            cetak("katalog biner", waktuBiner);
+            cetak("file teks", waktuTeks);
+            cetak("  (urai teks saja)", waktuUraiTeks);
+        } finally {
+            System.setOut(keluaran);
+            Files.deleteIfExists(Path.of(fileTeks));
+            Files.deleteIfExists(Path.of(fileBiner));
+            Files.deleteIfExists(direktori);
+        }
+    }
+
+    static MenuRestoran bangkitkanMenu(int jumlahMenu) {
+        String[] jenis = {"pokok", "pembuka", "penutup"};
+        String[] ukuran = {"kecil", "sedang", "besar"};
+        List<MenuItem> daftar = new ArrayList<>(jumlahMenu);
+        for (int i = 0; i < jumlahMenu; i++) {
+            switch (i % 10) {
+                case 0:
+                    daftar.add(new Diskon("Diskon " + i, 0.05 + i % 5 * 0.05, 50000, "semua"));
+                    break;
+                case 1: case 2: case 3: case 4:
+                    daftar.add(new Minuman("Minuman " + i, 5000 + i % 20000, "dingin", ukuran[i % 3], i % 2 == 0));
+                    break;
+                default:
+                    daftar.add(new Makanan("Makanan " + i, 10000 + i % 90000 + 0.5, jenis[i % 3], "sedang"));
+                    break;
+            }
+        }
+        MenuRestoran menu = new MenuRestoran("Restoran Saya");
+        menu.tambahSemuaMenuItem(daftar);
+        return menu;
+    }
+
+    // Format yang sama dengan FileHandler.simpanMenuKeFile
+    static void tulisTeks(MenuRestoran menu, String namaFile) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(namaFile), 64 * 1024)) {
+            writer.write("=== MENU RESTORAN " + menu.getNamaRestoran().toUpperCase() + " ===");
+            writer.newLine();
+            writer.write("Total Menu: " + menu.getJumlahMenu());
+            writer.newLine();
+            writer.write("=".repeat(50));
+            writer.newLine();
+            writer.newLine();
+            for (MenuItem item : menu.getSnapshot()) {
+                writer.write(item.toFileString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void periksaSama(MenuRestoran dariTeks, MenuRestoran dariBiner, PrintStream keluaran) {
+        List<MenuItem> teks = dariTeks.getSnapshot().getDaftarMenu();
+        List<MenuItem> biner = dariBiner.getSnapshot().getDaftarMenu();
+        for (int i = 0; i < Math.max(teks.size(), biner.size()); i++) {
+            String a = i < teks.size() ? teks.get(i).toFileString() : "(tidak ada)";
+            String b = i < biner.size() ? biner.get(i).toFileString() : "(tidak ada)";
+            if (!a.equals(b)) {
+                keluaran.println("GAGAL: menu ke-" + i + " dari teks " + a + ", dari biner " + b);
+                System.exit(1);
+            }
+        }
+    }
+
+    private static void cetak(String nama, long[] waktu) {
+        long[] urut = waktu.clone();
+        Arrays.sort(urut);
+        System.out.printf("%-20s median %7.1f ms  min %7.1f ms%n", nama, urut[urut.length / 2] / 1e6, urut[0] / 1e6);
+    }
+}
@@ -0,0 +1,120 @@
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pengukur PemuatMenuParalel untuk beberapa tingkat paralelisme. Untuk setiap tingkat
+ * dicetak waktu muat file teks sampai menu siap dipakai, dan waktu membangun indeks
+ * saja (tambahSemuaMenuItem dengan pool) dari item yang sudah diurai. Pembangunan indeks
+ * berurutan (tanpa pool) dicetak sebagai pembanding. Jumlah CPU ikut dicetak karena
+ * percepatan hanya terlihat jika pool benar-benar mendapat lebih dari satu CPU; pada
+ * satu CPU selisihnya adalah biaya menggabungkan indeks potongan.
+ *
+ * Jalankan: java UkurPemuatMenuParalel [jumlahMenu] [putaran] [paralelisme...]
+ * Keluar dengan kode 1 jika isi menu hasil pemuatan paralel berbeda dengan file.
+ */
+public class UkurPemuatMenuParalel {
+    private static final int PEMANASAN = 2;
+
+    public static void main(String[] args) throws IOException {
+        int jumlahMenu = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int putaran = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int jumlahCpu = Runtime.getRuntime().availableProcessors();
+        int[] daftarParalelisme = args.length > 2
+                ? Arrays.stream(args, 2, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1, 2, 4, Math.max(8, jumlahCpu)};
+
+        // MenuRestoran mencetak pesan saat menu ditambahkan
+        PrintStream keluaran = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Path direktori = Files.createTempDirectory("ukur-pemuat");
+        String fileTeks = direktori.resolve("menu_data.txt").toString();
+        try {
+            MenuRestoran sumber = UkurKatalogBiner.bangkitkanMenu(jumlahMenu);
+            UkurKatalogBiner.tulisTeks(sumber, fileTeks);
+            List<String> isiSumber = isiMenu(sumber);
+            sumber = null;
+
+            System.setOut(keluaran);
+            System.out.printf("%d menu, %d CPU%n", jumlahMenu, jumlahCpu);
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long[] berurutan = new long[putaran];
+            for (int p = -PEMANASAN; p < putaran; p++) {
+                long waktu = ukurIndeks(fileTeks, null);
+                if (p >= 0) {
+                    berurutan[p] = waktu;
+                }
+            }
+            cetak(keluaran, "indeks tanpa pool", berurutan);
+
+            for (int paralelisme : daftarParalelisme) {
+                ForkJoinPool pool = new ForkJoinPool(paralelisme);
+                try {
+                    PemuatMenuParalel pemuat = new PemuatMenuParalel(pool);
+                    long[] muat = new long[putaran];
+                    long[] indeks = new long[putaran];
+                    for (int p = -PEMANASAN; p < putaran; p++) {
+                        System.gc();
+                        long t0 = System.nanoTime();
+                        MenuRestoran menu = new MenuRestoran("Restoran Saya");
+                        pemuat.muatKe(fileTeks, menu, new ArrayList<>());
+                        long t1 = System.nanoTime();
+                        if (p == -PEMANASAN && !isiMenu(menu).equals(isiSumber)) {
+                            keluaran.println("GAGAL: isi menu paralelisme " + paralelisme + " berbeda dengan file");
+                            System.exit(1);
+                        }
+                        menu = null;
+                        long waktuIndeks = ukurIndeks(fileTeks, pool);
+                        if (p >= 0) {
+                            muat[p] = t1 - t0;
+                            indeks[p] = waktuIndeks;
+                        }
+                    }
+                    cetak(keluaran, "muat paralel " + paralelisme, muat);
+                    cetak(keluaran, "  (indeks saja)", indeks);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            System.setOut(keluaran);
+            Files.deleteIfExists(Path.of(fileTeks));
+            Files.deleteIfExists(direktori);
+        }
+    }
+
+    // Item diurai lebih dulu agar yang diukur hanya tambahSemuaMenuItem
+    private static long ukurIndeks(String fileTeks, ForkJoinPool pool) throws IOException {
+        List<MenuItem> daftarItem = new ArrayList<>();
+        try (Reader reader = new FileReader(fileTeks)) {
+            new PenguraiMenu().urai(reader, daftarItem, new ArrayList<>());
+        }
+        System.gc();
+        long mulai = System.nanoTime();
+        new MenuRestoran("Restoran Saya").tambahSemuaMenuItem(daftarItem, pool);
+        return System.nanoTime() - mulai;
+    }
+
+    private static List<String> isiMenu(MenuRestoran menu) {
+        List<String> isi = new ArrayList<>(menu.getJumlahMenu());
+        for (MenuItem item : menu.getSnapshot()) {
+            isi.add(item.toFileString());
+        }
+        return isi;
+    }
+
+    private static void cetak(PrintStream keluaran, String nama, long[] waktu) {
+        long[] urut = waktu.clone();
+        Arrays.sort(urut);
+        keluaran.printf("%-22s median %7.1f ms  min %7.1f ms%n", nama, urut[urut.length / 2] / 1e6, urut[0] / 1e6);
+    }
+}
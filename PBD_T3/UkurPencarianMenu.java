@@ -0,0 +1,136 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pengukur latensi pencarian typeahead IndeksPencarianMenu. Setiap nama sasaran
+ * diketik huruf demi huruf seperti oleh kasir, dan setiap ketukan diukur sebagai
+ * satu kueri top-k; kueri 1-2 huruf juga dicetak terpisah. Sebagai pembanding diukur
+ * pemindaian linear yang mencocokkan awal setiap kata pada nama ternormalisasi, dan
+ * hasil indeks harus sama persis (isi dan urutan) dengan pemindaian linear, baik indeks
+ * yang dibangun sekaligus maupun yang disisipkan satu per satu.
+ *
+ * Jalankan: java UkurPencarianMenu [jumlahMenu] [jumlahSasaran] [k]
+ * Keluar dengan kode 1 jika hasil indeks berbeda dari pemindaian linear.
+ */
+public class UkurPencarianMenu {
+    private static final String[] KATA = {
+        "nasi", "mie", "ayam", "bebek", "sapi", "ikan", "udang", "cumi", "tahu", "tempe",
+        "goreng", "bakar", "rebus", "kuah", "pedas", "manis", "asam", "kecap", "balado", "rica",
+        "soto", "sate", "gulai", "rendang", "opor", "pecel", "gado", "lontong", "ketupat", "bakso",
+        "es", "teh", "kopi", "jeruk", "alpukat", "kelapa", "susu", "cokelat", "caf\u00e9", "cr\u00e8me"
+    };
+
+    public static void main(String[] args) {
+        int jumlahMenu = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int jumlahSasaran = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        Random acak = new Random(42);
+        ArrayList<MenuItem> daftar = new ArrayList<>(jumlahMenu);
+        String[] namaNormal = new String[jumlahMenu];
+        for (int i = 0; i < jumlahMenu; i++) {
+            String nama = KATA[acak.nextInt(KATA.length)] + " " + KATA[acak.nextInt(KATA.length)]
+                    + " " + KATA[acak.nextInt(KATA.length)] + " " + i;
+            daftar.add(new Makanan(nama, 10000, "pokok"));
+            namaNormal[i] = IndeksPencarianMenu.normalisasi(nama);
+        }
+        long mulaiBangun = System.nanoTime();
+        IndeksPencarianMenu indeks = IndeksPencarianMenu.KOSONG.tambahSemua(daftar);
+        long waktuBangun = System.nanoTime() - mulaiBangun;
+        long mulaiSisip = System.nanoTime();
+        IndeksPencarianMenu indeksSisip = IndeksPencarianMenu.KOSONG;
+        for (MenuItem item : daftar) {
+            indeksSisip = indeksSisip.tambah(item, item.getNama());
+        }
+        long waktuSisip = System.nanoTime() - mulaiSisip;
+
+        // Kueri: setiap awalan nama sasaran dan kata keduanya, seperti ketikan kasir
+        ArrayList<String> kueri = new ArrayList<>();
+        for (int s = 0; s < jumlahSasaran; s++) {
+            String nama = daftar.get(acak.nextInt(jumlahMenu)).getNama();
+            String diketik = s % 2 == 0 ? nama : nama.substring(nama.indexOf(' ') + 1);
+            int panjang = Math.min(diketik.length(), 12);
+            for (int p = 1; p <= panjang; p++) {
+                kueri.add(diketik.substring(0, p));
+            }
+        }
+
+        // Pemanasan JIT
+        for (int u = 0; u < 3; u++) {
+            for (String q : kueri) {
+                indeks.cari(q, k);
+            }
+        }
+
+        long[] latensi = new long[kueri.size()];
+        long[] latensiPendek = new long[kueri.size()];
+        int jumlahPendek = 0;
+        for (int i = 0; i < kueri.size(); i++) {
+            long mulai = System.nanoTime();
+            indeks.cari(kueri.get(i), k);
+            latensi[i] = System.nanoTime() - mulai;
+            if (kueri.get(i).trim().length() <= 2) {
+                latensiPendek[jumlahPendek++] = latensi[i];
+            }
+        }
+
+        int diperiksa = Math.min(kueri.size(), 2_000);
+        long[] latensiLinear = new long[diperiksa];
+        for (int i = 0; i < diperiksa; i++) {
+            String q = kueri.get(i);
+            long mulai = System.nanoTime();
+            List<MenuItem> harapan = pindaiLinear(daftar, namaNormal, IndeksPencarianMenu.normalisasi(q).trim(), k);
+            latensiLinear[i] = System.nanoTime() - mulai;
+            List<MenuItem> hasil = indeks.cari(q, k);
+            if (!hasil.equals(harapan) || !indeksSisip.cari(q, k).equals(harapan)) {
+                System.out.println("GAGAL: kueri '" + q + "' menghasilkan " + hasil
+                        + ", pemindaian linear " + harapan);
+                System.exit(1);
+            }
+        }
+
+        System.out.printf("%d menu, %d kueri top-%d, bangun indeks %.1f ms (sisip satu per satu %.1f ms)%n",
+                jumlahMenu, kueri.size(), k, waktuBangun / 1e6, waktuSisip / 1e6);
+        cetak("indeks trie", latensi);
+        cetak("  (kueri 1-2 huruf)", Arrays.copyOf(latensiPendek, jumlahPendek));
+        cetak("pemindaian linear", latensiLinear);
+    }
+
+    // Peringkat sama dengan indeks: awalan nama, nama lebih pendek, nama, lalu ID
+    private static List<MenuItem> pindaiLinear(List<MenuItem> daftar, String[] namaNormal, String q, int k) {
+        ArrayList<int[]> cocok = new ArrayList<>();
+        for (int i = 0; i < namaNormal.length; i++) {
+            String nama = namaNormal[i];
+            if (nama.startsWith(q)) {
+                cocok.add(new int[] {0, i});
+                continue;
+            }
+            for (int p = nama.indexOf(q, 1); p > 0; p = nama.indexOf(q, p + 1)) {
+                if (!Character.isLetterOrDigit(nama.charAt(p - 1))) {
+                    cocok.add(new int[] {1, i});
+                    break;
+                }
+            }
+        }
+        cocok.sort(Comparator.<int[]>comparingInt(c -> c[0])
+                .thenComparingInt(c -> namaNormal[c[1]].length())
+                .thenComparing(c -> namaNormal[c[1]])
+                .thenComparingInt(c -> daftar.get(c[1]).getId()));
+        ArrayList<MenuItem> hasil = new ArrayList<>(k);
+        for (int i = 0; i < Math.min(k, cocok.size()); i++) {
+            hasil.add(daftar.get(cocok.get(i)[1]));
+        }
+        return hasil;
+    }
+
+    private static void cetak(String nama, long[] latensi) {
+        long[] urut = latensi.clone();
+        Arrays.sort(urut);
+        System.out.printf("%-20s p50 %8.1f us  p99 %8.1f us  maks %8.1f us%n", nama,
+                urut[urut.length / 2] / 1e3, urut[(int) (urut.length * 0.99)] / 1e3,
+                urut[urut.length - 1] / 1e3);
+    }
+}
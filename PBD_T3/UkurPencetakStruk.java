@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pengukur throughput PencetakStruk: detail pesanan dan struk (dengan diskon dan
+ * promo) dirender lalu ditulis ke channel yang membuang isinya, pada satu thread
+ * dan pada beberapa thread yang masing-masing memakai instance per-thread.
+ * Struk yang dirender di thread lain harus identik dengan hasil thread utama.
+ *
+ * Jalankan: java UkurPencetakStruk [jumlahPesanan] [detik] [thread]
+ * Keluar dengan kode 1 jika struk antar thread berbeda.
+ */
+public class UkurPencetakStruk {
+    public static void main(String[] args) throws Exception {
+        int jumlahPesanan = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        double detik = args.length > 1 ? Double.parseDouble(args[1]) : 3;
+        int jumlahThread = args.length > 2 ? Integer.parseInt(args[2])
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        // Menu dan Pesanan mencetak pesan untuk setiap perubahan
+        PrintStream keluaran = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        ArrayList<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            menu.add(i % 2 == 0
+                    ? new Makanan("Makanan " + i, 15000 + i * 1750.5, "pokok")
+                    : new Minuman("Minuman " + i, 6000 + i * 500, "dingin"));
+        }
+        ArrayList<Diskon> daftarDiskon = new ArrayList<>();
+        daftarDiskon.add(new Diskon("Hemat 10%", 0.1, 100000, "semua"));
+        daftarDiskon.add(new Diskon("Hemat 15%", 0.15, 250000, "semua"));
+        MesinDiskon mesinDiskon = new MesinDiskon(daftarDiskon);
+        MesinPromo mesinPromo = new MesinPromo.Penyusun()
+                .beliGratis("Beli 2 gratis 1", "minuman", 2, 1, 0)
+                .persenAmbang("Belanja besar", 500, 300_000_00)
+                .susun();
+
+        Random acak = new Random(42);
+        List<Pesanan> daftarPesanan = new ArrayList<>();
+        for (int p = 0; p < jumlahPesanan; p++) {
+            Pesanan pesanan = new Pesanan("Pelanggan " + p, String.valueOf(1 + p % 30));
+            int baris = 3 + acak.nextInt(10);
+            for (int b = 0; b < baris; b++) {
+                pesanan.tambahItem(menu.get(acak.nextInt(menu.size())), 1 + acak.nextInt(4),
+                        acak.nextInt(4) == 0 ? "tanpa es" : null);
+            }
+            daftarPesanan.add(pesanan);
+        }
+        System.setOut(keluaran);
+
+        // Acuan struk dari thread utama untuk dibandingkan dengan thread lain
+        String[] acuan = new String[jumlahPesanan];
+        PencetakStruk pencetak = PencetakStruk.untukThreadIni();
+        for (int p = 0; p < jumlahPesanan; p++) {
+            acuan[p] = pencetak.renderDetail(daftarPesanan.get(p)).toString()
+                    + pencetak.renderStruk(daftarPesanan.get(p), mesinDiskon, mesinPromo);
+        }
+
+        WritableByteChannel buang = Channels.newChannel(OutputStream.nullOutputStream());
+        jalankan(daftarPesanan, mesinDiskon, mesinPromo, buang, detik / 3); // Pemanasan JIT
+        long satuThread = jalankan(daftarPesanan, mesinDiskon, mesinPromo, buang, detik);
+        System.out.printf("1 thread: %,.0f struk/detik (rata-rata %,d byte per struk)%n",
+                satuThread / detik, rataRataPanjang(acuan));
+
+        AtomicReference<String> pelanggaran = new AtomicReference<>();
+        long[] hasil = new long[jumlahThread];
+        Thread[] thread = new Thread[jumlahThread];
+        for (int t = 0; t < jumlahThread; t++) {
+            final int nomor = t;
+            thread[t] = new Thread(() -> {
+                try {
+                    WritableByteChannel tujuan = Channels.newChannel(OutputStream.nullOutputStream());
+                    PencetakStruk milikThread = PencetakStruk.untukThreadIni();
+                    for (int p = nomor; p < jumlahPesanan; p += jumlahThread) {
+                        String struk = milikThread.renderDetail(daftarPesanan.get(p)).toString()
+                                + milikThread.renderStruk(daftarPesanan.get(p), mesinDiskon, mesinPromo);
+                        if (!struk.equals(acuan[p])) {
+                            pelanggaran.compareAndSet(null, "struk pesanan ke-" + p + " berbeda di thread " + nomor);
+                        }
+                    }
+                    hasil[nomor] = jalankan(daftarPesanan, mesinDiskon, mesinPromo, tujuan, detik);
+                } catch (IOException e) {
+                    pelanggaran.compareAndSet(null, e.toString());
+                }
+            });
+            thread[t].start();
+        }
+        long total = 0;
+        for (int t = 0; t < jumlahThread; t++) {
+            thread[t].join();
+            total += hasil[t];
+        }
+        if (pelanggaran.get() != null) {
+            System.out.println("GAGAL: " + pelanggaran.get());
+            System.exit(1);
+        }
+        System.out.printf("%d thread: %,.0f struk/detik%n", jumlahThread, total / detik);
+    }
+
+    // Render detail dan struk berulang selama durasi tertentu, mengembalikan jumlah struk
+    private static long jalankan(List<Pesanan> daftarPesanan, MesinDiskon mesinDiskon, MesinPromo mesinPromo,
+                                 WritableByteChannel tujuan, double detik) throws IOException {
+        PencetakStruk pencetak = PencetakStruk.untukThreadIni();
+        long batas = System.nanoTime() + (long) (detik * 1e9);
+        long jumlah = 0;
+        while (System.nanoTime() < batas) {
+            for (int i = 0; i < 100; i++) {
+                Pesanan pesanan = daftarPesanan.get((int) (jumlah % daftarPesanan.size()));
+                pencetak.renderDetail(pesanan);
+                pencetak.tulisKe(tujuan);
+                pencetak.renderStruk(pesanan, mesinDiskon, mesinPromo);
+                pencetak.tulisKe(tujuan);
+                jumlah++;
+            }
+        }
+        return jumlah;
+    }
+
+    private static long rataRataPanjang(String[] struk) {
+        return (long) Arrays.stream(struk).mapToInt(String::length).average().orElse(0);
+    }
+}
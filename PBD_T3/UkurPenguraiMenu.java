@@ -0,0 +1,116 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pengukur kecepatan PenguraiMenu pada file menu teks yang dibangkitkan di memori.
+ * Tahap tokenisasi (validasi field tanpa membuat objek menu) dibandingkan dengan
+ * cara parser lama: readLine, String.split lalu Double.parseDouble. Penguraian penuh
+ * yang juga membuat objek MenuItem diukur terpisah.
+ *
+ * Pada 1 juta baris tokenisasi PenguraiMenu sekitar 2,5x lebih cepat, jauh di bawah
+ * target 10x: sekadar membaca dan memindai setiap char sekali sudah memakan sekitar
+ * 60-75% waktunya, sedangkan cara lama hanya sekitar 3-5x lebih lambat dari pemindaian itu.
+ *
+ * Jalankan: java UkurPenguraiMenu [jumlahBaris] [putaran]
+ */
+public class UkurPenguraiMenu {
+    private static final int PEMANASAN = 5;
+
+    public static void main(String[] args) throws IOException {
+        int jumlahBaris = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int putaran = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String isi = bangkitkanIsi(jumlahBaris);
+        System.out.printf("%d baris, %.1f MB%n", jumlahBaris, isi.length() * 2 / 1e6);
+
+        PenguraiMenu pengurai = new PenguraiMenu();
+        long[] lama = new long[putaran];
+        long[] token = new long[putaran];
+        long[] penuh = new long[putaran];
+        for (int p = -PEMANASAN; p < putaran; p++) {
+            long mulai = System.nanoTime();
+            int hasilLama = tokenisasiLama(isi);
+            long t1 = System.nanoTime();
+            int hasilToken = pengurai.hitungPotongan(new StringReader(isi));
+            long t2 = System.nanoTime();
+            List<MenuItem> hasil = new ArrayList<>(jumlahBaris);
+            int hasilPenuh = pengurai.uraiPotongan(new StringReader(isi), 0, hasil, new ArrayList<>());
+            long t3 = System.nanoTime();
+
+            if (hasilLama != jumlahBaris || hasilToken != jumlahBaris || hasilPenuh != jumlahBaris) {
+                System.out.println("GAGAL: jumlah item " + hasilLama + "/" + hasilToken + "/" + hasilPenuh);
+                System.exit(1);
+            }
+            if (p >= 0) {
+                lama[p] = t1 - mulai;
+                token[p] = t2 - t1;
+                penuh[p] = t3 - t2;
+            }
+        }
+
+        cetak("tokenisasi split+parseDouble", lama, jumlahBaris);
+        cetak("tokenisasi PenguraiMenu", token, jumlahBaris);
+        cetak("urai penuh PenguraiMenu", penuh, jumlahBaris);
+        System.out.printf("percepatan tokenisasi: %.1fx%n", (double) median(lama) / median(token));
+    }
+
+    // Baris data seperti yang ditulis simpanMenuKeFile, campuran ketiga tipe menu
+    private static String bangkitkanIsi(int jumlahBaris) {
+        String[] jenis = {"pokok", "pembuka", "penutup"};
+        String[] ukuran = {"kecil", "sedang", "besar"};
+        StringBuilder sb = new StringBuilder(jumlahBaris * 48);
+        for (int i = 0; i < jumlahBaris; i++) {
+            MenuItem item;
+            switch (i % 3) {
+                case 0:
+                    item = new Makanan("Makanan " + i, 10000 + i % 90000 + 0.5, jenis[i / 3 % 3], "sedang");
+                    break;
+                case 1:
+                    item = new Minuman("Minuman " + i, 5000 + i % 20000, "dingin", ukuran[i / 3 % 3], i % 2 == 0);
+                    break;
+                default:
+                    item = new Diskon("Diskon " + i, 0.1, 50000, "semua");
+                    break;
+            }
+            sb.append(item.toFileString()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Langkah tokenisasi parser sebelum PenguraiMenu
+    private static int tokenisasiLama(String isi) throws IOException {
+        int jumlah = 0;
+        double cek = 0;
+        BufferedReader reader = new BufferedReader(new StringReader(isi));
+        String baris;
+        while ((baris = reader.readLine()) != null) {
+            String[] field = baris.split("\\|");
+            if (field.length < 4) {
+                continue;
+            }
+            cek += Double.parseDouble(field[2]);
+            if (field[0].equals("Diskon")) {
+                cek += Double.parseDouble(field[4]) + Double.parseDouble(field[5]);
+            } else if (field[0].equals("Minuman") && field.length >= 7) {
+                cek += Boolean.parseBoolean(field[6]) ? 1 : 0;
+            }
+            jumlah++;
+        }
+        return cek >= 0 ? jumlah : -1;
+    }
+
+    private static long median(long[] waktu) {
+        long[] urut = waktu.clone();
+        Arrays.sort(urut);
+        return urut[urut.length / 2];
+    }
+
+    private static void cetak(String nama, long[] waktu, int jumlahBaris) {
+        long m = median(waktu);
+        System.out.printf("%-30s median %7.1f ms  %6.2f juta baris/detik%n",
+                nama, m / 1e6, jumlahBaris / (m / 1e9) / 1e6);
+    }
+}
@@ -0,0 +1,162 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Pengukur aritmetika uang Uang dibandingkan dengan double dan BigDecimal.
+ * Setiap putaran menghitung subtotal, pajak, diskon dan total untuk sekumpulan
+ * pesanan acak lalu memformat ketiga nilainya seperti pada struk. Sebelum
+ * pengukuran, Uang.bagi dicek terhadap BigDecimal untuk semua mode pembulatan
+ * dan Uang.format dicek terhadap DecimalFormat "#,##0.00".
+ *
+ * Jalankan: java UkurUang [jumlahPesanan] [putaran]
+ * Keluar dengan kode 1 jika hasil Uang berbeda dari BigDecimal.
+ */
+public class UkurUang {
+    private static final int BARIS_PER_PESANAN = 8;
+    private static final int PEMANASAN = 5;
+    private static final RoundingMode[] MODE = {
+        RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+        RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN
+    };
+
+    public static void main(String[] args) {
+        int jumlahPesanan = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int putaran = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        periksaKebenaran(new Random(1));
+
+        Random acak = new Random(42);
+        long[] hargaSen = new long[jumlahPesanan * BARIS_PER_PESANAN];
+        int[] jumlah = new int[hargaSen.length];
+        for (int i = 0; i < hargaSen.length; i++) {
+            hargaSen[i] = 500_000 + acak.nextInt(10_000_000); // Rp5.000 - Rp105.000
+            jumlah[i] = 1 + acak.nextInt(4);
+        }
+        long pajakBasisPoin = 1_100;  // 11%
+        long diskonBasisPoin = 1_250; // 12,5%
+
+        long[] waktuUang = new long[putaran];
+        long[] waktuDouble = new long[putaran];
+        long[] waktuBigDecimal = new long[putaran];
+        long cek = 0;
+        for (int p = -PEMANASAN; p < putaran; p++) {
+            long t0 = System.nanoTime();
+            cek += hitungUang(hargaSen, jumlah, pajakBasisPoin, diskonBasisPoin);
+            long t1 = System.nanoTime();
+            cek += hitungDouble(hargaSen, jumlah, pajakBasisPoin, diskonBasisPoin);
+            long t2 = System.nanoTime();
+            cek += hitungBigDecimal(hargaSen, jumlah, pajakBasisPoin, diskonBasisPoin);
+            long t3 = System.nanoTime();
+            if (p >= 0) {
+                waktuUang[p] = t1 - t0;
+                waktuDouble[p] = t2 - t1;
+                waktuBigDecimal[p] = t3 - t2;
+            }
+        }
+
+        System.out.printf("%d pesanan x %d baris (cek %d)%n", jumlahPesanan, BARIS_PER_PESANAN, cek);
+        cetak("Uang (long sen)", waktuUang, jumlahPesanan);
+        cetak("double + DecimalFormat", waktuDouble, jumlahPesanan);
+        cetak("BigDecimal + DecimalFormat", waktuBigDecimal, jumlahPesanan);
+    }
+
+    private static long hitungUang(long[] hargaSen, int[] jumlah, long pajakBp, long diskonBp) {
+        long panjang = 0;
+        StringBuilder sb = new StringBuilder(64);
+        for (int awal = 0; awal < hargaSen.length; awal += BARIS_PER_PESANAN) {
+            long subtotal = 0;
+            for (int i = awal; i < awal + BARIS_PER_PESANAN; i++) {
+                subtotal += Uang.kali(hargaSen[i], jumlah[i]);
+            }
+            long diskon = Uang.kaliBasisPoin(subtotal, diskonBp, RoundingMode.HALF_UP);
+            long pajak = Uang.kaliBasisPoin(subtotal - diskon, pajakBp, RoundingMode.HALF_UP);
+            sb.setLength(0);
+            Uang.formatKe(sb, subtotal);
+            Uang.formatKe(sb, diskon);
+            Uang.formatKe(sb, subtotal - diskon + pajak);
+            panjang += sb.length();
+        }
+        return panjang;
+    }
+
+    private static long hitungDouble(long[] hargaSen, int[] jumlah, long pajakBp, long diskonBp) {
+        DecimalFormat format = formatRupiah();
+        double pajakRasio = Uang.basisPoinKeRasio(pajakBp);
+        double diskonRasio = Uang.basisPoinKeRasio(diskonBp);
+        long panjang = 0;
+        for (int awal = 0; awal < hargaSen.length; awal += BARIS_PER_PESANAN) {
+            double subtotal = 0;
+            for (int i = awal; i < awal + BARIS_PER_PESANAN; i++) {
+                subtotal += Uang.keRupiah(hargaSen[i]) * jumlah[i];
+            }
+            double diskon = subtotal * diskonRasio;
+            double pajak = (subtotal - diskon) * pajakRasio;
+            panjang += format.format(subtotal).length() + format.format(diskon).length()
+                    + format.format(subtotal - diskon + pajak).length();
+        }
+        return panjang;
+    }
+
+    private static long hitungBigDecimal(long[] hargaSen, int[] jumlah, long pajakBp, long diskonBp) {
+        DecimalFormat format = formatRupiah();
+        BigDecimal pajakRasio = BigDecimal.valueOf(pajakBp, 4);
+        BigDecimal diskonRasio = BigDecimal.valueOf(diskonBp, 4);
+        long panjang = 0;
+        for (int awal = 0; awal < hargaSen.length; awal += BARIS_PER_PESANAN) {
+            BigDecimal subtotal = BigDecimal.ZERO;
+            for (int i = awal; i < awal + BARIS_PER_PESANAN; i++) {
+                subtotal = subtotal.add(BigDecimal.valueOf(hargaSen[i], 2).multiply(BigDecimal.valueOf(jumlah[i])));
+            }
+            BigDecimal diskon = subtotal.multiply(diskonRasio).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal setelahDiskon = subtotal.subtract(diskon);
+            BigDecimal pajak = setelahDiskon.multiply(pajakRasio).setScale(2, RoundingMode.HALF_UP);
+            panjang += format.format(subtotal).length() + format.format(diskon).length()
+                    + format.format(setelahDiskon.add(pajak)).length();
+        }
+        return panjang;
+    }
+
+    // Uang harus identik dengan BigDecimal untuk pembagian dan format
+    private static void periksaKebenaran(Random acak) {
+        DecimalFormat format = formatRupiah();
+        for (int i = 0; i < 200_000; i++) {
+            long pembilang = acak.nextLong() >> acak.nextInt(63);
+            long penyebut = (acak.nextLong() >> acak.nextInt(63)) | 1;
+            RoundingMode mode = MODE[i % MODE.length];
+            long hasil = Uang.bagi(pembilang, penyebut, mode);
+            long harapan = new BigDecimal(pembilang).divide(new BigDecimal(penyebut), 0, mode).longValueExact();
+            if (hasil != harapan) {
+                gagal("bagi(" + pembilang + ", " + penyebut + ", " + mode + ") = " + hasil + ", BigDecimal " + harapan);
+            }
+
+            long sen = acak.nextLong() >> acak.nextInt(64);
+            String teks = Uang.format(sen);
+            String teksHarapan = format.format(BigDecimal.valueOf(sen, 2));
+            if (!teks.equals(teksHarapan)) {
+                gagal("format(" + sen + ") = " + teks + ", DecimalFormat " + teksHarapan);
+            }
+        }
+    }
+
+    private static DecimalFormat formatRupiah() {
+        return new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.US));
+    }
+
+    private static void gagal(String pesan) {
+        System.out.println("GAGAL: " + pesan);
+        System.exit(1);
+    }
+
+    private static void cetak(String nama, long[] waktu, int jumlahPesanan) {
+        long[] urut = waktu.clone();
+        Arrays.sort(urut);
+        long median = urut[urut.length / 2];
+        System.out.printf("%-28s median %7.1f ms  %6.0f ns/pesanan%n",
+                nama, median / 1e6, (double) median / jumlahPesanan);
+    }
+}